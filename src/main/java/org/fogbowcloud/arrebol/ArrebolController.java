@@ -2,6 +2,7 @@ package org.fogbowcloud.arrebol;
 
 import com.google.gson.Gson;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -9,28 +10,41 @@ import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.datastore.journal.JournalConfiguration;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
 import org.fogbowcloud.arrebol.datastore.managers.QueueDBManager;
+import org.fogbowcloud.arrebol.datastore.managers.WriteBehindFlusher;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
 import org.fogbowcloud.arrebol.execution.Worker;
 import org.fogbowcloud.arrebol.execution.WorkerTypes;
 import org.fogbowcloud.arrebol.execution.creator.DockerWorkerCreator;
 import org.fogbowcloud.arrebol.execution.creator.RawWorkerCreator;
 import org.fogbowcloud.arrebol.execution.creator.WorkerCreator;
-import org.fogbowcloud.arrebol.models.command.CommandState;
 import org.fogbowcloud.arrebol.models.configuration.Configuration;
 import org.fogbowcloud.arrebol.models.job.Job;
 import org.fogbowcloud.arrebol.models.job.JobState;
 import org.fogbowcloud.arrebol.models.task.TaskState;
 import org.fogbowcloud.arrebol.processor.DefaultJobProcessor;
 import org.fogbowcloud.arrebol.processor.JobProcessor;
+import org.fogbowcloud.arrebol.processor.PriorityTaskQueue;
 import org.fogbowcloud.arrebol.processor.TaskQueue;
 import org.fogbowcloud.arrebol.processor.dto.DefaultJobProcessorDTO;
+import org.fogbowcloud.arrebol.processor.dto.InFlightExecutionDTO;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
 import org.fogbowcloud.arrebol.processor.manager.JobProcessorManager;
+import org.fogbowcloud.arrebol.processor.manager.JobRecovery;
 import org.fogbowcloud.arrebol.processor.spec.JobProcessorSpec;
 import org.fogbowcloud.arrebol.processor.spec.WorkerNode;
 import org.fogbowcloud.arrebol.resource.StaticPool;
 import org.fogbowcloud.arrebol.resource.WorkerPool;
 import org.fogbowcloud.arrebol.scheduler.DefaultScheduler;
+import org.fogbowcloud.arrebol.scheduler.ExpectedRuntimeSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.ExpectedRuntimeSchedulerPolicy.Order;
+import org.fogbowcloud.arrebol.scheduler.FairShareScheduler;
 import org.fogbowcloud.arrebol.scheduler.FifoSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.PrioritySchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.SchedulerConfiguration;
+import org.fogbowcloud.arrebol.scheduler.SchedulerPolicy;
 import org.fogbowcloud.arrebol.utils.ConfValidator;
 import org.springframework.stereotype.Component;
 
@@ -46,6 +60,9 @@ public class ArrebolController {
     private final Logger LOGGER = Logger.getLogger(ArrebolController.class);
     private final JobProcessorManager jobProcessorManager;
     private WorkerCreator workerCreator;
+    private SchedulerConfiguration schedulerConfiguration;
+    //shared by the schedulers of all queues
+    private ExecutionThreadPool executionThreadPool;
     private Integer defaultPoolId;
 
     public ArrebolController() {
@@ -54,29 +71,44 @@ public class ArrebolController {
             Configuration configuration = loadConfigurationFile();
             ConfValidator.validate(configuration);
             buildWorkerCreator(configuration);
+            this.schedulerConfiguration = new SchedulerConfiguration(configuration);
+            openJournal(new JournalConfiguration(configuration));
         } catch (Throwable e) {
             LOGGER.error(e.getMessage(), e);
             System.exit(FAIL_EXIT_CODE);
         }
 
+        this.executionThreadPool = new ExecutionThreadPool("task-execution",
+            this.schedulerConfiguration.getExecutionThreads(),
+            this.schedulerConfiguration.getExecutionQueueCapacity());
         Map<String, JobProcessor> queues = new ConcurrentHashMap<>();
-        this.jobProcessorManager = new JobProcessorManager(queues);
+        if (this.schedulerConfiguration.isFairShare()) {
+            FairShareScheduler sharedScheduler = new FairShareScheduler(createPolicy(),
+                this.schedulerConfiguration.getFairShareWindowMillis(),
+                this.schedulerConfiguration.getSweepMillis(), this.executionThreadPool);
+            this.jobProcessorManager = new JobProcessorManager(queues, sharedScheduler);
+        } else {
+            this.jobProcessorManager = new JobProcessorManager(queues);
+        }
     }
 
     public void start() {
         DefaultJobProcessor jp = QueueDBManager.getInstance().findOne(defaultQueueId);
         if (Objects.isNull(jp)) {
             jp = (DefaultJobProcessor) createDefaultJobProcessor();
+            this.jobProcessorManager.addJobProcessor(jp);
         } else {
-            TaskQueue tq = new TaskQueue(defaultQueueId, defaultQueueName);
-            FifoSchedulerPolicy policy = new FifoSchedulerPolicy();
+            TaskQueue tq = createTaskQueue(defaultQueueId, defaultQueueName);
             WorkerPool pool = createPool(defaultPoolId);
-            DefaultScheduler scheduler = new DefaultScheduler(tq, pool, policy);
-            jp.setDefaultScheduler(scheduler);
+            jp.setDefaultScheduler(createScheduler(tq, pool));
             jp.setTaskQueue(tq);
-            resetJobs(jp);
+            jp.setPool(pool);
+            //the jobs are read a page at a time, and only those with work left are kept
+            jp.setJobs(new JobRecovery().recover(defaultQueueId, tq));
+            this.jobProcessorManager.addRecoveredJobProcessor(jp);
         }
-        this.jobProcessorManager.addJobProcessor(jp);
+        //the recovery may read the containers the tasks left running ran in
+        this.workerCreator.cleanUpLeftovers();
         this.jobProcessorManager.startJobProcessor(defaultQueueId);
 
 
@@ -86,44 +118,57 @@ public class ArrebolController {
         // TODO: read from bd
     }
 
-    private void resetJobs(DefaultJobProcessor jp) {
-        jp.getJobs().entrySet().stream()
-            .filter(x -> hasUnfinishedTask(x.getValue()))
-            .forEach(x -> {
-                // RESET JOB STATE
-                resetJob(x.getValue());
-                // ADD TASKS TO QUEUE
-                x.getValue().getTasks().forEach(t -> jp.getTaskQueue().addTask(t));
-            });
-    }
-
-    private boolean hasUnfinishedTask(Job job) {
-        long unfinished = job.getTasks().stream()
-            .filter(x -> x.getState() != TaskState.FINISHED && x.getState() != TaskState.FAILED)
-            .count();
-        return unfinished > 0;
-    }
-
-    private void resetJob(Job job) {
-        job.getTasks().forEach(t -> t.getTaskSpec().getCommands().forEach(c -> {
-            c.setState(CommandState.UNSTARTED);
-            c.setExitcode(Integer.MAX_VALUE);
-        }));
-        job.getTasks().forEach(t -> t.setState(TaskState.PENDING));
-        job.setJobState(JobState.QUEUED);
+    private void openJournal(JournalConfiguration journalConfiguration) throws IOException {
+        if (journalConfiguration.isEnabled()) {
+            StateJournal.getInstance().open(journalConfiguration.getJournalDirectory(),
+                journalConfiguration.getSnapshotRecords());
+            WriteBehindFlusher.getInstance().configure(JournalConfiguration.JOURNALED_FLUSH_PERIOD_MILLIS);
+        }
     }
 
     private JobProcessor createDefaultJobProcessor() {
-        TaskQueue tq = new TaskQueue(defaultQueueId, defaultQueueName);
+        TaskQueue tq = createTaskQueue(defaultQueueId, defaultQueueName);
 
         WorkerPool pool = createPool(defaultPoolId);
 
         //create the scheduler bind the pieces together
-        FifoSchedulerPolicy policy = new FifoSchedulerPolicy();
-        DefaultScheduler scheduler = new DefaultScheduler(tq, pool, policy);
+        DefaultScheduler scheduler = createScheduler(tq, pool);
         return new DefaultJobProcessor(defaultQueueId, defaultQueueName, tq, scheduler, pool);
     }
-    
+
+    /**
+     * In fair share mode, queues have no scheduler of their own: the JobProcessorManager registers
+     * them with the shared scheduler when they start.
+     */
+    private DefaultScheduler createScheduler(TaskQueue tq, WorkerPool pool) {
+        if (this.schedulerConfiguration.isFairShare()) {
+            return null;
+        }
+        return new DefaultScheduler(tq, pool, createPolicy(),
+            this.schedulerConfiguration.getSweepMillis(), this.executionThreadPool);
+    }
+
+    private SchedulerPolicy createPolicy() {
+        switch (this.schedulerConfiguration.getSchedulerPolicy()) {
+            case SchedulerConfiguration.PRIORITY_POLICY:
+                return new PrioritySchedulerPolicy();
+            case SchedulerConfiguration.SHORTEST_EXPECTED_FIRST_POLICY:
+                return new ExpectedRuntimeSchedulerPolicy(Order.SHORTEST_FIRST);
+            case SchedulerConfiguration.LONGEST_EXPECTED_FIRST_POLICY:
+                return new ExpectedRuntimeSchedulerPolicy(Order.LONGEST_FIRST);
+            default:
+                return new FifoSchedulerPolicy();
+        }
+    }
+
+    private TaskQueue createTaskQueue(String queueId, String queueName) {
+        if (this.schedulerConfiguration.isPriorityPolicy()) {
+            return new PriorityTaskQueue(queueId, queueName,
+                this.schedulerConfiguration.getPriorityAgingPerMinute());
+        }
+        return new TaskQueue(queueId, queueName);
+    }
+
     private Configuration loadConfigurationFile() {
         Configuration configuration = null;
         Reader targetReader;
@@ -177,6 +222,15 @@ public class ArrebolController {
         return this.jobProcessorManager.getJob(queueId, jobId);
     }
 
+    JobCompletionEstimateDTO getJobEstimate(String queueId, String jobId) {
+        return this.jobProcessorManager.getJobEstimate(queueId, jobId);
+    }
+
+    List<InFlightExecutionDTO> getInFlightExecutions() {
+        return this.executionThreadPool.getInFlightExecutions().stream()
+            .map(InFlightExecutionDTO::new).collect(Collectors.toList());
+    }
+
     TaskState getTaskState(String taskId) {
         //FIXME:
         return null;
@@ -202,16 +256,22 @@ public class ArrebolController {
     }
 
     private JobProcessor createQueueFromSpec(JobProcessorSpec jobProcessorSpec) {
+        Double weight = jobProcessorSpec.getWeight();
+        if (Objects.isNull(weight)) {
+            weight = DefaultJobProcessor.DEFAULT_WEIGHT;
+        } else if (weight <= 0) {
+            throw new IllegalArgumentException("Queue weight must be positive: " + weight);
+        }
         String queueId = UUID.randomUUID().toString();
-        TaskQueue tq = new TaskQueue(queueId, jobProcessorSpec.getName());
+        TaskQueue tq = createTaskQueue(queueId, jobProcessorSpec.getName());
 
         defaultPoolId++;
         WorkerPool pool = createPool(defaultPoolId, jobProcessorSpec.getWorkerNodes());
 
         //create the scheduler bind the pieces together
-        FifoSchedulerPolicy policy = new FifoSchedulerPolicy();
-        DefaultScheduler scheduler = new DefaultScheduler(tq, pool, policy);
-        return new DefaultJobProcessor(queueId, jobProcessorSpec.getName(), tq, scheduler, pool);
+        DefaultScheduler scheduler = createScheduler(tq, pool);
+        return new DefaultJobProcessor(queueId, jobProcessorSpec.getName(), tq, scheduler, pool,
+            weight);
     }
 
     private WorkerPool createPool(int poolId, List<WorkerNode> workerNodes) {
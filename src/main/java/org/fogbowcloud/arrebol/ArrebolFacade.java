@@ -3,6 +3,8 @@ package org.fogbowcloud.arrebol;
 import org.fogbowcloud.arrebol.models.job.Job;
 import org.fogbowcloud.arrebol.models.task.TaskState;
 import org.fogbowcloud.arrebol.processor.dto.DefaultJobProcessorDTO;
+import org.fogbowcloud.arrebol.processor.dto.InFlightExecutionDTO;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
 import org.fogbowcloud.arrebol.processor.spec.JobProcessorSpec;
 import org.fogbowcloud.arrebol.processor.spec.WorkerNode;
 
@@ -40,7 +42,7 @@ public class ArrebolFacade {
         arrebolController.addWorkers(queueId, workerNode);
     }
 
-    public synchronized String addJob(String queue, Job job) {
+    public String addJob(String queue, Job job) {
         return arrebolController.addJob(queue, job);
     }
 
@@ -48,6 +50,14 @@ public class ArrebolFacade {
         return arrebolController.getJob(queueId, jobId);
     }
 
+    public JobCompletionEstimateDTO getJobEstimate(String queueId, String jobId) {
+        return arrebolController.getJobEstimate(queueId, jobId);
+    }
+
+    public List<InFlightExecutionDTO> getInFlightExecutions() {
+        return arrebolController.getInFlightExecutions();
+    }
+
     public void stopJob(Job job) {
         arrebolController.stopJob(job);
     }
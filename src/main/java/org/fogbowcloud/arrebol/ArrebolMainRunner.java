@@ -1,14 +1,19 @@
 package org.fogbowcloud.arrebol;
 
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
 import org.fogbowcloud.arrebol.datastore.managers.JobDBManager;
 import org.fogbowcloud.arrebol.datastore.managers.QueueDBManager;
+import org.fogbowcloud.arrebol.datastore.managers.TaskDBManager;
+import org.fogbowcloud.arrebol.datastore.managers.WriteBehindFlusher;
 import org.fogbowcloud.arrebol.datastore.repositories.DefaultQueueRepository;
 import org.fogbowcloud.arrebol.datastore.repositories.JobRepository;
+import org.fogbowcloud.arrebol.datastore.repositories.TaskRepository;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 
 
-public class ArrebolMainRunner implements CommandLineRunner {
+public class ArrebolMainRunner implements CommandLineRunner, DisposableBean {
 
     @Autowired
     private DefaultQueueRepository defaultQueueRepository;
@@ -16,9 +21,23 @@ public class ArrebolMainRunner implements CommandLineRunner {
     @Autowired
     private JobRepository jobRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
     @Override
     public void run(String... strings) throws Exception {
         QueueDBManager.getInstance().setDefaultQueueRepository(defaultQueueRepository);
         JobDBManager.getInstance().setJobRepository(jobRepository);
+        TaskDBManager.getInstance().setTaskRepository(taskRepository);
+    }
+
+    /**
+     * The repositories are destroyed only after this runner, which depends on them, so the changes
+     * not saved yet can still be. The journal is closed last, since the saves shrink it.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        WriteBehindFlusher.getInstance().stop();
+        StateJournal.getInstance().close();
     }
 }
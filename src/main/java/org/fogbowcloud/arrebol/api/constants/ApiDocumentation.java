@@ -4,14 +4,24 @@ public class ApiDocumentation {
 	public static class ApiEndpoints {
 		public static final String VERSION_ENDPOINT = "version";
 		public static final String QUEUES = "queues";
+		public static final String TASKS = "tasks";
+		public static final String EXECUTIONS = "executions";
 
 		private static final String JOB_ENDPOINT = "jobs";
 		private static final String WORKERS_ENDPOINT = "workers";
+		private static final String ESTIMATE_ENDPOINT = "estimate";
+		private static final String COMMANDS_ENDPOINT = "commands";
 
 		public static final String QUEUE = "/{queueId}";
 		public static final String JOB_PATH = QUEUE + "/" + JOB_ENDPOINT;
 		public static final String JOB_BY_ID = JOB_PATH + "/{jobId}";
+		public static final String JOB_ESTIMATE = JOB_BY_ID + "/" + ESTIMATE_ENDPOINT;
 		public static final String ADD_WORKERS = QUEUE + "/" + WORKERS_ENDPOINT;
+		public static final String COMMAND_REPORT = "/{taskId}/" + COMMANDS_ENDPOINT + "/{index}";
+	}
+
+	public static class ApiHeaders {
+		public static final String TASK_TOKEN = "Task-Token";
 	}
 
 	public static class ApiInfo {
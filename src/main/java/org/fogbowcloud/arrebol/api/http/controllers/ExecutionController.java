@@ -0,0 +1,44 @@
+package org.fogbowcloud.arrebol.api.http.controllers;
+
+import java.util.List;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.api.constants.ApiDocumentation.ApiEndpoints;
+import org.fogbowcloud.arrebol.api.constants.Messages;
+import org.fogbowcloud.arrebol.api.http.services.ExecutionService;
+import org.fogbowcloud.arrebol.processor.dto.InFlightExecutionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The tasks handed over to the workers which have not ended yet, in all queues.
+ */
+@RestController
+@RequestMapping(value = ApiEndpoints.EXECUTIONS)
+public class ExecutionController {
+
+    private final Logger LOGGER = Logger.getLogger(ExecutionController.class);
+
+    private final ExecutionService executionService;
+
+    @Autowired
+    public ExecutionController(ExecutionService executionService) {
+        this.executionService = executionService;
+    }
+
+    @RequestMapping(method = RequestMethod.GET)
+    public ResponseEntity<List<InFlightExecutionDTO>> getInFlightExecutions() {
+        LOGGER.info("Getting in-flight executions");
+
+        try {
+            List<InFlightExecutionDTO> executions = executionService.getInFlightExecutions();
+            return new ResponseEntity<>(executions, HttpStatus.OK);
+        } catch (Throwable t) {
+            LOGGER.error(String.format(Messages.Exception.GENERIC_EXCEPTION, t.getMessage()), t);
+            throw t;
+        }
+    }
+}
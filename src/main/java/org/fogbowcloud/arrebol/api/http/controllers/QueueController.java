@@ -11,6 +11,7 @@ import org.fogbowcloud.arrebol.api.http.services.QueueService;
 import org.fogbowcloud.arrebol.models.job.Job;
 import org.fogbowcloud.arrebol.models.job.JobSpec;
 import org.fogbowcloud.arrebol.processor.dto.DefaultJobProcessorDTO;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
 import org.fogbowcloud.arrebol.processor.spec.JobProcessorSpec;
 import org.fogbowcloud.arrebol.processor.spec.WorkerNode;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -67,6 +68,20 @@ public class QueueController {
         }
     }
 
+    @RequestMapping(value = ApiEndpoints.JOB_ESTIMATE, method = RequestMethod.GET)
+    public ResponseEntity<JobCompletionEstimateDTO> getJobEstimate(@PathVariable String queueId,
+        @PathVariable String jobId) {
+        LOGGER.info("Estimating completion of job with id: " + jobId);
+
+        try {
+            JobCompletionEstimateDTO estimate = queueService.getJobEstimate(queueId, jobId);
+            return new ResponseEntity<>(estimate, HttpStatus.OK);
+        } catch (Throwable t) {
+            LOGGER.error(String.format(Messages.Exception.GENERIC_EXCEPTION, t.getMessage()), t);
+            throw t;
+        }
+    }
+
     @RequestMapping(method = RequestMethod.POST)
     public ResponseEntity<Map<String, String>> addQueue(@RequestBody JobProcessorSpec jobProcessorSpec) {
         LOGGER.info("Adding an new queue [" + jobProcessorSpec.getName() + "]");
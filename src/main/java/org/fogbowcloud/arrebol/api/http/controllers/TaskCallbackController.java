@@ -0,0 +1,68 @@
+package org.fogbowcloud.arrebol.api.http.controllers;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.fogbowcloud.arrebol.api.constants.ApiDocumentation.ApiEndpoints;
+import org.fogbowcloud.arrebol.api.constants.ApiDocumentation.ApiHeaders;
+import org.fogbowcloud.arrebol.execution.docker.tasklet.TaskCallbacks;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The endpoint the task script executors post the end of each command to, see
+ * {@link TaskCallbacks}. Reports of tasks no longer tracked, or with a wrong token, get not found.
+ */
+@RestController
+@RequestMapping(value = ApiEndpoints.TASKS)
+public class TaskCallbackController {
+
+    @RequestMapping(value = ApiEndpoints.COMMAND_REPORT, method = RequestMethod.POST)
+    public ResponseEntity<?> reportCommand(@PathVariable String taskId, @PathVariable int index,
+        @RequestHeader(value = ApiHeaders.TASK_TOKEN, required = false) String token,
+        @RequestBody CommandReport report) {
+        if (report.getExitcode() == null) {
+            return new ResponseEntity(HttpStatus.BAD_REQUEST);
+        }
+        boolean accepted = TaskCallbacks.getInstance().report(taskId, token, index,
+            report.getExitcode(), report.getStartedAt(), report.getFinishedAt());
+        return new ResponseEntity(accepted ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+    }
+
+    public static class CommandReport {
+
+        private Integer exitcode;
+        @JsonProperty("started_at")
+        private Long startedAt;
+        @JsonProperty("finished_at")
+        private Long finishedAt;
+
+        public Integer getExitcode() {
+            return exitcode;
+        }
+
+        public void setExitcode(Integer exitcode) {
+            this.exitcode = exitcode;
+        }
+
+        public Long getStartedAt() {
+            return startedAt;
+        }
+
+        public void setStartedAt(Long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public Long getFinishedAt() {
+            return finishedAt;
+        }
+
+        public void setFinishedAt(Long finishedAt) {
+            this.finishedAt = finishedAt;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.fogbowcloud.arrebol.api.http.services;
+
+import java.util.List;
+import org.fogbowcloud.arrebol.ArrebolFacade;
+import org.fogbowcloud.arrebol.processor.dto.InFlightExecutionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ExecutionService {
+
+    @Lazy
+    @Autowired
+    private ArrebolFacade arrebolFacade;
+
+    public List<InFlightExecutionDTO> getInFlightExecutions() {
+        return this.arrebolFacade.getInFlightExecutions();
+    }
+}
@@ -8,6 +8,7 @@ import org.fogbowcloud.arrebol.models.job.JobSpec;
 import org.fogbowcloud.arrebol.models.task.Task;
 import org.fogbowcloud.arrebol.models.task.TaskSpec;
 import org.fogbowcloud.arrebol.processor.dto.DefaultJobProcessorDTO;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
 import org.fogbowcloud.arrebol.processor.spec.JobProcessorSpec;
 import org.fogbowcloud.arrebol.processor.spec.WorkerNode;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,14 +37,18 @@ public class QueueService {
     private Job createJobFromSpec(JobSpec jobSpec) {
 
         Collection<Task> taskList = new LinkedList<>();
+        int jobPriority = Objects.isNull(jobSpec.getPriority()) ? Task.DEFAULT_PRIORITY
+            : jobSpec.getPriority();
 
         for (TaskSpec taskSpec : jobSpec.getTasksSpecs()) {
             validateTaskSpec(taskSpec);
             String taskId = UUID.randomUUID().toString();
-            Task task = new Task(taskId, taskSpec);
+            int priority = Objects.isNull(taskSpec.getPriority()) ? jobPriority
+                : taskSpec.getPriority();
+            Task task = new Task(taskId, taskSpec, priority, jobSpec.getLabel());
             taskList.add(task);
         }
-        Job job = new Job(jobSpec.getLabel(), taskList);
+        Job job = new Job(jobSpec.getLabel(), taskList, jobPriority);
         LOGGER.debug(
                 "Created job object of " + job.getLabel() + " with " + taskList.size() + " tasks.");
         return job;
@@ -64,6 +69,15 @@ public class QueueService {
         return job;
     }
 
+    public JobCompletionEstimateDTO getJobEstimate(String queueId, String jobId) {
+        JobCompletionEstimateDTO estimate = arrebolFacade.getJobEstimate(queueId, jobId);
+        if (estimate == null) {
+            String message = String.format("Job [%s] not found in queue [%s]", jobId, queueId);
+            throw new JobNotFoundException(message);
+        }
+        return estimate;
+    }
+
     public String createQueue(JobProcessorSpec jobProcessorSpec) {
         String queueId = arrebolFacade.createQueue(jobProcessorSpec);
         return queueId;
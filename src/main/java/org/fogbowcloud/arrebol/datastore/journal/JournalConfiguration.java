@@ -0,0 +1,54 @@
+package org.fogbowcloud.arrebol.datastore.journal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import org.fogbowcloud.arrebol.models.configuration.Configuration;
+import org.fogbowcloud.arrebol.models.configuration.Property;
+
+/**
+ * The optional journal properties of the configuration file. Without a journal directory, there
+ * is no journal, and the tasks are saved to the database as often as before.
+ */
+public class JournalConfiguration {
+
+    public static final String JOURNAL_DIRECTORY_KEY = "journalDirectory";
+    public static final String JOURNAL_SNAPSHOT_RECORDS_KEY = "journalSnapshotRecords";
+
+    //with a journal, the database is behind it and need not be written so often
+    public static final long JOURNALED_FLUSH_PERIOD_MILLIS = 1000 * 60;
+    private static final int DEFAULT_SNAPSHOT_RECORDS = 100000;
+
+    private final Path journalDirectory;
+    private final int snapshotRecords;
+
+    public JournalConfiguration(Configuration configuration) {
+        Property<String> journalDirectory = configuration.getProperty(JOURNAL_DIRECTORY_KEY);
+        Property<Double> snapshotRecords = configuration.getProperty(JOURNAL_SNAPSHOT_RECORDS_KEY);
+
+        this.journalDirectory = isSet(journalDirectory) && !journalDirectory.getValue().trim().isEmpty()
+            ? Paths.get(journalDirectory.getValue().trim()) : null;
+        this.snapshotRecords = isSet(snapshotRecords) ? snapshotRecords.getValue().intValue()
+            : DEFAULT_SNAPSHOT_RECORDS;
+        if (this.snapshotRecords <= 0) {
+            throw new IllegalArgumentException("Journal snapshot records configuration property must be "
+                + "positive. Please, verify your configuration file.");
+        }
+    }
+
+    private static boolean isSet(Property<?> property) {
+        return Objects.nonNull(property) && Objects.nonNull(property.getValue());
+    }
+
+    public boolean isEnabled() {
+        return Objects.nonNull(this.journalDirectory);
+    }
+
+    public Path getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public int getSnapshotRecords() {
+        return snapshotRecords;
+    }
+}
@@ -0,0 +1,526 @@
+package org.fogbowcloud.arrebol.datastore.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+
+/**
+ * An append-only file of the state transitions of the tasks and their commands, kept on local
+ * disk so a restart knows the state of the tasks the database had not been told yet. Each record
+ * is a line with the whole new state of a task or command, so replaying a record twice is
+ * harmless. A thread appends the records waiting and syncs the file once for all of them; callers
+ * which need their records on disk wait for that through {@link #sync()}.
+ *
+ * <p>Every snapshotRecords records, the state the records add up to is written as a snapshot,
+ * and the journal starts over. The tasks which are finished or failed and already saved to the
+ * database are left out of the state, so the snapshot holds mostly the tasks still running.
+ *
+ * <p>On open, the snapshot is loaded and the journal replayed on it, up to the first torn or
+ * corrupt record; the journal is cut there.
+ */
+public class StateJournal {
+
+    static final String JOURNAL_FILE = "journal.log";
+    static final String SNAPSHOT_FILE = "snapshot.log";
+    private static final String SNAPSHOT_TMP_FILE = "snapshot.tmp";
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final String TASK_RECORD = "T";
+    private static final String COMMAND_RECORD = "C";
+    private static final String CONTAINER_RECORD = "R";
+    private static final String FORGET_RECORD = "X";
+    private static final String SEPARATOR = "\t";
+    private static final String NULL_VALUE = "-";
+    //never a valid record, it asks the writer to stop
+    private static final String CLOSE = "";
+    private static StateJournal instance;
+    private final Logger LOGGER = Logger.getLogger(StateJournal.class);
+
+    private final BlockingQueue<String> records;
+    //counted before each record is queued, so a caller's records are among the ones counted
+    private final AtomicLong added;
+    private final Object synced;
+    //guarded by synced: the records the writer is done with, and whether it has stopped
+    private long written;
+    private boolean stopped;
+    //guarded by itself
+    private final Map<String, TaskEntry> tasks;
+    private volatile boolean enabled;
+    private Path directory;
+    private int snapshotRecords;
+    private int recordsSinceSnapshot;
+    private FileChannel journal;
+    private Thread writerThread;
+
+    StateJournal() {
+        this.records = new LinkedBlockingQueue<>();
+        this.added = new AtomicLong();
+        this.synced = new Object();
+        this.tasks = new HashMap<>();
+    }
+
+    public synchronized static StateJournal getInstance() {
+        if (instance == null) {
+            instance = new StateJournal();
+        }
+        return instance;
+    }
+
+    /**
+     * It recovers the state kept in the directory and starts appending to its journal.
+     */
+    public synchronized void open(Path directory, int snapshotRecords) throws IOException {
+        if (this.enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.snapshotRecords = snapshotRecords;
+        synchronized (this.tasks) {
+            this.tasks.clear();
+            load(directory.resolve(SNAPSHOT_FILE), false);
+            this.recordsSinceSnapshot = load(directory.resolve(JOURNAL_FILE), true);
+            LOGGER.info("Recovered the state of [" + this.tasks.size() + "] tasks from journal ["
+                + directory + "], replaying [" + this.recordsSinceSnapshot + "] records");
+        }
+        this.journal = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.added.set(0);
+        synchronized (this.synced) {
+            this.written = 0;
+            this.stopped = false;
+        }
+        this.enabled = true;
+        this.writerThread = new Thread(this::run, "state-journal");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * It writes the records waiting and stops; the records made afterwards are dropped.
+     */
+    public void close() throws InterruptedException {
+        Thread writer;
+        synchronized (this) {
+            if (!this.enabled) {
+                return;
+            }
+            this.enabled = false;
+            writer = this.writerThread;
+        }
+        this.records.add(CLOSE);
+        writer.join();
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * It records the state of the task; once the task is finished or failed, the state of its
+     * commands as well.
+     */
+    public void record(Task task) {
+        if (!this.enabled) {
+            return;
+        }
+        enqueue(join(TASK_RECORD, task.getId(), task.getState().name(), task.getStartedAt(),
+            task.getFinishedAt()));
+        if (isFinal(task.getState())) {
+            for (Command command : task.getTaskSpec().getCommands()) {
+                record(task, command);
+            }
+        }
+    }
+
+    public void record(Task task, Command command) {
+        if (!this.enabled) {
+            return;
+        }
+        enqueue(join(COMMAND_RECORD, task.getId(), command.getId(), command.getState().name(),
+            command.getExitcode(), command.getStartedAt(), command.getFinishedAt()));
+    }
+
+    /**
+     * It records the container the task runs in, so a restart can look for the results of the
+     * task there. It is forgotten once the task is not running anymore.
+     */
+    public void recordContainer(Task task, String address, String containerName) {
+        if (!this.enabled) {
+            return;
+        }
+        enqueue(join(CONTAINER_RECORD, task.getId(), address, containerName));
+    }
+
+    /**
+     * It waits until the records made so far, by any caller, are on disk; the records made
+     * meanwhile by other callers share the same sync. It returns at once if the journal is not
+     * open, and once the journal is closed. Records which failed to be written are not waited for
+     * again; the failure is logged.
+     */
+    public void sync() throws InterruptedException {
+        if (!this.enabled) {
+            return;
+        }
+        long target = this.added.get();
+        synchronized (this.synced) {
+            while (this.written < target && !this.stopped) {
+                this.synced.wait();
+            }
+        }
+    }
+
+    /**
+     * The container the task was running in, or null if it is not known.
+     */
+    public Container findContainer(String taskId) {
+        synchronized (this.tasks) {
+            TaskEntry entry = this.tasks.get(taskId);
+            return Objects.isNull(entry) ? null : entry.container;
+        }
+    }
+
+    /**
+     * It drops, from the next snapshots, the tasks given which are finished or failed, since they
+     * are saved to the database.
+     */
+    public void forget(Collection<Task> saved) {
+        if (!this.enabled) {
+            return;
+        }
+        for (Task task : saved) {
+            if (isFinal(task.getState())) {
+                enqueue(join(FORGET_RECORD, task.getId()));
+            }
+        }
+    }
+
+    /**
+     * It sets the task, and its commands, to their last recorded state.
+     *
+     * @return false if the task has no recorded state.
+     */
+    public boolean restore(Task task) {
+        TaskEntry entry;
+        synchronized (this.tasks) {
+            entry = this.tasks.get(task.getId());
+            if (Objects.isNull(entry)) {
+                return false;
+            }
+            entry = entry.copy();
+        }
+        if (Objects.nonNull(entry.state)) {
+            task.setState(entry.state);
+            task.setStartedAt(entry.startedAt);
+            task.setFinishedAt(entry.finishedAt);
+        }
+        for (Command command : task.getTaskSpec().getCommands()) {
+            CommandEntry commandEntry = entry.commands.get(command.getId());
+            if (Objects.nonNull(commandEntry)) {
+                command.setState(commandEntry.state);
+                command.setExitcode(commandEntry.exitcode);
+                command.setStartedAt(commandEntry.startedAt);
+                command.setFinishedAt(commandEntry.finishedAt);
+            }
+        }
+        return true;
+    }
+
+    int countTasks() {
+        synchronized (this.tasks) {
+            return this.tasks.size();
+        }
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>();
+        boolean closing = false;
+        try {
+            while (!closing) {
+                batch.add(this.records.take());
+                this.records.drainTo(batch, MAX_BATCH_SIZE - 1);
+                closing = batch.remove(CLOSE);
+                try {
+                    append(batch);
+                    if (this.recordsSinceSnapshot >= this.snapshotRecords) {
+                        snapshot();
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Error while writing [" + batch.size() + "] records to journal ["
+                        + this.directory + "]: " + e.getMessage());
+                }
+                synchronized (this.synced) {
+                    this.written += batch.size();
+                    this.synced.notifyAll();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("State journal interrupted; [" + batch.size() + "] records not written");
+        } finally {
+            synchronized (this.synced) {
+                this.stopped = true;
+                this.synced.notifyAll();
+            }
+            try {
+                this.journal.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error while closing journal [" + this.directory + "]: " + e.getMessage());
+            }
+        }
+    }
+
+    private void enqueue(String record) {
+        this.added.incrementAndGet();
+        this.records.add(record);
+    }
+
+    private void append(List<String> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String record : batch) {
+            lines.append(record).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            this.journal.write(buffer);
+        }
+        this.journal.force(false);
+        synchronized (this.tasks) {
+            for (String record : batch) {
+                apply(record);
+            }
+        }
+        this.recordsSinceSnapshot += batch.size();
+    }
+
+    /**
+     * The snapshot is written aside and renamed over the previous one, so there is always a whole
+     * snapshot. The rename is synced before the journal is cut, so a crash cannot leave the old
+     * snapshot with an empty journal. If it stops between the rename and the journal being cut,
+     * the journal is replayed on a snapshot which has it already, which is harmless.
+     */
+    private void snapshot() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        int count;
+        synchronized (this.tasks) {
+            count = this.tasks.size();
+            for (Map.Entry<String, TaskEntry> task : this.tasks.entrySet()) {
+                TaskEntry entry = task.getValue();
+                if (Objects.nonNull(entry.state)) {
+                    lines.append(join(TASK_RECORD, task.getKey(), entry.state.name(), entry.startedAt,
+                        entry.finishedAt)).append('\n');
+                }
+                if (Objects.nonNull(entry.container)) {
+                    lines.append(join(CONTAINER_RECORD, task.getKey(), entry.container.address,
+                        entry.container.name)).append('\n');
+                }
+                for (Map.Entry<Long, CommandEntry> command : entry.commands.entrySet()) {
+                    CommandEntry commandEntry = command.getValue();
+                    lines.append(join(COMMAND_RECORD, task.getKey(), command.getKey(),
+                        commandEntry.state.name(), commandEntry.exitcode, commandEntry.startedAt,
+                        commandEntry.finishedAt)).append('\n');
+                }
+            }
+        }
+        Path tmp = this.directory.resolve(SNAPSHOT_TMP_FILE);
+        try (FileChannel snapshot = FileChannel.open(tmp, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                snapshot.write(buffer);
+            }
+            snapshot.force(true);
+        }
+        Files.move(tmp, this.directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel directory = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+        this.journal.truncate(0);
+        this.journal.force(true);
+        LOGGER.debug("Wrote snapshot of [" + count + "] tasks after [" + this.recordsSinceSnapshot
+            + "] records");
+        this.recordsSinceSnapshot = 0;
+    }
+
+    /**
+     * @param cut Whether to cut the file at the first bad record, so the records appended later
+     * are not lost behind it.
+     * @return The number of records applied.
+     */
+    private int load(Path file, boolean cut) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] content = Files.readAllBytes(file);
+        int applied = 0;
+        int start = 0;
+        for (int end = 0; end < content.length; end++) {
+            if (content[end] != '\n') {
+                continue;
+            }
+            String record = new String(content, start, end - start, StandardCharsets.UTF_8);
+            if (!apply(record)) {
+                break;
+            }
+            applied++;
+            start = end + 1;
+        }
+        if (start < content.length) {
+            LOGGER.warn("Ignoring [" + (content.length - start) + "] bytes of torn or corrupt records at the "
+                + "end of [" + file + "]");
+            if (cut) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(start);
+                    channel.force(true);
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * @return false if the record is not valid.
+     */
+    private boolean apply(String record) {
+        int checksumStart = record.lastIndexOf(SEPARATOR);
+        if (checksumStart < 0) {
+            return false;
+        }
+        String body = record.substring(0, checksumStart);
+        if (!checksum(body).equals(record.substring(checksumStart + 1))) {
+            return false;
+        }
+        String[] fields = body.split(SEPARATOR, -1);
+        try {
+            switch (fields[0]) {
+                case TASK_RECORD: {
+                    TaskEntry entry = this.tasks.computeIfAbsent(fields[1], k -> new TaskEntry());
+                    entry.state = TaskState.valueOf(fields[2]);
+                    entry.startedAt = parseLong(fields[3]);
+                    entry.finishedAt = parseLong(fields[4]);
+                    if (!TaskState.RUNNING.equals(entry.state)) {
+                        entry.container = null;
+                    }
+                    return true;
+                }
+                case CONTAINER_RECORD:
+                    this.tasks.computeIfAbsent(fields[1], k -> new TaskEntry()).container =
+                        new Container(fields[2], fields[3]);
+                    return true;
+                case COMMAND_RECORD: {
+                    CommandEntry entry = new CommandEntry();
+                    entry.state = CommandState.valueOf(fields[3]);
+                    entry.exitcode = Objects.isNull(parseLong(fields[4])) ? null
+                        : Integer.valueOf(fields[4]);
+                    entry.startedAt = parseLong(fields[5]);
+                    entry.finishedAt = parseLong(fields[6]);
+                    this.tasks.computeIfAbsent(fields[1], k -> new TaskEntry()).commands
+                        .put(Long.valueOf(fields[2]), entry);
+                    return true;
+                }
+                case FORGET_RECORD:
+                    this.tasks.remove(fields[1]);
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isFinal(TaskState state) {
+        return TaskState.FINISHED.equals(state) || TaskState.FAILED.equals(state);
+    }
+
+    private static String join(Object... fields) {
+        StringBuilder body = new StringBuilder();
+        for (Object field : fields) {
+            if (body.length() > 0) {
+                body.append(SEPARATOR);
+            }
+            body.append(Objects.isNull(field) ? NULL_VALUE : field);
+        }
+        String checksum = checksum(body.toString());
+        return body.append(SEPARATOR).append(checksum).toString();
+    }
+
+    private static String checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static Long parseLong(String field) {
+        return NULL_VALUE.equals(field) ? null : Long.valueOf(field);
+    }
+
+    private static class TaskEntry {
+
+        private TaskState state;
+        private Long startedAt;
+        private Long finishedAt;
+        private Container container;
+        private final Map<Long, CommandEntry> commands = new HashMap<>();
+
+        private TaskEntry copy() {
+            TaskEntry copy = new TaskEntry();
+            copy.state = this.state;
+            copy.startedAt = this.startedAt;
+            copy.finishedAt = this.finishedAt;
+            copy.container = this.container;
+            copy.commands.putAll(this.commands);
+            return copy;
+        }
+    }
+
+    public static class Container {
+
+        private final String address;
+        private final String name;
+
+        private Container(String address, String name) {
+            this.address = address;
+            this.name = name;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class CommandEntry {
+
+        private CommandState state;
+        private Integer exitcode;
+        private Long startedAt;
+        private Long finishedAt;
+    }
+}
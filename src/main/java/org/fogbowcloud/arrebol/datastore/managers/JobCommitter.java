@@ -0,0 +1,127 @@
+package org.fogbowcloud.arrebol.datastore.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.models.job.Job;
+
+/**
+ * It stores the submitted jobs, grouping the submissions made at about the same time in a single
+ * transaction: a thread takes the first submission waiting, along with those which arrive within
+ * MAX_WAIT_MILLIS of it, up to MAX_BATCH_SIZE jobs, and inserts them all at once. Each submitter
+ * waits until the transaction with its job commits, or fails along with the others of the group.
+ */
+public class JobCommitter {
+
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long MAX_WAIT_MILLIS = 2;
+    private static JobCommitter instance;
+    private final Logger LOGGER = Logger.getLogger(JobCommitter.class);
+
+    private final Writer writer;
+    private final BlockingQueue<Submission> submissions;
+    private Thread committerThread;
+
+    JobCommitter(Writer writer) {
+        this.writer = writer;
+        this.submissions = new LinkedBlockingQueue<>();
+    }
+
+    public synchronized static JobCommitter getInstance() {
+        if (instance == null) {
+            instance = new JobCommitter(new Writer() {
+            });
+        }
+        return instance;
+    }
+
+    /**
+     * It returns once the job is stored.
+     *
+     * @throws IllegalStateException If the job could not be stored.
+     */
+    public void commit(Job job) {
+        Submission submission = new Submission(job);
+        startCommitter();
+        this.submissions.add(submission);
+        try {
+            submission.committed.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error while saving job [" + job.getId() + "]: "
+                + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving job [" + job.getId() + "]", e);
+        }
+    }
+
+    private synchronized void startCommitter() {
+        if (this.committerThread == null) {
+            this.committerThread = new Thread(this::run, "job-committer");
+            this.committerThread.setDaemon(true);
+            this.committerThread.start();
+        }
+    }
+
+    private void run() {
+        List<Submission> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(this.submissions.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MILLIS);
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    //once the deadline is past, it still takes the submissions already waiting
+                    Submission next = this.submissions.poll(deadline - System.nanoTime(),
+                        TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                LOGGER.warn("Job committer interrupted; [" + batch.size() + "] jobs not saved");
+                batch.forEach(s -> s.committed.completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Submission> batch) {
+        List<Job> jobs = new ArrayList<>(batch.size());
+        batch.forEach(s -> jobs.add(s.job));
+        try {
+            this.writer.insert(jobs);
+            LOGGER.debug("Saved [" + jobs.size() + "] jobs");
+            batch.forEach(s -> s.committed.complete(null));
+        } catch (Throwable t) {
+            LOGGER.error("Error while saving [" + jobs.size() + "] jobs: " + t.getMessage());
+            batch.forEach(s -> s.committed.completeExceptionally(t));
+        }
+    }
+
+    interface Writer {
+
+        default void insert(List<Job> jobs) {
+            JobDBManager.getInstance().insertAll(jobs);
+        }
+    }
+
+    private static class Submission {
+
+        private final Job job;
+        private final CompletableFuture<Void> committed;
+
+        private Submission(Job job) {
+            this.job = job;
+            this.committed = new CompletableFuture<>();
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package org.fogbowcloud.arrebol.datastore.managers;
 
+import org.apache.log4j.Logger;
 import org.fogbowcloud.arrebol.datastore.repositories.JobRepository;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.job.JobState;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 public class JobDBManager {
+
+    private final Logger LOGGER = Logger.getLogger(JobDBManager.class);
     private static JobDBManager instance;
 
     private JobRepository jobRepository;
@@ -21,10 +30,45 @@ public class JobDBManager {
         this.jobRepository.save(job);
     }
 
+    public void insertAll(Collection<Job> jobs) {
+        this.jobRepository.insert(jobs);
+    }
+
+    public void updateJobState(JobState jobState, Collection<String> jobIds) {
+        this.jobRepository.updateJobState(jobState, jobIds);
+    }
+
     public Job findOne(String id) {
         return this.jobRepository.findOne(id);
     }
 
+    /**
+     * It returns null if the queue has no such job. The tasks of the job are read along with it;
+     * their commands only when first used, the commands of many tasks at once.
+     */
+    public Job findOne(String queueId, String jobId) {
+        String s = String.format("Searching job %s in queue %s", jobId, queueId);
+        LOGGER.debug(s);
+        return this.jobRepository.findByIdAndQueueId(jobId, queueId);
+    }
+
+    public boolean containsJob(String queueId, String jobId) {
+        return this.jobRepository.countByIdAndQueueId(jobId, queueId) > 0;
+    }
+
+    public long countUnfinished(String queueId) {
+        return this.jobRepository.countByQueueIdAndJobStateNotIn(queueId,
+            Arrays.asList(JobState.FINISHED, JobState.FAILED));
+    }
+
+    /**
+     * The jobs of the queue, a page at a time, in the order of their ids.
+     */
+    public List<Job> findPage(String queueId, int page, int pageSize) {
+        return this.jobRepository.findByQueueId(queueId,
+            new PageRequest(page, pageSize, Sort.Direction.ASC, "id")).getContent();
+    }
+
     public void setJobRepository(JobRepository jobRepository) {
         this.jobRepository = jobRepository;
     }
@@ -2,7 +2,6 @@ package org.fogbowcloud.arrebol.datastore.managers;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.arrebol.datastore.repositories.DefaultQueueRepository;
-import org.fogbowcloud.arrebol.models.job.Job;
 import org.fogbowcloud.arrebol.processor.DefaultJobProcessor;
 
 public class QueueDBManager {
@@ -32,16 +31,6 @@ public class QueueDBManager {
         return this.defaultQueueRepository.findOne(queueId);
     }
 
-    public Job findOneJob(String queueId, String jobId) {
-        String s = String.format("Searching job %s in queue %s", queueId, jobId);
-        LOGGER.debug(s);
-        return this.defaultQueueRepository.findOne(queueId).getJob(jobId);
-    }
-
-    public boolean containsJob(String queueId, String jobId){
-        return this.defaultQueueRepository.findOne(queueId).containsJob(jobId);
-    }
-
     public void setDefaultQueueRepository(DefaultQueueRepository defaultQueueRepository) {
         this.defaultQueueRepository = defaultQueueRepository;
     }
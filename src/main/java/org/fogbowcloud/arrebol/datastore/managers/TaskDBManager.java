@@ -0,0 +1,31 @@
+package org.fogbowcloud.arrebol.datastore.managers;
+
+import java.util.Collection;
+import org.fogbowcloud.arrebol.datastore.repositories.TaskRepository;
+import org.fogbowcloud.arrebol.models.task.Task;
+
+public class TaskDBManager {
+    private static TaskDBManager instance;
+
+    private TaskRepository taskRepository;
+
+    private TaskDBManager() { }
+
+    public synchronized static TaskDBManager getInstance() {
+        if (instance == null) {
+            instance = new TaskDBManager();
+        }
+        return instance;
+    }
+
+    /**
+     * It saves the tasks, along with their specs and commands, in a single transaction.
+     */
+    public void saveAll(Collection<Task> tasks) {
+        this.taskRepository.save(tasks);
+    }
+
+    public void setTaskRepository(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+}
@@ -0,0 +1,213 @@
+package org.fogbowcloud.arrebol.datastore.managers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.job.JobState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.DefaultJobProcessor;
+
+/**
+ * It keeps the tasks, jobs and queues whose state changed since they were last saved, and saves
+ * just those, every flush period and once more when it stops. A task is saved along with
+ * its spec and commands, BATCH_SIZE tasks a transaction; a job just has its state updated, with a
+ * statement for all the jobs in the same state; a queue is saved whole, since it changes seldom.
+ * Whatever fails to be saved is kept to be saved in the next flush, unless it changed again
+ * meanwhile. A saved task is dropped from the {@link StateJournal} only if it was saved in a final
+ * state and was not changed again while it was being saved. Before it starts, nothing is kept.
+ */
+public class WriteBehindFlusher {
+
+    private static final long DEFAULT_FLUSH_PERIOD_MILLIS = 1000 * 2;
+    private static final int BATCH_SIZE = 200;
+    private static WriteBehindFlusher instance;
+    private final Logger LOGGER = Logger.getLogger(WriteBehindFlusher.class);
+
+    private final Writer writer;
+    private final Map<String, Task> dirtyTasks;
+    private final Map<String, Job> dirtyJobs;
+    private final Map<String, DefaultJobProcessor> dirtyQueues;
+    private volatile boolean started;
+    private long flushPeriodMillis;
+    private Timer timer;
+
+    WriteBehindFlusher(Writer writer) {
+        this.writer = writer;
+        this.dirtyTasks = new ConcurrentHashMap<>();
+        this.dirtyJobs = new ConcurrentHashMap<>();
+        this.dirtyQueues = new ConcurrentHashMap<>();
+        this.flushPeriodMillis = DEFAULT_FLUSH_PERIOD_MILLIS;
+    }
+
+    public synchronized static WriteBehindFlusher getInstance() {
+        if (instance == null) {
+            instance = new WriteBehindFlusher(new Writer() {
+            });
+        }
+        return instance;
+    }
+
+    /**
+     * It takes effect on the next start.
+     */
+    public synchronized void configure(long flushPeriodMillis) {
+        this.flushPeriodMillis = flushPeriodMillis;
+    }
+
+    public synchronized void start() {
+        if (this.started) {
+            return;
+        }
+        this.started = true;
+        this.timer = new Timer("write-behind-flusher", true);
+        this.timer.schedule(new TimerTask() {
+            public void run() {
+                flush();
+            }
+        }, this.flushPeriodMillis, this.flushPeriodMillis);
+    }
+
+    /**
+     * It flushes what is left, after which nothing is kept until it starts again.
+     */
+    public synchronized void stop() {
+        if (!this.started) {
+            return;
+        }
+        this.timer.cancel();
+        flush();
+        this.started = false;
+    }
+
+    public void markDirty(Task task) {
+        if (this.started) {
+            this.dirtyTasks.put(task.getId(), task);
+        }
+    }
+
+    public void markDirty(Job job) {
+        if (this.started) {
+            this.dirtyJobs.put(job.getId(), job);
+        }
+    }
+
+    public void markDirty(DefaultJobProcessor queue) {
+        if (this.started) {
+            this.dirtyQueues.put(queue.getId(), queue);
+        }
+    }
+
+    /**
+     * The tasks go before the jobs, so a job is not seen finished before its tasks are.
+     */
+    public synchronized void flush() {
+        for (DefaultJobProcessor queue : drain(this.dirtyQueues)) {
+            try {
+                this.writer.saveQueue(queue);
+            } catch (Throwable t) {
+                LOGGER.error("Error while saving queue [" + queue.getId() + "]: " + t.getMessage());
+                this.dirtyQueues.putIfAbsent(queue.getId(), queue);
+            }
+        }
+
+        List<Task> tasks = drain(this.dirtyTasks);
+        //the states as drained: a task may change while its batch is being saved
+        Map<Task, TaskState> drainedStates = new IdentityHashMap<>();
+        tasks.forEach(task -> drainedStates.put(task, task.getState()));
+        for (int from = 0; from < tasks.size(); from += BATCH_SIZE) {
+            List<Task> batch = tasks.subList(from, Math.min(tasks.size(), from + BATCH_SIZE));
+            try {
+                this.writer.saveTasks(batch);
+                List<Task> done = new ArrayList<>();
+                for (Task task : batch) {
+                    if (isFinal(drainedStates.get(task))
+                        && !this.dirtyTasks.containsKey(task.getId())) {
+                        done.add(task);
+                    }
+                }
+                this.writer.forget(done);
+            } catch (Throwable t) {
+                LOGGER.error("Error while saving [" + batch.size() + "] tasks: " + t.getMessage());
+                for (Task task : batch) {
+                    this.dirtyTasks.putIfAbsent(task.getId(), task);
+                }
+            }
+        }
+
+        List<Job> jobs = drain(this.dirtyJobs);
+        Map<JobState, List<Job>> jobsByState = new EnumMap<>(JobState.class);
+        for (Job job : jobs) {
+            jobsByState.computeIfAbsent(job.getJobState(), k -> new ArrayList<>()).add(job);
+        }
+        for (Map.Entry<JobState, List<Job>> entry : jobsByState.entrySet()) {
+            List<String> ids = new ArrayList<>();
+            entry.getValue().forEach(job -> ids.add(job.getId()));
+            try {
+                this.writer.updateJobState(entry.getKey(), ids);
+            } catch (Throwable t) {
+                LOGGER.error("Error while updating [" + ids.size() + "] jobs to state [" + entry.getKey()
+                    + "]: " + t.getMessage());
+                for (Job job : entry.getValue()) {
+                    this.dirtyJobs.putIfAbsent(job.getId(), job);
+                }
+            }
+        }
+        if (!tasks.isEmpty() || !jobs.isEmpty()) {
+            LOGGER.debug("Flushed [" + tasks.size() + "] tasks and the states of [" + jobs.size() + "] jobs");
+        }
+    }
+
+    private static boolean isFinal(TaskState state) {
+        return TaskState.FINISHED.equals(state) || TaskState.FAILED.equals(state);
+    }
+
+    /**
+     * Each one is taken out on its own, so a change made meanwhile is kept for the next flush.
+     */
+    private <T> List<T> drain(Map<String, T> dirty) {
+        List<T> drained = new ArrayList<>();
+        for (String key : dirty.keySet()) {
+            T value = dirty.remove(key);
+            if (value != null) {
+                drained.add(value);
+            }
+        }
+        return drained;
+    }
+
+    int countDirty() {
+        return this.dirtyTasks.size() + this.dirtyJobs.size() + this.dirtyQueues.size();
+    }
+
+    interface Writer {
+
+        default void saveQueue(DefaultJobProcessor queue) {
+            QueueDBManager.getInstance().save(queue);
+        }
+
+        default void saveTasks(Collection<Task> tasks) {
+            TaskDBManager.getInstance().saveAll(tasks);
+        }
+
+        default void updateJobState(JobState jobState, Collection<String> jobIds) {
+            JobDBManager.getInstance().updateJobState(jobState, jobIds);
+        }
+
+        /**
+         * The tasks given are saved in a final state, so the journal no longer needs them.
+         */
+        default void forget(Collection<Task> saved) {
+            StateJournal.getInstance().forget(saved);
+        }
+    }
+}
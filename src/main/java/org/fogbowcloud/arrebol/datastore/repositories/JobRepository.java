@@ -1,14 +1,36 @@
 package org.fogbowcloud.arrebol.datastore.repositories;
 
+import java.util.Collection;
 import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.job.JobState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.transaction.Transactional;
 
 @Repository
-public interface JobRepository extends JpaRepository<Job, String> {
+public interface JobRepository extends JpaRepository<Job, String>, JobRepositoryCustom {
 
     @Transactional
     String deleteById(String id);
+
+    //the queries below read the job rows alone, never the queue they belong to
+
+    Job findByIdAndQueueId(String id, String queueId);
+
+    long countByIdAndQueueId(String id, String queueId);
+
+    long countByQueueIdAndJobStateNotIn(String queueId, Collection<JobState> jobStates);
+
+    Slice<Job> findByQueueId(String queueId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.jobState = :jobState where j.id in :ids")
+    int updateJobState(@Param("jobState") JobState jobState, @Param("ids") Collection<String> ids);
 }
@@ -0,0 +1,13 @@
+package org.fogbowcloud.arrebol.datastore.repositories;
+
+import java.util.Collection;
+import org.fogbowcloud.arrebol.models.job.Job;
+
+public interface JobRepositoryCustom {
+
+    /**
+     * It inserts the new jobs, along with their tasks, in one transaction. Unlike save, it does not
+     * look each job up first, since their ids are assigned before they are stored.
+     */
+    void insert(Collection<Job> jobs);
+}
@@ -0,0 +1,29 @@
+package org.fogbowcloud.arrebol.datastore.repositories;
+
+import java.util.Collection;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import org.fogbowcloud.arrebol.models.job.Job;
+
+public class JobRepositoryImpl implements JobRepositoryCustom {
+
+    //the jobs are flushed from time to time, so the persistence context does not grow unbounded
+    private static final int FLUSH_EVERY = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insert(Collection<Job> jobs) {
+        int persisted = 0;
+        for (Job job : jobs) {
+            this.entityManager.persist(job);
+            if (++persisted % FLUSH_EVERY == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.fogbowcloud.arrebol.datastore.repositories;
+
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskRepository extends JpaRepository<Task, String> {
+
+}
@@ -0,0 +1,21 @@
+package org.fogbowcloud.arrebol.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.fogbowcloud.arrebol.models.task.Task;
+
+/**
+ * A {@link TaskExecutor} which does not need a thread of its own while a task runs. The task is
+ * started and this method returns at once; the future completes with the same result {@link
+ * TaskExecutor#execute(Task)} would return. Synchronous executors can be adapted through {@link
+ * SynchronousExecutorBridge}.
+ */
+public interface AsyncTaskExecutor {
+
+    /**
+     * @param blockingExecutor Where blocking steps, e.g. requests to a remote worker, are run.
+     * Waiting between those steps must not hold any of its threads.
+     */
+    CompletableFuture<TaskExecutionResult> executeAsync(Task task, TaskProgressListener listener,
+        Executor blockingExecutor);
+}
@@ -1,66 +1,174 @@
 package org.fogbowcloud.arrebol.execution;
 
-import java.util.UUID;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
+import org.fogbowcloud.arrebol.datastore.managers.WriteBehindFlusher;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
 import org.fogbowcloud.arrebol.models.task.Task;
 import org.fogbowcloud.arrebol.models.task.TaskState;
 import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.fogbowcloud.arrebol.scheduler.RuntimeHistory;
+import org.fogbowcloud.arrebol.scheduler.SchedulingListener;
 
 public class ExecutionBroker {
 
     private final Logger logger = Logger.getLogger(ExecutionBroker.class);
 
-    //Now, this broker is vey simple, e.g we do not keep state. In the future we may want to monitor execution
+    public static final int DEFAULT_THREADS = 256;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
 
+    private final SchedulingListener listener;
+    private final ExecutionThreadPool threadPool;
+
+    /**
+     * @param listener It is notified whenever a worker is released, so the scheduler can reuse it
+     * without waiting for its next periodic round.
+     * @param threadPool It may be shared by several brokers, which then track their executions
+     * together.
+     */
+    public ExecutionBroker(SchedulingListener listener, ExecutionThreadPool threadPool) {
+        if (threadPool == null) {
+            throw new IllegalArgumentException("Execution thread pool must not be null");
+        }
+        this.listener = listener;
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * It reserves a place for one more execution. It returns false if the thread pool is full; the
+     * caller should then leave the task and the worker as they are and try again later.
+     */
+    public boolean tryReserve() {
+        if (this.threadPool.tryReserve()) {
+            return true;
+        }
+        logger.warn("Execution thread pool is full: " + this.threadPool);
+        return false;
+    }
+
+    /**
+     * It runs the task on the worker, taking up a place reserved by {@link #tryReserve()}. It
+     * returns at once: workers which are {@link AsyncTaskExecutor}s hold no thread while their tasks
+     * run, and the others hold one of the thread pool.
+     */
     public void execute(final Task task, final Worker worker) {
 
         logger.info("task={" + task + "} worker={" + worker + "}");
 
-        //spawn a new thread to exec the task.
-        String workerThreadId = "worker-tid-" + UUID.randomUUID().toString();
+        final InFlightExecution execution = new InFlightExecution(task, worker,
+            System.currentTimeMillis());
+        this.threadPool.register(execution);
+
+        TaskProgressListener progressListener = new TaskProgressListener() {
 
-        new Thread(new Runnable() {
+            @Override
+            public void onStarted(Task task) {
+                execution.start(System.currentTimeMillis());
+            }
 
             @Override
-            public void run() {
-
-                TaskExecutionResult result = null;
-                try {
-
-                    result = worker.execute(task);
-
-                    switch (result.getResult()) {
-                        case FAILURE: {
-                            onFailure();
-                            break;
-                        }
-                        case SUCCESS: {
-                            onFinish();
-                            break;
-                        }
-                        default: {
-                            logger.error("inconsistent results for task={" + task + "} worker={" + worker + "}");
-                            //TODO: I guess the task should be rolled be to its previous (before run) state
-                        }
+            public void onCommandStateChanged(Task task, Command command) {
+                logger.debug("task={" + task.getId() + "} command={" + command + "}");
+                StateJournal.getInstance().record(task, command);
+                WriteBehindFlusher.getInstance().markDirty(task);
+            }
+        };
+
+        CompletableFuture<TaskExecutionResult> future;
+        try {
+            future = SynchronousExecutorBridge.asAsync(worker)
+                .executeAsync(task, progressListener, this.threadPool);
+        } catch (Throwable t) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(t);
+        }
+        future.whenComplete((result, error) -> {
+            //the place is released before the listener is notified, so the next round can use it
+            this.threadPool.unregister(execution);
+            this.threadPool.release();
+            if (error != null) {
+                logger.error("task={" + task + "} worker={" + worker + "}", error);
+                onError(task, worker);
+                return;
+            }
+            try {
+                switch (result.getResult()) {
+                    case FAILURE: {
+                        onFailure(task, worker);
+                        break;
+                    }
+                    case SUCCESS: {
+                        onFinish(task, worker);
+                        break;
+                    }
+                    default: {
+                        logger.error("inconsistent results for task={" + task + "} worker={" + worker + "}");
+                        onError(task, worker);
                     }
-                } catch (Throwable t) {
-                    logger.error("task={" + task + "} worker={" + worker + "}", t);
                 }
+            } catch (Throwable t) {
+                logger.error("task={" + task + "} worker={" + worker + "}", t);
             }
+        });
+    }
 
-            private void onFinish() {
-                logger
-                    .info("task={" + task + "} worker={" + worker + "} has finished successfully");
-                task.setState(TaskState.FINISHED);
-                worker.setState(ResourceState.IDLE);
-            }
+    private void onFinish(Task task, Worker worker) {
+        logger.info("task={" + task + "} worker={" + worker + "} has finished successfully");
+        task.setState(TaskState.FINISHED);
+        StateJournal.getInstance().record(task);
+        WriteBehindFlusher.getInstance().markDirty(task);
+        RuntimeHistory.getInstance().record(task);
+        awaitJournal(task);
+        worker.setState(ResourceState.IDLE);
+        this.listener.notifyAvailableWorker();
+    }
+
+    private void onFailure(Task task, Worker worker) {
+        logger.info("task={" + task + "} worker={" + worker + "} has failed");
+        task.setState(TaskState.FAILED);
+        StateJournal.getInstance().record(task);
+        WriteBehindFlusher.getInstance().markDirty(task);
+        awaitJournal(task);
+        worker.setState(ResourceState.IDLE);
+        this.listener.notifyAvailableWorker();
+    }
 
-            private void onFailure() {
-                logger.info("task={" + task + "} worker={" + worker + "} has failed");
-                task.setState(TaskState.FAILED);
-                worker.setState(ResourceState.IDLE);
+    /**
+     * The database is written behind, so the end of the task is on disk only once the journal
+     * syncs; the worker, and whatever the task left on it, is not reused before that.
+     */
+    private void awaitJournal(Task task) {
+        try {
+            StateJournal.getInstance().sync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("task={" + task.getId() + "} released before its end was journaled");
+        }
+    }
+
+    /**
+     * The execution ended without a result, so its outcome is unknown: the commands which had not
+     * finished are failed, and so is the task.
+     */
+    private void onError(Task task, Worker worker) {
+        List<Command> commands = task.getTaskSpec().getCommands();
+        synchronized (commands) {
+            for (Command command : commands) {
+                if (!CommandState.FINISHED.equals(command.getState())
+                    && !CommandState.FAILED.equals(command.getState())) {
+                    command.setState(CommandState.FAILED);
+                    command.setExitcode(TaskExecutionResult.UNDETERMINED_RESULT);
+                    StateJournal.getInstance().record(task, command);
+                }
             }
-        },
-            workerThreadId).start();
+        }
+        onFailure(task, worker);
+    }
+
+    public ExecutionThreadPool getThreadPool() {
+        return threadPool;
     }
 }
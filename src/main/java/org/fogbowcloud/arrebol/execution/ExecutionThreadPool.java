@@ -0,0 +1,112 @@
+package org.fogbowcloud.arrebol.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The threads that run tasks on workers. Callers reserve a place through {@link #tryReserve()}
+ * before handing a task over, so a full pool is found out before anything is changed; each
+ * reservation is given back through {@link #release()} when its task ends. There are as many
+ * places as threads plus queue capacity: a synchronous task holds a thread while it runs, or waits
+ * for one, whereas an asynchronous task only borrows threads for its blocking steps. Idle threads
+ * end after a while, so an idle service keeps no threads. The pool also tracks the executions handed
+ * over to it, see {@link #getInFlightExecutions()}.
+ */
+public class ExecutionThreadPool extends ThreadPoolExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String name;
+    private final int capacity;
+    private final Semaphore places;
+    private final AtomicLong rejected;
+    //the executions which have not ended yet, by task id
+    private final Map<String, InFlightExecution> inFlight;
+
+    /**
+     * @param name The prefix of the thread names.
+     * @param queueCapacity How many tasks may wait for a thread. It may be zero.
+     */
+    public ExecutionThreadPool(String name, int threads, int queueCapacity) {
+        super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Queue capacity must not be negative: " + queueCapacity);
+        }
+        this.name = name;
+        this.capacity = threads + queueCapacity;
+        this.places = new Semaphore(this.capacity);
+        this.rejected = new AtomicLong();
+        this.inFlight = new ConcurrentHashMap<>();
+        allowCoreThreadTimeOut(true);
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        setThreadFactory(runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * It returns false, and counts a rejection, if the running and waiting tasks already fill the
+     * pool.
+     */
+    public boolean tryReserve() {
+        if (this.places.tryAcquire()) {
+            return true;
+        }
+        this.rejected.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        this.places.release();
+    }
+
+    /**
+     * The number of reservations not released yet, i.e. the tasks running or waiting for a thread.
+     */
+    public int getReservedCount() {
+        return this.capacity - this.places.availablePermits();
+    }
+
+    void register(InFlightExecution execution) {
+        this.inFlight.put(execution.getTask().getId(), execution);
+    }
+
+    void unregister(InFlightExecution execution) {
+        this.inFlight.remove(execution.getTask().getId(), execution);
+    }
+
+    /**
+     * It returns a snapshot of the executions handed over to the brokers sharing this pool which
+     * have not ended yet.
+     */
+    public Collection<InFlightExecution> getInFlightExecutions() {
+        return new ArrayList<>(this.inFlight.values());
+    }
+
+    public int getQueuedCount() {
+        return getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return this.rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return "name={" + this.name + "} threads={" + getPoolSize() + "/" + getMaximumPoolSize()
+            + "} active={" + getActiveCount() + "} queued={" + getQueuedCount() + "} reserved={"
+            + getReservedCount() + "/" + this.capacity + "} completed={" + getCompletedTaskCount()
+            + "} rejected={" + getRejectedCount() + "}";
+    }
+}
@@ -0,0 +1,54 @@
+package org.fogbowcloud.arrebol.execution;
+
+import org.fogbowcloud.arrebol.models.task.Task;
+
+/**
+ * A task handed to an {@link ExecutionBroker} that has not ended yet. It may still be waiting for
+ * a thread, in which case it has not started.
+ */
+public class InFlightExecution {
+
+    private final Task task;
+    private final Worker worker;
+    private final long submittedAt;
+    private volatile long startedAt;
+
+    InFlightExecution(Task task, Worker worker, long submittedAt) {
+        this.task = task;
+        this.worker = worker;
+        this.submittedAt = submittedAt;
+    }
+
+    void start(long now) {
+        this.startedAt = now;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public Worker getWorker() {
+        return worker;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public boolean isStarted() {
+        return this.startedAt > 0;
+    }
+
+    /**
+     * It returns zero while the execution waits for a thread.
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "task={" + task.getId() + "} worker={" + worker.getId() + "} submittedAt={"
+            + submittedAt + "} startedAt={" + startedAt + "}";
+    }
+}
@@ -0,0 +1,49 @@
+package org.fogbowcloud.arrebol.execution;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Logger;
+
+/**
+ * The few threads which wake up the {@link AsyncTaskExecutor}s when it is time to check on their
+ * tasks again. Checks are expected to be quick; blocking ones should be handed over to another
+ * executor.
+ */
+public class PollingScheduler {
+
+    private static final int THREADS = 2;
+
+    private final Logger LOGGER = Logger.getLogger(PollingScheduler.class);
+
+    private static PollingScheduler instance;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private PollingScheduler() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "task-polling-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public synchronized static PollingScheduler getInstance() {
+        if (instance == null) {
+            instance = new PollingScheduler();
+        }
+        return instance;
+    }
+
+    public void schedule(Runnable check, long delayMillis) {
+        this.executor.schedule(() -> {
+            try {
+                check.run();
+            } catch (Throwable t) {
+                LOGGER.error("Error while polling", t);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,54 @@
+package org.fogbowcloud.arrebol.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+
+/**
+ * It runs a synchronous {@link TaskExecutor} as an {@link AsyncTaskExecutor}: the task holds one of
+ * the blocking executor threads until it ends. Command progress is only known at the end, so the
+ * listener is told about all the commands at once.
+ */
+public class SynchronousExecutorBridge implements AsyncTaskExecutor {
+
+    private final TaskExecutor executor;
+
+    public SynchronousExecutorBridge(TaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * It returns the executor itself if it is already asynchronous.
+     */
+    public static AsyncTaskExecutor asAsync(TaskExecutor executor) {
+        if (executor instanceof AsyncTaskExecutor) {
+            return (AsyncTaskExecutor) executor;
+        }
+        return new SynchronousExecutorBridge(executor);
+    }
+
+    @Override
+    public CompletableFuture<TaskExecutionResult> executeAsync(Task task,
+        TaskProgressListener listener, Executor blockingExecutor) {
+        CompletableFuture<TaskExecutionResult> future = new CompletableFuture<>();
+        blockingExecutor.execute(() -> {
+            Thread thread = Thread.currentThread();
+            String threadName = thread.getName();
+            thread.setName(threadName + "-task-" + task.getId());
+            try {
+                listener.onStarted(task);
+                TaskExecutionResult result = this.executor.execute(task);
+                for (Command command : task.getTaskSpec().getCommands()) {
+                    listener.onCommandStateChanged(task, command);
+                }
+                future.complete(result);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                thread.setName(threadName);
+            }
+        });
+        return future;
+    }
+}
@@ -6,8 +6,7 @@ import org.fogbowcloud.arrebol.models.task.Task;
 public interface TaskExecutor {
 
     //see, now, the result is immutable and delivered after the
-    //execution was finished. Then, as a result, we cannot track intermediate progress
-    //we can improve this design later
+    //execution was finished. To track intermediate progress, see AsyncTaskExecutor
     TaskExecutionResult execute(Task task);
     Map<String, String> getMetadata();
 }
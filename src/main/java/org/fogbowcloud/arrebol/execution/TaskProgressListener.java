@@ -0,0 +1,26 @@
+package org.fogbowcloud.arrebol.execution;
+
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+
+/**
+ * It is told how a task handed to an {@link AsyncTaskExecutor} progresses. It is called from the
+ * executor threads, so it must return quickly.
+ */
+public interface TaskProgressListener {
+
+    TaskProgressListener NONE = new TaskProgressListener() {
+    };
+
+    /**
+     * The executor got the resources for the task and begins to run its commands.
+     */
+    default void onStarted(Task task) {
+    }
+
+    /**
+     * The command, one of the task commands, has just changed its state.
+     */
+    default void onCommandStateChanged(Task task, Command command) {
+    }
+}
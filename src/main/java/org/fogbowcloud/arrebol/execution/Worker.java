@@ -3,5 +3,10 @@ package org.fogbowcloud.arrebol.execution;
 import org.fogbowcloud.arrebol.resource.Resource;
 
 public interface Worker extends Resource, TaskExecutor {
-    
+
+    /**
+     * The metadata key of the address of the host the worker runs its tasks on, if it has one.
+     * Workers on the same host share what the host has, e.g. its images.
+     */
+    String ADDRESS_METADATA_KEY = "address";
 }
@@ -3,7 +3,12 @@ package org.fogbowcloud.arrebol.execution.creator;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 import org.fogbowcloud.arrebol.ArrebolController;
@@ -15,14 +20,21 @@ import org.fogbowcloud.arrebol.execution.docker.DockerTaskExecutor;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerFileHandlerHelper;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerImageRequestHelper;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerApiClients;
+import org.fogbowcloud.arrebol.execution.docker.resource.ContainerReaper;
 import org.fogbowcloud.arrebol.execution.docker.resource.DefaultDockerContainerResource;
 import org.fogbowcloud.arrebol.execution.docker.resource.DockerContainerResource;
+import org.fogbowcloud.arrebol.execution.docker.resource.ImagePullCache;
+import org.fogbowcloud.arrebol.execution.docker.resource.WarmContainerPool;
 import org.fogbowcloud.arrebol.execution.docker.tasklet.DefaultTasklet;
+import org.fogbowcloud.arrebol.execution.docker.tasklet.SingleShotTasklet;
+import org.fogbowcloud.arrebol.execution.docker.tasklet.TaskCallbacks;
 import org.fogbowcloud.arrebol.execution.docker.tasklet.Tasklet;
 import org.fogbowcloud.arrebol.execution.docker.tasklet.TaskletHelper;
 import org.fogbowcloud.arrebol.models.configuration.Configuration;
 import org.fogbowcloud.arrebol.models.specification.Specification;
 import org.fogbowcloud.arrebol.processor.spec.WorkerNode;
+import org.fogbowcloud.arrebol.resource.ImageInventory;
 import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
 import org.fogbowcloud.arrebol.utils.AppUtil;
 import org.springframework.core.io.ClassPathResource;
@@ -31,12 +43,36 @@ import org.springframework.core.io.Resource;
 public class DockerWorkerCreator implements WorkerCreator {
 
     private static final String TASK_SCRIPT_EXECUTOR_NAME = "task-script-executor.sh";
+    //images removed from a host behind our back are noticed on the next listing
+    private static final long IMAGE_LISTING_PERIOD_MILLIS = 1000 * 60 * 10;
     private final Logger LOGGER = Logger.getLogger(ArrebolController.class);
     private final String tsExecutorFileContent;
     private final DockerConfiguration configuration;
+    private final Set<String> listedHosts;
+    private volatile boolean cleaningUpLeftovers;
+    private final Timer imageLister;
+    //null if the warm containers are disabled
+    private final WarmContainerPool warmPool;
 
     public DockerWorkerCreator(Configuration configuration) throws Exception {
         this.configuration = new DockerConfiguration(configuration);
+        this.listedHosts = ConcurrentHashMap.newKeySet();
+        this.imageLister = new Timer(true);
+        ImageInventory.getInstance().setDefaultImage(this.configuration.getImageId());
+        ImagePullCache.getInstance().configure(this.configuration.getImageCacheTtlMillis(),
+            this.configuration.getImageRevalidation());
+        DockerApiClients.getInstance().configure(this.configuration.getApiConnectTimeoutMillis(),
+            this.configuration.getApiReadTimeoutMillis(), this.configuration.getApiRequestTimeoutMillis(),
+            this.configuration.getApiMaxRequestsPerHost(), this.configuration.getApiIoThreads());
+        TaskCallbacks.getInstance().configure(this.configuration.getTaskCallbackAddress());
+        ContainerReaper.getInstance().configure(this.configuration.getMaxRemovalsPerHost(),
+            this.configuration.getInstanceId());
+        if (this.configuration.getWarmContainersPerImage() > 0) {
+            this.warmPool = new WarmContainerPool(this.configuration.getWarmContainersPerImage(),
+                this.configuration.getWarmContainerIdleMillis(), this.configuration.getWarmContainerMaxReuse());
+        } else {
+            this.warmPool = null;
+        }
         Resource resource = new ClassPathResource(TASK_SCRIPT_EXECUTOR_NAME);
         try (InputStream is = resource.getInputStream()) {
             this.tsExecutorFileContent = IOUtils.toString(is, "UTF-8");
@@ -69,7 +105,44 @@ public class DockerWorkerCreator implements WorkerCreator {
         return workers;
     }
 
+    /**
+     * It lists the images of the host once, when its first worker is created, and every
+     * IMAGE_LISTING_PERIOD_MILLIS after that. Pulls update the inventory in between. A host first
+     * met after the leftovers were cleaned up has its own leftovers cleaned up here.
+     */
+    private void listImages(String address) {
+        if (!this.listedHosts.add(address)) {
+            return;
+        }
+        if (this.cleaningUpLeftovers) {
+            ContainerReaper.getInstance().reapLeftovers(address);
+        }
+        DockerImageRequestHelper imageRequestHelper = new DockerImageRequestHelper(address);
+        TimerTask listing = new TimerTask() {
+            public void run() {
+                try {
+                    List<String> images = imageRequestHelper.listImages();
+                    ImageInventory.getInstance().replace(address, images);
+                    ImagePullCache.getInstance().retain(address, images);
+                } catch (Exception e) {
+                    LOGGER.warn("Error while listing images of host [" + address + "]: " + e.getMessage());
+                }
+            }
+        };
+        listing.run();
+        this.imageLister.schedule(listing, IMAGE_LISTING_PERIOD_MILLIS, IMAGE_LISTING_PERIOD_MILLIS);
+    }
+
+    @Override
+    public void cleanUpLeftovers() {
+        this.cleaningUpLeftovers = true;
+        for (String address : this.listedHosts) {
+            ContainerReaper.getInstance().reapLeftovers(address);
+        }
+    }
+
     private Worker createDockerWorker(Integer poolId, String address) {
+        listImages(address);
         String containerId = "docker-executor-" + UUID.randomUUID().toString();
         DockerContainerResource dockerContainerResource =
                 createDockerContainerResource(address, containerId);
@@ -89,16 +162,22 @@ public class DockerWorkerCreator implements WorkerCreator {
                 new DockerImageRequestHelper(address);
         DockerContainerRequestHelper containerRequestHelper =
                 new DockerContainerRequestHelper(address, containerId);
-        DockerContainerResource dockerContainerResource =
+        DefaultDockerContainerResource dockerContainerResource =
                 new DefaultDockerContainerResource(
                         containerId, containerRequestHelper, imageRequestHelper);
+        dockerContainerResource.setWarmPool(this.warmPool);
+        dockerContainerResource.setReaper(ContainerReaper.getInstance());
         return dockerContainerResource;
     }
 
     private Tasklet createTasklet(String address, String containerId){
         DockerCommandExecutor dockerCommandExecutor = new DockerCommandExecutor();
-        DockerFileHandlerHelper dockerFileHandlerHelper = new DockerFileHandlerHelper(address, dockerCommandExecutor);
+        DockerFileHandlerHelper dockerFileHandlerHelper = new DockerFileHandlerHelper(address);
         TaskletHelper taskletHelper = new TaskletHelper(address, containerId, dockerCommandExecutor, dockerFileHandlerHelper);
+        if (this.configuration.isSingleShotTasks()) {
+            return new SingleShotTasklet(this.tsExecutorFileContent, taskletHelper,
+                new DockerContainerRequestHelper(address, containerId));
+        }
         Tasklet tasklet = new DefaultTasklet(this.tsExecutorFileContent, taskletHelper);
         return tasklet;
     }
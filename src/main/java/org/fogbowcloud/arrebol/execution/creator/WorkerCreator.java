@@ -10,4 +10,11 @@ public interface WorkerCreator {
     Collection<Worker> createWorkers(Integer poolId);
 
     Collection<Worker> createWorkers(Integer poolId, WorkerNode workerNode);
+
+    /**
+     * It cleans up what earlier runs left on the hosts of the workers, once their tasks are
+     * recovered; the hosts of the workers created afterwards are cleaned up as they are met.
+     */
+    default void cleanUpLeftovers() {
+    }
 }
@@ -5,6 +5,10 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.PollingScheduler;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerApiClients;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerEventStream;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerEventStream.ExecOutcome;
 import org.fogbowcloud.arrebol.execution.docker.request.ExecInstanceResult;
 import org.fogbowcloud.arrebol.execution.docker.request.HttpWrapper;
 import org.fogbowcloud.arrebol.utils.AppUtil;
@@ -14,39 +18,50 @@ import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-
-import static java.lang.Thread.sleep;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The commands run in the containers through exec instances. Each method has an asynchronous
+ * version, whose requests run on the shared I/O threads of the Docker API clients and whose waits
+ * are scheduled on the {@link PollingScheduler}, so no thread is held while a command runs; the
+ * synchronous versions wait for them. The end of a command is told by the {@link DockerEventStream}
+ * of its host, when it is up; the exec is then polled only once in a while, in case the event is
+ * lost, and polled as often as without the stream if the stream drops.
+ */
 public class DockerCommandExecutor {
 
     private final Logger LOGGER = Logger.getLogger(DockerCommandExecutor.class);
     private static final long poolingPeriodTimeMs = 300;
+    private static final long eventFallbackPeriodMs = 5000;
 
     /**
-     * It creates the command execution instance, sends it to the docker and each period of time
-     * {@link DockerCommandExecutor#poolingPeriodTimeMs} checks if exit code already exists. If
-     * exists then returns an {@link ExecInstanceResult}.
+     * It creates the command execution instance, sends it to the docker and waits for the exit code,
+     * either for the exec_die event or, without the events stream, checking it each period of time
+     * {@link DockerCommandExecutor#poolingPeriodTimeMs}. Then it returns an {@link
+     * ExecInstanceResult}.
      */
     public ExecInstanceResult executeCommand(String apiAddress, String containerId, String command) throws Exception {
-        LOGGER.info("Executing command [" + command + "] to the [" + containerId + "].");
-        String execId = this.createExecInstance(apiAddress, containerId, command, false, false);
-        this.startExecInstance(apiAddress, execId);
-
-        ExecInstanceResult execInstanceResult =
-                this.inspectExecInstance(apiAddress, execId);
-        while (Objects.isNull(execInstanceResult.getExitCode())) {
-            execInstanceResult = this.inspectExecInstance(apiAddress, execId);
-            try {
-                sleep(poolingPeriodTimeMs);
-            } catch (InterruptedException e) {
-                LOGGER.error(e.getMessage(), e);
-            }
-        }
+        return await(executeCommandAsync(apiAddress, containerId, command));
+    }
 
-        LOGGER.info("Executed command [" + command + "] + with exitcode=[" + execInstanceResult
-                .getExitCode() + "] in worker ["
-                + containerId + "].");
-        return execInstanceResult;
+    public CompletableFuture<ExecInstanceResult> executeCommandAsync(String apiAddress, String containerId,
+        String command) {
+        LOGGER.info("Executing command [" + command + "] to the [" + containerId + "].");
+        return this.createExecInstance(apiAddress, containerId, command, false, false)
+            .thenCompose(execId -> {
+                DockerEventStream events = DockerApiClients.getInstance().eventsFor(apiAddress);
+                CompletableFuture<ExecOutcome> outcome = events.watchExec(containerId, execId);
+                return this.startExecInstance(apiAddress, execId)
+                    .thenCompose(response -> this.awaitExitCode(apiAddress, containerId, execId, outcome))
+                    .whenComplete((execInstanceResult, t) -> events.unwatch(execId));
+            })
+            .thenApply(execInstanceResult -> {
+                LOGGER.info("Executed command [" + command + "] + with exitcode=[" + execInstanceResult
+                    .getExitCode() + "] in worker ["
+                    + containerId + "].");
+                return execInstanceResult;
+            });
     }
 
     /**
@@ -54,43 +69,126 @@ public class DockerCommandExecutor {
      * end of execution and nor for its exit code.
      */
     public void executeAsyncCommand(String address, String containerId, String command) throws Exception {
+        await(startCommandAsync(address, containerId, command));
+    }
+
+    /**
+     * See {@link #executeAsyncCommand(String, String, String)}; the future completes once the
+     * command has been sent.
+     */
+    public CompletableFuture<Void> startCommandAsync(String address, String containerId, String command) {
         LOGGER.info(
                 "Sending command [" + command + "] to the container [" + containerId + "].");
-
-        String execId = this.createExecInstance(address, containerId, command, false, false);
-        this.startExecInstance(address, execId);
+        return this.createExecInstance(address, containerId, command, false, false)
+            .thenCompose(execId -> this.startExecInstance(address, execId))
+            .thenApply(response -> null);
     }
 
     public String executeCommandWithStout(String address, String containerId, String command) throws Exception {
-        String execId = this.createExecInstance(address, containerId, command, true, true);
-        String response = this.startExecInstance(address, execId).trim();
-        ExecInstanceResult result = this.inspectExecInstance(address, execId);
-        if (result.getExitCode() != 0) {
-            throw new RuntimeException(
-                    "No zero exitcode [" + result.getExitCode() + "] to execute command [" + command + "]: " + response);
+        return await(executeCommandWithStoutAsync(address, containerId, command));
+    }
+
+    public CompletableFuture<String> executeCommandWithStoutAsync(String address, String containerId,
+        String command) {
+        return this.createExecInstance(address, containerId, command, true, true)
+            .thenCompose(execId -> this.startExecInstance(address, execId)
+                .thenCompose(startResponse -> {
+                    String response = startResponse.trim();
+                    return this.inspectExecInstance(address, execId).thenApply(result -> {
+                        if (result.getExitCode() != 0) {
+                            throw new RuntimeException(
+                                "No zero exitcode [" + result.getExitCode() + "] to execute command [" + command + "]: " + response);
+                        }
+                        return response;
+                    });
+                }));
+    }
+
+    /**
+     * @param outcome null if the exec is not watched on the events stream.
+     */
+    private CompletableFuture<ExecInstanceResult> awaitExitCode(String address, String containerId,
+        String execId, CompletableFuture<ExecOutcome> outcome) {
+        CompletableFuture<ExecInstanceResult> future = new CompletableFuture<>();
+        if (Objects.isNull(outcome)) {
+            this.pollExitCode(address, execId, future, poolingPeriodTimeMs);
+            return future;
+        }
+        outcome.whenComplete((execOutcome, t) -> {
+            if (Objects.isNull(t) && execOutcome != ExecOutcome.EXITED) {
+                String reason = execOutcome == ExecOutcome.CONTAINER_OOM ? "ran out of memory" : "died";
+                future.completeExceptionally(new Exception(
+                    "Container [" + containerId + "] " + reason + " while running exec [" + execId + "]"));
+            } else {
+                //the exec has ended, or the stream dropped and it has to be polled
+                this.pollExitCode(address, execId, future, poolingPeriodTimeMs);
+            }
+        });
+        PollingScheduler.getInstance().schedule(
+            () -> this.pollExitCode(address, execId, future, eventFallbackPeriodMs), eventFallbackPeriodMs);
+        return future;
+    }
+
+    private void pollExitCode(String address, String execId, CompletableFuture<ExecInstanceResult> future,
+        long periodMs) {
+        if (future.isDone()) {
+            return;
         }
-        return response;
+        this.inspectExecInstance(address, execId).whenComplete((execInstanceResult, t) -> {
+            if (Objects.nonNull(t)) {
+                future.completeExceptionally(t);
+            } else if (Objects.nonNull(execInstanceResult.getExitCode())) {
+                future.complete(execInstanceResult);
+            } else {
+                PollingScheduler.getInstance().schedule(
+                    () -> this.pollExitCode(address, execId, future, periodMs), periodMs);
+            }
+        });
     }
 
-    private ExecInstanceResult inspectExecInstance(String address, String execId) throws Exception {
+    private CompletableFuture<ExecInstanceResult> inspectExecInstance(String address, String execId) {
         final String endpoint = String.format("%s/exec/%s/json", address, execId);
-        String response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
-        return instanceExecResult(response);
+        return HttpWrapper.doRequestAsync(HttpGet.METHOD_NAME, endpoint)
+            .thenApply(this::instanceExecResult);
     }
 
-    private String createExecInstance(String address, String containerId, String command, boolean attachStdout, boolean attachStderr) throws Exception {
+    private CompletableFuture<String> createExecInstance(String address, String containerId, String command, boolean attachStdout, boolean attachStderr) {
         final String endpoint = String.format("%s/containers/%s/exec", address, containerId);
-        StringEntity body = jsonCreateExecInstance(command, attachStdout, attachStderr);
-        LOGGER.debug("body of the request to create an exec=[" + EntityUtils.toString(body) + "]");
-        String response = HttpWrapper.doRequest(HttpPost.METHOD_NAME, endpoint, body);
-        return AppUtil.getValueFromJsonStr("Id", response);
+        StringEntity body;
+        try {
+            body = jsonCreateExecInstance(command, attachStdout, attachStderr);
+            LOGGER.debug("body of the request to create an exec=[" + EntityUtils.toString(body) + "]");
+        } catch (Exception e) {
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return HttpWrapper.doRequestAsync(HttpPost.METHOD_NAME, endpoint, body)
+            .thenApply(response -> AppUtil.getValueFromJsonStr("Id", response));
     }
 
-    private String startExecInstance(String address, String execId) throws Exception {
+    private CompletableFuture<String> startExecInstance(String address, String execId) {
         final String endpoint = String.format("%s/exec/%s/start", address, execId);
-        StringEntity body = jsonStartExecInstance();
-        String response = HttpWrapper.doRequest(HttpPost.METHOD_NAME, endpoint, body);
-        return response;
+        StringEntity body;
+        try {
+            body = jsonStartExecInstance();
+        } catch (UnsupportedEncodingException e) {
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return HttpWrapper.doRequestAsync(HttpPost.METHOD_NAME, endpoint, body);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
     }
 
     private StringEntity jsonCreateExecInstance(String command, boolean attachStdout, boolean attachStderr) throws UnsupportedEncodingException {
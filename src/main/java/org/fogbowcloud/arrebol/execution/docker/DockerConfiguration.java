@@ -4,12 +4,40 @@ import java.util.List;
 import org.fogbowcloud.arrebol.models.configuration.Configuration;
 import org.fogbowcloud.arrebol.models.configuration.Property;
 import org.fogbowcloud.arrebol.execution.docker.constants.DockerConstants;
+import org.fogbowcloud.arrebol.execution.docker.resource.ImagePullCache;
 
 public class DockerConfiguration {
 
+    private static final int DEFAULT_WARM_CONTAINERS_PER_IMAGE = 0;
+    private static final double DEFAULT_WARM_CONTAINER_IDLE_SECONDS = 300;
+    private static final int DEFAULT_WARM_CONTAINER_MAX_REUSE = 100;
+    private static final double DEFAULT_IMAGE_CACHE_TTL_SECONDS = 600;
+    //the Docker API clients start with these, until they are configured
+    public static final int DEFAULT_API_CONNECT_TIMEOUT_MILLIS = 5000;
+    public static final int DEFAULT_API_READ_TIMEOUT_MILLIS = 1000 * 60;
+    //pulls are the longest requests
+    public static final long DEFAULT_API_REQUEST_TIMEOUT_MILLIS = 1000 * 60 * 15;
+    public static final int DEFAULT_API_MAX_REQUESTS_PER_HOST = 32;
+    public static final int DEFAULT_API_IO_THREADS = 16;
+    private static final int DEFAULT_MAX_REMOVALS_PER_HOST = 4;
+
     private final Integer workerPoolSize;
     private final String imageId;
     private final List<String> resourceAddresses;
+    private final int warmContainersPerImage;
+    private final long warmContainerIdleMillis;
+    private final int warmContainerMaxReuse;
+    private final long imageCacheTtlMillis;
+    private final ImagePullCache.Revalidation imageRevalidation;
+    private final int apiConnectTimeoutMillis;
+    private final int apiReadTimeoutMillis;
+    private final long apiRequestTimeoutMillis;
+    private final int apiMaxRequestsPerHost;
+    private final int apiIoThreads;
+    private final boolean singleShotTasks;
+    private final String taskCallbackAddress;
+    private final int maxRemovalsPerHost;
+    private final String instanceId;
 
     public DockerConfiguration(Configuration configuration) throws Exception {
         checkDockerConfigurationProperties(configuration);
@@ -19,6 +47,94 @@ public class DockerConfiguration {
         this.workerPoolSize = workerPoolSize.getValue().intValue();
         this.imageId = imageId.getValue();
         this.resourceAddresses = resourceAddresses.getValue();
+
+        Property<Double> warmContainers = configuration.getProperty(DockerConstants.JSON_WARM_CONTAINERS_PER_IMAGE_KEY);
+        Property<Double> warmIdleSeconds = configuration.getProperty(DockerConstants.JSON_WARM_CONTAINER_IDLE_SECONDS_KEY);
+        Property<Double> warmMaxReuse = configuration.getProperty(DockerConstants.JSON_WARM_CONTAINER_MAX_REUSE_KEY);
+        this.warmContainersPerImage = isSet(warmContainers) ? warmContainers.getValue().intValue()
+            : DEFAULT_WARM_CONTAINERS_PER_IMAGE;
+        this.warmContainerIdleMillis = (long) (1000 * (isSet(warmIdleSeconds) ? warmIdleSeconds.getValue()
+            : DEFAULT_WARM_CONTAINER_IDLE_SECONDS));
+        this.warmContainerMaxReuse = isSet(warmMaxReuse) ? warmMaxReuse.getValue().intValue()
+            : DEFAULT_WARM_CONTAINER_MAX_REUSE;
+        if (this.warmContainersPerImage < 0 || this.warmContainerIdleMillis <= 0
+            || this.warmContainerMaxReuse <= 0) {
+            throw new Exception("Warm container configuration properties wrong. Please, verify your configuration file.");
+        }
+
+        Property<Double> imageCacheTtl = configuration.getProperty(DockerConstants.JSON_IMAGE_CACHE_TTL_SECONDS_KEY);
+        Property<String> imageRevalidation = configuration.getProperty(DockerConstants.JSON_IMAGE_REVALIDATION_KEY);
+        this.imageCacheTtlMillis = (long) (1000 * (isSet(imageCacheTtl) ? imageCacheTtl.getValue()
+            : DEFAULT_IMAGE_CACHE_TTL_SECONDS));
+        if (this.imageCacheTtlMillis < 0) {
+            throw new Exception("Image cache TTL configuration property must not be negative. Please, verify your configuration file.");
+        }
+        try {
+            this.imageRevalidation = isSet(imageRevalidation)
+                ? ImagePullCache.Revalidation.valueOf(imageRevalidation.getValue().toUpperCase())
+                : ImagePullCache.Revalidation.TTL;
+        } catch (IllegalArgumentException e) {
+            throw new Exception("Image revalidation configuration property must be ttl or digest. Please, verify your configuration file.");
+        }
+
+        Property<Double> connectTimeout = configuration.getProperty(DockerConstants.JSON_API_CONNECT_TIMEOUT_MILLIS_KEY);
+        Property<Double> readTimeout = configuration.getProperty(DockerConstants.JSON_API_READ_TIMEOUT_MILLIS_KEY);
+        Property<Double> requestTimeout = configuration.getProperty(DockerConstants.JSON_API_REQUEST_TIMEOUT_MILLIS_KEY);
+        Property<Double> maxRequests = configuration.getProperty(DockerConstants.JSON_API_MAX_REQUESTS_PER_HOST_KEY);
+        Property<Double> ioThreads = configuration.getProperty(DockerConstants.JSON_API_IO_THREADS_KEY);
+        this.apiConnectTimeoutMillis = isSet(connectTimeout) ? connectTimeout.getValue().intValue()
+            : DEFAULT_API_CONNECT_TIMEOUT_MILLIS;
+        this.apiReadTimeoutMillis = isSet(readTimeout) ? readTimeout.getValue().intValue()
+            : DEFAULT_API_READ_TIMEOUT_MILLIS;
+        this.apiRequestTimeoutMillis = isSet(requestTimeout) ? requestTimeout.getValue().longValue()
+            : DEFAULT_API_REQUEST_TIMEOUT_MILLIS;
+        this.apiMaxRequestsPerHost = isSet(maxRequests) ? maxRequests.getValue().intValue()
+            : DEFAULT_API_MAX_REQUESTS_PER_HOST;
+        this.apiIoThreads = isSet(ioThreads) ? ioThreads.getValue().intValue() : DEFAULT_API_IO_THREADS;
+        if (this.apiConnectTimeoutMillis <= 0 || this.apiReadTimeoutMillis <= 0
+            || this.apiRequestTimeoutMillis <= 0 || this.apiMaxRequestsPerHost <= 0
+            || this.apiIoThreads <= 0) {
+            throw new Exception("Docker API client configuration properties must be positive. Please, verify your configuration file.");
+        }
+
+        Property<String> taskletMode = configuration.getProperty(DockerConstants.JSON_TASKLET_MODE_KEY);
+        if (!isSet(taskletMode) || taskletMode.getValue().equalsIgnoreCase(DockerConstants.TASKLET_MODE_EXEC)) {
+            this.singleShotTasks = false;
+        } else if (taskletMode.getValue().equalsIgnoreCase(DockerConstants.TASKLET_MODE_SINGLE_SHOT)) {
+            this.singleShotTasks = true;
+        } else {
+            throw new Exception("Tasklet mode configuration property must be " + DockerConstants.TASKLET_MODE_EXEC
+                + " or " + DockerConstants.TASKLET_MODE_SINGLE_SHOT + ". Please, verify your configuration file.");
+        }
+
+        Property<String> callbackAddress = configuration.getProperty(DockerConstants.JSON_TASK_CALLBACK_ADDRESS_KEY);
+        if (!isSet(callbackAddress) || callbackAddress.getValue().trim().isEmpty()) {
+            this.taskCallbackAddress = null;
+        } else if (callbackAddress.getValue().trim().matches("https?://.+")) {
+            this.taskCallbackAddress = callbackAddress.getValue().trim();
+        } else {
+            throw new Exception("Task callback address configuration property must be an http(s) URL. Please, verify your configuration file.");
+        }
+
+        Property<Double> maxRemovals = configuration.getProperty(DockerConstants.JSON_MAX_REMOVALS_PER_HOST_KEY);
+        this.maxRemovalsPerHost = isSet(maxRemovals) ? maxRemovals.getValue().intValue()
+            : DEFAULT_MAX_REMOVALS_PER_HOST;
+        if (this.maxRemovalsPerHost <= 0) {
+            throw new Exception("Max container removals per host configuration property must be positive. Please, verify your configuration file.");
+        }
+
+        Property<String> instanceId = configuration.getProperty(DockerConstants.JSON_INSTANCE_ID_KEY);
+        if (!isSet(instanceId)) {
+            this.instanceId = null;
+        } else if (instanceId.getValue().trim().matches("[A-Za-z0-9_.-]+")) {
+            this.instanceId = instanceId.getValue().trim();
+        } else {
+            throw new Exception("Instance id configuration property must be made of letters, digits, '_', '.' and '-'. Please, verify your configuration file.");
+        }
+    }
+
+    private static boolean isSet(Property<?> property) {
+        return property != null && property.getValue() != null;
     }
 
     private void checkDockerConfigurationProperties(Configuration configuration) throws Exception {
@@ -51,4 +167,78 @@ public class DockerConfiguration {
     public List<String> getResourceAddresses() {
         return resourceAddresses;
     }
+
+    /**
+     * Zero disables the warm containers: each container is removed after its task.
+     */
+    public int getWarmContainersPerImage() {
+        return warmContainersPerImage;
+    }
+
+    public long getWarmContainerIdleMillis() {
+        return warmContainerIdleMillis;
+    }
+
+    public int getWarmContainerMaxReuse() {
+        return warmContainerMaxReuse;
+    }
+
+    public long getImageCacheTtlMillis() {
+        return imageCacheTtlMillis;
+    }
+
+    public ImagePullCache.Revalidation getImageRevalidation() {
+        return imageRevalidation;
+    }
+
+    public int getApiConnectTimeoutMillis() {
+        return apiConnectTimeoutMillis;
+    }
+
+    public int getApiReadTimeoutMillis() {
+        return apiReadTimeoutMillis;
+    }
+
+    public long getApiRequestTimeoutMillis() {
+        return apiRequestTimeoutMillis;
+    }
+
+    public int getApiMaxRequestsPerHost() {
+        return apiMaxRequestsPerHost;
+    }
+
+    public int getApiIoThreads() {
+        return apiIoThreads;
+    }
+
+    /**
+     * Whether each task runs as the command of its own container, instead of through execs.
+     */
+    public boolean isSingleShotTasks() {
+        return singleShotTasks;
+    }
+
+    /**
+     * The Arrebol address as the containers reach it, to which the tasks report their commands;
+     * null if the tasks are polled for instead.
+     */
+    public String getTaskCallbackAddress() {
+        return taskCallbackAddress;
+    }
+
+    /**
+     * How many containers of a host are removed at the same time, in the background.
+     */
+    public int getMaxRemovalsPerHost() {
+        return maxRemovalsPerHost;
+    }
+
+    /**
+     * The id which tells the containers of this Arrebol apart from the containers of others using
+     * the same hosts; null if none is configured, in which case no container left by an earlier run
+     * is removed.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
 }
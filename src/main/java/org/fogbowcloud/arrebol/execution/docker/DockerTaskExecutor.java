@@ -1,25 +1,32 @@
 package org.fogbowcloud.arrebol.execution.docker;
 
-import static org.fogbowcloud.arrebol.execution.docker.constants.DockerConstants.ADDRESS_METADATA_KEY;
+import static org.fogbowcloud.arrebol.execution.Worker.ADDRESS_METADATA_KEY;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Transient;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
+import org.fogbowcloud.arrebol.execution.AsyncTaskExecutor;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult.RESULT;
 import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
 import org.fogbowcloud.arrebol.execution.docker.resource.ContainerSpecification;
 import org.fogbowcloud.arrebol.execution.docker.resource.DefaultDockerContainerResource;
 import org.fogbowcloud.arrebol.execution.docker.resource.DockerContainerResource;
+import org.fogbowcloud.arrebol.execution.docker.tasklet.SingleShotTasklet;
 import org.fogbowcloud.arrebol.execution.docker.tasklet.Tasklet;
 import org.fogbowcloud.arrebol.models.command.Command;
 import org.fogbowcloud.arrebol.models.command.CommandState;
@@ -30,16 +37,19 @@ import org.fogbowcloud.arrebol.resource.StaticPool;
 /**
  * This implementation of {@link TaskExecutor} manages the execution of a {@link Task} in a,
  * possible remote, DockerContainer. A new container is created to execute every {@link Task} and
- * destroyed after the execution has finished. A task representation is sent to the container, which
- * drives the execution of the commands itself. This objects monitors the execution until it ends on
- * success or failure. If any container initialization error occurs, the return {@link
- * TaskExecutionResult} indicates the Failure.
+ * handed over to be destroyed after the execution has finished, unless it is kept warm. A task
+ * representation is sent to the container, which drives the execution of the commands itself.
+ * This objects monitors the execution until it ends on success or failure. If any container
+ * initialization error occurs, the return {@link TaskExecutionResult} indicates the Failure.
+ * Asynchronously, the container requests run on the given blocking executor and no thread waits
+ * while the task runs.
  */
 @Entity
-public class DockerTaskExecutor implements TaskExecutor {
+public class DockerTaskExecutor implements TaskExecutor, AsyncTaskExecutor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_executor_seq")
+    @SequenceGenerator(name = "task_executor_seq", sequenceName = "task_executor_seq", allocationSize = 50)
     private Integer id;
     @Transient
     private final Logger LOGGER = Logger.getLogger(DockerTaskExecutor.class);
@@ -65,26 +75,72 @@ public class DockerTaskExecutor implements TaskExecutor {
     @Override
     public TaskExecutionResult execute(Task task) {
         TaskExecutionResult taskExecutionResult;
+        if (!startContainer(task)) {
+            taskExecutionResult = getFailResultInstance(task.getTaskSpec().getCommands().size());
+            return taskExecutionResult;
+        }
+        LOGGER.debug("Starting to execute task [" + task.getId() + "] in resource[" + this.dockerContainerResource.getId() + "]");
+        taskExecutionResult = this.tasklet.execute(task);
+        stopContainer(taskExecutionResult);
+
+        return taskExecutionResult;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<TaskExecutionResult> executeAsync(Task task,
+        TaskProgressListener listener, Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> startContainer(task), blockingExecutor)
+            .thenCompose(started -> {
+                if (!started) {
+                    for (Command c : task.getTaskSpec().getCommands()) {
+                        listener.onCommandStateChanged(task, c);
+                    }
+                    return CompletableFuture.completedFuture(
+                        getFailResultInstance(task.getTaskSpec().getCommands().size()));
+                }
+                listener.onStarted(task);
+                LOGGER.debug("Starting to execute task [" + task.getId() + "] in resource[" + this.dockerContainerResource.getId() + "]");
+                return this.tasklet.executeAsync(task, listener, blockingExecutor)
+                    .thenApplyAsync(result -> {
+                        stopContainer(result);
+                        return result;
+                    }, blockingExecutor);
+            });
+    }
+
+    /**
+     * It returns false, after failing the task commands, if the container could not be started.
+     */
+    private boolean startContainer(Task task) {
         try {
             ContainerSpecification containerSpecification = createContainerSpecification(task);
+            if (this.tasklet instanceof SingleShotTasklet) {
+                containerSpecification = ((SingleShotTasklet) this.tasklet).specify(task, containerSpecification);
+            }
             LOGGER.info("Starting the Docker Task Executor [" + this.dockerContainerResource.getId() + "] to execute task [" + task.getId() + "]");
             this.dockerContainerResource.start(containerSpecification);
+            this.tasklet.setContainerName(this.dockerContainerResource.getContainerName());
+            StateJournal.getInstance().recordContainer(task, this.dockerContainerResource.getApiAddress(),
+                this.dockerContainerResource.getContainerName());
+            return true;
         } catch (Throwable e) {
             LOGGER.error("Error while start resource: [" + e.getMessage() + "]", e);
             failTask(task);
-            taskExecutionResult = getFailResultInstance(task.getTaskSpec().getCommands().size());
-            return taskExecutionResult;
+            return false;
         }
-        LOGGER.debug("Starting to execute task [" + task.getId() + "] in resource[" + this.dockerContainerResource.getId() + "]");
-        taskExecutionResult = this.tasklet.execute(task);
+    }
+
+    /**
+     * The container may be kept warm for the next task, unless the task failed.
+     */
+    private void stopContainer(TaskExecutionResult result) {
         try {
             LOGGER.info("Stopping DockerTaskExecutor [" + this.dockerContainerResource.getId() + "]");
-            this.dockerContainerResource.stop();
+            this.dockerContainerResource.release(result.getResult() == RESULT.SUCCESS);
         } catch (Throwable e) {
             LOGGER.error("Error while stop Docker Task Executor [" + this.dockerContainerResource.getId() + "]: [" + e.getMessage() + "]", e);
         }
-
-        return taskExecutionResult;
     }
 
     @Override
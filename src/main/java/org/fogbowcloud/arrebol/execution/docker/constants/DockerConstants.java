@@ -6,10 +6,27 @@ public class DockerConstants {
     public static final String DOCKER_MEMORY_KEY = "DockerMemory";
     public static final String JSON_KEY_CPU_SHARES = "CpuShares";
     public static final String JSON_KEY_MEMORY = "Memory";
+    //the containers are labeled with the instance and the run which created them, see ContainerReaper
+    public static final String CONTAINER_INSTANCE_LABEL = "org.fogbowcloud.arrebol.instance";
+    public static final String CONTAINER_RUN_LABEL = "org.fogbowcloud.arrebol.run";
 
     public static final String JSON_IMAGE_ID_KEY = "imageId";
     public static final String JSON_WORKER_PULL_SIZE_KEY = "workerPoolSize";
     public static final String JSON_RESOURCE_ADDRESSES_KEY = "resourceAddresses";
-
-    public static final String ADDRESS_METADATA_KEY = "address";
+    public static final String JSON_WARM_CONTAINERS_PER_IMAGE_KEY = "warmContainersPerImage";
+    public static final String JSON_WARM_CONTAINER_IDLE_SECONDS_KEY = "warmContainerIdleSeconds";
+    public static final String JSON_WARM_CONTAINER_MAX_REUSE_KEY = "warmContainerMaxReuse";
+    public static final String JSON_IMAGE_CACHE_TTL_SECONDS_KEY = "imageCacheTtlSeconds";
+    public static final String JSON_IMAGE_REVALIDATION_KEY = "imageRevalidation";
+    public static final String JSON_API_CONNECT_TIMEOUT_MILLIS_KEY = "dockerConnectTimeoutMillis";
+    public static final String JSON_API_READ_TIMEOUT_MILLIS_KEY = "dockerReadTimeoutMillis";
+    public static final String JSON_API_REQUEST_TIMEOUT_MILLIS_KEY = "dockerRequestTimeoutMillis";
+    public static final String JSON_API_MAX_REQUESTS_PER_HOST_KEY = "dockerMaxRequestsPerHost";
+    public static final String JSON_API_IO_THREADS_KEY = "dockerIoThreads";
+    public static final String JSON_TASKLET_MODE_KEY = "taskletMode";
+    public static final String TASKLET_MODE_EXEC = "exec";
+    public static final String TASKLET_MODE_SINGLE_SHOT = "single-shot";
+    public static final String JSON_TASK_CALLBACK_ADDRESS_KEY = "taskCallbackAddress";
+    public static final String JSON_MAX_REMOVALS_PER_HOST_KEY = "maxContainerRemovalsPerHost";
+    public static final String JSON_INSTANCE_ID_KEY = "instanceId";
 }
@@ -1,6 +1,7 @@
 package org.fogbowcloud.arrebol.execution.docker.helpers;
 
 import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.log4j.Logger;
@@ -8,12 +9,18 @@ import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerCreateContainer
 import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerRemoveContainerException;
 import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerStartException;
 import org.fogbowcloud.arrebol.execution.docker.request.HttpWrapper;
+import org.fogbowcloud.arrebol.execution.docker.resource.ContainerReaper;
 import org.fogbowcloud.arrebol.utils.AppUtil;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.fogbowcloud.arrebol.execution.docker.constants.DockerConstants;
 
 import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class DockerContainerRequestHelper {
     private String address;
@@ -27,8 +34,17 @@ public class DockerContainerRequestHelper {
     }
 
     public String createContainer(String image, Map<String, String> requirements) throws DockerCreateContainerException, UnsupportedEncodingException {
+        return createContainer(image, requirements, null, null);
+    }
+
+    /**
+     * @param entrypoint null to keep the one of the image.
+     * @param command null to keep the one of the image.
+     */
+    public String createContainer(String image, Map<String, String> requirements, List<String> entrypoint,
+        List<String> command) throws DockerCreateContainerException, UnsupportedEncodingException {
         final String endPoint = String.format("%s/containers/create?name=%s", address, containerName);
-        StringEntity body = jsonCreateContainer(image, requirements);
+        StringEntity body = jsonCreateContainer(image, requirements, entrypoint, command);
         String containerId = createContainerRequest(endPoint, body);
         return containerId;
         //Todo catch and throw or threat possible exceptions
@@ -74,14 +90,112 @@ public class DockerContainerRequestHelper {
         LOGGER.debug("Remove container ["+ containerName +"] request response: ["+ response +"]");
     }
 
+    public CompletableFuture<Void> removeContainerAsync() {
+        final String endpoint = String.format("%s/containers/%s?force=true", address, containerName);
+        return HttpWrapper.doRequestAsync(HttpDelete.METHOD_NAME, endpoint).thenApply(response -> null);
+    }
+
+    /**
+     * It copies the file into the container, which may not have started yet.
+     */
+    public void copyFile(String filePath, String content) {
+        new DockerFileHandlerHelper(this.address).writeToFile(this.containerName, content, filePath);
+    }
+
+    /**
+     * The future tells whether the container still runs.
+     */
+    public CompletableFuture<Boolean> isRunningAsync() {
+        final String endpoint = String.format("%s/containers/%s/json", address, containerName);
+        return HttpWrapper.doRequestAsync(HttpGet.METHOD_NAME, endpoint)
+            .thenApply(response -> new JSONObject(response).getJSONObject("State").getBoolean("Running"));
+    }
+
+    public String getContainerName() {
+        return containerName;
+    }
+
+    public void setContainerName(String containerName) {
+        this.containerName = containerName;
+    }
+
+    /**
+     * It returns how many processes run in the container.
+     */
+    public int countProcesses() throws Exception {
+        final String endpoint = String.format("%s/containers/%s/top", address, containerName);
+        String response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
+        JSONArray processes = new JSONObject(response).optJSONArray("Processes");
+        return processes == null ? 0 : processes.length();
+    }
+
+    /**
+     * It returns the paths changed in the container filesystem since the container was created.
+     */
+    public List<String> listChanges() throws Exception {
+        final String endpoint = String.format("%s/containers/%s/changes", address, containerName);
+        String response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
+        List<String> paths = new ArrayList<>();
+        //docker answers null when nothing has changed
+        if (response != null && response.trim().startsWith("[")) {
+            JSONArray changes = new JSONArray(response);
+            for (int i = 0; i < changes.length(); i++) {
+                paths.add(changes.getJSONObject(i).getString("Path"));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * It returns the names of the containers of the host, running or not, labeled by the given
+     * instance and by a run other than the given one.
+     */
+    public static List<String> listContainersOfEarlierRuns(String address, String instanceId,
+        String runId) throws Exception {
+        JSONArray labelFilters = new JSONArray()
+            .put(DockerConstants.CONTAINER_INSTANCE_LABEL + "=" + instanceId)
+            .put(DockerConstants.CONTAINER_RUN_LABEL);
+        String filters = URLEncoder.encode(new JSONObject().put("label", labelFilters).toString(),
+            "UTF-8");
+        final String endpoint = String.format("%s/containers/json?all=true&filters=%s", address,
+            filters);
+        String response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
+        JSONArray containers = new JSONArray(response);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < containers.length(); i++) {
+            JSONObject container = containers.getJSONObject(i);
+            JSONObject labels = container.optJSONObject("Labels");
+            JSONArray containerNames = container.optJSONArray("Names");
+            if (labels == null
+                || !instanceId.equals(labels.optString(DockerConstants.CONTAINER_INSTANCE_LABEL))
+                || runId.equals(labels.optString(DockerConstants.CONTAINER_RUN_LABEL))
+                || containerNames == null || containerNames.length() == 0) {
+                continue;
+            }
+            //the names start with a slash
+            names.add(containerNames.getString(0).substring(1));
+        }
+        return names;
+    }
+
     private String post(String endpoint) throws Exception {
         return HttpWrapper.doRequest(HttpPost.METHOD_NAME, endpoint);
     }
 
-    private StringEntity jsonCreateContainer(String image, Map<String, String> requirements) throws UnsupportedEncodingException {
+    private StringEntity jsonCreateContainer(String image, Map<String, String> requirements,
+        List<String> entrypoint, List<String> command) throws UnsupportedEncodingException {
         JSONObject jsonObject = new JSONObject();
         AppUtil.makeBodyField(jsonObject, "Image", image);
         AppUtil.makeBodyField(jsonObject, "Tty", true);
+        AppUtil.makeBodyField(jsonObject, "Entrypoint", entrypoint);
+        AppUtil.makeBodyField(jsonObject, "Cmd", command);
+        JSONObject labels = new JSONObject();
+        String instanceId = ContainerReaper.getInstance().getInstanceId();
+        if (instanceId != null) {
+            labels.put(DockerConstants.CONTAINER_INSTANCE_LABEL, instanceId);
+        }
+        labels.put(DockerConstants.CONTAINER_RUN_LABEL, ContainerReaper.getInstance().getRunId());
+        AppUtil.makeBodyField(jsonObject, "Labels", labels);
         //AppUtil.makeBodyField(jsonObject, "HostConfig", requirements);
         jsonAddRequirements(jsonObject, requirements);
         return new StringEntity(jsonObject.toString());
@@ -1,41 +1,101 @@
 package org.fogbowcloud.arrebol.execution.docker.helpers;
 
-import org.fogbowcloud.arrebol.execution.docker.DockerCommandExecutor;
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import org.apache.http.message.BasicHeader;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerApiClient;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerApiClients;
+import org.fogbowcloud.arrebol.execution.docker.request.HttpWrapper;
 
+/**
+ * The files of the containers are sent and fetched as tar archives through the archive endpoint of
+ * the Docker API, in one request whatever their size.
+ */
 public class DockerFileHandlerHelper {
 
-    private static final String COMMAND_WRITE_TO_FILE_PATTERN = "echo '%s' >> %s";
-    private static final String COMMAND_READ_FILE_PATTERN = "cat %s";
+    private static final String ARCHIVE_ENDPOINT_PATTERN = "%s/containers/%s/archive?path=%s";
+    private static final int FILE_MODE = 0644;
+    private static final int SUCCESS_EXIT_CODE = 0;
     private String apiAddress;
-    private DockerCommandExecutor dockerCommandExecutor;
 
-    public DockerFileHandlerHelper(String apiAddress, DockerCommandExecutor dockerCommandExecutor) {
-        this.dockerCommandExecutor = dockerCommandExecutor;
+    public DockerFileHandlerHelper(String apiAddress) {
         this.apiAddress = apiAddress;
     }
 
+    /**
+     * It replaces the file by the content; like the echo it stands for, it ends the content with a
+     * new line. It returns 0, as an exec would, once the file is written.
+     */
     public Integer writeToFile(String containerId, String content, String filePath) {
-        String command = String.format(COMMAND_WRITE_TO_FILE_PATTERN, content, filePath);
         try {
-            Integer exitCode =
-                    this.dockerCommandExecutor
-                            .executeCommand(apiAddress, containerId, command)
-                            .getExitCode();
-            return exitCode;
-        } catch (Exception e) {
-            throw new RuntimeException("Error while write to file [" + filePath + "] in container [" + containerId + "]: " + e.getMessage());
+            return writeToFileAsync(containerId, content, filePath).join();
+        } catch (RuntimeException e) {
+            throw unwrap(e);
         }
     }
 
     public String readFile(String containerId, String filePath) {
-        String command = String.format(COMMAND_READ_FILE_PATTERN, filePath);
         try {
-            String fileContent =
-                    this.dockerCommandExecutor.executeCommandWithStout(
-                            apiAddress, containerId, command);
-            return fileContent;
-        } catch (Exception e) {
-            throw new RuntimeException("Error while read file [" + filePath + "] from container [" + containerId + "]");
+            return readFileAsync(containerId, filePath).join();
+        } catch (RuntimeException e) {
+            throw unwrap(e);
         }
     }
+
+    public CompletableFuture<Integer> writeToFileAsync(String containerId, String content, String filePath) {
+        File file = new File(filePath);
+        String endpoint;
+        try {
+            endpoint = archiveEndpoint(containerId, file.getParent());
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+        byte[] bytes = (content + "\n").getBytes(StandardCharsets.UTF_8);
+        DockerApiClient client = DockerApiClients.getInstance().forEndpoint(endpoint);
+        return client.doRequestAsync(HttpWrapper.HTTP_METHOD_PUT, endpoint,
+            Collections.singletonList(new BasicHeader("Content-Type", TarArchive.CONTENT_TYPE)),
+            TarArchive.entityOf(file.getName(), bytes, FILE_MODE), response -> SUCCESS_EXIT_CODE)
+            .handle((exitCode, t) -> {
+                if (t != null) {
+                    throw new RuntimeException("Error while write to file [" + filePath + "] in container [" + containerId + "]: " + cause(t).getMessage());
+                }
+                return exitCode;
+            });
+    }
+
+    public CompletableFuture<String> readFileAsync(String containerId, String filePath) {
+        String endpoint;
+        try {
+            endpoint = archiveEndpoint(containerId, filePath);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+        DockerApiClient client = DockerApiClients.getInstance().forEndpoint(endpoint);
+        return client.doRequestAsync(HttpWrapper.HTTP_METHOD_GET, endpoint, Collections.emptyList(), null,
+            response -> new String(TarArchive.readFirstFile(response.getEntity().getContent()),
+                StandardCharsets.UTF_8).trim())
+            .handle((fileContent, t) -> {
+                if (t != null) {
+                    throw new RuntimeException("Error while read file [" + filePath + "] from container [" + containerId + "]");
+                }
+                return fileContent;
+            });
+    }
+
+    private String archiveEndpoint(String containerId, String path) throws UnsupportedEncodingException {
+        return String.format(ARCHIVE_ENDPOINT_PATTERN, this.apiAddress, containerId,
+            URLEncoder.encode(path, "UTF-8"));
+    }
+
+    private static Throwable cause(Throwable t) {
+        return t.getCause() == null ? t : t.getCause();
+    }
+
+    private static RuntimeException unwrap(RuntimeException e) {
+        return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
 }
@@ -1,9 +1,16 @@
 package org.fogbowcloud.arrebol.execution.docker.helpers;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.fogbowcloud.arrebol.execution.docker.request.HttpWrapper;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 public class DockerImageRequestHelper {
+    private static final String UNTAGGED = "<none>:<none>";
+
     private String apiAddress;
 
     public DockerImageRequestHelper(String apiAddress) {
@@ -15,4 +22,59 @@ public class DockerImageRequestHelper {
             String.format("%s/images/create?fromImage=%s", apiAddress, imageId);
         HttpWrapper.doRequest(HttpPost.METHOD_NAME, endpoint);
     }
+
+    /**
+     * It returns the repository digests (e.g. "ubuntu@sha256:...") of the local image, or an empty
+     * list if the image is not on the host.
+     */
+    public List<String> getLocalDigests(String imageId) throws Exception {
+        final String endpoint = String.format("%s/images/%s/json", apiAddress, imageId);
+        String response;
+        try {
+            response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
+        List<String> digests = new ArrayList<>();
+        JSONArray repoDigests = new JSONObject(response).optJSONArray("RepoDigests");
+        if (repoDigests != null) {
+            for (int i = 0; i < repoDigests.length(); i++) {
+                digests.add(repoDigests.getString(i));
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * It asks the registry, through the host, for the digest (e.g. "sha256:...") the image tag
+     * currently points to.
+     */
+    public String getRegistryDigest(String imageId) throws Exception {
+        final String endpoint = String.format("%s/distribution/%s/json", apiAddress, imageId);
+        String response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
+        return new JSONObject(response).getJSONObject("Descriptor").getString("digest");
+    }
+
+    /**
+     * It lists the tags (e.g. "ubuntu:latest") of the images present on the host.
+     */
+    public List<String> listImages() throws Exception {
+        final String endpoint = String.format("%s/images/json", apiAddress);
+        String response = HttpWrapper.doRequest(HttpGet.METHOD_NAME, endpoint);
+        JSONArray images = new JSONArray(response);
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < images.length(); i++) {
+            JSONObject image = images.getJSONObject(i);
+            JSONArray repoTags = image.optJSONArray("RepoTags");
+            if (repoTags != null) {
+                for (int j = 0; j < repoTags.length(); j++) {
+                    String tag = repoTags.getString(j);
+                    if (!UNTAGGED.equals(tag)) {
+                        tags.add(tag);
+                    }
+                }
+            }
+        }
+        return tags;
+    }
 }
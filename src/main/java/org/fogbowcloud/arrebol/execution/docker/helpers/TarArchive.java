@@ -0,0 +1,222 @@
+package org.fogbowcloud.arrebol.execution.docker.helpers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * The tar archives of a single file the Docker archive endpoint takes and returns. The archives are
+ * written in the ustar format straight to the request, and only the first file of the returned
+ * archives is read.
+ */
+public class TarArchive {
+
+    public static final String CONTENT_TYPE = "application/x-tar";
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final int MODE_OFFSET = 100;
+    private static final int UID_OFFSET = 108;
+    private static final int GID_OFFSET = 116;
+    private static final int SIZE_OFFSET = 124;
+    private static final int MTIME_OFFSET = 136;
+    private static final int CHECKSUM_OFFSET = 148;
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final int TYPE_OFFSET = 156;
+    private static final int MAGIC_OFFSET = 257;
+    private static final byte REGULAR_FILE = '0';
+    private static final byte REGULAR_FILE_OLD = 0;
+    //the two zero blocks which end an archive
+    private static final int END_OF_ARCHIVE_LENGTH = 2 * BLOCK_SIZE;
+
+    private TarArchive() {
+    }
+
+    /**
+     * The archive of one file, to be extracted in the directory the request names.
+     */
+    public static AbstractHttpEntity entityOf(String fileName, byte[] content, int mode) {
+        return new TarEntity(header(fileName, content.length, mode), content);
+    }
+
+    /**
+     * It reads the content of the first regular file of the archive.
+     */
+    public static byte[] readFirstFile(InputStream archive) throws IOException {
+        byte[] header = new byte[BLOCK_SIZE];
+        while (true) {
+            if (!readBlock(archive, header) || isZero(header)) {
+                throw new IOException("The archive has no regular file");
+            }
+            long size = parseOctal(header, SIZE_OFFSET, 12);
+            long padded = padded(size);
+            byte type = header[TYPE_OFFSET];
+            if (type == REGULAR_FILE || type == REGULAR_FILE_OLD) {
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("The file of the archive is too large [" + size + "]");
+                }
+                byte[] content = new byte[(int) size];
+                readFully(archive, content);
+                return content;
+            }
+            skipFully(archive, padded);
+        }
+    }
+
+    static byte[] header(String fileName, long size, int mode) {
+        byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > NAME_LENGTH) {
+            throw new IllegalArgumentException("File name is too long for a tar header [" + fileName + "]");
+        }
+        byte[] header = new byte[BLOCK_SIZE];
+        System.arraycopy(name, 0, header, 0, name.length);
+        writeOctal(header, MODE_OFFSET, 8, mode);
+        writeOctal(header, UID_OFFSET, 8, 0);
+        writeOctal(header, GID_OFFSET, 8, 0);
+        writeOctal(header, SIZE_OFFSET, 12, size);
+        writeOctal(header, MTIME_OFFSET, 12, System.currentTimeMillis() / 1000);
+        header[TYPE_OFFSET] = REGULAR_FILE;
+        byte[] magic = "ustar\u000000".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(magic, 0, header, MAGIC_OFFSET, magic.length);
+
+        Arrays.fill(header, CHECKSUM_OFFSET, CHECKSUM_OFFSET + CHECKSUM_LENGTH, (byte) ' ');
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        //six digits, a NUL and a space
+        writeOctal(header, CHECKSUM_OFFSET, 7, checksum);
+        header[CHECKSUM_OFFSET + 7] = ' ';
+        return header;
+    }
+
+    /**
+     * It writes the value as zero padded octal digits, ended by a NUL.
+     */
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        if (octal.length() > length - 1) {
+            throw new IllegalArgumentException("Value [" + value + "] does not fit a tar header field");
+        }
+        int padding = length - 1 - octal.length();
+        for (int i = 0; i < padding; i++) {
+            header[offset + i] = '0';
+        }
+        byte[] digits = octal.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(digits, 0, header, offset + padding, digits.length);
+        header[offset + length - 1] = 0;
+    }
+
+    private static long parseOctal(byte[] header, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value != 0) {
+                    break;
+                }
+                continue;
+            }
+            value = value * 8 + (b - '0');
+        }
+        return value;
+    }
+
+    private static long padded(long size) {
+        return (size + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+        int read = 0;
+        while (read < block.length) {
+            int n = in.read(block, read, block.length - read);
+            if (n < 0) {
+                return false;
+            }
+            read += n;
+        }
+        return true;
+    }
+
+    private static void readFully(InputStream in, byte[] content) throws IOException {
+        if (!readBlock(in, content)) {
+            throw new EOFException("The archive ended in the middle of a file");
+        }
+    }
+
+    private static void skipFully(InputStream in, long length) throws IOException {
+        long skipped = 0;
+        while (skipped < length) {
+            long n = in.skip(length - skipped);
+            if (n <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("The archive ended in the middle of a file");
+                }
+                n = 1;
+            }
+            skipped += n;
+        }
+    }
+
+    private static class TarEntity extends AbstractHttpEntity {
+
+        private final byte[] header;
+        private final byte[] content;
+
+        private TarEntity(byte[] header, byte[] content) {
+            this.header = header;
+            this.content = content;
+            setContentType(CONTENT_TYPE);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return BLOCK_SIZE + padded(this.content.length) + END_OF_ARCHIVE_LENGTH;
+        }
+
+        @Override
+        public InputStream getContent() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) getContentLength());
+            try {
+                writeTo(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(this.header);
+            out.write(this.content);
+            int padding = (int) (padded(this.content.length) - this.content.length);
+            out.write(new byte[padding + END_OF_ARCHIVE_LENGTH]);
+            out.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * The client of the Docker API of one host. Its connections are pooled and kept alive between
+ * requests, and there are at most maxRequests requests in flight; the next ones wait for a
+ * connection. Each request has connect and read timeouts, and is aborted if it takes longer than
+ * the overall timeout. The asynchronous requests run on the I/O threads shared by all clients, so
+ * the callers do not wait for them. A host may be a Unix domain socket, e.g.
+ * unix:///var/run/docker.sock, whose requests are sent over the socket.
+ */
+public class DockerApiClient {
+
+    private static final int SERVER_SIDE_ERRO_MAX = 505;
+    private static final int CLIENT_SIDE_CODE_ERRO_INIT = 400;
+
+    public static final String UNIX_SCHEME = "unix://";
+    //the host of the requests sent over a Unix domain socket; it is never resolved nor connected to
+    private static final String UNIX_REQUEST_HOST = "http://localhost";
+
+    private static final Logger LOGGER = Logger.getLogger(DockerApiClient.class);
+
+    private final String host;
+    private final CloseableHttpClient httpClient;
+    private final long requestTimeoutMillis;
+    private final ScheduledExecutorService timeouts;
+    private final Executor io;
+    private final DockerApiClients metrics;
+    private final RequestConfig streamConfig;
+
+    DockerApiClient(String host, DockerApiClients.Settings settings,
+        ScheduledExecutorService timeouts, Executor io, DockerApiClients metrics) {
+        this.host = host;
+        this.requestTimeoutMillis = settings.requestTimeoutMillis;
+        this.timeouts = timeouts;
+        this.io = io;
+        this.metrics = metrics;
+
+        PoolingHttpClientConnectionManager connectionManager;
+        if (host.startsWith(UNIX_SCHEME)) {
+            String socketPath = host.substring(UNIX_SCHEME.length());
+            connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", new UnixSocketConnectionSocketFactory(socketPath)).build(),
+                name -> new InetAddress[]{InetAddress.getLoopbackAddress()});
+        } else {
+            connectionManager = new PoolingHttpClientConnectionManager();
+        }
+        connectionManager.setMaxTotal(settings.maxRequestsPerHost);
+        connectionManager.setDefaultMaxPerRoute(settings.maxRequestsPerHost);
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(settings.connectTimeoutMillis)
+            .setSocketTimeout(settings.readTimeoutMillis)
+            .setConnectionRequestTimeout((int) Math.min(Integer.MAX_VALUE, settings.requestTimeoutMillis))
+            .build();
+        //the streams stay open as long as the daemon has something to send
+        this.streamConfig = RequestConfig.copy(requestConfig).setSocketTimeout(0).build();
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
+    }
+
+    /**
+     * It opens a long-lived GET stream, e.g. /events, on a connection of the pool. It is not
+     * subject to the read and overall timeouts, and its connection goes back to the pool once the
+     * response is closed.
+     */
+    public CloseableHttpResponse openStream(String endpoint) throws Exception {
+        HttpGet request = new HttpGet(toRequestUri(endpoint));
+        request.setConfig(this.streamConfig);
+        CloseableHttpResponse response = this.httpClient.execute(request);
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode != HttpStatus.SC_OK) {
+            response.close();
+            throw new Exception("Could not open stream [" + endpoint + "]: " + response.getStatusLine());
+        }
+        return response;
+    }
+
+    /**
+     * The future fails with the exception {@link #doRequest(String, String, List, StringEntity)}
+     * would throw.
+     */
+    public CompletableFuture<String> doRequestAsync(String method, String endpoint,
+        List<Header> additionalHeaders, StringEntity body) {
+        return doRequestAsync(method, endpoint, additionalHeaders, body, DockerApiClient::readAsString);
+    }
+
+    public <T> CompletableFuture<T> doRequestAsync(String method, String endpoint,
+        List<Header> additionalHeaders, HttpEntity body, ResponseReader<T> reader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        this.io.execute(() -> {
+            try {
+                future.complete(doRequest(method, endpoint, additionalHeaders, body, reader));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * It returns the body of the response, or its status line if it is neither 200 nor 201.
+     */
+    public String doRequest(String method, String endpoint, List<Header> additionalHeaders,
+        StringEntity body) throws Exception {
+        return doRequest(method, endpoint, additionalHeaders, body, DockerApiClient::readAsString);
+    }
+
+    /**
+     * The body is sent as JSON, unless there is a Content-Type among the additional headers. The
+     * reader gets the responses whose status is not an error.
+     */
+    public <T> T doRequest(String method, String endpoint, List<Header> additionalHeaders,
+        HttpEntity body, ResponseReader<T> reader) throws Exception {
+
+        HttpRequestBase request;
+        String uri = toRequestUri(endpoint);
+        if (method.equalsIgnoreCase(HttpGet.METHOD_NAME)) {
+            request = new HttpGet(uri);
+        } else if (method.equalsIgnoreCase(HttpDelete.METHOD_NAME)) {
+            request = new HttpDelete(uri);
+        } else if (method.equalsIgnoreCase(HttpPost.METHOD_NAME)) {
+            request = new HttpPost(uri);
+            ((HttpPost) request).setEntity(body);
+        } else if (method.equalsIgnoreCase(HttpPut.METHOD_NAME)) {
+            request = new HttpPut(uri);
+            ((HttpPut) request).setEntity(body);
+        } else {
+            throw new IllegalArgumentException("Unsupported method [" + method + "]");
+        }
+
+        boolean hasContentType = false;
+        for (Header header : additionalHeaders) {
+            request.addHeader(header);
+            hasContentType |= header.getName().equalsIgnoreCase("Content-Type");
+        }
+        if (!hasContentType) {
+            request.addHeader(new BasicHeader("Content-Type", HttpWrapper.HTTP_CONTENT_JSON));
+        }
+
+        String endpointTemplate = DockerApiClients.toTemplate(method, request.getURI().getPath());
+        long start = System.currentTimeMillis();
+        boolean error = true;
+        ScheduledFuture<?> timeout = this.timeouts.schedule(request::abort, this.requestTimeoutMillis,
+            TimeUnit.MILLISECONDS);
+        HttpEntity entity = null;
+        try {
+            HttpResponse response = this.httpClient.execute(request);
+            entity = response.getEntity();
+
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (statusCode >= CLIENT_SIDE_CODE_ERRO_INIT && statusCode <= SERVER_SIDE_ERRO_MAX) {
+                String msg = "Request error - Method [" + method + "] " +
+                    "Endpoint: [" + endpoint + "] - Body: [" + describe(body) + "] Status: " + statusCode + " -  " +
+                    "Msg: " + response.getStatusLine().toString();
+                LOGGER.error(msg);
+                throw new Exception(msg);
+            }
+            T content = reader.read(response);
+            error = false;
+            return content;
+        } finally {
+            timeout.cancel(false);
+            //the connection goes back to the pool only once the response is consumed
+            EntityUtils.consumeQuietly(entity);
+            long elapsed = System.currentTimeMillis() - start;
+            this.metrics.record(endpointTemplate, elapsed, error);
+            LOGGER.debug("host={" + this.host + "} endpoint={" + endpointTemplate + "} millis={" + elapsed + "}");
+        }
+    }
+
+    private static String readAsString(HttpResponse response) throws IOException {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_CREATED) {
+            return response.getEntity() == null ? null : EntityUtils.toString(response.getEntity());
+        }
+        return response.getStatusLine().toString();
+    }
+
+    private static String describe(HttpEntity body) throws IOException {
+        if (body == null) {
+            return "";
+        } else if (body instanceof StringEntity) {
+            return EntityUtils.toString(body);
+        }
+        return body.getContentType() + " of " + body.getContentLength() + " bytes";
+    }
+
+    private String toRequestUri(String endpoint) {
+        if (this.host.startsWith(UNIX_SCHEME)) {
+            return UNIX_REQUEST_HOST + endpoint.substring(this.host.length());
+        }
+        return endpoint;
+    }
+
+    public interface ResponseReader<T> {
+
+        T read(HttpResponse response) throws IOException;
+    }
+}
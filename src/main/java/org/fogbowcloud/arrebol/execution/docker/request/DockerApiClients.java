@@ -0,0 +1,255 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.docker.DockerConfiguration;
+
+/**
+ * The {@link DockerApiClient}s of all Docker hosts, created on first use, and the latency of the
+ * requests they made, by endpoint, which is logged every few minutes. The asynchronous requests
+ * of all clients share a few I/O threads. Each host also has a {@link DockerEventStream},
+ * subscribed on first use. The host of an endpoint is its scheme and authority, or the socket file
+ * of a unix:// endpoint, e.g. unix:///var/run/docker.sock of
+ * unix:///var/run/docker.sock/containers/json.
+ */
+public class DockerApiClients {
+
+    private static final Logger LOGGER = Logger.getLogger(DockerApiClients.class);
+    private static final long LATENCY_LOG_PERIOD_MINUTES = 5;
+
+    //the path segments after these ones are names or ids
+    private static final String[] NAMED_RESOURCES = {"containers", "exec", "images", "distribution"};
+    //the actions on the whole collection, e.g. /containers/create
+    private static final String[] COLLECTION_ACTIONS = {"json", "create", "prune"};
+
+    private static DockerApiClients instance;
+
+    private volatile Settings settings;
+    private final Map<String, DockerApiClient> clients;
+    private final Map<String, EndpointLatency> latencies;
+    //the requests of each endpoint when its latency was last logged; used by the timeouts thread
+    private final Map<String, Long> loggedRequests;
+    private final Map<String, DockerEventStream> eventStreams;
+    private final Set<String> unixSockets;
+    private final ScheduledExecutorService timeouts;
+    private final ThreadPoolExecutor io;
+
+    DockerApiClients() {
+        this.settings = new Settings(DockerConfiguration.DEFAULT_API_CONNECT_TIMEOUT_MILLIS,
+            DockerConfiguration.DEFAULT_API_READ_TIMEOUT_MILLIS,
+            DockerConfiguration.DEFAULT_API_REQUEST_TIMEOUT_MILLIS,
+            DockerConfiguration.DEFAULT_API_MAX_REQUESTS_PER_HOST);
+        this.clients = new ConcurrentHashMap<>();
+        this.latencies = new ConcurrentHashMap<>();
+        this.loggedRequests = new HashMap<>();
+        this.eventStreams = new ConcurrentHashMap<>();
+        this.unixSockets = ConcurrentHashMap.newKeySet();
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-request-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final AtomicInteger threadCount = new AtomicInteger();
+        int ioThreads = DockerConfiguration.DEFAULT_API_IO_THREADS;
+        this.io = new ThreadPoolExecutor(ioThreads, ioThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "docker-api-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.io.allowCoreThreadTimeOut(true);
+        this.timeouts.scheduleAtFixedRate(this::logLatencies, LATENCY_LOG_PERIOD_MINUTES,
+            LATENCY_LOG_PERIOD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public synchronized static DockerApiClients getInstance() {
+        if (instance == null) {
+            instance = new DockerApiClients();
+        }
+        return instance;
+    }
+
+    /**
+     * The settings apply to the clients created afterwards, so they should be set before the
+     * first request.
+     */
+    public void configure(int connectTimeoutMillis, int readTimeoutMillis, long requestTimeoutMillis,
+        int maxRequestsPerHost, int ioThreads) {
+        if (connectTimeoutMillis <= 0 || readTimeoutMillis <= 0 || requestTimeoutMillis <= 0
+            || maxRequestsPerHost <= 0 || ioThreads <= 0) {
+            throw new IllegalArgumentException("Docker client timeouts and limits must be positive");
+        }
+        this.settings = new Settings(connectTimeoutMillis, readTimeoutMillis, requestTimeoutMillis,
+            maxRequestsPerHost);
+        synchronized (this.io) {
+            if (ioThreads > this.io.getMaximumPoolSize()) {
+                this.io.setMaximumPoolSize(ioThreads);
+                this.io.setCorePoolSize(ioThreads);
+            } else {
+                this.io.setCorePoolSize(ioThreads);
+                this.io.setMaximumPoolSize(ioThreads);
+            }
+        }
+    }
+
+    /**
+     * It returns the client of the host the endpoint (a full URL) belongs to.
+     */
+    public DockerApiClient forEndpoint(String endpoint) {
+        return this.clients.computeIfAbsent(hostOf(endpoint),
+            h -> new DockerApiClient(h, this.settings, this.timeouts, this.io, this));
+    }
+
+    /**
+     * It returns the events stream of the host the endpoint belongs to, subscribing to it if this
+     * is its first use; so the first callers find it still disconnected.
+     */
+    public DockerEventStream eventsFor(String endpoint) {
+        DockerApiClient client = forEndpoint(endpoint);
+        return this.eventStreams.computeIfAbsent(hostOf(endpoint), h -> {
+            DockerEventStream stream = new DockerEventStream(h, client);
+            stream.start();
+            return stream;
+        });
+    }
+
+    private String hostOf(String endpoint) {
+        if (endpoint.startsWith(DockerApiClient.UNIX_SCHEME)) {
+            return unixSocketOf(endpoint);
+        }
+        URI uri = URI.create(endpoint);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * The socket is the shortest prefix of the path which is an existing file.
+     */
+    private String unixSocketOf(String endpoint) {
+        for (String socket : this.unixSockets) {
+            if (endpoint.equals(socket) || endpoint.startsWith(socket + "/")
+                || endpoint.startsWith(socket + "?")) {
+                return socket;
+            }
+        }
+        String path = endpoint.substring(DockerApiClient.UNIX_SCHEME.length());
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            prefix.append('/').append(segment);
+            Path candidate = Paths.get(prefix.toString());
+            if (Files.exists(candidate) && !Files.isDirectory(candidate)) {
+                String socket = DockerApiClient.UNIX_SCHEME + prefix;
+                this.unixSockets.add(socket);
+                return socket;
+            }
+        }
+        throw new IllegalArgumentException("There is no Unix socket in [" + endpoint + "]");
+    }
+
+    void record(String endpointTemplate, long millis, boolean error) {
+        this.latencies.computeIfAbsent(endpointTemplate, e -> new EndpointLatency())
+            .record(millis, error);
+    }
+
+    /**
+     * The latencies by endpoint, e.g. "GET /exec/{id}/json", sorted by endpoint.
+     */
+    public Map<String, EndpointLatency> getLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.latencies));
+    }
+
+    /**
+     * It logs the latency of the endpoints which had requests since it last did.
+     *
+     * @return The number of endpoints logged.
+     */
+    synchronized int logLatencies() {
+        int logged = 0;
+        for (Map.Entry<String, EndpointLatency> entry : getLatencies().entrySet()) {
+            long requests = entry.getValue().getRequests();
+            Long previous = this.loggedRequests.put(entry.getKey(), requests);
+            if (previous == null || previous != requests) {
+                LOGGER.info("Docker API endpoint [" + entry.getKey() + "] " + entry.getValue());
+                logged++;
+            }
+        }
+        return logged;
+    }
+
+    /**
+     * It replaces the names and ids in the path by {id}, so the requests to the same endpoint
+     * share their metrics.
+     */
+    static String toTemplate(String method, String path) {
+        String[] segments = path.split("/");
+        StringBuilder template = new StringBuilder(method.toUpperCase()).append(' ');
+        for (int i = 1; i < segments.length; i++) {
+            template.append('/');
+            if (isNamedResource(segments[i - 1])
+                && !(i == segments.length - 1 && contains(COLLECTION_ACTIONS, segments[i]))) {
+                template.append("{id}");
+                //an image name may have slashes; its last segment is the action, if any
+                if (segments[i - 1].equals("images") || segments[i - 1].equals("distribution")) {
+                    if (i < segments.length - 1) {
+                        template.append('/').append(segments[segments.length - 1]);
+                    }
+                    break;
+                }
+            } else {
+                template.append(segments[i]);
+            }
+        }
+        return template.toString();
+    }
+
+    private static boolean isNamedResource(String segment) {
+        return contains(NAMED_RESOURCES, segment);
+    }
+
+    private static boolean contains(String[] values, String segment) {
+        for (String value : values) {
+            if (value.equals(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static class Settings {
+
+        final int connectTimeoutMillis;
+        final int readTimeoutMillis;
+        final long requestTimeoutMillis;
+        final int maxRequestsPerHost;
+
+        private Settings(int connectTimeoutMillis, int readTimeoutMillis, long requestTimeoutMillis,
+            int maxRequestsPerHost) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.readTimeoutMillis = readTimeoutMillis;
+            this.requestTimeoutMillis = requestTimeoutMillis;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * The subscription to the /events stream of one Docker host. It tells the callers which watch an
+ * exec instance when the exec ends, or when its container dies, instead of them polling the exec.
+ * While the stream is down nothing can be watched and the callers have to poll; the watches made
+ * before it dropped fail, so their callers go back to polling too. The stream reconnects with
+ * backoff, asking for the events it missed.
+ */
+public class DockerEventStream {
+
+    public enum ExecOutcome {
+        EXITED, CONTAINER_DIED, CONTAINER_OOM
+    }
+
+    private static final long MIN_RECONNECT_MILLIS = 1000;
+    private static final long MAX_RECONNECT_MILLIS = 1000 * 30;
+    private static final String FILTERS = "{\"type\":[\"container\"],\"event\":[\"exec_die\",\"die\",\"oom\"]}";
+
+    private final Logger LOGGER = Logger.getLogger(DockerEventStream.class);
+
+    private final String address;
+    private final DockerApiClient client;
+    private final Map<String, Watch> watches;
+    private volatile boolean connected;
+    private volatile boolean closed;
+    private volatile CloseableHttpResponse response;
+    //seconds since the epoch, as the since parameter takes it
+    private volatile long lastEventTime;
+
+    DockerEventStream(String address, DockerApiClient client) {
+        this.address = address;
+        this.client = client;
+        this.watches = new ConcurrentHashMap<>();
+    }
+
+    void start() {
+        Thread thread = new Thread(this::run, "docker-events-" + this.address);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isConnected() {
+        return this.connected;
+    }
+
+    /**
+     * It returns null if the stream is down, in which case the caller should poll. The exec must be
+     * watched before it is started, or its end may be missed.
+     */
+    public CompletableFuture<ExecOutcome> watchExec(String containerId, String execId) {
+        return watch(containerId, execId);
+    }
+
+    /**
+     * It returns null if the stream is down. The future completes when the container dies; the key,
+     * which must not be an exec id, is the one to unwatch it with.
+     */
+    public CompletableFuture<ExecOutcome> watchContainer(String containerId, String key) {
+        return watch(containerId, key);
+    }
+
+    public void unwatch(String key) {
+        this.watches.remove(key);
+    }
+
+    private CompletableFuture<ExecOutcome> watch(String containerId, String key) {
+        if (!this.connected) {
+            return null;
+        }
+        Watch watch = new Watch(containerId);
+        this.watches.put(key, watch);
+        if (!this.connected) {
+            this.watches.remove(key);
+            return null;
+        }
+        return watch.future;
+    }
+
+    public void close() {
+        this.closed = true;
+        closeResponse();
+    }
+
+    private void run() {
+        long backoff = MIN_RECONNECT_MILLIS;
+        while (!this.closed) {
+            try {
+                String endpoint = this.address + "/events?filters=" + URLEncoder.encode(FILTERS, "UTF-8");
+                if (this.lastEventTime > 0) {
+                    endpoint += "&since=" + this.lastEventTime;
+                }
+                this.response = this.client.openStream(endpoint);
+                this.connected = true;
+                backoff = MIN_RECONNECT_MILLIS;
+                LOGGER.info("Subscribed to the events of [" + this.address + "]");
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    this.response.getEntity().getContent(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        dispatch(line);
+                    }
+                }
+                LOGGER.warn("The events stream of [" + this.address + "] has ended");
+            } catch (Throwable t) {
+                if (!this.closed) {
+                    LOGGER.warn("The events stream of [" + this.address + "] failed: " + t.getMessage());
+                }
+            } finally {
+                this.connected = false;
+                closeResponse();
+                failWatches();
+            }
+            if (!this.closed) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_RECONNECT_MILLIS);
+            }
+        }
+    }
+
+    void dispatch(String line) {
+        JSONObject event;
+        try {
+            event = new JSONObject(line);
+        } catch (Exception e) {
+            LOGGER.warn("Ignoring malformed event [" + line + "] of [" + this.address + "]");
+            return;
+        }
+        this.lastEventTime = Math.max(this.lastEventTime, event.optLong("time"));
+        String action = event.optString("Action", event.optString("status"));
+        JSONObject actor = event.optJSONObject("Actor");
+        JSONObject attributes = actor == null ? null : actor.optJSONObject("Attributes");
+        String containerId = actor == null ? event.optString("id") : actor.optString("ID");
+        String containerName = attributes == null ? null : attributes.optString("name", null);
+
+        if (action.startsWith("exec_die")) {
+            String execId = attributes == null ? null : attributes.optString("execID", null);
+            Watch watch = execId == null ? null : this.watches.remove(execId);
+            if (watch != null) {
+                watch.future.complete(ExecOutcome.EXITED);
+            }
+        } else if (action.equals("die") || action.equals("oom")) {
+            ExecOutcome outcome = action.equals("oom") ? ExecOutcome.CONTAINER_OOM : ExecOutcome.CONTAINER_DIED;
+            Iterator<Watch> it = this.watches.values().iterator();
+            while (it.hasNext()) {
+                Watch watch = it.next();
+                if (watch.isOf(containerId, containerName)) {
+                    it.remove();
+                    watch.future.complete(outcome);
+                }
+            }
+        }
+    }
+
+    private void failWatches() {
+        Iterator<Watch> it = this.watches.values().iterator();
+        while (it.hasNext()) {
+            Watch watch = it.next();
+            it.remove();
+            watch.future.completeExceptionally(
+                new IllegalStateException("The events stream of [" + this.address + "] dropped"));
+        }
+    }
+
+    private void closeResponse() {
+        CloseableHttpResponse current = this.response;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception e) {
+                LOGGER.debug("Error while closing the events stream of [" + this.address + "]", e);
+            }
+        }
+    }
+
+    private static class Watch {
+
+        //the name or id the caller knows the container by
+        private final String container;
+        private final CompletableFuture<ExecOutcome> future;
+
+        private Watch(String container) {
+            this.container = container;
+            this.future = new CompletableFuture<>();
+        }
+
+        private boolean isOf(String containerId, String containerName) {
+            return Objects.equals(this.container, containerName) || (containerId != null
+                && !containerId.isEmpty() && containerId.startsWith(this.container));
+        }
+    }
+}
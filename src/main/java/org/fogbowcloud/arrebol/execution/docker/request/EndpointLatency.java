@@ -0,0 +1,44 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+/**
+ * The latency of the requests to one Docker API endpoint, e.g. "GET /exec/{id}/json", over all
+ * hosts.
+ */
+public class EndpointLatency {
+
+    private long requests;
+    private long errors;
+    private long totalMillis;
+    private long maxMillis;
+
+    synchronized void record(long millis, boolean error) {
+        this.requests++;
+        if (error) {
+            this.errors++;
+        }
+        this.totalMillis += millis;
+        this.maxMillis = Math.max(this.maxMillis, millis);
+    }
+
+    public synchronized long getRequests() {
+        return requests;
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    public synchronized double getMeanMillis() {
+        return this.requests == 0 ? 0 : (double) this.totalMillis / this.requests;
+    }
+
+    public synchronized long getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("requests={%d} errors={%d} meanMillis={%.1f} maxMillis={%d}",
+            this.requests, this.errors, getMeanMillis(), this.maxMillis);
+    }
+}
@@ -0,0 +1,42 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.newsclub.net.unix.AFUNIXSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+/**
+ * It connects every route to the same Unix domain socket, whatever the host of the request is.
+ */
+class UnixSocketConnectionSocketFactory implements ConnectionSocketFactory {
+
+    private final File path;
+
+    UnixSocketConnectionSocketFactory(String path) {
+        this.path = new File(path);
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return AFUNIXSocket.newInstance();
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host,
+        InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context)
+        throws IOException {
+        Socket unixSocket = socket instanceof AFUNIXSocket ? socket : AFUNIXSocket.newInstance();
+        try {
+            unixSocket.connect(AFUNIXSocketAddress.of(this.path), connectTimeout);
+        } catch (IOException e) {
+            unixSocket.close();
+            throw e;
+        }
+        return unixSocket;
+    }
+}
@@ -0,0 +1,264 @@
+package org.fogbowcloud.arrebol.execution.docker.resource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.PollingScheduler;
+import org.fogbowcloud.arrebol.execution.docker.constants.DockerConstants;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
+
+/**
+ * It removes the containers the workers are done with, off the path of the tasks: a container is
+ * handed over here and its worker goes on with a fresh one. The containers handed over within
+ * BATCH_DELAY_MILLIS of each other are sent in the same pass, at most maxRemovalsPerHost at a time
+ * to each host; the others wait for a removal of the same host to end. Removals which fail are kept
+ * as failed and tried again later, each time waiting twice as long, up to MAX_RETRY_DELAY_MILLIS.
+ *
+ * <p>The removals waiting are only kept in memory, so the containers of a run which stopped
+ * before removing them are left on their hosts. Every container created is labeled with the id of
+ * its run (see {@link DockerConstants#CONTAINER_RUN_LABEL}) and, if one is configured, with the id
+ * of its Arrebol instance (see {@link DockerConstants#CONTAINER_INSTANCE_LABEL}). So the next runs
+ * of the same instance find them through {@link #reapLeftovers(String)}, while the containers of
+ * other instances using the same hosts are left alone.
+ */
+public class ContainerReaper {
+
+    private static final long BATCH_DELAY_MILLIS = 200;
+    private static final long FIRST_RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 1000 * 60 * 5;
+    private static final int DEFAULT_MAX_REMOVALS_PER_HOST = 4;
+    //the message of the Docker API errors carries the status code
+    private static final String NOT_FOUND_STATUS = "Status: 404";
+    private static ContainerReaper instance;
+    private final Logger LOGGER = Logger.getLogger(ContainerReaper.class);
+
+    private final Remover remover;
+    private final Lister lister;
+    private final String runId;
+    private volatile String instanceId;
+    private volatile int maxRemovalsPerHost;
+    //all the maps are guarded by this
+    private final Map<String, Deque<Removal>> queued;
+    private final Map<String, Integer> inFlight;
+    private final Map<String, Removal> failed;
+    private boolean passScheduled;
+    private int waitingRetry;
+
+    ContainerReaper(int maxRemovalsPerHost, Remover remover, Lister lister) {
+        this.maxRemovalsPerHost = maxRemovalsPerHost;
+        this.remover = remover;
+        this.lister = lister;
+        this.runId = UUID.randomUUID().toString();
+        this.queued = new HashMap<>();
+        this.inFlight = new HashMap<>();
+        this.failed = new HashMap<>();
+    }
+
+    public synchronized static ContainerReaper getInstance() {
+        if (instance == null) {
+            instance = new ContainerReaper(DEFAULT_MAX_REMOVALS_PER_HOST,
+                (address, containerName) -> new DockerContainerRequestHelper(address, containerName)
+                    .removeContainerAsync(),
+                DockerContainerRequestHelper::listContainersOfEarlierRuns);
+        }
+        return instance;
+    }
+
+    /**
+     * @param instanceId It may be null, in which case no leftovers are reaped.
+     */
+    public void configure(int maxRemovalsPerHost, String instanceId) {
+        this.maxRemovalsPerHost = maxRemovalsPerHost;
+        this.instanceId = instanceId;
+    }
+
+    /**
+     * It force removes the container, some time later.
+     */
+    public synchronized void reap(String address, String containerName) {
+        LOGGER.debug("Container [" + containerName + "] of host [" + address + "] handed over for removal");
+        this.queued.computeIfAbsent(address, k -> new ArrayDeque<>()).add(new Removal(address, containerName));
+        if (!this.passScheduled) {
+            this.passScheduled = true;
+            PollingScheduler.getInstance().schedule(this::pass, BATCH_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * The value of the run label of the containers created by this run.
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * The value of the instance label of the containers created by this run; null if they have
+     * none.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * It lists the containers earlier runs of this instance left on the host and hands them over
+     * for removal. It should be called once the state of the tasks of the previous run is
+     * recovered, since that may read the containers they ran in.
+     */
+    public void reapLeftovers(String address) {
+        String instanceId = this.instanceId;
+        if (Objects.isNull(instanceId)) {
+            LOGGER.info("No instance id configured; the containers left on host [" + address
+                + "] are not removed");
+            return;
+        }
+        List<String> leftovers;
+        try {
+            leftovers = this.lister.listContainersOfEarlierRuns(address, instanceId, this.runId);
+        } catch (Exception e) {
+            LOGGER.warn("Error while listing the containers left on host [" + address + "]: "
+                + e.getMessage());
+            return;
+        }
+        if (!leftovers.isEmpty()) {
+            LOGGER.info("Removing [" + leftovers.size() + "] containers left by earlier runs on "
+                + "host [" + address + "]");
+        }
+        for (String containerName : leftovers) {
+            reap(address, containerName);
+        }
+    }
+
+    private synchronized void pass() {
+        this.passScheduled = false;
+        for (String address : new ArrayList<>(this.queued.keySet())) {
+            dispatch(address);
+        }
+    }
+
+    private synchronized void dispatch(String address) {
+        Deque<Removal> removals = this.queued.get(address);
+        while (Objects.nonNull(removals) && !removals.isEmpty()
+            && this.inFlight.getOrDefault(address, 0) < this.maxRemovalsPerHost) {
+            Removal removal = removals.poll();
+            this.inFlight.merge(address, 1, Integer::sum);
+            CompletableFuture<Void> removed;
+            try {
+                removed = this.remover.remove(address, removal.containerName);
+            } catch (Throwable t) {
+                removed = new CompletableFuture<>();
+                removed.completeExceptionally(t);
+            }
+            removed.whenComplete((v, t) -> onRemovalEnd(removal, t));
+        }
+        if (Objects.nonNull(removals) && removals.isEmpty()) {
+            this.queued.remove(address);
+        }
+    }
+
+    private void onRemovalEnd(Removal removal, Throwable t) {
+        boolean removed = Objects.isNull(t) || isNotFound(t);
+        synchronized (this) {
+            this.inFlight.merge(removal.address, -1, Integer::sum);
+            if (removed) {
+                this.failed.remove(removal.getKey());
+            } else {
+                removal.attempts++;
+                removal.lastError = t.getMessage();
+                this.failed.put(removal.getKey(), removal);
+                this.waitingRetry++;
+            }
+            dispatch(removal.address);
+        }
+        if (removed) {
+            LOGGER.debug("Removed container [" + removal.containerName + "] of host [" + removal.address + "]");
+        } else {
+            long delay = Math.min(MAX_RETRY_DELAY_MILLIS,
+                FIRST_RETRY_DELAY_MILLIS << Math.min(removal.attempts - 1, 20));
+            LOGGER.warn("Error while removing container [" + removal.containerName + "] of host ["
+                + removal.address + "], attempt [" + removal.attempts + "]; trying again in [" + delay
+                + "] ms: " + t.getMessage());
+            PollingScheduler.getInstance().schedule(() -> retry(removal), delay);
+        }
+    }
+
+    private synchronized void retry(Removal removal) {
+        this.waitingRetry--;
+        this.queued.computeIfAbsent(removal.address, k -> new ArrayDeque<>()).add(removal);
+        dispatch(removal.address);
+    }
+
+    //a container already gone is as good as removed
+    private static boolean isNotFound(Throwable t) {
+        for (Throwable cause = t; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (Objects.nonNull(cause.getMessage()) && cause.getMessage().contains(NOT_FOUND_STATUS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The containers whose last removal failed, "address/name", with the error of that removal.
+     * They are being tried again.
+     */
+    public synchronized Map<String, String> getFailedRemovals() {
+        Map<String, String> failedRemovals = new HashMap<>();
+        for (Removal removal : this.failed.values()) {
+            failedRemovals.put(removal.getKey(), removal.lastError);
+        }
+        return failedRemovals;
+    }
+
+    /**
+     * How many containers are waiting to be removed, to be tried again or being removed.
+     */
+    public synchronized int countPending() {
+        int pending = this.waitingRetry;
+        for (Deque<Removal> removals : this.queued.values()) {
+            pending += removals.size();
+        }
+        for (int count : this.inFlight.values()) {
+            pending += count;
+        }
+        return pending;
+    }
+
+    interface Remover {
+
+        CompletableFuture<Void> remove(String address, String containerName);
+    }
+
+    interface Lister {
+
+        /**
+         * The names of the containers of the host labeled by the given instance and by a run other
+         * than the given one.
+         */
+        List<String> listContainersOfEarlierRuns(String address, String instanceId, String runId)
+            throws Exception;
+    }
+
+    private static class Removal {
+
+        private final String address;
+        private final String containerName;
+        private int attempts;
+        private String lastError;
+
+        private Removal(String address, String containerName) {
+            this.address = address;
+            this.containerName = containerName;
+        }
+
+        private String getKey() {
+            return this.address + "/" + this.containerName;
+        }
+    }
+}
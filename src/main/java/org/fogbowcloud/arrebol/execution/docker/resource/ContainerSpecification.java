@@ -1,11 +1,17 @@
 package org.fogbowcloud.arrebol.execution.docker.resource;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 public class ContainerSpecification {
     private String imageId;
     private Map<String, String> requirements;
+    //a container with its own command runs it and exits; it is never reused
+    private List<String> entrypoint;
+    private List<String> command;
+    //the contents of the files, by path, copied into the container before it starts
+    private Map<String, String> files;
 
     public ContainerSpecification(){}
 
@@ -14,6 +20,14 @@ public class ContainerSpecification {
         this.requirements = requirements;
     }
 
+    public ContainerSpecification(String imageId, Map<String, String> requirements,
+        List<String> entrypoint, List<String> command, Map<String, String> files) {
+        this(imageId, requirements);
+        this.entrypoint = entrypoint;
+        this.command = command;
+        this.files = files;
+    }
+
     public String getImageId() {
         return imageId;
     }
@@ -22,10 +36,26 @@ public class ContainerSpecification {
         return requirements;
     }
 
+    public List<String> getEntrypoint() {
+        return entrypoint;
+    }
+
+    public List<String> getCommand() {
+        return command;
+    }
+
+    public Map<String, String> getFiles() {
+        return files;
+    }
+
+    public boolean hasCommand() {
+        return Objects.nonNull(command);
+    }
+
     @Override
     public String toString() {
         return "{" + "imageId='" + imageId + '\'' + ", requirements="
-            + toStringRequirements() + '}';
+            + toStringRequirements() + (hasCommand() ? ", command=" + command : "") + '}';
     }
 
     private String toStringRequirements() {
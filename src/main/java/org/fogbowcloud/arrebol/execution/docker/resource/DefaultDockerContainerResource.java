@@ -2,6 +2,7 @@ package org.fogbowcloud.arrebol.execution.docker.resource;
 
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.persistence.Entity;
@@ -15,6 +16,7 @@ import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerRemoveContainer
 import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerStartException;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerImageRequestHelper;
+import org.fogbowcloud.arrebol.resource.ImageInventory;
 
 @Entity
 public class DefaultDockerContainerResource implements DockerContainerResource {
@@ -28,9 +30,32 @@ public class DefaultDockerContainerResource implements DockerContainerResource {
     private DockerContainerRequestHelper dockerContainerRequestHelper;
     @Transient
     private DockerImageRequestHelper dockerImageRequestHelper;
+    //the warm container state; a null pool means every container is removed after its task
+    @Transient
+    private WarmContainerPool warmPool;
+    @Transient
+    private boolean parked;
+    @Transient
+    private String image;
+    @Transient
+    private Map<String, String> containerRequirements;
+    @Transient
+    private int uses;
+    @Transient
+    private int baselineProcesses;
+    //the container runs the command of its specification and exits, so it is never kept warm
+    @Transient
+    private boolean singleShot;
+    //a null reaper means every container is removed before the resource goes on
+    @Transient
+    private ContainerReaper reaper;
+    @Transient
+    private String containerName;
+    @Transient
+    private int generation;
 
     /**
-     * @param resourceId Sets the name of the container, is an identifier.
+     * @param resourceId Sets the name of the first container, is an identifier.
      */
     public DefaultDockerContainerResource(String resourceId, DockerContainerRequestHelper dockerContainerRequestHelper,
         DockerImageRequestHelper dockerImageRequestHelper) {
@@ -39,12 +64,21 @@ public class DefaultDockerContainerResource implements DockerContainerResource {
         this.dockerImageRequestHelper = dockerImageRequestHelper;
         this.started = false;
         this.apiAddress = dockerContainerRequestHelper.getAddress();
+        this.containerName = resourceId;
     }
 
     public DefaultDockerContainerResource(){}
 
+    public void setWarmPool(WarmContainerPool warmPool) {
+        this.warmPool = warmPool;
+    }
+
+    public void setReaper(ContainerReaper reaper) {
+        this.reaper = reaper;
+    }
+
     @Override
-    public void start(ContainerSpecification containerSpecification)
+    public synchronized void start(ContainerSpecification containerSpecification)
             throws DockerStartException, DockerCreateContainerException,
                     UnsupportedEncodingException {
         if (isStarted()) {
@@ -59,13 +93,71 @@ public class DefaultDockerContainerResource implements DockerContainerResource {
                         + "] to container ["
                         + this.resourceId
                         + "]");
-        String image = this.setUpImage(containerSpecification.getImageId());
         Map<String, String> containerRequirements =
                 this.getDockerContainerRequirements(containerSpecification.getRequirements());
-        this.dockerContainerRequestHelper.createContainer(image, containerRequirements);
+        if (this.parked) {
+            this.parked = false;
+            this.warmPool.checkOut(this);
+            if (!containerSpecification.hasCommand()
+                && containerSpecification.getImageId().equals(this.image)
+                && containerRequirements.equals(this.containerRequirements)) {
+                this.uses++;
+                this.started = true;
+                LOGGER.info("Reusing the warm container " + this.containerName + " [uses=" + this.uses + "]");
+                return;
+            }
+            discard();
+        }
+        String image = this.setUpImage(containerSpecification.getImageId());
+        try {
+            if (containerSpecification.hasCommand()) {
+                this.dockerContainerRequestHelper.createContainer(image, containerRequirements,
+                    containerSpecification.getEntrypoint(), containerSpecification.getCommand());
+            } else {
+                this.dockerContainerRequestHelper.createContainer(image, containerRequirements);
+            }
+        } catch (DockerCreateContainerException e) {
+            //the image may have been removed from the host since it was cached
+            ImagePullCache.getInstance().invalidate(this.apiAddress, image);
+            throw e;
+        }
+        copyFiles(containerSpecification.getFiles());
         this.dockerContainerRequestHelper.startContainer();
         this.started = true;
-        LOGGER.info("Started the container " + this.resourceId);
+        this.singleShot = containerSpecification.hasCommand();
+        this.image = image;
+        this.containerRequirements = containerRequirements;
+        this.uses = 1;
+        if (Objects.nonNull(this.warmPool) && !this.singleShot) {
+            recordBaselineProcesses();
+        }
+        LOGGER.info("Started the container " + this.containerName);
+    }
+
+    private void copyFiles(Map<String, String> files) throws DockerStartException {
+        if (Objects.isNull(files)) {
+            return;
+        }
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            try {
+                this.dockerContainerRequestHelper.copyFile(file.getKey(), file.getValue());
+            } catch (RuntimeException e) {
+                String containerName = this.containerName;
+                discard();
+                throw new DockerStartException("Could not copy file [" + file.getKey() + "] to container ["
+                    + containerName + "]: " + e.getMessage());
+            }
+        }
+    }
+
+    //the processes of the image itself, which are not left behind by tasks
+    private void recordBaselineProcesses() {
+        try {
+            this.baselineProcesses = this.dockerContainerRequestHelper.countProcesses();
+        } catch (Exception e) {
+            LOGGER.warn("Error while counting processes of container [" + this.resourceId + "]: " + e.getMessage());
+            this.baselineProcesses = -1;
+        }
     }
 
     private String setUpImage(String image) {
@@ -75,7 +167,8 @@ public class DefaultDockerContainerResource implements DockerContainerResource {
             } else {
                 throw new IllegalArgumentException("Image ID may be not null or empty");
             }
-            dockerImageRequestHelper.pullImage(image);
+            ImagePullCache.getInstance().ensurePresent(this.apiAddress, image, dockerImageRequestHelper);
+            ImageInventory.getInstance().add(this.apiAddress, image);
         } catch (Exception e) {
             throw new DockerImageNotFoundException(
                     "Error to pull docker image: " + image + " with error " + e.getMessage());
@@ -117,7 +210,7 @@ public class DefaultDockerContainerResource implements DockerContainerResource {
     }
 
     @Override
-    public void stop() throws DockerRemoveContainerException {
+    public synchronized void stop() throws DockerRemoveContainerException {
         if(!isStarted()){
             throw new DockerRemoveContainerException("Container[" + this.resourceId + "] was already stopped");
         }
@@ -125,11 +218,94 @@ public class DefaultDockerContainerResource implements DockerContainerResource {
         this.started = false;
     }
 
+    @Override
+    public synchronized void release(boolean reusable) throws DockerRemoveContainerException {
+        if (reusable && isStarted() && !this.singleShot && Objects.nonNull(this.warmPool)
+            && this.baselineProcesses >= 0
+            && this.warmPool.park(this, System.currentTimeMillis())) {
+            this.started = false;
+            this.parked = true;
+            return;
+        }
+        if (Objects.isNull(this.reaper)) {
+            stop();
+            return;
+        }
+        if (!isStarted()) {
+            throw new DockerRemoveContainerException("Container[" + this.resourceId + "] was already stopped");
+        }
+        this.started = false;
+        discard();
+    }
+
+    /**
+     * It removes the container if it is still parked, i.e. it was not taken by a task meanwhile.
+     */
+    synchronized void evict() {
+        if (this.parked) {
+            this.parked = false;
+            LOGGER.info("Removing the idle warm container " + this.containerName);
+            discard();
+        }
+    }
+
+    /**
+     * It gets rid of the current container: the reaper removes it in the background, while the
+     * resource takes a fresh name for its next container, since the old one may still be taken.
+     */
+    private void discard() {
+        if (Objects.isNull(this.reaper)) {
+            removeQuietly();
+            return;
+        }
+        this.reaper.reap(this.apiAddress, this.containerName);
+        this.generation++;
+        this.containerName = this.resourceId + "-" + this.generation;
+        this.dockerContainerRequestHelper.setContainerName(this.containerName);
+    }
+
+    private void removeQuietly() {
+        try {
+            this.dockerContainerRequestHelper.removeContainer();
+        } catch (Exception e) {
+            LOGGER.warn("Error while removing container [" + this.containerName + "]: " + e.getMessage());
+        }
+    }
+
+    int countProcesses() throws Exception {
+        return this.dockerContainerRequestHelper.countProcesses();
+    }
+
+    List<String> listChanges() throws Exception {
+        return this.dockerContainerRequestHelper.listChanges();
+    }
+
+    String getImage() {
+        return image;
+    }
+
+    int getUses() {
+        return uses;
+    }
+
+    int getBaselineProcesses() {
+        return baselineProcesses;
+    }
+
+    boolean isParked() {
+        return parked;
+    }
+
     @Override
     public String getId() {
         return this.resourceId;
     }
 
+    @Override
+    public String getContainerName() {
+        return this.containerName;
+    }
+
     @Override
     public String getApiAddress() {
         return this.apiAddress;
@@ -12,8 +12,22 @@ public interface DockerContainerResource {
 
     void stop() throws Exception;
 
+    /**
+     * It stops the container as {@link #stop()} does, unless it is reusable and kept for the next
+     * task, in which case {@link #isStarted()} turns false all the same.
+     *
+     * @param reusable Whether the last task left the container in a state fit for another task.
+     */
+    void release(boolean reusable) throws Exception;
+
     String getId();
 
+    /**
+     * The name of the container the resource runs now. It starts as the id, and it changes if the
+     * resource hands its container over to be removed in the background and takes a fresh one.
+     */
+    String getContainerName();
+
     String getApiAddress();
 
     boolean isStarted();
@@ -0,0 +1,171 @@
+package org.fogbowcloud.arrebol.execution.docker.resource;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerImageRequestHelper;
+import org.fogbowcloud.arrebol.resource.ImageInventory;
+
+/**
+ * It remembers, per Docker host, when each image was last pulled, so starting a container does
+ * not pull its image again until the TTL expires. Then, depending on the revalidation policy, the
+ * image is either pulled again (TTL) or only pulled if the registry digest of its tag differs from
+ * the local one (DIGEST). Concurrent pulls of the same image on the same host share one request.
+ */
+public class ImagePullCache {
+
+    public enum Revalidation {
+        TTL, DIGEST
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ImagePullCache.class);
+
+    private static final long DEFAULT_TTL_MILLIS = 1000 * 60 * 10;
+
+    private static ImagePullCache instance;
+
+    private volatile long ttlMillis;
+    private volatile Revalidation revalidation;
+    //when each image was last known to be up to date, by host and image
+    private final Map<String, Long> verifiedAt;
+    private final Map<String, CompletableFuture<Void>> inFlight;
+    private final AtomicLong hits;
+    private final AtomicLong pulls;
+    private final AtomicLong revalidations;
+
+    /**
+     * @param ttlMillis Zero makes every container start pull its image, as if there was no cache.
+     */
+    public ImagePullCache(long ttlMillis, Revalidation revalidation) {
+        this.verifiedAt = new ConcurrentHashMap<>();
+        this.inFlight = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.pulls = new AtomicLong();
+        this.revalidations = new AtomicLong();
+        configure(ttlMillis, revalidation);
+    }
+
+    public synchronized static ImagePullCache getInstance() {
+        if (instance == null) {
+            instance = new ImagePullCache(DEFAULT_TTL_MILLIS, Revalidation.TTL);
+        }
+        return instance;
+    }
+
+    public void configure(long ttlMillis, Revalidation revalidation) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("Image cache TTL must not be negative: " + ttlMillis);
+        }
+        this.ttlMillis = ttlMillis;
+        this.revalidation = revalidation;
+    }
+
+    /**
+     * It makes sure the image is on the host, pulling it unless it was verified within the TTL. If
+     * another thread is already pulling it, it waits for that pull instead.
+     */
+    public void ensurePresent(String host, String image, DockerImageRequestHelper helper)
+        throws Exception {
+        String key = key(host, image);
+        Long verified = this.verifiedAt.get(key);
+        if (verified != null && System.currentTimeMillis() - verified < this.ttlMillis) {
+            this.hits.incrementAndGet();
+            return;
+        }
+
+        CompletableFuture<Void> pull = new CompletableFuture<>();
+        CompletableFuture<Void> running = this.inFlight.putIfAbsent(key, pull);
+        if (running != null) {
+            LOGGER.debug("Waiting for the pull of image [" + image + "] on host [" + host + "]");
+            try {
+                running.get();
+            } catch (ExecutionException e) {
+                //an Error of the pull is handed over wrapped
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+            return;
+        }
+        try {
+            if (verified != null && this.revalidation == Revalidation.DIGEST && isUpToDate(image, helper)) {
+                this.revalidations.incrementAndGet();
+            } else {
+                helper.pullImage(image);
+                this.pulls.incrementAndGet();
+            }
+            this.verifiedAt.put(key, System.currentTimeMillis());
+            pull.complete(null);
+        } catch (Throwable t) {
+            //the threads waiting for the pull must not wait forever, whatever it failed with
+            pull.completeExceptionally(t);
+            throw t;
+        } finally {
+            this.inFlight.remove(key, pull);
+        }
+    }
+
+    private boolean isUpToDate(String image, DockerImageRequestHelper helper) {
+        try {
+            String digest = helper.getRegistryDigest(image);
+            for (String localDigest : helper.getLocalDigests(image)) {
+                if (localDigest.endsWith("@" + digest)) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Error while revalidating image [" + image + "]: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * It forgets the image, so the next container start pulls it. E.g. a container could not be
+     * created from it.
+     */
+    public void invalidate(String host, String image) {
+        this.verifiedAt.remove(key(host, image));
+    }
+
+    /**
+     * It forgets the images of the host which are not in a fresh listing of its images, e.g.
+     * because they were removed behind our back.
+     */
+    public void retain(String host, Collection<String> listedImages) {
+        Set<String> listed = new HashSet<>();
+        for (String image : listedImages) {
+            listed.add(key(host, image));
+        }
+        String prefix = host + " ";
+        this.verifiedAt.keySet().removeIf(key -> key.startsWith(prefix) && !listed.contains(key));
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getPulls() {
+        return this.pulls.get();
+    }
+
+    public long getRevalidations() {
+        return this.revalidations.get();
+    }
+
+    private static String key(String host, String image) {
+        return host + " " + ImageInventory.normalize(image);
+    }
+
+    @Override
+    public String toString() {
+        return "ttlMillis={" + this.ttlMillis + "} revalidation={" + this.revalidation + "} hits={"
+            + getHits() + "} pulls={" + getPulls() + "} revalidations={" + getRevalidations() + "}";
+    }
+}
@@ -0,0 +1,173 @@
+package org.fogbowcloud.arrebol.execution.docker.resource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.docker.DockerCommandExecutor;
+import org.fogbowcloud.arrebol.execution.docker.request.ExecInstanceResult;
+
+/**
+ * It keeps started containers around after their tasks end, so the next task with the same image
+ * and requirements on the same worker skips the create and start requests. A container is only
+ * kept (parked) if:
+ * <ul>
+ * <li>its task succeeded, and it has run fewer than maxReuse tasks;</li>
+ * <li>fewer than maxIdlePerImage containers of the same image are parked on its host;</li>
+ * <li>its workspace could be cleaned: the files left in /tmp are removed, and then the container
+ * must have no other filesystem changes and no more processes than right after it started.</li>
+ * </ul>
+ * Otherwise it is removed, as it would be without the pool. Containers parked for longer than the
+ * idle TTL are removed as well.
+ */
+public class WarmContainerPool {
+
+    private static final Logger LOGGER = Logger.getLogger(WarmContainerPool.class);
+
+    static final String CLEAN_WORKSPACE_COMMAND = "rm -rf /tmp/* /tmp/.[!.]*";
+    //the paths the cleaning itself leaves changed
+    private static final String WORKSPACE_PATH = "/tmp";
+
+    private final int maxIdlePerImage;
+    private final long idleTtlMillis;
+    private final int maxReuse;
+    private final DockerCommandExecutor commandExecutor;
+    //parked containers by host and image, the oldest first
+    private final Map<String, Deque<Parked>> parked;
+
+    public WarmContainerPool(int maxIdlePerImage, long idleTtlMillis, int maxReuse) {
+        this(maxIdlePerImage, idleTtlMillis, maxReuse, new DockerCommandExecutor());
+        Timer sweeper = new Timer("warm-container-sweeper", true);
+        long period = Math.max(1000, idleTtlMillis / 2);
+        sweeper.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    evictExpired(System.currentTimeMillis());
+                } catch (Throwable t) {
+                    LOGGER.error("Error while evicting idle containers", t);
+                }
+            }
+        }, period, period);
+    }
+
+    WarmContainerPool(int maxIdlePerImage, long idleTtlMillis, int maxReuse,
+        DockerCommandExecutor commandExecutor) {
+        if (maxIdlePerImage <= 0 || idleTtlMillis <= 0 || maxReuse <= 0) {
+            throw new IllegalArgumentException("Warm container pool limits must be positive");
+        }
+        this.maxIdlePerImage = maxIdlePerImage;
+        this.idleTtlMillis = idleTtlMillis;
+        this.maxReuse = maxReuse;
+        this.commandExecutor = commandExecutor;
+        this.parked = new HashMap<>();
+    }
+
+    /**
+     * It returns true if the container was parked. Otherwise, the caller must remove it.
+     */
+    boolean park(DefaultDockerContainerResource container, long now) {
+        if (container.getUses() >= this.maxReuse) {
+            LOGGER.debug("Container [" + container.getId() + "] reached the reuse limit");
+            return false;
+        }
+        String key = key(container);
+        if (isFull(key) || !isClean(container)) {
+            return false;
+        }
+        synchronized (this) {
+            if (isFull(key)) {
+                return false;
+            }
+            this.parked.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(new Parked(container, now));
+        }
+        LOGGER.debug("Parked container [" + container.getId() + "] with image [" + container.getImage() + "]");
+        return true;
+    }
+
+    /**
+     * It takes the container out of the pool, since its worker is about to use it.
+     */
+    synchronized void checkOut(DefaultDockerContainerResource container) {
+        Deque<Parked> containers = this.parked.get(key(container));
+        if (containers != null) {
+            containers.removeIf(p -> p.container == container);
+        }
+    }
+
+    void evictExpired(long now) {
+        List<DefaultDockerContainerResource> expired = new LinkedList<>();
+        synchronized (this) {
+            for (Deque<Parked> containers : this.parked.values()) {
+                Iterator<Parked> it = containers.iterator();
+                while (it.hasNext()) {
+                    Parked p = it.next();
+                    if (now - p.since < this.idleTtlMillis) {
+                        break;
+                    }
+                    it.remove();
+                    expired.add(p.container);
+                }
+            }
+        }
+        for (DefaultDockerContainerResource container : expired) {
+            container.evict();
+        }
+    }
+
+    synchronized int countParked(String apiAddress, String image) {
+        Deque<Parked> containers = this.parked.get(apiAddress + " " + image);
+        return containers == null ? 0 : containers.size();
+    }
+
+    private synchronized boolean isFull(String key) {
+        Deque<Parked> containers = this.parked.get(key);
+        return containers != null && containers.size() >= this.maxIdlePerImage;
+    }
+
+    private boolean isClean(DefaultDockerContainerResource container) {
+        try {
+            ExecInstanceResult cleaning = this.commandExecutor.executeCommand(
+                container.getApiAddress(), container.getContainerName(), CLEAN_WORKSPACE_COMMAND);
+            if (cleaning.getExitCode() != 0) {
+                LOGGER.info("Container [" + container.getId() + "] workspace could not be cleaned");
+                return false;
+            }
+            for (String path : container.listChanges()) {
+                if (!path.equals(WORKSPACE_PATH)) {
+                    LOGGER.info("Container [" + container.getId() + "] is dirty: [" + path + "] changed");
+                    return false;
+                }
+            }
+            if (container.countProcesses() > container.getBaselineProcesses()) {
+                LOGGER.info("Container [" + container.getId() + "] is dirty: processes left behind");
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("Error while cleaning container [" + container.getId() + "]: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private String key(DefaultDockerContainerResource container) {
+        return container.getApiAddress() + " " + container.getImage();
+    }
+
+    private static class Parked {
+
+        private final DefaultDockerContainerResource container;
+        private final long since;
+
+        private Parked(DefaultDockerContainerResource container, long since) {
+            this.container = container;
+            this.since = since;
+        }
+    }
+}
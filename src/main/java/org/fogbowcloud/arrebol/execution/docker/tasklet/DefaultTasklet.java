@@ -2,9 +2,14 @@ package org.fogbowcloud.arrebol.execution.docker.tasklet;
 
 import static java.lang.Thread.sleep;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.PollingScheduler;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
 import org.fogbowcloud.arrebol.models.command.Command;
 import org.fogbowcloud.arrebol.models.command.CommandState;
 import org.fogbowcloud.arrebol.models.task.Task;
@@ -12,7 +17,11 @@ import org.fogbowcloud.arrebol.models.task.Task;
 /**
  * It is responsible for execute a task in a container. For this need a docker api address, an
  * container id and task script executor. First it send task script executor and task script. Second
- * it run task script. And finally track task execution until finished.
+ * it run task script. And finally track task execution until finished. The asynchronous execution
+ * does the same steps with the asynchronous Docker requests, and waits between the tracking steps on
+ * the {@link PollingScheduler} instead of sleeping, so no thread is held while the task runs. When
+ * the {@link TaskCallbacks} are enabled, the task script executor reports each command as it ends,
+ * and the exit codes are read just once in a while, to catch the reports which were lost.
  */
 public class DefaultTasklet implements Tasklet {
 
@@ -20,6 +29,7 @@ public class DefaultTasklet implements Tasklet {
     private TaskletHelper taskletHelper;
     private final Logger LOGGER = Logger.getLogger(DefaultTasklet.class);
     private static final long poolingPeriodTimeMs = 2000;
+    private static final long reconciliationPeriodTimeMs = 1000 * 30;
 
 
     public DefaultTasklet(String taskScriptExecutor, TaskletHelper taskletHelper) {
@@ -50,6 +60,169 @@ public class DefaultTasklet implements Tasklet {
         return taskExecutionResult;
     }
 
+    @Override
+    public CompletableFuture<TaskExecutionResult> executeAsync(Task task,
+        TaskProgressListener listener, Executor blockingExecutor) {
+        CompletableFuture<TaskExecutionResult> future = new CompletableFuture<>();
+        String taskId = task.getId();
+        List<Command> commands = task.getTaskSpec().getCommands();
+        BitSet finished = new BitSet(commands.size());
+        try {
+            TaskCallbacks callbacks = TaskCallbacks.getInstance();
+            boolean reported = callbacks.isEnabled();
+            long pollingPeriodMs = reported ? reconciliationPeriodTimeMs : poolingPeriodTimeMs;
+            CompletableFuture<Void> started;
+            if (reported) {
+                String token = callbacks.register(taskId, (index, exitcode, startedAt, finishedAt) ->
+                    onCommandReported(task, index, exitcode, startedAt, finishedAt, finished, listener,
+                        future));
+                future.whenComplete((result, t) -> callbacks.unregister(taskId));
+                started = this.taskletHelper.sendTaskScriptExecutorAsync(taskScriptExecutor)
+                    .thenCompose(sent -> this.taskletHelper.sendTaskScriptAsync(taskId, commands))
+                    .thenCompose(sent -> this.taskletHelper.runTaskScriptExecutorAsync(taskId,
+                        callbacks.getCommandsUrl(taskId), token));
+            } else {
+                started = this.taskletHelper.sendTaskScriptExecutorAsync(taskScriptExecutor)
+                    .thenCompose(sent -> this.taskletHelper.sendTaskScriptAsync(taskId, commands))
+                    .thenCompose(sent -> this.taskletHelper.runTaskScriptExecutorAsync(taskId));
+            }
+            started.whenComplete((v, t) -> {
+                if (t != null) {
+                    failAsync(task, t, listener, future);
+                } else {
+                    trackTaskExecutionAsync(task, 0, pollingPeriodMs, finished, listener, future);
+                }
+            });
+        } catch (Throwable t) {
+            failAsync(task, t, listener, future);
+        }
+        return future;
+    }
+
+    /**
+     * The commands are tracked by their exit codes, read every polling period; when the task
+     * reports its commands, that is just to reconcile the reports which were lost.
+     */
+    private void trackTaskExecutionAsync(Task task, int startIndex, long pollingPeriodMs,
+        BitSet finished, TaskProgressListener listener, CompletableFuture<TaskExecutionResult> future) {
+        if (future.isDone()) {
+            return;
+        }
+        List<Command> commands = task.getTaskSpec().getCommands();
+        synchronized (commands) {
+            markRunning(task, startIndex, finished, listener);
+        }
+        this.taskletHelper.getExitCodesAsync(task.getId(), commands.size())
+            .whenComplete((exitcodes, t) -> {
+                if (t != null) {
+                    failAsync(task, t, listener, future);
+                    return;
+                }
+                try {
+                    int currentIndex;
+                    synchronized (commands) {
+                        if (future.isDone()) {
+                            return;
+                        }
+                        currentIndex = startIndex;
+                        while (currentIndex < commands.size() && hasFinished(exitcodes[currentIndex])) {
+                            finish(task, currentIndex, exitcodes[currentIndex], finished, listener);
+                            currentIndex++;
+                        }
+                        LOGGER.debug("After sync waiting for index [" + currentIndex + "]");
+                        if (currentIndex == commands.size()) {
+                            future.complete(new TaskExecutionResult(getTaskResult(commands), getExitCodes(commands)));
+                            return;
+                        }
+                    }
+                    int nextIndex = currentIndex;
+                    PollingScheduler.getInstance().schedule(
+                        () -> trackTaskExecutionAsync(task, nextIndex, pollingPeriodMs, finished, listener,
+                            future),
+                        pollingPeriodMs);
+                } catch (Throwable e) {
+                    failAsync(task, e, listener, future);
+                }
+            });
+    }
+
+    /**
+     * Once the last command is reported, the reports lost before it are read from the exit codes
+     * right away, instead of at the next reconciliation.
+     */
+    private void onCommandReported(Task task, int index, int exitcode, Long startedAt,
+        Long finishedAt, BitSet finished, TaskProgressListener listener,
+        CompletableFuture<TaskExecutionResult> future) {
+        List<Command> commands = task.getTaskSpec().getCommands();
+        synchronized (commands) {
+            if (future.isDone() || index < 0 || index >= commands.size()) {
+                return;
+            }
+            Command cmd = commands.get(index);
+            if (!finished.get(index)) {
+                if (startedAt != null) {
+                    cmd.setStartedAt(startedAt);
+                }
+                if (finishedAt != null) {
+                    cmd.setFinishedAt(finishedAt);
+                }
+                finish(task, index, exitcode, finished, listener);
+            }
+            markRunning(task, index + 1, finished, listener);
+            if (finished.cardinality() == commands.size()) {
+                future.complete(new TaskExecutionResult(getTaskResult(commands), getExitCodes(commands)));
+                return;
+            }
+        }
+        if (index == commands.size() - 1) {
+            trackTaskExecutionAsync(task, 0, reconciliationPeriodTimeMs, finished, listener, future);
+        }
+    }
+
+    private void markRunning(Task task, int index, BitSet finished, TaskProgressListener listener) {
+        List<Command> commands = task.getTaskSpec().getCommands();
+        if (index < commands.size() && !finished.get(index)) {
+            Command cmd = commands.get(index);
+            if (!cmd.getState().equals(CommandState.RUNNING)) {
+                cmd.setState(CommandState.RUNNING);
+                listener.onCommandStateChanged(task, cmd);
+            }
+        }
+    }
+
+    /**
+     * The finished indexes are kept apart from the command states, so each command is told
+     * finished once, whether it is read or reported first.
+     */
+    private void finish(Task task, int index, int exitcode, BitSet finished,
+        TaskProgressListener listener) {
+        if (!finished.get(index)) {
+            finished.set(index);
+            Command cmd = task.getTaskSpec().getCommands().get(index);
+            cmd.setState(CommandState.FINISHED);
+            cmd.setExitcode(exitcode);
+            listener.onCommandStateChanged(task, cmd);
+        }
+    }
+
+    private void failAsync(Task task, Throwable t, TaskProgressListener listener,
+        CompletableFuture<TaskExecutionResult> future) {
+        LOGGER.error("Set task [" + task.getId() + "] to FAILED [" + t.getMessage() + "]", t);
+        List<Command> commands = task.getTaskSpec().getCommands();
+        synchronized (commands) {
+            if (future.isDone()) {
+                return;
+            }
+            failUnfinishedCommands(commands);
+            for (Command c : commands) {
+                if (c.getState().equals(CommandState.FAILED)) {
+                    listener.onCommandStateChanged(task, c);
+                }
+            }
+            future.complete(new TaskExecutionResult(getTaskResult(commands), getExitCodes(commands)));
+        }
+    }
+
     private void setupContainerEnvironment(String taskId, List<Command> commands) throws Exception {
         this.taskletHelper.sendTaskScriptExecutor(taskScriptExecutor);
         LOGGER.debug(
@@ -114,7 +287,7 @@ public class DefaultTasklet implements Tasklet {
         return !isUndetermined;
     }
 
-    private void failUnfinishedCommands(List<Command> commands) {
+    static void failUnfinishedCommands(List<Command> commands) {
         for (Command c : commands) {
             if (!c.getState().equals(CommandState.FINISHED)) {
                 c.setState(CommandState.FAILED);
@@ -123,7 +296,7 @@ public class DefaultTasklet implements Tasklet {
         }
     }
 
-    private TaskExecutionResult.RESULT getTaskResult(List<Command> commands) {
+    static TaskExecutionResult.RESULT getTaskResult(List<Command> commands) {
         TaskExecutionResult.RESULT result = TaskExecutionResult.RESULT.SUCCESS;
         for (Command cmd : commands) {
             if (cmd.getState().equals(CommandState.FAILED)) {
@@ -134,7 +307,7 @@ public class DefaultTasklet implements Tasklet {
         return result;
     }
 
-    private int[] getExitCodes(List<Command> commands) {
+    static int[] getExitCodes(List<Command> commands) {
         int[] exitcodes = new int[commands.size()];
         for (int i = 0; i < commands.size(); i++) {
             exitcodes[i] = commands.get(i).getExitcode();
@@ -142,6 +315,11 @@ public class DefaultTasklet implements Tasklet {
         return exitcodes;
     }
 
+    @Override
+    public void setContainerName(String containerName) {
+        this.taskletHelper.setContainerId(containerName);
+    }
+
     protected void setTaskletHelper(TaskletHelper taskletHelper) {
         this.taskletHelper = taskletHelper;
     }
@@ -0,0 +1,154 @@
+package org.fogbowcloud.arrebol.execution.docker.tasklet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.PollingScheduler;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerApiClients;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerEventStream;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerEventStream.ExecOutcome;
+import org.fogbowcloud.arrebol.execution.docker.resource.ContainerSpecification;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.task.Task;
+
+/**
+ * It runs a task as the command of its own container, instead of through execs in a long-running
+ * one: the task script executor and the task script are copied into the container before it
+ * starts, see {@link #specify(Task, ContainerSpecification)}, and the container exits once the
+ * task script does. The tasklet waits for the container to die, as the events stream of its host
+ * tells or, without the stream, checking it each period of time, and then reads the exit codes of
+ * all the commands at once; so all the commands are running until then.
+ */
+public class SingleShotTasklet implements Tasklet {
+
+    private static final List<String> ENTRYPOINT = Arrays.asList("/bin/bash", "-c");
+    private static final long poolingPeriodTimeMs = 2000;
+    private static final long eventFallbackPeriodMs = 1000 * 30;
+
+    private final Logger LOGGER = Logger.getLogger(SingleShotTasklet.class);
+
+    private final String taskScriptExecutor;
+    private final TaskletHelper taskletHelper;
+    private final DockerContainerRequestHelper containerRequestHelper;
+
+    public SingleShotTasklet(String taskScriptExecutor, TaskletHelper taskletHelper,
+        DockerContainerRequestHelper containerRequestHelper) {
+        this.taskScriptExecutor = taskScriptExecutor;
+        this.taskletHelper = taskletHelper;
+        this.containerRequestHelper = containerRequestHelper;
+    }
+
+    /**
+     * The container specification of the task: the given one, running the task script.
+     */
+    public ContainerSpecification specify(Task task, ContainerSpecification specification) {
+        return new ContainerSpecification(specification.getImageId(), specification.getRequirements(),
+            ENTRYPOINT, Arrays.asList(this.taskletHelper.getRunCommand(task.getId())),
+            this.taskletHelper.getTaskFiles(this.taskScriptExecutor, task.getId(),
+                task.getTaskSpec().getCommands()));
+    }
+
+    @Override
+    public TaskExecutionResult execute(Task task) {
+        return executeAsync(task, TaskProgressListener.NONE, Runnable::run).join();
+    }
+
+    @Override
+    public CompletableFuture<TaskExecutionResult> executeAsync(Task task,
+        TaskProgressListener listener, Executor blockingExecutor) {
+        CompletableFuture<TaskExecutionResult> future = new CompletableFuture<>();
+        List<Command> commands = task.getTaskSpec().getCommands();
+        try {
+            for (Command cmd : commands) {
+                cmd.setState(CommandState.RUNNING);
+                listener.onCommandStateChanged(task, cmd);
+            }
+            awaitExit(task.getId())
+                .thenCompose(exited -> this.taskletHelper.getExitCodesAsync(task.getId(), commands.size()))
+                .whenComplete((exitcodes, t) -> {
+                    if (t != null) {
+                        fail(task, t, listener, future);
+                        return;
+                    }
+                    for (int i = 0; i < commands.size(); i++) {
+                        Command cmd = commands.get(i);
+                        if (exitcodes[i] == TaskExecutionResult.UNDETERMINED_RESULT) {
+                            cmd.setState(CommandState.FAILED);
+                        } else {
+                            cmd.setState(CommandState.FINISHED);
+                        }
+                        cmd.setExitcode(exitcodes[i]);
+                        listener.onCommandStateChanged(task, cmd);
+                    }
+                    future.complete(new TaskExecutionResult(DefaultTasklet.getTaskResult(commands),
+                        DefaultTasklet.getExitCodes(commands)));
+                });
+        } catch (Throwable t) {
+            fail(task, t, listener, future);
+        }
+        return future;
+    }
+
+    /**
+     * The container is checked once right away, since it may have exited before it was watched.
+     */
+    private CompletableFuture<Void> awaitExit(String taskId) {
+        CompletableFuture<Void> exited = new CompletableFuture<>();
+        String address = this.containerRequestHelper.getAddress();
+        String containerName = this.containerRequestHelper.getContainerName();
+        DockerEventStream events = DockerApiClients.getInstance().eventsFor(address);
+        String watchKey = "single-shot-" + taskId;
+        CompletableFuture<ExecOutcome> died = events.watchContainer(containerName, watchKey);
+        if (Objects.isNull(died)) {
+            pollUntilExited(exited, poolingPeriodTimeMs);
+        } else {
+            //on death, or if the stream drops, the container is checked as without the stream
+            died.whenComplete((outcome, t) -> pollUntilExited(exited, poolingPeriodTimeMs));
+            pollUntilExited(exited, eventFallbackPeriodMs);
+            exited.whenComplete((v, t) -> events.unwatch(watchKey));
+        }
+        return exited;
+    }
+
+    private void pollUntilExited(CompletableFuture<Void> exited, long periodMs) {
+        if (exited.isDone()) {
+            return;
+        }
+        this.containerRequestHelper.isRunningAsync().whenComplete((running, t) -> {
+            if (Objects.nonNull(t)) {
+                exited.completeExceptionally(t);
+            } else if (!running) {
+                exited.complete(null);
+            } else {
+                PollingScheduler.getInstance().schedule(() -> pollUntilExited(exited, periodMs), periodMs);
+            }
+        });
+    }
+
+    @Override
+    public void setContainerName(String containerName) {
+        this.taskletHelper.setContainerId(containerName);
+        this.containerRequestHelper.setContainerName(containerName);
+    }
+
+    private void fail(Task task, Throwable t, TaskProgressListener listener,
+        CompletableFuture<TaskExecutionResult> future) {
+        LOGGER.error("Set task [" + task.getId() + "] to FAILED [" + t.getMessage() + "]", t);
+        List<Command> commands = task.getTaskSpec().getCommands();
+        DefaultTasklet.failUnfinishedCommands(commands);
+        for (Command c : commands) {
+            if (c.getState().equals(CommandState.FAILED)) {
+                listener.onCommandStateChanged(task, c);
+            }
+        }
+        future.complete(new TaskExecutionResult(DefaultTasklet.getTaskResult(commands),
+            DefaultTasklet.getExitCodes(commands)));
+    }
+}
@@ -0,0 +1,112 @@
+package org.fogbowcloud.arrebol.execution.docker.tasklet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.log4j.Logger;
+
+/**
+ * It keeps the tasks whose task script executor reports each finished command back to Arrebol, so
+ * they need not be polled for. Each task is given its own token when registered, which its reports
+ * must carry; the reports of a task are taken only while it is registered.
+ */
+public class TaskCallbacks {
+
+    private static final String COMMANDS_URL_PATTERN = "%s/tasks/%s/commands";
+    private static TaskCallbacks instance;
+    private final Logger LOGGER = Logger.getLogger(TaskCallbacks.class);
+
+    private final Map<String, Registration> registrations;
+    //null if the callbacks are disabled
+    private volatile String callbackAddress;
+
+    TaskCallbacks() {
+        this.registrations = new ConcurrentHashMap<>();
+    }
+
+    public synchronized static TaskCallbacks getInstance() {
+        if (instance == null) {
+            instance = new TaskCallbacks();
+        }
+        return instance;
+    }
+
+    /**
+     * @param callbackAddress The Arrebol address as the containers reach it, e.g.
+     * http://10.0.0.1:8080, or null to disable the callbacks.
+     */
+    public void configure(String callbackAddress) {
+        this.callbackAddress = Objects.isNull(callbackAddress) ? null
+            : callbackAddress.replaceAll("/+$", "");
+    }
+
+    public boolean isEnabled() {
+        return Objects.nonNull(this.callbackAddress);
+    }
+
+    /**
+     * The URL the task script executor of the task posts the report of its n-th command to, at
+     * its end plus "/n".
+     */
+    public String getCommandsUrl(String taskId) {
+        return String.format(COMMANDS_URL_PATTERN, this.callbackAddress, taskId);
+    }
+
+    /**
+     * It returns the token the reports of the task must carry, replacing the registration the task
+     * may already have.
+     */
+    public String register(String taskId, CommandCallback callback) {
+        String token = UUID.randomUUID().toString().replace("-", "");
+        this.registrations.put(taskId, new Registration(token, callback));
+        return token;
+    }
+
+    public void unregister(String taskId) {
+        this.registrations.remove(taskId);
+    }
+
+    /**
+     * It returns false, ignoring the report, if the task is not registered or the token is not
+     * the task one.
+     */
+    public boolean report(String taskId, String token, int index, int exitcode, Long startedAt,
+        Long finishedAt) {
+        Registration registration = this.registrations.get(taskId);
+        if (Objects.isNull(registration) || Objects.isNull(token)
+            || !MessageDigest.isEqual(registration.token, token.getBytes(StandardCharsets.UTF_8))) {
+            LOGGER.warn("Rejected report of command [" + index + "] of task [" + taskId + "]");
+            return false;
+        }
+        LOGGER.debug("Command [" + index + "] of task [" + taskId + "] reported exit code ["
+            + exitcode + "]");
+        registration.callback.onCommandFinished(index, exitcode, startedAt, finishedAt);
+        return true;
+    }
+
+    /**
+     * It is called from the request threads of the callback endpoint, so it must return quickly.
+     */
+    public interface CommandCallback {
+
+        /**
+         * @param startedAt The epoch milliseconds, as the container clock tells, or null if unknown.
+         * @param finishedAt The epoch milliseconds, as the container clock tells, or null if unknown.
+         */
+        void onCommandFinished(int index, int exitcode, Long startedAt, Long finishedAt);
+    }
+
+    private static class Registration {
+
+        private final byte[] token;
+        private final CommandCallback callback;
+
+        private Registration(String token, CommandCallback callback) {
+            this.token = token.getBytes(StandardCharsets.UTF_8);
+            this.callback = callback;
+        }
+    }
+}
@@ -1,10 +1,25 @@
 package org.fogbowcloud.arrebol.execution.docker.tasklet;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
 import org.fogbowcloud.arrebol.models.task.Task;
 
 
 public interface Tasklet {
 
     TaskExecutionResult execute(Task task);
+
+    /**
+     * See {@link org.fogbowcloud.arrebol.execution.AsyncTaskExecutor}.
+     */
+    CompletableFuture<TaskExecutionResult> executeAsync(Task task, TaskProgressListener listener,
+        Executor blockingExecutor);
+
+    /**
+     * The container the next tasks run in, see
+     * {@link org.fogbowcloud.arrebol.execution.docker.resource.DockerContainerResource#getContainerName()}.
+     */
+    void setContainerName(String containerName);
 }
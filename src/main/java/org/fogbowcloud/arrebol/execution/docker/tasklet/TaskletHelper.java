@@ -1,6 +1,9 @@
 package org.fogbowcloud.arrebol.execution.docker.tasklet;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.apache.log4j.Logger;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
 import org.fogbowcloud.arrebol.execution.docker.DockerCommandExecutor;
@@ -12,6 +15,7 @@ public class TaskletHelper {
     private static final String TASK_SCRIPT_FILE_PATH_PATTERN = "/tmp/%s.ts";
     private static final String EC_FILE_PATH_PATTERN = "/tmp/%s.ts.ec";
     private static final String RUN_TS_EXECUTOR_PATTERN = "/bin/bash %s -d -tsf=%s";
+    private static final String CALLBACK_OPTIONS_PATTERN = " -cb=%s -tk=%s";
     private final Logger LOGGER = Logger.getLogger(TaskletHelper.class);
 
     private String apiAddress;
@@ -27,13 +31,42 @@ public class TaskletHelper {
     }
 
     public void runTaskScriptExecutor(String taskId) throws Exception {
+        this.dockerCommandExecutor.executeAsyncCommand(apiAddress, containerId, getRunCommand(taskId));
+    }
+
+    public CompletableFuture<Void> runTaskScriptExecutorAsync(String taskId) {
+        return this.dockerCommandExecutor.startCommandAsync(apiAddress, containerId, getRunCommand(taskId));
+    }
+
+    /**
+     * It runs the task script executor so that it posts the end of each command to the callback URL,
+     * with the token, see {@link TaskCallbacks}.
+     */
+    public CompletableFuture<Void> runTaskScriptExecutorAsync(String taskId, String callbackUrl,
+        String token) {
+        String command = getRunCommand(taskId) + String.format(CALLBACK_OPTIONS_PATTERN, callbackUrl, token);
+        return this.dockerCommandExecutor.startCommandAsync(apiAddress, containerId, command);
+    }
+
+    /**
+     * The files a container needs to run the task: the task script executor and the task script.
+     */
+    public Map<String, String> getTaskFiles(String taskScriptExecutor, String taskId, List<Command> commands) {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(TASK_SCRIPT_EXECUTOR_FILE_PATH, taskScriptExecutor);
+        files.put(String.format(TASK_SCRIPT_FILE_PATH_PATTERN, taskId), commandsToString(commands));
+        return files;
+    }
+
+    /**
+     * The shell command which runs the task script, once its files are in the container.
+     */
+    public String getRunCommand(String taskId) {
         String taskScriptExecutorFilePath = String.format(TASK_SCRIPT_FILE_PATH_PATTERN, taskId);
-        String command =
-                String.format(
+        return String.format(
                         RUN_TS_EXECUTOR_PATTERN,
                         TASK_SCRIPT_EXECUTOR_FILE_PATH,
                         taskScriptExecutorFilePath);
-        this.dockerCommandExecutor.executeAsyncCommand(apiAddress, containerId, command);
     }
 
     public void sendTaskScriptExecutor(String taskScriptExecutor) throws Exception {
@@ -79,6 +112,36 @@ public class TaskletHelper {
         }
     }
 
+    public CompletableFuture<Void> sendTaskScriptExecutorAsync(String taskScriptExecutor) {
+        LOGGER.debug("Sending Task Script Executor to Docker Worker");
+        return dockerFileHandlerHelper
+            .writeToFileAsync(containerId, taskScriptExecutor, TASK_SCRIPT_EXECUTOR_FILE_PATH)
+            .handle((exitCode, t) -> {
+                if (t != null || exitCode != 0) {
+                    LOGGER.error("Error while trying to execute send task script executor, exit code ["
+                        + exitCode + "]", t);
+                    throw new RuntimeException("Cannot send task script executor to worker=" + containerId);
+                }
+                return null;
+            });
+    }
+
+    public CompletableFuture<Void> sendTaskScriptAsync(String taskId, List<Command> commands) {
+        String taskScriptFilePath = String.format(TASK_SCRIPT_FILE_PATH_PATTERN, taskId);
+        LOGGER.debug("Starting to write commands to ts file path [" + taskScriptFilePath + "].");
+        return dockerFileHandlerHelper
+            .writeToFileAsync(containerId, commandsToString(commands), taskScriptFilePath)
+            .handle((exitCode, t) -> {
+                if (t != null || exitCode != 0) {
+                    LOGGER.error("Error while trying to send task script [" + taskId + "] to container ["
+                        + containerId + "]; exit code [" + exitCode + "]", t);
+                    throw new RuntimeException(
+                        "Cannot send task script [" + taskId + "] to container [" + containerId + "]");
+                }
+                return null;
+            });
+    }
+
     private String commandsToString(List<Command> commands) {
         String result = "";
         for (Command c : commands) {
@@ -91,7 +154,17 @@ public class TaskletHelper {
     public int[] getExitCodes(String taskId, Integer size) throws Exception {
         String ecFilePath = String.format(EC_FILE_PATH_PATTERN, taskId);
         String ecFileContent = this.dockerFileHandlerHelper.readFile(containerId, ecFilePath);
-        String[] strExitcodes = ecFileContent.split("\r\n");
+        return parseExitCodes(ecFileContent, size);
+    }
+
+    public CompletableFuture<int[]> getExitCodesAsync(String taskId, Integer size) {
+        String ecFilePath = String.format(EC_FILE_PATH_PATTERN, taskId);
+        return this.dockerFileHandlerHelper.readFileAsync(containerId, ecFilePath)
+            .thenApply(ecFileContent -> parseExitCodes(ecFileContent, size));
+    }
+
+    private int[] parseExitCodes(String ecFileContent, int size) {
+        String[] strExitcodes = ecFileContent.split("\\r?\\n");
         int[] exitcodes = new int[size];
         if (!ecFileContent.trim().isEmpty()) {
             for (int i = 0; i < strExitcodes.length; i++) {
@@ -104,6 +177,10 @@ public class TaskletHelper {
         return exitcodes;
     }
 
+    public void setContainerId(String containerId) {
+        this.containerId = containerId;
+    }
+
     public void setDockerCommandExecutor(DockerCommandExecutor dockerCommandExecutor) {
         this.dockerCommandExecutor = dockerCommandExecutor;
     }
@@ -1,9 +1,14 @@
 package org.fogbowcloud.arrebol.execution.raw;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.AsyncTaskExecutor;
+import org.fogbowcloud.arrebol.execution.PollingScheduler;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
 import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
 import org.fogbowcloud.arrebol.models.command.Command;
 import org.fogbowcloud.arrebol.models.command.CommandState;
 import org.fogbowcloud.arrebol.models.task.Task;
@@ -12,10 +17,13 @@ import org.fogbowcloud.arrebol.scheduler.SchedulerPolicy;
 import java.io.IOException;
 import java.util.List;
 
-public class RawTaskExecutor implements TaskExecutor {
+public class RawTaskExecutor implements TaskExecutor, AsyncTaskExecutor {
 
     private final Logger logger = Logger.getLogger(SchedulerPolicy.class);
 
+    //how often the asynchronous executions check whether their processes are done
+    private static final long REAP_PERIOD_MILLIS = 100;
+
     @Override
     public TaskExecutionResult execute(Task task) {
 
@@ -46,6 +54,25 @@ public class RawTaskExecutor implements TaskExecutor {
         return new TaskExecutionResult(result, getExitCodes(commandsList));
     }
 
+    /**
+     * The commands run one after another, as in {@link #execute(Task)}, but no thread waits for
+     * them: a process is started on the blocking executor and reaped by the {@link
+     * PollingScheduler} once it exits.
+     */
+    @Override
+    public CompletableFuture<TaskExecutionResult> executeAsync(Task task,
+        TaskProgressListener listener, Executor blockingExecutor) {
+
+        logger.info("taskId={" + task.getId() + "} async");
+
+        RawExecution execution = new RawExecution(task, listener, blockingExecutor);
+        blockingExecutor.execute(() -> {
+            listener.onStarted(task);
+            execution.startCommand(0);
+        });
+        return execution.future;
+    }
+
     //TODO Implement this method
     @Override
     public Map<String, String> getMetadata() {
@@ -63,11 +90,75 @@ public class RawTaskExecutor implements TaskExecutor {
     private int executeCommand(Command command) throws IOException, InterruptedException {
         // TODO: there are plenty of room to improve this code: working directories, stdout/stderr
         // gathering, env vars
-        String cmdStr = command.getCommand();
-        ProcessBuilder builder = new ProcessBuilder("/bin/bash", "-c", cmdStr);
-        Process process = builder.start();
+        Process process = startProcess(command);
         int exitValue = process.waitFor();
         return exitValue;
     }
 
+    private Process startProcess(Command command) throws IOException {
+        String cmdStr = command.getCommand();
+        ProcessBuilder builder = new ProcessBuilder("/bin/bash", "-c", cmdStr);
+        return builder.start();
+    }
+
+    private class RawExecution {
+
+        private final Task task;
+        private final List<Command> commands;
+        private final TaskProgressListener listener;
+        private final Executor blockingExecutor;
+        private final CompletableFuture<TaskExecutionResult> future;
+        private TaskExecutionResult.RESULT result;
+
+        private RawExecution(Task task, TaskProgressListener listener, Executor blockingExecutor) {
+            this.task = task;
+            this.commands = task.getTaskSpec().getCommands();
+            this.listener = listener;
+            this.blockingExecutor = blockingExecutor;
+            this.future = new CompletableFuture<>();
+            this.result = TaskExecutionResult.RESULT.SUCCESS;
+        }
+
+        private void startCommand(int index) {
+            if (index == this.commands.size()) {
+                this.future.complete(new TaskExecutionResult(this.result, getExitCodes(this.commands)));
+                return;
+            }
+            Command cmd = this.commands.get(index);
+            try {
+                cmd.setState(CommandState.RUNNING);
+                this.listener.onCommandStateChanged(this.task, cmd);
+                Process process = startProcess(cmd);
+                PollingScheduler.getInstance().schedule(() -> reap(index, process), REAP_PERIOD_MILLIS);
+            } catch (Throwable t) {
+                fail(index, t);
+            }
+        }
+
+        private void reap(int index, Process process) {
+            if (process.isAlive()) {
+                PollingScheduler.getInstance().schedule(() -> reap(index, process), REAP_PERIOD_MILLIS);
+                return;
+            }
+            Command cmd = this.commands.get(index);
+            int exitCode = process.exitValue();
+            cmd.setState(CommandState.FINISHED);
+            cmd.setExitcode(exitCode);
+            logger.debug("taskId={" + this.task.getId() + "} cmd={" + cmd + "} result={" + exitCode
+                + "}");
+            this.listener.onCommandStateChanged(this.task, cmd);
+            this.blockingExecutor.execute(() -> startCommand(index + 1));
+        }
+
+        private void fail(int index, Throwable t) {
+            Command cmd = this.commands.get(index);
+            logger.error("taskId={" + this.task.getId() + "} cmd={" + cmd, t);
+            cmd.setState(CommandState.FAILED);
+            cmd.setExitcode(TaskExecutionResult.UNDETERMINED_RESULT);
+            this.result = TaskExecutionResult.RESULT.FAILURE;
+            this.listener.onCommandStateChanged(this.task, cmd);
+            startCommand(index + 1);
+        }
+    }
+
 }
@@ -1,5 +1,7 @@
 package org.fogbowcloud.arrebol.models.command;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import javax.validation.constraints.Size;
 import org.json.JSONException;
@@ -11,8 +13,10 @@ public class Command implements Serializable {
 
     private static final long serialVersionUID = -5555900503095L;
 
+    //the ids are taken from the sequence 50 at a time, so the inserts of commands can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "command_seq")
+    @SequenceGenerator(name = "command_seq", sequenceName = "command_seq", allocationSize = 50)
     private long id;
 
     @Column(length = 10240)
@@ -24,6 +28,15 @@ public class Command implements Serializable {
 
     private Integer exitcode;
 
+    //wall-clock times, in epoch milliseconds, of when the command was seen running and finished
+    @JsonProperty("started_at")
+    private Long startedAt;
+    @JsonProperty("finished_at")
+    private Long finishedAt;
+
+    @Transient
+    private String fingerprint;
+
     Command() {
         //default constructor
     }
@@ -34,11 +47,47 @@ public class Command implements Serializable {
         this.exitcode = Integer.MAX_VALUE;
     }
 
+    /**
+     * The id the database generated, which the journal records refer to. It is zero until the
+     * command is saved.
+     */
+    @JsonIgnore
+    public long getId() {
+        return id;
+    }
+
     public String getCommand() {
         return command;
     }
 
+    /**
+     * The command line with runs of whitespace collapsed and runs of digits replaced by '#', so
+     * the commands of a parameter sweep (e.g. "./sim --seed 1" and "./sim --seed 2") are taken as
+     * the same command. It is computed once, since the command line does not change.
+     */
+    @JsonIgnore
+    public String getFingerprint() {
+        if (this.fingerprint == null) {
+            this.fingerprint = this.command.trim().replaceAll("\\s+", " ").replaceAll("[0-9]+", "#");
+        }
+        return this.fingerprint;
+    }
+
     public void setState(CommandState state) {
+        long now = System.currentTimeMillis();
+        if (CommandState.UNSTARTED.equals(state)) {
+            this.startedAt = null;
+            this.finishedAt = null;
+        } else if (CommandState.RUNNING.equals(state) && this.startedAt == null) {
+            this.startedAt = now;
+        } else if (CommandState.FINISHED.equals(state) || CommandState.FAILED.equals(state)) {
+            if (this.startedAt == null) {
+                this.startedAt = now;
+            }
+            if (this.finishedAt == null) {
+                this.finishedAt = now;
+            }
+        }
         this.state = state;
     }
 
@@ -59,6 +108,33 @@ public class Command implements Serializable {
         }
     }
 
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * The wall-clock time the command took, or null if it has not finished.
+     */
+    @JsonProperty("duration_millis")
+    public Long getDurationMillis() {
+        if (this.startedAt == null || this.finishedAt == null) {
+            return null;
+        }
+        return this.finishedAt - this.startedAt;
+    }
+
     public Integer getExitcode() {
         return exitcode;
     }
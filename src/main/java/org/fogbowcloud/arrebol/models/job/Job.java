@@ -1,5 +1,6 @@
 package org.fogbowcloud.arrebol.models.job;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.fogbowcloud.arrebol.models.task.Task;
 
@@ -20,12 +21,24 @@ public class Job implements Serializable {
     @JsonProperty("job_state")
     private JobState jobState;
 
+    private int priority;
+
+    //the job row carries its queue, so a job is inserted on its own, without its queue
+    @JsonIgnore
+    @Column(name = "queue_id")
+    private String queueId;
+
     @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "job_id")
     private Collection<Task> tasks;
 
     public Job(String label, Collection<Task> tasks) {
+        this(label, tasks, Task.DEFAULT_PRIORITY);
+    }
+
+    public Job(String label, Collection<Task> tasks, int priority) {
         this.id = UUID.randomUUID().toString();
+        this.priority = priority;
         this.jobState = JobState.SUBMITTED;
         this.label = label;
 
@@ -44,6 +57,10 @@ public class Job implements Serializable {
         return this.label;
     }
 
+    public int getPriority() {
+        return this.priority;
+    }
+
     public JobState getJobState() {
         return this.jobState;
     }
@@ -55,4 +72,13 @@ public class Job implements Serializable {
     public Collection<Task> getTasks() {
         return this.tasks;
     }
+
+    @JsonIgnore
+    public String getQueueId() {
+        return this.queueId;
+    }
+
+    public void setQueueId(String queueId) {
+        this.queueId = queueId;
+    }
 }
@@ -23,6 +23,8 @@ public class JobSpec implements Serializable {
     @JsonProperty("tasks_specs")
     private List<TaskSpec> tasksSpecs;
 
+    private Integer priority;
+
     JobSpec() {
     }
 
@@ -40,8 +42,16 @@ public class JobSpec implements Serializable {
         return this.tasksSpecs;
     }
 
+    /**
+     * The priority of all tasks of the job, unless a task spec sets its own. Higher values are
+     * served first by {@link org.fogbowcloud.arrebol.scheduler.PrioritySchedulerPolicy}.
+     */
+    public Integer getPriority() {
+        return this.priority;
+    }
+
     @Override
     public String toString() {
-        return "label={" + label + "} taskSpecs={" + tasksSpecs + "}";
+        return "label={" + label + "} priority={" + priority + "} taskSpecs={" + tasksSpecs + "}";
     }
 }
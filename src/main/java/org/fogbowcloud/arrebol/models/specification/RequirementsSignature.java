@@ -0,0 +1,36 @@
+package org.fogbowcloud.arrebol.models.specification;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * It builds canonical strings for requirements and worker specifications, so tasks with the same
+ * requirements (and workers with the same specification) can be grouped by a cheap string key.
+ */
+public class RequirementsSignature {
+
+    public static final String ANY = "*";
+    private static final String NO_REQUIREMENTS = "";
+
+    public static String of(Map<String, String> requirements) {
+        if (Objects.isNull(requirements) || requirements.isEmpty()) {
+            return NO_REQUIREMENTS;
+        }
+        StringBuilder signature = new StringBuilder();
+        for (Map.Entry<String, String> entry : new TreeMap<>(requirements).entrySet()) {
+            signature.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+        }
+        return signature.toString();
+    }
+
+    /**
+     * A null specification stands for a worker that makes no claims about its capabilities.
+     */
+    public static String of(Specification specification) {
+        if (Objects.isNull(specification)) {
+            return ANY;
+        }
+        return "image=" + specification.getImage() + ";" + of(specification.getRequirements());
+    }
+}
@@ -1,15 +1,19 @@
 package org.fogbowcloud.arrebol.models.task;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.Objects;
+import org.fogbowcloud.arrebol.models.specification.RequirementsSignature;
 
 @Entity
 public class Task implements Serializable {
 
     private static final long serialVersionUID = -6111900503456749695L;
 
+    public static final int DEFAULT_PRIORITY = 0;
+
     @Id
     private String id;
 
@@ -20,9 +24,36 @@ public class Task implements Serializable {
     @JsonProperty("tasks_specs")
     private TaskSpec taskSpec;
 
+    private int priority;
+
+    private String jobLabel;
+
+    //wall-clock times, in epoch milliseconds, of when the task started and finished running
+    @JsonProperty("started_at")
+    private Long startedAt;
+    @JsonProperty("finished_at")
+    private Long finishedAt;
+
+    @Transient
+    private String requirementsSignature;
+
     public Task(String id, TaskSpec taskSpec) {
+        this(id, taskSpec, DEFAULT_PRIORITY);
+    }
+
+    public Task(String id, TaskSpec taskSpec, int priority) {
+        this(id, taskSpec, priority, null);
+    }
+
+    /**
+     * @param jobLabel The label of the job the task belongs to. Along with the commands, it keys
+     * the runtime history of the task.
+     */
+    public Task(String id, TaskSpec taskSpec, int priority, String jobLabel) {
         this.id = id;
         this.taskSpec = taskSpec;
+        this.priority = priority;
+        this.jobLabel = jobLabel;
         this.state = TaskState.PENDING;
     }
 
@@ -40,6 +71,15 @@ public class Task implements Serializable {
     }
 
     public void setState(TaskState newState) {
+        if (TaskState.PENDING.equals(newState)) {
+            this.startedAt = null;
+            this.finishedAt = null;
+        } else if (TaskState.RUNNING.equals(newState)) {
+            this.startedAt = System.currentTimeMillis();
+            this.finishedAt = null;
+        } else if (this.finishedAt == null) {
+            this.finishedAt = System.currentTimeMillis();
+        }
         this.state = newState;
     }
 
@@ -47,6 +87,55 @@ public class Task implements Serializable {
         return taskSpec;
     }
 
+    public int getPriority() {
+        return this.priority;
+    }
+
+    @JsonProperty("job_label")
+    public String getJobLabel() {
+        return this.jobLabel;
+    }
+
+    public Long getStartedAt() {
+        return this.startedAt;
+    }
+
+    public void setStartedAt(Long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return this.finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * The wall-clock time the task took, from its allocation to a worker, or null if it has not
+     * finished.
+     */
+    @JsonProperty("duration_millis")
+    public Long getDurationMillis() {
+        if (this.startedAt == null || this.finishedAt == null) {
+            return null;
+        }
+        return this.finishedAt - this.startedAt;
+    }
+
+    /**
+     * See {@link RequirementsSignature}. It is computed once, since the requirements do not change
+     * after the task is submitted.
+     */
+    @JsonIgnore
+    public String getRequirementsSignature() {
+        if (this.requirementsSignature == null) {
+            this.requirementsSignature = RequirementsSignature.of(this.taskSpec.getRequirements());
+        }
+        return this.requirementsSignature;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -55,15 +144,15 @@ public class Task implements Serializable {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
+        //the id identifies the task; comparing the whole spec (and its commands) was expensive
+        //and made the hash code change along with the task state
         Task task = (Task) o;
-        return Objects.equals(id, task.id) &&
-            state == task.state &&
-            Objects.equals(taskSpec, task.taskSpec);
+        return Objects.equals(id, task.id);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, state, taskSpec);
+        return Objects.hashCode(id);
     }
 
     @Override
@@ -11,6 +11,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.validation.Valid;
 import javax.validation.constraints.Size;
 import org.fogbowcloud.arrebol.models.command.Command;
@@ -23,7 +24,8 @@ public class TaskSpec implements Serializable {
     private String label;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_spec_seq")
+    @SequenceGenerator(name = "task_spec_seq", sequenceName = "task_spec_seq", allocationSize = 50)
     @JsonIgnore
     private Long id;
 
@@ -40,6 +42,8 @@ public class TaskSpec implements Serializable {
 
     @ElementCollection private Map<String, String> metadata;
 
+    private Integer priority;
+
     public TaskSpec(
             Long id, Map<String, String> requirements, List<Command> commands, Map<String, String> metadata) {
         this.id = id;
@@ -76,6 +80,13 @@ public class TaskSpec implements Serializable {
         return this.metadata;
     }
 
+    /**
+     * It overrides the priority of the job, if set.
+     */
+    public Integer getPriority() {
+        return this.priority;
+    }
+
     @Override
     public String toString() {
         return "TaskSpec{" + "id='" + id + '\'' + ", requirements=" + requirements + ", commands="
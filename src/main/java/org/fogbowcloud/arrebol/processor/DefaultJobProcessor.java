@@ -6,16 +6,18 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKey;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Transient;
 import org.fogbowcloud.arrebol.execution.Worker;
-import org.fogbowcloud.arrebol.execution.docker.constants.DockerConstants;
 import org.fogbowcloud.arrebol.models.job.Job;
 import org.fogbowcloud.arrebol.models.task.Task;
 import org.fogbowcloud.arrebol.resource.StaticPool;
@@ -25,6 +27,8 @@ import org.fogbowcloud.arrebol.scheduler.DefaultScheduler;
 @Entity
 public class DefaultJobProcessor implements JobProcessor {
 
+    public static final double DEFAULT_WEIGHT = 1;
+
     @Id
     @Column(name = "ID")
     private String queueId;
@@ -35,20 +39,37 @@ public class DefaultJobProcessor implements JobProcessor {
     private DefaultScheduler defaultScheduler;
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true, targetEntity = StaticPool.class)
     private WorkerPool pool;
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, targetEntity = Job.class)
+    //the queue column is written by the jobs themselves, see Job#getQueueId; the map may hold
+    //only some of the jobs of the queue, see setJobs, so no job is removed for missing from it
+    @OneToMany(cascade = CascadeType.ALL, targetEntity = Job.class)
+    @JoinColumn(name = "queue_id", insertable = false, updatable = false)
+    @MapKey
     private Map<String, Job> jobs;
+    private Double weight;
 
     public DefaultJobProcessor() {
     }
 
     public DefaultJobProcessor(final String queueId, final String queueName, final TaskQueue taskQueue,
         final DefaultScheduler defaultScheduler, final WorkerPool workerPool) {
+        this(queueId, queueName, taskQueue, defaultScheduler, workerPool, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * @param defaultScheduler It may be null when the queue is scheduled by a {@link
+     * org.fogbowcloud.arrebol.scheduler.FairShareScheduler}, along with other queues.
+     * @param weight The share of the workers the queue gets, relative to the weights of the other
+     * queues, when workers are shared.
+     */
+    public DefaultJobProcessor(final String queueId, final String queueName, final TaskQueue taskQueue,
+        final DefaultScheduler defaultScheduler, final WorkerPool workerPool, final double weight) {
         this.queueId = queueId;
         this.name = queueName;
         this.taskQueue = taskQueue;
         this.defaultScheduler = defaultScheduler;
         this.pool = workerPool;
         this.jobs = Collections.synchronizedMap(new HashMap<>());
+        this.weight = weight;
     }
 
     @Override
@@ -71,6 +92,9 @@ public class DefaultJobProcessor implements JobProcessor {
 
     @Override
     public void start() {
+        if (this.defaultScheduler == null) {
+            throw new IllegalStateException("Queue [" + queueId + "] has no scheduler of its own");
+        }
         Thread schedulerThread = new Thread(this.defaultScheduler, "scheduler-thread-" + queueId);
         schedulerThread.start();
     }
@@ -85,6 +109,13 @@ public class DefaultJobProcessor implements JobProcessor {
         return this.jobs;
     }
 
+    /**
+     * It replaces the jobs read along with the queue, e.g. by the jobs recovered on a restart.
+     */
+    public void setJobs(Map<String, Job> jobs) {
+        this.jobs = Collections.synchronizedMap(new HashMap<>(jobs));
+    }
+
     public boolean containsJob(String id) {
         return jobs.containsKey(id);
     }
@@ -103,7 +134,7 @@ public class DefaultJobProcessor implements JobProcessor {
     public int getWorkerPoolsSize() {
         Set<String> addresses = new HashSet<>();
         for(Worker w : this.pool.getWorkers()) {
-            String address = w.getMetadata().get(DockerConstants.ADDRESS_METADATA_KEY);
+            String address = w.getMetadata().get(Worker.ADDRESS_METADATA_KEY);
             addresses.add(address);
         }
         return addresses.size();
@@ -113,10 +144,22 @@ public class DefaultJobProcessor implements JobProcessor {
         return pool;
     }
 
+    public double getWeight() {
+        return Objects.isNull(weight) ? DEFAULT_WEIGHT : weight;
+    }
+
     public void setDefaultScheduler(DefaultScheduler defaultScheduler) {
         this.defaultScheduler = defaultScheduler;
     }
 
+    /**
+     * It replaces the pool read from the database, whose workers have neither state nor executor,
+     * with a pool of workers created for this run.
+     */
+    public void setPool(WorkerPool pool) {
+        this.pool = pool;
+    }
+
     public void setTaskQueue(TaskQueue taskQueue) {
         this.taskQueue = taskQueue;
     }
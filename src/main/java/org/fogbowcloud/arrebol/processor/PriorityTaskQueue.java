@@ -0,0 +1,128 @@
+package org.fogbowcloud.arrebol.processor;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.fogbowcloud.arrebol.models.task.Task;
+
+/**
+ * A {@link TaskQueue} that also keeps its pending tasks in a heap, ordered by effective priority:
+ * the task priority plus agingPerMinute for each minute the task has been waiting. Ties are broken
+ * by arrival order. Aging shifts all waiting tasks alike, so the order of two tasks never changes
+ * after they are queued, and the heap does not need to be rebuilt as time goes by.
+ *
+ * <p>Removed tasks are not looked up in the heap; their entries are dropped once they reach the
+ * top.
+ */
+public class PriorityTaskQueue extends TaskQueue {
+
+    private static final double MILLIS_PER_MINUTE = 60000;
+
+    private final double agingPerMillis;
+    private final Clock clock;
+    private final long createdAt;
+    private final ConcurrentMap<String, Entry> entries;
+    private final PriorityQueue<Entry> heap;
+    private long sequence;
+
+    public PriorityTaskQueue(String id, String name, double agingPerMinute) {
+        this(id, name, agingPerMinute, Clock.systemUTC());
+    }
+
+    public PriorityTaskQueue(String id, String name, double agingPerMinute, Clock clock) {
+        super(id, name);
+        if (agingPerMinute < 0) {
+            throw new IllegalArgumentException("Aging must not be negative: " + agingPerMinute);
+        }
+        this.agingPerMillis = agingPerMinute / MILLIS_PER_MINUTE;
+        this.clock = clock;
+        this.createdAt = clock.millis();
+        this.entries = new ConcurrentHashMap<>();
+        this.heap = new PriorityQueue<>(Comparator.comparingDouble((Entry e) -> -e.key)
+            .thenComparingLong(e -> e.sequence));
+    }
+
+    @Override
+    public boolean addTask(Task task) {
+        //both structures are updated under the heap lock, so a task is never polled before it is
+        //pending in the queue
+        synchronized (this.heap) {
+            if (!super.addTask(task)) {
+                return false;
+            }
+            long waitedFrom = this.clock.millis() - this.createdAt;
+            Entry entry = new Entry(task, task.getPriority() - this.agingPerMillis * waitedFrom,
+                this.sequence++);
+            this.entries.put(task.getId(), entry);
+            this.heap.add(entry);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeTask(String taskId) {
+        this.entries.remove(taskId);
+        return super.removeTask(taskId);
+    }
+
+    /**
+     * It takes the pending task with the highest effective priority out of the heap, or returns
+     * null if there is none. The task stays in the queue: callers must give it back through {@link
+     * #restore(Collection)} once they are done looking at the heap, even if the task is about to be
+     * removed.
+     */
+    public Task pollHighest() {
+        synchronized (this.heap) {
+            Entry entry;
+            while ((entry = this.heap.poll()) != null) {
+                if (this.entries.get(entry.task.getId()) == entry) {
+                    return entry.task;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * It puts polled tasks back in the heap, in their original order. Tasks removed from the queue
+     * meanwhile are ignored.
+     */
+    public void restore(Collection<Task> polled) {
+        synchronized (this.heap) {
+            for (Task task : polled) {
+                Entry entry = this.entries.get(task.getId());
+                if (entry != null) {
+                    this.heap.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * The priority of the task plus its aging so far.
+     */
+    public double getEffectivePriority(Task task) {
+        Entry entry = this.entries.get(task.getId());
+        if (entry == null) {
+            return task.getPriority();
+        }
+        return entry.key + this.agingPerMillis * (this.clock.millis() - this.createdAt);
+    }
+
+    private static class Entry {
+
+        private final Task task;
+        //the effective priority minus the aging of all tasks since the queue was created
+        private final double key;
+        private final long sequence;
+
+        private Entry(Task task, double key, long sequence) {
+            this.task = task;
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -1,33 +1,107 @@
 package org.fogbowcloud.arrebol.processor;
 
 import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.scheduler.SchedulingListener;
 
+import java.util.AbstractCollection;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * It keeps the pending tasks in arrival order. Tasks are indexed by id, so adding and removing a
+ * task are O(1) operations. {@link TaskQueue#queue()} returns a live view of the pending tasks:
+ * iterating over it does not copy the queue and does not block writers. The iteration is weakly
+ * consistent, i.e. it reflects some of the changes made after the iterator was created, and it
+ * never returns a task that was already removed when the iterator reached its position.
+ */
 public class TaskQueue {
 
+    //tasks are appended to fixed-size segments, so a scan reads contiguous slots instead of
+    //chasing one node per task. A removed task leaves an empty slot behind; a segment is
+    //unlinked once all its slots are empty
+    private static final int SEGMENT_CAPACITY = 256;
+
     private final String id;
     private final String name;
-    private final Collection<Task> pendingTasks;
+    private final ConcurrentMap<String, Slot> pendingTasks;
+    private final List<SchedulingListener> listeners;
+
+    //the links are changed under the lock; readers only follow the (volatile) next links. An
+    //unlinked segment keeps its next link, so a cursor stopped on it still reaches the rest
+    private final Object lock = new Object();
+    private volatile Segment head;
+    private Segment tail;
 
     public TaskQueue(String id, String name) {
         this.id = id;
         this.name = name;
-        this.pendingTasks = Collections.synchronizedCollection(new LinkedList<Task>());
+        this.pendingTasks = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.head = new Segment();
+        this.tail = this.head;
     }
 
     public boolean addTask(Task task) {
-        return this.pendingTasks.add(task);
+        synchronized (this.lock) {
+            if (this.pendingTasks.containsKey(task.getId())) {
+                return false;
+            }
+            if (this.tail.size == SEGMENT_CAPACITY) {
+                appendSegment();
+            }
+            Segment segment = this.tail;
+            int position = segment.size;
+            segment.slots.set(position, task);
+            segment.live++;
+            segment.size = position + 1;
+            this.pendingTasks.put(task.getId(), new Slot(segment, position));
+        }
+        for (SchedulingListener listener : this.listeners) {
+            listener.notifyAddedTask();
+        }
+        return true;
     }
 
     public boolean removeTask(Task task) {
-        return this.pendingTasks.remove(task);
+        return removeTask(task.getId());
+    }
+
+    public boolean removeTask(String taskId) {
+        synchronized (this.lock) {
+            Slot slot = this.pendingTasks.remove(taskId);
+            if (slot == null) {
+                return false;
+            }
+            Segment segment = slot.segment;
+            segment.slots.set(slot.position, null);
+            segment.live--;
+            if (segment.live == 0 && segment != this.tail) {
+                unlink(segment);
+            }
+            return true;
+        }
+    }
+
+    public boolean containsTask(String taskId) {
+        return this.pendingTasks.containsKey(taskId);
+    }
+
+    public int size() {
+        return this.pendingTasks.size();
     }
 
     public Collection<Task> queue() {
-        return new LinkedList<Task>(this.pendingTasks);
+        return new PendingTasksView();
+    }
+
+    public void addListener(SchedulingListener listener) {
+        this.listeners.add(listener);
     }
 
     public String getId() {
@@ -42,4 +116,122 @@ public class TaskQueue {
     public String toString() {
         return "id={" + getId() + "} name={" + getName() + "}";
     }
+
+    private void appendSegment() {
+        Segment full = this.tail;
+        Segment segment = new Segment();
+        segment.prev = full;
+        full.next = segment;
+        this.tail = segment;
+        if (full.live == 0) {
+            unlink(full);
+        }
+    }
+
+    private void unlink(Segment segment) {
+        if (segment.prev == null) {
+            this.head = segment.next;
+        } else {
+            segment.prev.next = segment.next;
+        }
+        segment.next.prev = segment.prev;
+    }
+
+    private static class Segment {
+
+        private final AtomicReferenceArray<Task> slots = new AtomicReferenceArray<>(SEGMENT_CAPACITY);
+        //slots in use; it is written after the slot, so readers never see an unset slot
+        private volatile int size;
+        private int live;
+        private volatile Segment next;
+        private Segment prev;
+    }
+
+    private static class Slot {
+
+        private final Segment segment;
+        private final int position;
+
+        private Slot(Segment segment, int position) {
+            this.segment = segment;
+            this.position = position;
+        }
+    }
+
+    private class PendingTasksView extends AbstractCollection<Task> {
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Cursor();
+        }
+
+        @Override
+        public int size() {
+            return TaskQueue.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return TaskQueue.this.pendingTasks.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Task && containsTask(((Task) o).getId());
+        }
+    }
+
+    private class Cursor implements Iterator<Task> {
+
+        private Segment segment = head;
+        private int position;
+        private Task nextTask;
+        private Task lastReturned;
+
+        @Override
+        public boolean hasNext() {
+            if (this.nextTask == null) {
+                this.nextTask = advance();
+            }
+            return this.nextTask != null;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.lastReturned = this.nextTask;
+            this.nextTask = null;
+            return this.lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            removeTask(this.lastReturned.getId());
+            this.lastReturned = null;
+        }
+
+        private Task advance() {
+            while (true) {
+                int size = this.segment.size;
+                while (this.position < size) {
+                    Task task = this.segment.slots.get(this.position++);
+                    if (task != null) {
+                        return task;
+                    }
+                }
+                Segment next = this.segment.next;
+                if (next == null) {
+                    //stays on the last segment, so tasks appended later are still reached
+                    return null;
+                }
+                this.segment = next;
+                this.position = 0;
+            }
+        }
+    }
 }
@@ -14,15 +14,24 @@ public class DefaultJobProcessorDTO {
     public Integer workerPools;
     @JsonProperty("pools_size")
     public Integer poolsSize;
+    public double weight;
 
     public DefaultJobProcessorDTO(DefaultJobProcessor defaultJobProcessor) {
+        this(defaultJobProcessor, defaultJobProcessor.getJobs().values().stream().filter(
+            job -> !(job.getJobState().equals(JobState.FINISHED) || job.getJobState()
+                .equals(JobState.FAILED))).count());
+    }
+
+    /**
+     * @param waitingJobs The jobs of the queue not finished nor failed, so they need not be read.
+     */
+    public DefaultJobProcessorDTO(DefaultJobProcessor defaultJobProcessor, long waitingJobs) {
         this.id = defaultJobProcessor.getId();
         this.name = defaultJobProcessor.getName();
-        this.waitingJobs = defaultJobProcessor.getJobs().values().stream().filter(
-            job -> !(job.getJobState().equals(JobState.FINISHED) || job.getJobState()
-                .equals(JobState.FAILED))).count();
+        this.waitingJobs = waitingJobs;
         this.workerPools = defaultJobProcessor.getWorkerPoolsSize();
         this.poolsSize = defaultJobProcessor.getPoolsSize();
+        this.weight = defaultJobProcessor.getWeight();
     }
 
     public String getId() {
@@ -44,4 +53,8 @@ public class DefaultJobProcessorDTO {
     public Integer getPoolsSize() {
         return poolsSize;
     }
+
+    public double getWeight() {
+        return weight;
+    }
 }
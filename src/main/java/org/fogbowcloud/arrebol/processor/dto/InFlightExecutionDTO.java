@@ -0,0 +1,42 @@
+package org.fogbowcloud.arrebol.processor.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.fogbowcloud.arrebol.execution.InFlightExecution;
+
+public class InFlightExecutionDTO {
+
+    @JsonProperty("task_id")
+    public String taskId;
+    @JsonProperty("worker_id")
+    public String workerId;
+    @JsonProperty("submitted_at")
+    public long submittedAt;
+    @JsonProperty("started_at")
+    public Long startedAt;
+
+    public InFlightExecutionDTO(InFlightExecution execution) {
+        this.taskId = execution.getTask().getId();
+        this.workerId = execution.getWorker().getId();
+        this.submittedAt = execution.getSubmittedAt();
+        this.startedAt = execution.isStarted() ? execution.getStartedAt() : null;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * It returns null while the execution waits for a thread.
+     */
+    public Long getStartedAt() {
+        return startedAt;
+    }
+}
@@ -0,0 +1,46 @@
+package org.fogbowcloud.arrebol.processor.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class JobCompletionEstimateDTO {
+
+    @JsonProperty("job_id")
+    public String jobId;
+    @JsonProperty("pending_tasks")
+    public int pendingTasks;
+    @JsonProperty("running_tasks")
+    public int runningTasks;
+    @JsonProperty("remaining_work_millis")
+    public long remainingWorkMillis;
+    @JsonProperty("estimated_completion")
+    public long estimatedCompletion;
+
+    public JobCompletionEstimateDTO(String jobId, int pendingTasks, int runningTasks,
+        long remainingWorkMillis, long estimatedCompletion) {
+        this.jobId = jobId;
+        this.pendingTasks = pendingTasks;
+        this.runningTasks = runningTasks;
+        this.remainingWorkMillis = remainingWorkMillis;
+        this.estimatedCompletion = estimatedCompletion;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getPendingTasks() {
+        return pendingTasks;
+    }
+
+    public int getRunningTasks() {
+        return runningTasks;
+    }
+
+    public long getRemainingWorkMillis() {
+        return remainingWorkMillis;
+    }
+
+    public long getEstimatedCompletion() {
+        return estimatedCompletion;
+    }
+}
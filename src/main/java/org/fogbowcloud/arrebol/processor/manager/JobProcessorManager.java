@@ -8,7 +8,10 @@ import java.util.Objects;
 import java.util.Timer;
 import java.util.TimerTask;
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.datastore.managers.JobCommitter;
+import org.fogbowcloud.arrebol.datastore.managers.JobDBManager;
 import org.fogbowcloud.arrebol.datastore.managers.QueueDBManager;
+import org.fogbowcloud.arrebol.datastore.managers.WriteBehindFlusher;
 import org.fogbowcloud.arrebol.execution.Worker;
 import org.fogbowcloud.arrebol.models.job.Job;
 import org.fogbowcloud.arrebol.models.job.JobState;
@@ -17,22 +20,39 @@ import org.fogbowcloud.arrebol.models.task.TaskState;
 import org.fogbowcloud.arrebol.processor.DefaultJobProcessor;
 import org.fogbowcloud.arrebol.processor.JobProcessor;
 import org.fogbowcloud.arrebol.processor.dto.DefaultJobProcessorDTO;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
+import org.fogbowcloud.arrebol.scheduler.FairShareScheduler;
+import org.fogbowcloud.arrebol.scheduler.JobCompletionEstimator;
+import org.fogbowcloud.arrebol.scheduler.RuntimeHistory;
 import org.fogbowcloud.arrebol.utils.Messages.Exceptions;
 import org.fogbowcloud.arrebol.processor.exceptions.QueueNotFoundException;
 
 public class JobProcessorManager {
 
-    private static final int COMMIT_PERIOD_MILLIS = 1000 * 10;
     private static final int UPDATE_PERIOD_MILLIS = 1000 * 10;
     private final Logger LOGGER = Logger.getLogger(JobProcessorManager.class);
     private Map<String, JobProcessor> queues;
-    private final Timer jobProcessorDatabaseCommitter;
     private final Timer jobStateMonitor;
+    private final FairShareScheduler sharedScheduler;
+    private final JobCompletionEstimator estimator;
 
     public JobProcessorManager(Map<String, JobProcessor> queues) {
-        this.jobProcessorDatabaseCommitter = new Timer(true);
+        this(queues, null);
+    }
+
+    /**
+     * @param sharedScheduler When not null, the queues are not started on their own schedulers;
+     * they share the workers of all their pools through this scheduler instead.
+     */
+    public JobProcessorManager(Map<String, JobProcessor> queues, FairShareScheduler sharedScheduler) {
         this.jobStateMonitor = new Timer(true);
         this.queues = queues;
+        this.sharedScheduler = sharedScheduler;
+        this.estimator = new JobCompletionEstimator(RuntimeHistory.getInstance());
+        if (Objects.nonNull(sharedScheduler)) {
+            Thread schedulerThread = new Thread(sharedScheduler, "fair-share-scheduler-thread");
+            schedulerThread.start();
+        }
     }
 
     public void addJobProcessor(JobProcessor jobProcessor){
@@ -41,6 +61,14 @@ public class JobProcessorManager {
         LOGGER.info("Added new queue [" + jobProcessor.getId() + "]");
     }
 
+    /**
+     * It adds a queue read from the database, which is not saved again.
+     */
+    public void addRecoveredJobProcessor(JobProcessor jobProcessor) {
+        this.queues.put(jobProcessor.getId(), jobProcessor);
+        LOGGER.info("Recovered queue [" + jobProcessor.getId() + "]");
+    }
+
     public List<DefaultJobProcessorDTO> getJobProcessors() {
         List<DefaultJobProcessorDTO> list = new ArrayList<>();
         for(JobProcessor jobProcessor : queues.values()) {
@@ -55,24 +83,23 @@ public class JobProcessorManager {
         if(Objects.isNull(d)) {
             throw new QueueNotFoundException(String.format(Exceptions.QUEUE_NOT_FOUND_PATTERN, queueId));
         }
-        DefaultJobProcessorDTO defaultJobProcessorDTO = new DefaultJobProcessorDTO(d);
+        //the jobs are counted by the database, instead of read to be counted
+        long waitingJobs = JobDBManager.getInstance().countUnfinished(queueId);
+        DefaultJobProcessorDTO defaultJobProcessorDTO = new DefaultJobProcessorDTO(d, waitingJobs);
         return defaultJobProcessorDTO;
     }
 
     public void startJobProcessor(String queueId){
         LOGGER.info("Starting queue [" + queueId + "]...");
-        this.queues.get(queueId).start();
-        this.jobProcessorDatabaseCommitter.schedule(new TimerTask() {
-                                                 public void run() {
-                                                     LOGGER.info("Commit job pool from queue [" + queueId + "] to the database");
-                                                     try {
-                                                         QueueDBManager.getInstance().save((DefaultJobProcessor) queues.get(queueId));
-                                                     } catch (Exception e) {
-                                                         LOGGER.error("Error while saving job processor [" + queueId + "]: " + e.getMessage());
-                                                     }
-                                                 }
-                                             }, COMMIT_PERIOD_MILLIS, COMMIT_PERIOD_MILLIS
-        );
+        if (Objects.isNull(this.sharedScheduler)) {
+            this.queues.get(queueId).start();
+        } else {
+            DefaultJobProcessor jobProcessor = (DefaultJobProcessor) this.queues.get(queueId);
+            this.sharedScheduler.addQueue(jobProcessor.getTaskQueue(), jobProcessor.getPool(),
+                jobProcessor.getWeight());
+        }
+        //the changes of the queue are saved as they are made, instead of the whole queue each time
+        WriteBehindFlusher.getInstance().start();
 
         this.jobStateMonitor.schedule(new TimerTask() {
                                           public void run() {
@@ -95,6 +122,7 @@ public class JobProcessorManager {
         }
         LOGGER.info("Adding workers [" + workers.size() + "] to queue [" + queueId + "]");
         this.queues.get(queueId).addWorkers(workers);
+        WriteBehindFlusher.getInstance().markDirty((DefaultJobProcessor) this.queues.get(queueId));
     }
 
     public void addJob(String queueId, Job job) {
@@ -102,22 +130,57 @@ public class JobProcessorManager {
             throw new QueueNotFoundException(String.format(Exceptions.QUEUE_NOT_FOUND_PATTERN, queueId));
         }
 
-        DefaultJobProcessor defaultJobProcessor = QueueDBManager.getInstance().findOne(queueId);
-        defaultJobProcessor.getJobs().put(job.getId(), job);
-
-        QueueDBManager.getInstance().save(defaultJobProcessor);
+        //the job is queued only once it is stored
+        job.setQueueId(queueId);
+        JobCommitter.getInstance().commit(job);
         queues.get(queueId).addJob(job);
     }
 
+    /**
+     * It returns the job as kept in memory, whose state may be ahead of the database, and falls
+     * back to the database for the jobs done before a restart.
+     */
     public Job getJob(String queueId, String jobId){
         if(!queues.containsKey(queueId)) {
             throw new QueueNotFoundException(String.format(Exceptions.QUEUE_NOT_FOUND_PATTERN, queueId));
         }
-        return QueueDBManager.getInstance().findOneJob(queueId, jobId);
+        Job job = queues.get(queueId).getJob(jobId);
+        if (Objects.isNull(job)) {
+            job = JobDBManager.getInstance().findOne(queueId, jobId);
+        }
+        return job;
+    }
+
+    /**
+     * It returns null if the queue has no such job.
+     */
+    public JobCompletionEstimateDTO getJobEstimate(String queueId, String jobId) {
+        if(!queues.containsKey(queueId)) {
+            throw new QueueNotFoundException(String.format(Exceptions.QUEUE_NOT_FOUND_PATTERN, queueId));
+        }
+        DefaultJobProcessor jobProcessor = (DefaultJobProcessor) queues.get(queueId);
+        Job job = jobProcessor.getJob(jobId);
+        if (Objects.isNull(job)) {
+            //the jobs done before a restart are not kept in memory
+            job = JobDBManager.getInstance().findOne(queueId, jobId);
+        }
+        if (Objects.isNull(job)) {
+            return null;
+        }
+        return this.estimator.estimate(job, jobProcessor.getTaskQueue(), jobProcessor.getJobs().values(),
+            jobProcessor.getPoolsSize(), System.currentTimeMillis());
     }
 
     //The arrebol does not change job state internally, so we need this workaround
     private void updateJobState(Job job) {
+        JobState jobState = job.getJobState();
+        updateUnfinishedJobState(job);
+        if (!jobState.equals(job.getJobState())) {
+            WriteBehindFlusher.getInstance().markDirty(job);
+        }
+    }
+
+    private void updateUnfinishedJobState(Job job) {
         JobState jobState = job.getJobState();
         if (!(jobState.equals(JobState.FAILED) || jobState.equals(JobState.FINISHED))) {
             if (all(job.getTasks(), TaskState.FAILED.getValue())) {
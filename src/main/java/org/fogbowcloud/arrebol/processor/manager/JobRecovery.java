@@ -0,0 +1,221 @@
+package org.fogbowcloud.arrebol.processor.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal.Container;
+import org.fogbowcloud.arrebol.datastore.managers.JobDBManager;
+import org.fogbowcloud.arrebol.datastore.managers.TaskDBManager;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerFileHandlerHelper;
+import org.fogbowcloud.arrebol.execution.docker.resource.ContainerReaper;
+import org.fogbowcloud.arrebol.execution.docker.tasklet.TaskletHelper;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.job.JobState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.scheduler.RuntimeHistory;
+
+/**
+ * It resumes the work of a queue on a restart. The jobs are read a page at a time; the state the
+ * journal has of their tasks, if any, is restored, and only the tasks which had not finished are
+ * queued again. A task left running is finished instead, if all its commands are known to have
+ * finished, either as recorded or as the container it ran in tells; its container is removed.
+ * Only the jobs with work left are kept, the others are just read for the runtime history.
+ */
+public class JobRecovery {
+
+    private static final int PAGE_SIZE = 100;
+    private final Logger LOGGER = Logger.getLogger(JobRecovery.class);
+
+    private final Store store;
+    private final ContainerInspector inspector;
+
+    public JobRecovery() {
+        this(new Store() {
+        }, new ContainerInspector() {
+        });
+    }
+
+    JobRecovery(Store store, ContainerInspector inspector) {
+        this.store = store;
+        this.inspector = inspector;
+    }
+
+    /**
+     * @return The jobs of the queue with work left, whose tasks left are added to the task queue.
+     */
+    public Map<String, Job> recover(String queueId, TaskQueue taskQueue) {
+        Map<String, Job> unfinishedJobs = new HashMap<>();
+        int read = 0;
+        int queued = 0;
+        int reconciled = 0;
+        List<Job> page;
+        for (int pageNumber = 0; !(page = this.store.findJobs(queueId, pageNumber, PAGE_SIZE)).isEmpty();
+            pageNumber++) {
+            List<Task> changedTasks = new ArrayList<>();
+            List<String> requeuedJobs = new ArrayList<>();
+            List<Task> pageTasks = new ArrayList<>();
+            for (Job job : page) {
+                boolean requeued = false;
+                for (Task task : job.getTasks()) {
+                    pageTasks.add(task);
+                    boolean changed = StateJournal.getInstance().restore(task);
+                    if (TaskState.RUNNING.equals(task.getState())) {
+                        if (reconcile(task)) {
+                            reconciled++;
+                        } else {
+                            reset(task);
+                        }
+                        changed = true;
+                    }
+                    if (TaskState.PENDING.equals(task.getState())) {
+                        taskQueue.addTask(task);
+                        requeued = true;
+                        queued++;
+                    }
+                    RuntimeHistory.getInstance().record(task);
+                    if (changed) {
+                        changedTasks.add(task);
+                    }
+                }
+                if (requeued) {
+                    job.setJobState(JobState.QUEUED);
+                    requeuedJobs.add(job.getId());
+                }
+                if (requeued || !isFinal(job.getJobState())) {
+                    unfinishedJobs.put(job.getId(), job);
+                }
+            }
+            save(changedTasks, requeuedJobs);
+            //the tasks are saved, so the journal need not keep the finished ones
+            StateJournal.getInstance().forget(pageTasks);
+            read += page.size();
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        LOGGER.info("Recovered queue [" + queueId + "]: read [" + read + "] jobs, kept [" + unfinishedJobs.size()
+            + "] with work left, queued [" + queued + "] tasks again, ended [" + reconciled
+            + "] tasks left running");
+        return unfinishedJobs;
+    }
+
+    /**
+     * It ends the task left running if all its commands ended, and gets rid of the container it
+     * ran in. The task fails if any of its commands failed, as when it runs to the end.
+     */
+    private boolean reconcile(Task task) {
+        List<Command> commands = task.getTaskSpec().getCommands();
+        if (commands.stream().allMatch(JobRecovery::hasEnded)) {
+            discardContainer(task);
+            task.setState(endedState(commands));
+            return true;
+        }
+        Container container = StateJournal.getInstance().findContainer(task.getId());
+        if (Objects.isNull(container)) {
+            return false;
+        }
+        try {
+            int[] exitcodes = this.inspector.getExitCodes(container.getAddress(), container.getName(),
+                task);
+            for (int i = 0; i < commands.size(); i++) {
+                if (!hasEnded(commands.get(i))
+                    && exitcodes[i] == TaskExecutionResult.UNDETERMINED_RESULT) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < commands.size(); i++) {
+                Command command = commands.get(i);
+                if (!hasEnded(command)) {
+                    command.setState(CommandState.FINISHED);
+                    command.setExitcode(exitcodes[i]);
+                }
+            }
+            task.setState(endedState(commands));
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("Could not read the results of task [" + task.getId() + "] from container ["
+                + container.getName() + "] of host [" + container.getAddress() + "]: " + e.getMessage());
+            return false;
+        } finally {
+            this.inspector.discard(container.getAddress(), container.getName());
+        }
+    }
+
+    private static boolean hasEnded(Command command) {
+        return CommandState.FINISHED.equals(command.getState())
+            || CommandState.FAILED.equals(command.getState());
+    }
+
+    private static TaskState endedState(List<Command> commands) {
+        return commands.stream().anyMatch(c -> CommandState.FAILED.equals(c.getState()))
+            ? TaskState.FAILED : TaskState.FINISHED;
+    }
+
+    private void discardContainer(Task task) {
+        Container container = StateJournal.getInstance().findContainer(task.getId());
+        if (Objects.nonNull(container)) {
+            this.inspector.discard(container.getAddress(), container.getName());
+        }
+    }
+
+    private void reset(Task task) {
+        for (Command command : task.getTaskSpec().getCommands()) {
+            command.setState(CommandState.UNSTARTED);
+            command.setExitcode(Integer.MAX_VALUE);
+        }
+        task.setState(TaskState.PENDING);
+    }
+
+    private void save(List<Task> changedTasks, List<String> requeuedJobs) {
+        if (!changedTasks.isEmpty()) {
+            this.store.saveTasks(changedTasks);
+        }
+        if (!requeuedJobs.isEmpty()) {
+            this.store.updateJobState(JobState.QUEUED, requeuedJobs);
+        }
+    }
+
+    private static boolean isFinal(JobState state) {
+        return JobState.FINISHED.equals(state) || JobState.FAILED.equals(state);
+    }
+
+    interface Store {
+
+        default List<Job> findJobs(String queueId, int page, int pageSize) {
+            return JobDBManager.getInstance().findPage(queueId, page, pageSize);
+        }
+
+        default void saveTasks(Collection<Task> tasks) {
+            TaskDBManager.getInstance().saveAll(tasks);
+        }
+
+        default void updateJobState(JobState jobState, Collection<String> jobIds) {
+            JobDBManager.getInstance().updateJobState(jobState, jobIds);
+        }
+    }
+
+    /**
+     * The containers are asked for what the task script executor wrote of the commands of the task.
+     */
+    interface ContainerInspector {
+
+        default int[] getExitCodes(String address, String containerName, Task task) throws Exception {
+            return new TaskletHelper(address, containerName, null, new DockerFileHandlerHelper(address))
+                .getExitCodes(task.getId(), task.getTaskSpec().getCommands().size());
+        }
+
+        default void discard(String address, String containerName) {
+            ContainerReaper.getInstance().reap(address, containerName);
+        }
+    }
+}
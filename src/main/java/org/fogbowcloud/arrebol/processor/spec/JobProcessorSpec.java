@@ -14,6 +14,8 @@ public class JobProcessorSpec {
     @JsonProperty("worker_nodes")
     private List<WorkerNode> workerNodes;
 
+    private Double weight;
+
     public JobProcessorSpec() {
         this.workerNodes = new ArrayList<>();
     }
@@ -25,4 +27,8 @@ public class JobProcessorSpec {
     public List<WorkerNode> getWorkerNodes() {
         return workerNodes;
     }
+
+    public Double getWeight() {
+        return weight;
+    }
 }
@@ -0,0 +1,98 @@
+package org.fogbowcloud.arrebol.resource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.log4j.Logger;
+
+/**
+ * It keeps which images are present on each worker host, keyed by the host address (see {@link
+ * org.fogbowcloud.arrebol.execution.Worker#ADDRESS_METADATA_KEY}). A host listing replaces what is
+ * known about the host; a pull adds a single image. Image names without a tag are taken as the
+ * latest tag, as Docker does.
+ */
+public class ImageInventory {
+
+    private static final Logger LOGGER = Logger.getLogger(ImageInventory.class);
+    private static final String LATEST_TAG = ":latest";
+
+    private static ImageInventory instance;
+
+    private final Map<String, Set<String>> imagesByHost;
+    private volatile String defaultImage;
+
+    public ImageInventory() {
+        this.imagesByHost = new ConcurrentHashMap<>();
+    }
+
+    public synchronized static ImageInventory getInstance() {
+        if (instance == null) {
+            instance = new ImageInventory();
+        }
+        return instance;
+    }
+
+    public void replace(String host, Collection<String> images) {
+        Set<String> normalized = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        for (String image : images) {
+            normalized.add(normalize(image));
+        }
+        this.imagesByHost.put(host, normalized);
+        LOGGER.debug("Host [" + host + "] has images " + normalized);
+    }
+
+    public void add(String host, String image) {
+        if (Objects.isNull(host)) {
+            return;
+        }
+        this.imagesByHost.computeIfAbsent(host, h -> Collections.newSetFromMap(new ConcurrentHashMap<>()))
+            .add(normalize(image));
+    }
+
+    /**
+     * @param image The image of a task, or null for the default image.
+     */
+    public boolean hasImage(String host, String image) {
+        return getHostsWith(image).contains(host);
+    }
+
+    /**
+     * @param image The image of a task, or null for the default image.
+     */
+    public Set<String> getHostsWith(String image) {
+        if (Objects.isNull(image)) {
+            image = this.defaultImage;
+        }
+        if (Objects.isNull(image)) {
+            return Collections.emptySet();
+        }
+        String normalized = normalize(image);
+        Set<String> hosts = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : this.imagesByHost.entrySet()) {
+            if (entry.getValue().contains(normalized)) {
+                hosts.add(entry.getKey());
+            }
+        }
+        return hosts;
+    }
+
+    /**
+     * The image the tasks that do not require one run on.
+     */
+    public void setDefaultImage(String defaultImage) {
+        this.defaultImage = defaultImage;
+    }
+
+    /**
+     * It adds the tag Docker assumes when an image name has none.
+     */
+    public static String normalize(String image) {
+        //a colon after the last slash separates the tag; before it, it is a registry port
+        int lastSlash = image.lastIndexOf('/');
+        return image.indexOf(':', lastSlash + 1) < 0 ? image + LATEST_TAG : image;
+    }
+}
@@ -1,6 +1,8 @@
 package org.fogbowcloud.arrebol.resource;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -8,8 +10,11 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToOne;
 import javax.persistence.Transient;
+import org.fogbowcloud.arrebol.execution.AsyncTaskExecutor;
+import org.fogbowcloud.arrebol.execution.SynchronousExecutorBridge;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
 import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
 import org.fogbowcloud.arrebol.execution.Worker;
 import org.fogbowcloud.arrebol.execution.docker.DockerTaskExecutor;
 import org.fogbowcloud.arrebol.models.specification.Specification;
@@ -17,10 +22,11 @@ import org.fogbowcloud.arrebol.models.task.Task;
 
 /**
  * This @{link Worker} implementation matches any @{link Specification}.
- * It delegates @{link TaskExecutor} behaviour to received object.
+ * It delegates @{link TaskExecutor} behaviour to received object, which is bridged to
+ * @{link AsyncTaskExecutor} if it is only synchronous.
  */
 @Entity
-public class MatchAnyWorker implements Worker {
+public class MatchAnyWorker implements Worker, AsyncTaskExecutor {
 
     //simple resource that accepts any request
 
@@ -91,4 +97,11 @@ public class MatchAnyWorker implements Worker {
     public TaskExecutionResult execute(Task task) {
         return this.executor.execute(task);
     }
+
+    @Override
+    public CompletableFuture<TaskExecutionResult> executeAsync(Task task,
+        TaskProgressListener listener, Executor blockingExecutor) {
+        return SynchronousExecutorBridge.asAsync(this.executor)
+            .executeAsync(task, listener, blockingExecutor);
+    }
 }
@@ -5,10 +5,14 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.Transient;
 import org.fogbowcloud.arrebol.execution.Worker;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.fogbowcloud.arrebol.scheduler.SchedulingListener;
 
 @Entity
 public class StaticPool implements WorkerPool {
@@ -21,6 +25,8 @@ public class StaticPool implements WorkerPool {
     private int poolId;
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, targetEntity = MatchAnyWorker.class)
     private Collection<Worker> workers;
+    @Transient
+    private final List<SchedulingListener> listeners = new CopyOnWriteArrayList<>();
 
     public StaticPool(int poolId, Collection<Worker> workers) {
         this.poolId = poolId;
@@ -43,6 +49,14 @@ public class StaticPool implements WorkerPool {
     @Override
     public void addWorkers(Collection<Worker> workers) {
         this.workers.addAll(workers);
+        for (SchedulingListener listener : this.listeners) {
+            listener.notifyAvailableWorker();
+        }
+    }
+
+    @Override
+    public void addListener(SchedulingListener listener) {
+        this.listeners.add(listener);
     }
 
     @Override
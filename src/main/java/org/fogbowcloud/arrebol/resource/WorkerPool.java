@@ -1,6 +1,7 @@
 package org.fogbowcloud.arrebol.resource;
 
 import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.scheduler.SchedulingListener;
 
 import java.util.Collection;
 
@@ -11,4 +12,6 @@ public interface WorkerPool {
     Collection<Worker> getWorkers();
 
     void addWorkers(Collection<Worker> workers);
+
+    void addListener(SchedulingListener listener);
 }
@@ -0,0 +1,67 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
+import org.fogbowcloud.arrebol.datastore.managers.WriteBehindFlusher;
+import org.fogbowcloud.arrebol.execution.ExecutionBroker;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+
+/**
+ * It carries out the {@link AllocationPlan}s made by a {@link SchedulerPolicy}: the planned tasks
+ * leave their queue and are handed to the {@link ExecutionBroker} along with their workers. Once
+ * the broker has no room for more executions, the remaining plans are dropped; their tasks stay
+ * pending, in place, for the next rounds, so callers account only for the plans it returns.
+ */
+public class AllocationPlanExecutor {
+
+    private final ExecutionBroker executionBroker;
+
+    public AllocationPlanExecutor(ExecutionBroker executionBroker) {
+        this.executionBroker = executionBroker;
+    }
+
+    /**
+     * It returns the plans carried out, in order; fewer than given once the broker is full.
+     */
+    public List<AllocationPlan> execute(TaskQueue queue, Collection<AllocationPlan> plans) {
+
+        List<AllocationPlan> carriedOut = new ArrayList<>(plans.size());
+        for (AllocationPlan plan : plans) {
+
+            switch (plan.getType()) {
+                case RUN: {
+
+                    if (!executionBroker.tryReserve()) {
+                        return carriedOut;
+                    }
+                    Task task = plan.getTask();
+                    task.setState(TaskState.RUNNING);
+                    StateJournal.getInstance().record(task);
+                    WriteBehindFlusher.getInstance().markDirty(task);
+                    queue.removeTask(task);
+
+                    Worker worker = plan.getWorker();
+                    worker.setState(ResourceState.ALLOCATED);
+
+                    executionBroker.execute(plan.getTask(), worker);
+                    carriedOut.add(plan);
+                    break;
+                }
+                case STOP: {
+                    carriedOut.add(plan);
+                    break;
+                }
+                default: {
+
+                }
+            }
+        }
+        return carriedOut;
+    }
+}
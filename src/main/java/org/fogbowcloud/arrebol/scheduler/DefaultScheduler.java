@@ -2,40 +2,48 @@ package org.fogbowcloud.arrebol.scheduler;
 
 import org.apache.log4j.Logger;
 import org.fogbowcloud.arrebol.execution.ExecutionBroker;
-import org.fogbowcloud.arrebol.execution.Worker;
-import org.fogbowcloud.arrebol.models.task.Task;
-import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
 import org.fogbowcloud.arrebol.processor.TaskQueue;
 import org.fogbowcloud.arrebol.resource.WorkerPool;
-import org.fogbowcloud.arrebol.resource.ResourceState;
 
 import java.util.Collection;
 
-public class DefaultScheduler implements Runnable {
+/**
+ * It runs a new scheduling round whenever it is notified about a new pending task or an available
+ * worker. See {@link SchedulingSignal} for how notifications are merged into rounds.
+ */
+public class DefaultScheduler implements Runnable, SchedulingListener {
     //TODO: to pick a better name (maybe silly-scheduler? :))
 
     private final Logger LOGGER = Logger.getLogger(DefaultScheduler.class);
 
-    //TODO: to be loaded from conf
-    private static final int SCHEDULER_PERIOD_MILLIS = 5000;
+    private static final long COALESCING_WINDOW_MILLIS = 10;
 
     private final TaskQueue queue;
     private final WorkerPool pool;
     private final SchedulerPolicy policy;
-    private final ExecutionBroker executionBroker;
+    private final AllocationPlanExecutor planExecutor;
+    private final SchedulingSignal signal;
 
-    public DefaultScheduler(TaskQueue queue, WorkerPool pool, SchedulerPolicy policy) {
+    /**
+     * @param sweepPeriodMillis The longest time between two rounds, even without notifications.
+     * @param threadPool The threads to run the tasks on; it may be shared by several schedulers.
+     */
+    public DefaultScheduler(TaskQueue queue, WorkerPool pool, SchedulerPolicy policy,
+        long sweepPeriodMillis, ExecutionThreadPool threadPool) {
 
-        //this implementation is super-naive: we create a new allocation plan whenever
-        //a notification is received (notifyAddedJob or notifyAvailableResource). Failures are just ignored.
-        //There are plenty of possible improvements: e.g waiting a batch of notifications before deciding ...
-        //to improve utilization, we also add the notification to a queues that is consume by a planner thread
-        //we might also want to "offer" resources based on queue priority
+        //we create a new allocation plan whenever a notification is received (notifyAddedTask or
+        //notifyAvailableWorker). Failures are just ignored.
+        //to share workers among queues, see FairShareScheduler
 
         this.queue = queue;
         this.pool = pool;
         this.policy = policy;
-        this.executionBroker = new ExecutionBroker();
+        this.planExecutor = new AllocationPlanExecutor(new ExecutionBroker(this, threadPool));
+        this.signal = new SchedulingSignal(sweepPeriodMillis, COALESCING_WINDOW_MILLIS);
+
+        this.queue.addListener(this);
+        this.pool.addListener(this);
     }
 
     @Override
@@ -43,9 +51,14 @@ public class DefaultScheduler implements Runnable {
 
         while (true) {
             try {
-                Collection<AllocationPlan> plan = this.policy.schedule(this.queue, this.pool);
-                executePlan(plan);
-                Thread.sleep(SCHEDULER_PERIOD_MILLIS);
+                this.signal.await();
+                Collection<AllocationPlan> plan = this.policy.schedule(this.queue,
+                    this.pool.getWorkers());
+                //once the broker is full, a finished execution starts the next round
+                boolean full = this.planExecutor.execute(this.queue, plan).size() < plan.size();
+                if (!full && this.policy.isBudgetExhausted(this.queue)) {
+                    this.signal.signal();
+                }
             } catch (Throwable e) {
                 LOGGER.error("Scheduler execution aborted", e);
                 System.exit(1);
@@ -53,31 +66,13 @@ public class DefaultScheduler implements Runnable {
         }
     }
 
-    //below method was an independent abstraction some commits ago. Maybe, we can make it again
-    private void executePlan(Collection<AllocationPlan> plans) {
-
-        for (AllocationPlan plan : plans) {
-
-            switch (plan.getType()) {
-                case RUN: {
-
-                    Task task = plan.getTask();
-                    task.setState(TaskState.RUNNING);
-                    this.queue.removeTask(task);
-
-                    Worker worker = plan.getWorker();
-                    worker.setState(ResourceState.ALLOCATED);
-
-                    executionBroker.execute(plan.getTask(), worker);
-                    break;
-                }
-                case STOP: {
-                    break;
-                }
-                default: {
+    @Override
+    public void notifyAddedTask() {
+        this.signal.signal();
+    }
 
-                }
-            }
-        }
+    @Override
+    public void notifyAvailableWorker() {
+        this.signal.signal();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+
+/**
+ * It allocates idle workers to the pending tasks ordered by their expected runtime, as estimated
+ * by a {@link RuntimeHistory}: shortest first, to lower the mean turnaround, or longest first, to
+ * lower the makespan. Tasks with the same estimate (e.g. while there is no history) keep their
+ * arrival order. A round looks at the first maxTasksPerRound tasks in that order only.
+ *
+ * <p>The pending tasks of each queue are kept in kinds: tasks with the same requirements
+ * signature, job label and command fingerprints, which the history estimates alike. New tasks are
+ * read from where the previous round stopped reading the queue, and tasks that left the queue are
+ * dropped once they reach the head of their kind. So a round estimates each kind once, instead of
+ * sorting all pending tasks, and it always uses the current history.
+ */
+public class ExpectedRuntimeSchedulerPolicy implements SchedulerPolicy {
+
+    public enum Order {
+        SHORTEST_FIRST, LONGEST_FIRST
+    }
+
+    public static final int DEFAULT_MAX_TASKS_PER_ROUND = 50000;
+    private static final String KEY_SEPARATOR = "\u0000";
+
+    private final Logger logger = Logger.getLogger(ExpectedRuntimeSchedulerPolicy.class);
+
+    private final Order order;
+    private final RuntimeHistory history;
+    private final int maxTasksPerRound;
+    private final Map<String, QueueIndex> indexes;
+
+    public ExpectedRuntimeSchedulerPolicy(Order order) {
+        this(order, RuntimeHistory.getInstance(), DEFAULT_MAX_TASKS_PER_ROUND);
+    }
+
+    public ExpectedRuntimeSchedulerPolicy(Order order, RuntimeHistory history, int maxTasksPerRound) {
+        this.order = order;
+        this.history = history;
+        this.maxTasksPerRound = maxTasksPerRound;
+        this.indexes = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Collection<AllocationPlan> schedule(TaskQueue queue, Collection<Worker> workers) {
+
+        IdleWorkerIndex availableWorkers = new IdleWorkerIndex(workers);
+
+        logger.info("queue={" + queue + "} availableWorkers={" + availableWorkers.size() + "}");
+
+        Collection<AllocationPlan> queueAllocation = new LinkedList<AllocationPlan>();
+        if (availableWorkers.isEmpty()) {
+            return queueAllocation;
+        }
+
+        QueueIndex index = this.indexes.compute(queue.getId(),
+            (id, known) -> known != null && known.queue == queue ? known : new QueueIndex(queue));
+        //a task queued again may be in its kind twice, but it is allocated once
+        Set<Task> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+        Predicate<Task> eligible = task -> isPending(queue, task) && !allocated.contains(task);
+        int examined = 0;
+        synchronized (index) {
+            index.update();
+
+            Comparator<KindCursor> byExpected = Comparator.comparingDouble(c -> c.expectedMillis);
+            PriorityQueue<KindCursor> cursors = new PriorityQueue<>(
+                (Order.SHORTEST_FIRST.equals(this.order) ? byExpected : byExpected.reversed())
+                    .thenComparingLong(KindCursor::headSequence));
+            for (Kind kind : index.kinds.values()) {
+                KindCursor cursor = new KindCursor(kind, this.history.expectedMillis(kind.first()));
+                if (cursor.advance(eligible)) {
+                    cursors.add(cursor);
+                }
+            }
+
+            while (!availableWorkers.isEmpty() && examined < this.maxTasksPerRound
+                && !cursors.isEmpty()) {
+                KindCursor cursor = cursors.poll();
+                Task task = cursor.head.task;
+                examined++;
+                Worker worker = availableWorkers.take(task);
+                if (worker == null) {
+                    //the other tasks of the kind have the same requirements, so they are skipped
+                    continue;
+                }
+                logger.info("allocation made for task={" + task.getId() + "} using worker={" + worker
+                        + "} expectedMillis={" + cursor.expectedMillis + "}");
+                queueAllocation.add(new AllocationPlan(task, worker, AllocationPlan.Type.RUN));
+                allocated.add(task);
+                if (cursor.advance(eligible)) {
+                    cursors.add(cursor);
+                }
+            }
+        }
+
+        logger.info("queue={" + queue + "} allocations={" + queueAllocation.size() + "} " +
+                "examinedTasks={" + examined + "}");
+
+        return queueAllocation;
+    }
+
+    private static String kindOf(Task task) {
+        StringBuilder key = new StringBuilder(task.getRequirementsSignature());
+        key.append(KEY_SEPARATOR).append(task.getJobLabel());
+        for (Command command : task.getTaskSpec().getCommands()) {
+            key.append(KEY_SEPARATOR).append(command.getFingerprint());
+        }
+        return key.toString();
+    }
+
+    /**
+     * The pending tasks of a queue, by kind. Only the scheduling rounds of the queue change it.
+     */
+    private static class QueueIndex {
+
+        private final TaskQueue queue;
+        //it reaches the tasks appended to the queue after it stopped
+        private final Iterator<Task> arrivals;
+        private final Map<String, Kind> kinds;
+        private long sequence;
+
+        private QueueIndex(TaskQueue queue) {
+            this.queue = queue;
+            this.arrivals = queue.queue().iterator();
+            this.kinds = new LinkedHashMap<>();
+        }
+
+        private void update() {
+            while (this.arrivals.hasNext()) {
+                Task task = this.arrivals.next();
+                this.kinds.computeIfAbsent(kindOf(task), k -> new Kind())
+                    .entries.add(new Entry(task, this.sequence++));
+            }
+            Iterator<Kind> it = this.kinds.values().iterator();
+            while (it.hasNext()) {
+                Kind kind = it.next();
+                while (!kind.entries.isEmpty()
+                    && !isPending(this.queue, kind.entries.peekFirst().task)) {
+                    kind.entries.pollFirst();
+                }
+                if (kind.entries.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static boolean isPending(TaskQueue queue, Task task) {
+        return TaskState.PENDING.equals(task.getState()) && queue.containsTask(task.getId());
+    }
+
+    private static class Kind {
+
+        private final Deque<Entry> entries = new ArrayDeque<>();
+
+        private Task first() {
+            return this.entries.peekFirst().task;
+        }
+    }
+
+    private static class Entry {
+
+        private final Task task;
+        private final long sequence;
+
+        private Entry(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * It walks the pending tasks of a kind during a round, skipping the ones that left the queue
+     * and the ones already allocated.
+     */
+    private static class KindCursor {
+
+        private final Iterator<Entry> entries;
+        private final double expectedMillis;
+        private Entry head;
+
+        private KindCursor(Kind kind, double expectedMillis) {
+            this.entries = kind.entries.iterator();
+            this.expectedMillis = expectedMillis;
+        }
+
+        private boolean advance(Predicate<Task> eligible) {
+            while (this.entries.hasNext()) {
+                this.head = this.entries.next();
+                if (eligible.test(this.head.task)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long headSequence() {
+            return this.head.sequence;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.ExecutionBroker;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.fogbowcloud.arrebol.resource.WorkerPool;
+
+/**
+ * It offers the workers of all registered pools to all registered queues, using weighted fair
+ * share. The load of a queue is the number of tasks it runs now plus the number of tasks it ran on
+ * average over a decaying window, divided by its weight. In each round, idle workers go to the
+ * queue with the lowest load, just enough of them to reach the load of the next queue, until there
+ * are no idle workers left or no queue can use them. So a queue that used the workers heavily in
+ * the recent past waits behind the others, but it still gets any worker the others cannot use.
+ */
+public class FairShareScheduler implements Runnable, SchedulingListener {
+
+    private final Logger LOGGER = Logger.getLogger(FairShareScheduler.class);
+
+    private static final long COALESCING_WINDOW_MILLIS = 10;
+
+    private final SchedulerPolicy policy;
+    private final long usageWindowMillis;
+    private final List<QueueShare> shares;
+    private final List<WorkerPool> pools;
+    private final AllocationPlanExecutor planExecutor;
+    private final SchedulingSignal signal;
+
+    /**
+     * @param usageWindowMillis The time constant of the decaying average of the tasks run by each
+     * queue. Usage older than a few windows has almost no effect on the shares.
+     * @param sweepPeriodMillis The longest time between two rounds, even without notifications.
+     * @param threadPool The threads to run the tasks on.
+     */
+    public FairShareScheduler(SchedulerPolicy policy, long usageWindowMillis, long sweepPeriodMillis,
+        ExecutionThreadPool threadPool) {
+        if (usageWindowMillis <= 0) {
+            throw new IllegalArgumentException("Usage window must be positive: " + usageWindowMillis);
+        }
+        this.policy = policy;
+        this.usageWindowMillis = usageWindowMillis;
+        this.shares = new CopyOnWriteArrayList<>();
+        this.pools = new CopyOnWriteArrayList<>();
+        this.planExecutor = new AllocationPlanExecutor(new ExecutionBroker(this, threadPool));
+        this.signal = new SchedulingSignal(sweepPeriodMillis, COALESCING_WINDOW_MILLIS);
+    }
+
+    /**
+     * It registers the queue to share the workers of all registered pools, and the pool to have its
+     * workers shared by all registered queues. A pool may be registered by several queues.
+     */
+    public synchronized void addQueue(TaskQueue queue, WorkerPool pool, double weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Queue weight must be positive: " + weight);
+        }
+        this.shares.add(new QueueShare(queue, weight, System.currentTimeMillis()));
+        queue.addListener(this);
+        if (!containsPool(pool)) {
+            this.pools.add(pool);
+            pool.addListener(this);
+        }
+        LOGGER.info("Queue [" + queue.getId() + "] shares the workers with weight [" + weight + "]");
+        this.signal.signal();
+    }
+
+    @Override
+    public void run() {
+
+        while (true) {
+            try {
+                this.signal.await();
+                if (scheduleRound(System.currentTimeMillis())) {
+                    this.signal.signal();
+                }
+            } catch (Throwable e) {
+                LOGGER.error("Scheduler execution aborted", e);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * It runs a scheduling round and tells whether the policy left work behind because of its
+     * budget.
+     */
+    boolean scheduleRound(long now) {
+
+        List<QueueShare> candidates = new ArrayList<>();
+        for (QueueShare share : this.shares) {
+            share.updateUsage(now, this.usageWindowMillis);
+            if (share.queue.size() > 0) {
+                candidates.add(share);
+            }
+        }
+
+        List<Worker> idle = idleWorkers();
+        boolean budgetExhausted = false;
+
+        while (!idle.isEmpty() && !candidates.isEmpty()) {
+
+            QueueShare neediest = null;
+            double nextLoad = Double.POSITIVE_INFINITY;
+            for (QueueShare share : candidates) {
+                if (neediest == null || share.load() < neediest.load()) {
+                    if (neediest != null) {
+                        nextLoad = neediest.load();
+                    }
+                    neediest = share;
+                } else if (share.load() < nextLoad) {
+                    nextLoad = share.load();
+                }
+            }
+
+            //the policy is offered a quantum of the idle workers at a time; the next ones are offered
+            //only if it could not use all of them, e.g. because they do not match its tasks
+            int quantum = quantum(neediest, nextLoad, idle.size());
+            int granted = 0;
+            Set<Worker> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+            int offered = 0;
+            while (granted < quantum && offered < idle.size()) {
+                int end = Math.min(idle.size(), offered + quantum - granted);
+                Collection<AllocationPlan> plans = this.policy.schedule(neediest.queue,
+                    idle.subList(offered, end));
+                offered = end;
+                //the plans are carried out before the next offer, so their tasks are not pending
+                List<AllocationPlan> carriedOut = this.planExecutor.execute(neediest.queue, plans);
+                for (AllocationPlan plan : carriedOut) {
+                    granted++;
+                    neediest.running.add(plan.getTask());
+                    allocated.add(plan.getWorker());
+                }
+                if (carriedOut.size() < plans.size()) {
+                    //the broker is full: the round ends, and a finished execution starts the next
+                    return false;
+                }
+                if (this.policy.isBudgetExhausted(neediest.queue)) {
+                    budgetExhausted = true;
+                    break;
+                }
+            }
+            idle.removeIf(allocated::contains);
+
+            if (granted < quantum) {
+                //it cannot use any other idle worker, at least in this round
+                candidates.remove(neediest);
+            }
+        }
+        return budgetExhausted;
+    }
+
+    /**
+     * The number of workers that brings the queue load up to the next lowest load, at least one.
+     */
+    private int quantum(QueueShare share, double nextLoad, int idle) {
+        if (Double.isInfinite(nextLoad)) {
+            return idle;
+        }
+        double gap = (nextLoad - share.load()) * share.weight;
+        return (int) Math.max(1, Math.min(idle, Math.ceil(gap)));
+    }
+
+    private List<Worker> idleWorkers() {
+        List<Worker> idle = new ArrayList<>();
+        for (WorkerPool pool : this.pools) {
+            for (Worker worker : pool.getWorkers()) {
+                if (ResourceState.IDLE.equals(worker.getState())) {
+                    idle.add(worker);
+                }
+            }
+        }
+        return idle;
+    }
+
+    private boolean containsPool(WorkerPool pool) {
+        for (WorkerPool registered : this.pools) {
+            if (registered == pool) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    double getLoad(String queueId) {
+        for (QueueShare share : this.shares) {
+            if (share.queue.getId().equals(queueId)) {
+                return share.load();
+            }
+        }
+        throw new IllegalArgumentException("Queue [" + queueId + "] is not registered");
+    }
+
+    @Override
+    public void notifyAddedTask() {
+        this.signal.signal();
+    }
+
+    @Override
+    public void notifyAvailableWorker() {
+        this.signal.signal();
+    }
+
+    private static class QueueShare {
+
+        private final TaskQueue queue;
+        private final double weight;
+        private final Set<Task> running;
+        private double averageRunning;
+        private long lastUpdate;
+
+        QueueShare(TaskQueue queue, double weight, long now) {
+            this.queue = queue;
+            this.weight = weight;
+            this.running = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.lastUpdate = now;
+        }
+
+        void updateUsage(long now, long windowMillis) {
+            //the tasks ran since the last update, then the ones that are still running
+            long elapsed = Math.max(0, now - this.lastUpdate);
+            double decay = Math.exp(-(double) elapsed / windowMillis);
+            this.averageRunning = this.averageRunning * decay + this.running.size() * (1 - decay);
+            this.running.removeIf(task -> !TaskState.RUNNING.equals(task.getState()));
+            this.lastUpdate = now;
+        }
+
+        double load() {
+            return (this.running.size() + this.averageRunning) / this.weight;
+        }
+    }
+}
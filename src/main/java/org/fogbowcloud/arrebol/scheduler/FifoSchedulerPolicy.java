@@ -5,64 +5,105 @@ import org.fogbowcloud.arrebol.execution.Worker;
 import org.fogbowcloud.arrebol.models.task.Task;
 import org.fogbowcloud.arrebol.models.task.TaskState;
 import org.fogbowcloud.arrebol.processor.TaskQueue;
-import org.fogbowcloud.arrebol.resource.WorkerPool;
-import org.fogbowcloud.arrebol.resource.ResourceState;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * It allocates idle workers to the pending tasks in arrival order. Idle workers are looked up in an
+ * {@link IdleWorkerIndex}; once no idle worker matches a requirements signature, the following tasks
+ * with the same signature are skipped without further matching. A round stops when there are no
+ * idle workers left, or when it has looked at maxTasksPerRound tasks or spent maxRoundMillis; in the
+ * latter case, the next round resumes from where this one stopped.
+ */
 public class FifoSchedulerPolicy implements SchedulerPolicy {
 
+    private static final int DEFAULT_MAX_TASKS_PER_ROUND = 50000;
+    private static final long DEFAULT_MAX_ROUND_MILLIS = 200;
+    //how many tasks are looked at between two clock readings
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
     private final Logger logger = Logger.getLogger(SchedulerPolicy.class);
 
-    @Override
-    public Collection<AllocationPlan> schedule(TaskQueue queue, WorkerPool pool) {
+    private final int maxTasksPerRound;
+    private final long maxRoundMillis;
+    private final Map<String, Iterator<Task>> resumePoints;
+
+    public FifoSchedulerPolicy() {
+        this(DEFAULT_MAX_TASKS_PER_ROUND, DEFAULT_MAX_ROUND_MILLIS);
+    }
 
-        logger.info("queue={" + queue + "} resourcePool={" + pool + "}");
+    public FifoSchedulerPolicy(int maxTasksPerRound, long maxRoundMillis) {
+        this.maxTasksPerRound = maxTasksPerRound;
+        this.maxRoundMillis = maxRoundMillis;
+        this.resumePoints = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Collection<AllocationPlan> schedule(TaskQueue queue, Collection<Worker> workers) {
 
-        Collection<Worker> availableWorkers = filterAvailable(pool);
-        Collection<Worker> copyOfAvailableWorkers = new LinkedList<Worker>(availableWorkers);
+        IdleWorkerIndex availableWorkers = new IdleWorkerIndex(workers);
 
-        logger.info("queue={" + queue + "} resourcePool={" + pool + "} " +
-                "availableWorkers={" + availableWorkers.size() + "}");
+        logger.info("queue={" + queue + "} availableWorkers={" + availableWorkers.size() + "}");
 
         Collection<AllocationPlan> queueAllocation = new LinkedList<AllocationPlan>();
+        if (availableWorkers.isEmpty()) {
+            return queueAllocation;
+        }
 
-        for(Task task: queue.queue()) {
-            if (TaskState.PENDING.equals(task.getState())) {
-                AllocationPlan taskAllocation = scheduleTask(task, copyOfAvailableWorkers);
+        Iterator<Task> cursor = this.resumePoints.remove(queue.getId());
+        if (cursor == null) {
+            cursor = queue.queue().iterator();
+        }
+        Set<String> unmatchedSignatures = new HashSet<>();
+        long deadline = System.currentTimeMillis() + this.maxRoundMillis;
+        int examined = 0;
+
+        while (!availableWorkers.isEmpty() && cursor.hasNext()) {
+            if (examined == this.maxTasksPerRound || (examined % CLOCK_CHECK_INTERVAL == 0
+                    && examined > 0 && System.currentTimeMillis() > deadline)) {
+                logger.info("queue={" + queue + "} round budget exhausted after {" + examined
+                        + "} tasks; the next round resumes from this point");
+                this.resumePoints.put(queue.getId(), cursor);
+                break;
+            }
+            Task task = cursor.next();
+            examined++;
+            if (TaskState.PENDING.equals(task.getState())
+                    && !unmatchedSignatures.contains(task.getRequirementsSignature())) {
+                AllocationPlan taskAllocation = scheduleTask(task, availableWorkers);
                 if (taskAllocation != null) {
-                    copyOfAvailableWorkers.remove(taskAllocation.getWorker());
                     queueAllocation.add(taskAllocation);
+                } else {
+                    unmatchedSignatures.add(task.getRequirementsSignature());
                 }
             }
         }
 
-        logger.info("queue={" + queue + "} resourcePool={" + pool + "} " +
-                "allocationPlan={" + queueAllocation + "}");
+        logger.info("queue={" + queue + "} allocations={" + queueAllocation.size() + "} " +
+                "examinedTasks={" + examined + "}");
 
         return queueAllocation;
     }
 
-    private AllocationPlan scheduleTask(Task task, Collection<Worker> availableWorkers) {
+    @Override
+    public boolean isBudgetExhausted(TaskQueue queue) {
+        return this.resumePoints.containsKey(queue.getId());
+    }
 
-        for (Worker worker : availableWorkers) {
-            if (worker.match(task.getTaskSpec().getRequirements())) {
-                logger.info("allocation made for task={" + task + "} using worker={" + worker + "}");
-                return new AllocationPlan(task, worker, AllocationPlan.Type.RUN);
-            }
+    private AllocationPlan scheduleTask(Task task, IdleWorkerIndex availableWorkers) {
+
+        Worker worker = availableWorkers.take(task);
+        if (worker != null) {
+            logger.info("allocation made for task={" + task.getId() + "} using worker={" + worker + "}");
+            return new AllocationPlan(task, worker, AllocationPlan.Type.RUN);
         }
 
         return null;
     }
-
-    private Collection<Worker> filterAvailable(WorkerPool toFilter) {
-        Collection<Worker> availableWorkers = new LinkedList<Worker>();
-        for(Worker worker : toFilter.getWorkers()) {
-            if (worker.getState().equals(ResourceState.IDLE)) {
-                availableWorkers.add(worker);
-            }
-        }
-        return availableWorkers;
-    }
 }
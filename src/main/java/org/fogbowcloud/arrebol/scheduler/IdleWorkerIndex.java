@@ -0,0 +1,171 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.specification.RequirementsSignature;
+import org.fogbowcloud.arrebol.models.task.RequirementsContants;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.resource.ImageInventory;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+
+/**
+ * The idle workers of a scheduling round, bucketed by the signature of their specification.
+ * Workers with the same specification are assumed to match the same requirements, so {@link
+ * Worker#match(Map)} is called once per pair of requirements signature and bucket, instead of once
+ * per pair of task and worker.
+ *
+ * <p>Within a bucket, workers are grouped by host. A task goes to a host that already has its
+ * image, according to the {@link ImageInventory}; failing that, to a host that got a task with the
+ * same image earlier in the round, so the image is pulled once; and failing that, to any host.
+ */
+public class IdleWorkerIndex {
+
+    private static final String UNKNOWN_HOST = "";
+    private static final String DEFAULT_IMAGE = "";
+
+    private final ImageInventory inventory;
+    private final Map<String, Bucket> buckets;
+    private final Map<String, List<Bucket>> candidatesByRequirements;
+    private final Map<String, String> hostByImage;
+    private final Map<String, Set<String>> hostsWithImage;
+    private int size;
+
+    public IdleWorkerIndex(Collection<Worker> workers) {
+        this(workers, ImageInventory.getInstance());
+    }
+
+    public IdleWorkerIndex(Collection<Worker> workers, ImageInventory inventory) {
+        this.inventory = inventory;
+        this.buckets = new LinkedHashMap<>();
+        this.candidatesByRequirements = new HashMap<>();
+        this.hostByImage = new HashMap<>();
+        this.hostsWithImage = new HashMap<>();
+        for (Worker worker : workers) {
+            if (ResourceState.IDLE.equals(worker.getState())) {
+                String signature = RequirementsSignature.of(worker.getSpecification());
+                Bucket bucket = this.buckets.get(signature);
+                if (bucket == null) {
+                    bucket = new Bucket(worker);
+                    this.buckets.put(signature, bucket);
+                }
+                bucket.add(hostOf(worker), worker);
+                this.size++;
+            }
+        }
+    }
+
+    /**
+     * It removes from the index, and returns, an idle worker matching the task requirements, or
+     * null if there is none.
+     */
+    public Worker take(Task task) {
+        List<Bucket> candidates = this.candidatesByRequirements.get(task.getRequirementsSignature());
+        if (candidates == null) {
+            candidates = matchingBuckets(task.getTaskSpec().getRequirements());
+            this.candidatesByRequirements.put(task.getRequirementsSignature(), candidates);
+        }
+        String image = imageOf(task);
+        String imageKey = image == null ? DEFAULT_IMAGE : image;
+
+        //the inventory is read once per image and round
+        Set<String> hostsWithImage = this.hostsWithImage.get(imageKey);
+        if (hostsWithImage == null) {
+            hostsWithImage = this.inventory.getHostsWith(image);
+            this.hostsWithImage.put(imageKey, hostsWithImage);
+        }
+        if (!hostsWithImage.isEmpty()) {
+            for (Bucket bucket : candidates) {
+                for (String host : bucket.idleByHost.keySet()) {
+                    if (hostsWithImage.contains(host)) {
+                        return take(bucket, host, imageKey);
+                    }
+                }
+            }
+        }
+        String pullingHost = this.hostByImage.get(imageKey);
+        if (pullingHost != null) {
+            for (Bucket bucket : candidates) {
+                if (bucket.idleByHost.containsKey(pullingHost)) {
+                    return take(bucket, pullingHost, imageKey);
+                }
+            }
+        }
+        for (Bucket bucket : candidates) {
+            Iterator<String> hosts = bucket.idleByHost.keySet().iterator();
+            if (hosts.hasNext()) {
+                return take(bucket, hosts.next(), imageKey);
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private Worker take(Bucket bucket, String host, String imageKey) {
+        Worker worker = bucket.poll(host);
+        this.hostByImage.put(imageKey, host);
+        this.size--;
+        return worker;
+    }
+
+    private List<Bucket> matchingBuckets(Map<String, String> requirements) {
+        List<Bucket> matching = new ArrayList<>();
+        for (Bucket bucket : this.buckets.values()) {
+            if (bucket.representative.match(requirements)) {
+                matching.add(bucket);
+            }
+        }
+        return matching;
+    }
+
+    private static String hostOf(Worker worker) {
+        Map<String, String> metadata = worker.getMetadata();
+        String host = metadata == null ? null : metadata.get(Worker.ADDRESS_METADATA_KEY);
+        return host == null ? UNKNOWN_HOST : host;
+    }
+
+    private static String imageOf(Task task) {
+        Map<String, String> requirements = task.getTaskSpec().getRequirements();
+        return requirements == null ? null : requirements.get(RequirementsContants.IMAGE_KEY);
+    }
+
+    private static class Bucket {
+
+        private final Worker representative;
+        //hosts without idle workers are removed, so lookups only visit hosts that can take a task
+        private final Map<String, Deque<Worker>> idleByHost;
+
+        private Bucket(Worker representative) {
+            this.representative = representative;
+            this.idleByHost = new LinkedHashMap<>();
+        }
+
+        private void add(String host, Worker worker) {
+            this.idleByHost.computeIfAbsent(host, h -> new ArrayDeque<>()).add(worker);
+        }
+
+        private Worker poll(String host) {
+            Deque<Worker> idle = this.idleByHost.get(host);
+            Worker worker = idle.poll();
+            if (idle.isEmpty()) {
+                this.idleByHost.remove(host);
+            }
+            return worker;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
+
+/**
+ * It estimates when a job completes, from the expected runtimes of a {@link RuntimeHistory}. The
+ * estimate assumes the pending tasks are served in arrival order and their work spreads evenly
+ * over the workers: the job completes once the remaining work of the running tasks, of the tasks
+ * queued before the last task of the job and of the job itself is done. Policies that reorder the
+ * queue make it less accurate. The work of each job is summed over its tasks at most once per
+ * maxAgeMillis, so estimating the jobs of a queue does not look at all their tasks every time.
+ */
+public class JobCompletionEstimator {
+
+    public static final long DEFAULT_MAX_AGE_MILLIS = 1000;
+
+    private final RuntimeHistory history;
+    private final long maxAgeMillis;
+    private final ConcurrentMap<String, JobWork> works;
+    private volatile long prunedAt;
+
+    public JobCompletionEstimator(RuntimeHistory history) {
+        this(history, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param maxAgeMillis How long the work of a job, summed over its tasks, is reused before its
+     * tasks are looked at again.
+     */
+    public JobCompletionEstimator(RuntimeHistory history, long maxAgeMillis) {
+        this.history = history;
+        this.maxAgeMillis = maxAgeMillis;
+        this.works = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param runningJobs The jobs of the queue, whose running tasks occupy the workers.
+     */
+    public JobCompletionEstimateDTO estimate(Job job, TaskQueue queue, Collection<Job> runningJobs,
+        int workers, long now) {
+
+        prune(now);
+        double runningWork = 0;
+        for (Job queued : runningJobs) {
+            if (!queued.getId().equals(job.getId())) {
+                runningWork += workOf(queued, queue, now).runningWork;
+            }
+        }
+        JobWork own = workOf(job, queue, now);
+        runningWork += own.runningWork;
+
+        double pendingWork = 0;
+        int ownSeen = 0;
+        for (Task task : queue.queue()) {
+            if (ownSeen == own.pending.size()) {
+                break;
+            }
+            pendingWork += this.history.expectedMillis(task);
+            if (own.pending.contains(task.getId())) {
+                ownSeen++;
+            }
+        }
+
+        double spread = (runningWork + pendingWork) / Math.max(1, workers);
+        double completion = own.pending.isEmpty() ? own.longestRunning
+            : Math.max(spread, Math.max(own.longestRunning, own.longestPending));
+        return new JobCompletionEstimateDTO(job.getId(), own.pending.size(), own.running,
+            Math.round(own.pendingWork + own.runningWork), now + Math.round(completion));
+    }
+
+    private JobWork workOf(Job job, TaskQueue queue, long now) {
+        JobWork work = this.works.get(job.getId());
+        if (work == null || now - work.computedAt > this.maxAgeMillis) {
+            work = new JobWork(now);
+            for (Task task : job.getTasks()) {
+                if (TaskState.RUNNING.equals(task.getState())) {
+                    double remaining = remainingMillis(task, now);
+                    work.runningWork += remaining;
+                    work.longestRunning = Math.max(work.longestRunning, remaining);
+                    work.running++;
+                } else if (TaskState.PENDING.equals(task.getState())
+                    && queue.containsTask(task.getId())) {
+                    double expected = this.history.expectedMillis(task);
+                    work.pending.add(task.getId());
+                    work.pendingWork += expected;
+                    work.longestPending = Math.max(work.longestPending, expected);
+                }
+            }
+            this.works.put(job.getId(), work);
+        }
+        return work;
+    }
+
+    private void prune(long now) {
+        if (now - this.prunedAt > this.maxAgeMillis) {
+            this.prunedAt = now;
+            this.works.values().removeIf(work -> now - work.computedAt > this.maxAgeMillis);
+        }
+    }
+
+    private double remainingMillis(Task task, long now) {
+        double elapsed = task.getStartedAt() == null ? 0 : now - task.getStartedAt();
+        return Math.max(0, this.history.expectedMillis(task) - elapsed);
+    }
+
+    /**
+     * The work of the tasks of a job, as of computedAt.
+     */
+    private static class JobWork {
+
+        private final long computedAt;
+        private final Set<String> pending = new HashSet<>();
+        private double pendingWork;
+        private double longestPending;
+        private int running;
+        private double runningWork;
+        private double longestRunning;
+
+        private JobWork(long computedAt) {
+            this.computedAt = computedAt;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.PriorityTaskQueue;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+
+/**
+ * It allocates idle workers to the pending tasks with the highest effective priority first (see
+ * {@link PriorityTaskQueue}). Each pick costs O(log n) in the number of pending tasks. Tasks no
+ * idle worker matches are skipped, and so are the following tasks with the same requirements
+ * signature. A round stops when there are no idle workers left, or when it has looked at
+ * maxTasksPerRound tasks.
+ */
+public class PrioritySchedulerPolicy implements SchedulerPolicy {
+
+    private static final int DEFAULT_MAX_TASKS_PER_ROUND = 50000;
+
+    private final Logger logger = Logger.getLogger(PrioritySchedulerPolicy.class);
+
+    private final int maxTasksPerRound;
+
+    public PrioritySchedulerPolicy() {
+        this(DEFAULT_MAX_TASKS_PER_ROUND);
+    }
+
+    public PrioritySchedulerPolicy(int maxTasksPerRound) {
+        this.maxTasksPerRound = maxTasksPerRound;
+    }
+
+    @Override
+    public Collection<AllocationPlan> schedule(TaskQueue queue, Collection<Worker> workers) {
+        if (!(queue instanceof PriorityTaskQueue)) {
+            throw new IllegalArgumentException("Queue [" + queue.getId() + "] is not a priority queue");
+        }
+        PriorityTaskQueue priorityQueue = (PriorityTaskQueue) queue;
+
+        IdleWorkerIndex availableWorkers = new IdleWorkerIndex(workers);
+
+        logger.info("queue={" + queue + "} availableWorkers={" + availableWorkers.size() + "}");
+
+        Collection<AllocationPlan> queueAllocation = new LinkedList<AllocationPlan>();
+        List<Task> polled = new ArrayList<>();
+        Set<String> unmatchedSignatures = new HashSet<>();
+
+        try {
+            while (!availableWorkers.isEmpty() && polled.size() < this.maxTasksPerRound) {
+                Task task = priorityQueue.pollHighest();
+                if (task == null) {
+                    break;
+                }
+                polled.add(task);
+                if (TaskState.PENDING.equals(task.getState())
+                        && !unmatchedSignatures.contains(task.getRequirementsSignature())) {
+                    Worker worker = availableWorkers.take(task);
+                    if (worker != null) {
+                        logger.info("allocation made for task={" + task.getId() + "} using worker={" + worker + "}");
+                        queueAllocation.add(new AllocationPlan(task, worker, AllocationPlan.Type.RUN));
+                    } else {
+                        unmatchedSignatures.add(task.getRequirementsSignature());
+                    }
+                }
+            }
+        } finally {
+            //the allocated tasks go back too: they leave the heap once they are removed from the queue
+            priorityQueue.restore(polled);
+        }
+
+        logger.info("queue={" + queue + "} allocations={" + queueAllocation.size() + "} " +
+                "examinedTasks={" + polled.size() + "}");
+
+        return queueAllocation;
+    }
+}
@@ -0,0 +1,114 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+
+/**
+ * It learns how long commands take from the tasks that finished, keyed by job label and
+ * command fingerprint (see {@link Command#getFingerprint()}). Each key keeps an exponentially
+ * weighted moving average, so the estimates follow changes in the workload. A command never seen
+ * before is estimated by the average of the commands of the same job label, then by the average
+ * of all commands, and, while there is no history at all, as zero.
+ */
+public class RuntimeHistory {
+
+    private static final double SMOOTHING = 0.3;
+    private static final String KEY_SEPARATOR = "\u0000";
+
+    private static RuntimeHistory instance;
+
+    private final ConcurrentMap<String, Average> byCommand;
+    private final ConcurrentMap<String, Average> byLabel;
+    private final Average overall;
+
+    public RuntimeHistory() {
+        this.byCommand = new ConcurrentHashMap<>();
+        this.byLabel = new ConcurrentHashMap<>();
+        this.overall = new Average();
+    }
+
+    public synchronized static RuntimeHistory getInstance() {
+        if (instance == null) {
+            instance = new RuntimeHistory();
+        }
+        return instance;
+    }
+
+    /**
+     * It records the runtime of the finished commands of a successful task. Failed tasks are
+     * ignored, since a command failing early says little about how long it runs.
+     */
+    public void record(Task task) {
+        if (!TaskState.FINISHED.equals(task.getState())) {
+            return;
+        }
+        String label = labelOf(task);
+        for (Command command : task.getTaskSpec().getCommands()) {
+            Long duration = command.getDurationMillis();
+            if (CommandState.FINISHED.equals(command.getState()) && duration != null) {
+                record(label, command.getFingerprint(), duration);
+            }
+        }
+    }
+
+    /**
+     * It records a command runtime measured elsewhere, e.g. by a simulation.
+     */
+    public void record(String label, String fingerprint, long durationMillis) {
+        this.byCommand.computeIfAbsent(key(label, fingerprint), k -> new Average()).add(durationMillis);
+        this.byLabel.computeIfAbsent(label, k -> new Average()).add(durationMillis);
+        this.overall.add(durationMillis);
+    }
+
+    public double expectedMillis(Task task) {
+        String label = labelOf(task);
+        double expected = 0;
+        for (Command command : task.getTaskSpec().getCommands()) {
+            expected += expectedMillis(label, command);
+        }
+        return expected;
+    }
+
+    private double expectedMillis(String label, Command command) {
+        Average average = this.byCommand.get(key(label, command.getFingerprint()));
+        if (average == null) {
+            average = this.byLabel.get(label);
+        }
+        if (average == null) {
+            average = this.overall;
+        }
+        return average.get();
+    }
+
+    private static String key(String label, String fingerprint) {
+        return label + KEY_SEPARATOR + fingerprint;
+    }
+
+    private static String labelOf(Task task) {
+        return Objects.isNull(task.getJobLabel()) ? "" : task.getJobLabel();
+    }
+
+    private static class Average {
+
+        private double value;
+        private boolean empty = true;
+
+        synchronized void add(double sample) {
+            if (this.empty) {
+                this.value = sample;
+                this.empty = false;
+            } else {
+                this.value = SMOOTHING * sample + (1 - SMOOTHING) * this.value;
+            }
+        }
+
+        synchronized double get() {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.fogbowcloud.arrebol.execution.ExecutionBroker;
+import org.fogbowcloud.arrebol.models.configuration.Configuration;
+import org.fogbowcloud.arrebol.models.configuration.Property;
+
+/**
+ * The optional scheduling properties of the configuration file. A missing property takes its
+ * default value.
+ */
+public class SchedulerConfiguration {
+
+    public static final String SCHEDULING_MODE_KEY = "schedulingMode";
+    public static final String FAIR_SHARE_WINDOW_KEY = "fairShareWindowSeconds";
+    public static final String SWEEP_KEY = "schedulerSweepSeconds";
+    public static final String SCHEDULER_POLICY_KEY = "schedulerPolicy";
+    public static final String PRIORITY_AGING_KEY = "priorityAgingPerMinute";
+    public static final String EXECUTION_THREADS_KEY = "executionThreads";
+    public static final String EXECUTION_QUEUE_CAPACITY_KEY = "executionQueueCapacity";
+
+    public static final String PER_QUEUE_MODE = "per-queue";
+    public static final String FAIR_SHARE_MODE = "fair-share";
+
+    public static final String FIFO_POLICY = "fifo";
+    public static final String PRIORITY_POLICY = "priority";
+    public static final String SHORTEST_EXPECTED_FIRST_POLICY = "sjf";
+    public static final String LONGEST_EXPECTED_FIRST_POLICY = "ljf";
+
+    public static final long DEFAULT_SWEEP_PERIOD_MILLIS = 30000;
+
+    private static final double DEFAULT_FAIR_SHARE_WINDOW_SECONDS = 600;
+    private static final double DEFAULT_PRIORITY_AGING_PER_MINUTE = 1;
+
+    private final String schedulingMode;
+    private final long fairShareWindowMillis;
+    private final long sweepMillis;
+    private final String schedulerPolicy;
+    private final double priorityAgingPerMinute;
+    private final int executionThreads;
+    private final int executionQueueCapacity;
+
+    public SchedulerConfiguration(Configuration configuration) {
+        Property<String> schedulingMode = configuration.getProperty(SCHEDULING_MODE_KEY);
+        Property<Double> fairShareWindow = configuration.getProperty(FAIR_SHARE_WINDOW_KEY);
+        Property<Double> sweep = configuration.getProperty(SWEEP_KEY);
+        Property<String> schedulerPolicy = configuration.getProperty(SCHEDULER_POLICY_KEY);
+        Property<Double> priorityAging = configuration.getProperty(PRIORITY_AGING_KEY);
+        Property<Double> executionThreads = configuration.getProperty(EXECUTION_THREADS_KEY);
+        Property<Double> executionQueueCapacity = configuration.getProperty(EXECUTION_QUEUE_CAPACITY_KEY);
+
+        this.schedulingMode = isSet(schedulingMode) ? schedulingMode.getValue() : PER_QUEUE_MODE;
+        if (!this.schedulingMode.equals(PER_QUEUE_MODE) && !this.schedulingMode.equals(FAIR_SHARE_MODE)) {
+            throw new IllegalArgumentException("Scheduling mode configuration property wrong: "
+                + this.schedulingMode + ". Please, verify your configuration file.");
+        }
+        double windowSeconds = isSet(fairShareWindow) ? fairShareWindow.getValue()
+            : DEFAULT_FAIR_SHARE_WINDOW_SECONDS;
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("Fair share window configuration property must be "
+                + "positive. Please, verify your configuration file.");
+        }
+        this.fairShareWindowMillis = (long) (windowSeconds * 1000);
+        this.sweepMillis = isSet(sweep) ? (long) (sweep.getValue() * 1000)
+            : DEFAULT_SWEEP_PERIOD_MILLIS;
+        if (this.sweepMillis <= 0) {
+            throw new IllegalArgumentException("Scheduler sweep configuration property must be "
+                + "positive. Please, verify your configuration file.");
+        }
+
+        this.schedulerPolicy = isSet(schedulerPolicy) ? schedulerPolicy.getValue() : FIFO_POLICY;
+        if (!Arrays.asList(FIFO_POLICY, PRIORITY_POLICY, SHORTEST_EXPECTED_FIRST_POLICY,
+            LONGEST_EXPECTED_FIRST_POLICY).contains(this.schedulerPolicy)) {
+            throw new IllegalArgumentException("Scheduler policy configuration property wrong: "
+                + this.schedulerPolicy + ". Please, verify your configuration file.");
+        }
+        this.priorityAgingPerMinute = isSet(priorityAging) ? priorityAging.getValue()
+            : DEFAULT_PRIORITY_AGING_PER_MINUTE;
+        if (this.priorityAgingPerMinute < 0) {
+            throw new IllegalArgumentException("Priority aging configuration property must not be "
+                + "negative. Please, verify your configuration file.");
+        }
+
+        this.executionThreads = isSet(executionThreads) ? executionThreads.getValue().intValue()
+            : ExecutionBroker.DEFAULT_THREADS;
+        if (this.executionThreads <= 0) {
+            throw new IllegalArgumentException("Execution threads configuration property must be "
+                + "positive. Please, verify your configuration file.");
+        }
+        this.executionQueueCapacity = isSet(executionQueueCapacity)
+            ? executionQueueCapacity.getValue().intValue() : ExecutionBroker.DEFAULT_QUEUE_CAPACITY;
+        if (this.executionQueueCapacity < 0) {
+            throw new IllegalArgumentException("Execution queue capacity configuration property must "
+                + "not be negative. Please, verify your configuration file.");
+        }
+    }
+
+    private static boolean isSet(Property<?> property) {
+        return Objects.nonNull(property) && Objects.nonNull(property.getValue());
+    }
+
+    public boolean isFairShare() {
+        return this.schedulingMode.equals(FAIR_SHARE_MODE);
+    }
+
+    public long getFairShareWindowMillis() {
+        return fairShareWindowMillis;
+    }
+
+    /**
+     * The longest time between two scheduling rounds, in either scheduling mode.
+     */
+    public long getSweepMillis() {
+        return sweepMillis;
+    }
+
+    public boolean isPriorityPolicy() {
+        return this.schedulerPolicy.equals(PRIORITY_POLICY);
+    }
+
+    public String getSchedulerPolicy() {
+        return schedulerPolicy;
+    }
+
+    public double getPriorityAgingPerMinute() {
+        return priorityAgingPerMinute;
+    }
+
+    public int getExecutionThreads() {
+        return executionThreads;
+    }
+
+    public int getExecutionQueueCapacity() {
+        return executionQueueCapacity;
+    }
+}
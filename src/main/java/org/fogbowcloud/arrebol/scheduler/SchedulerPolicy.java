@@ -1,11 +1,23 @@
 package org.fogbowcloud.arrebol.scheduler;
 
+import org.fogbowcloud.arrebol.execution.Worker;
 import org.fogbowcloud.arrebol.processor.TaskQueue;
-import org.fogbowcloud.arrebol.resource.WorkerPool;
 
 import java.util.Collection;
 
 public interface SchedulerPolicy {
 
-    Collection<AllocationPlan> schedule(TaskQueue queue, WorkerPool pool);
+    /**
+     * @param workers The workers offered to the queue; only the idle ones may be allocated.
+     */
+    Collection<AllocationPlan> schedule(TaskQueue queue, Collection<Worker> workers);
+
+    /**
+     * It tells whether the last round for the queue stopped before looking at all its pending
+     * tasks, while there were still idle workers. If so, the scheduler runs another round right
+     * away, instead of waiting for a notification.
+     */
+    default boolean isBudgetExhausted(TaskQueue queue) {
+        return false;
+    }
 }
@@ -0,0 +1,13 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+/**
+ * It receives the events that may change the outcome of a scheduling round: new pending tasks
+ * and workers becoming available. Implementations must not block, since the notifications come
+ * from request and execution threads.
+ */
+public interface SchedulingListener {
+
+    void notifyAddedTask();
+
+    void notifyAvailableWorker();
+}
@@ -0,0 +1,55 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+/**
+ * It wakes a scheduler thread up when there is something new to schedule. Signals arriving within
+ * the coalescing window of each other are merged into a single wake up, and signals received while
+ * the scheduler is running a round wake it up right after the round. Without any signal, the
+ * scheduler still wakes up every sweep period, as a safety net for state changes that are not
+ * signaled (e.g. a worker that recovers from a failure).
+ */
+public class SchedulingSignal {
+
+    private final long sweepPeriodMillis;
+    private final long coalescingWindowMillis;
+
+    private final Object lock = new Object();
+    private boolean signaled;
+
+    public SchedulingSignal(long sweepPeriodMillis, long coalescingWindowMillis) {
+        this.sweepPeriodMillis = sweepPeriodMillis;
+        this.coalescingWindowMillis = coalescingWindowMillis;
+        // the first round handles anything queued before the scheduler was started
+        this.signaled = true;
+    }
+
+    public void signal() {
+        synchronized (this.lock) {
+            if (!this.signaled) {
+                this.signaled = true;
+                this.lock.notify();
+            }
+        }
+    }
+
+    /**
+     * It blocks until a signal arrives or the sweep period expires.
+     */
+    public void await() throws InterruptedException {
+        boolean wokenBySignal;
+        synchronized (this.lock) {
+            long deadline = System.currentTimeMillis() + this.sweepPeriodMillis;
+            long remaining = this.sweepPeriodMillis;
+            while (!this.signaled && remaining > 0) {
+                this.lock.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            wokenBySignal = this.signaled;
+        }
+        if (wokenBySignal) {
+            Thread.sleep(this.coalescingWindowMillis);
+        }
+        synchronized (this.lock) {
+            this.signaled = false;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.specification.Specification;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+
+/**
+ * A worker that matches any task and never runs one: the {@link Simulator} decides when its tasks
+ * finish.
+ */
+public class SimulatedWorker implements Worker {
+
+    private final String id;
+    private final int poolId;
+    private final Map<String, String> metadata;
+    private ResourceState state;
+
+    public SimulatedWorker(String id, int poolId) {
+        this.id = id;
+        this.poolId = poolId;
+        this.metadata = new HashMap<>();
+        this.state = ResourceState.IDLE;
+    }
+
+    @Override
+    public boolean match(Map<String, String> requirements) {
+        return true;
+    }
+
+    @Override
+    public ResourceState getState() {
+        return this.state;
+    }
+
+    @Override
+    public void setState(ResourceState state) {
+        this.state = state;
+    }
+
+    @Override
+    public Specification getSpecification() {
+        return null;
+    }
+
+    @Override
+    public String getId() {
+        return this.id;
+    }
+
+    @Override
+    public int getPoolId() {
+        return this.poolId;
+    }
+
+    @Override
+    public Map<String, String> getMetadata() {
+        return this.metadata;
+    }
+
+    @Override
+    public TaskExecutionResult execute(Task task) {
+        throw new UnsupportedOperationException("Simulated workers do not execute tasks");
+    }
+
+    @Override
+    public String toString() {
+        return "id={" + this.id + "} poolId={" + this.poolId + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The outcome of a simulation. Times are in simulated milliseconds.
+ */
+public class SimulationReport {
+
+    private final int tasks;
+    private final long makespanMillis;
+    private final double meanWaitMillis;
+    private final double meanJobTurnaroundMillis;
+    private final double utilization;
+    private final double fairness;
+    private final Map<String, Double> meanSlowdownByUser;
+
+    public SimulationReport(int tasks, long makespanMillis, double meanWaitMillis,
+        double meanJobTurnaroundMillis, double utilization, double fairness,
+        Map<String, Double> meanSlowdownByUser) {
+        this.tasks = tasks;
+        this.makespanMillis = makespanMillis;
+        this.meanWaitMillis = meanWaitMillis;
+        this.meanJobTurnaroundMillis = meanJobTurnaroundMillis;
+        this.utilization = utilization;
+        this.fairness = fairness;
+        this.meanSlowdownByUser = Collections.unmodifiableMap(meanSlowdownByUser);
+    }
+
+    public int getTasks() {
+        return tasks;
+    }
+
+    /**
+     * From the first submission to the last completion.
+     */
+    public long getMakespanMillis() {
+        return makespanMillis;
+    }
+
+    /**
+     * The mean time tasks waited in the queue, from submission to start.
+     */
+    public double getMeanWaitMillis() {
+        return meanWaitMillis;
+    }
+
+    /**
+     * The mean time from the submission of a job to the completion of its last task.
+     */
+    public double getMeanJobTurnaroundMillis() {
+        return meanJobTurnaroundMillis;
+    }
+
+    /**
+     * The fraction of the worker time, over the makespan, spent running tasks.
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    /**
+     * Jain's index of the mean slowdown of each user, where the slowdown of a task is its time in
+     * the system divided by its runtime. It is 1 when all users are slowed down alike, and tends to
+     * 1/users as a single user takes all the slowdown.
+     */
+    public double getFairness() {
+        return fairness;
+    }
+
+    public Map<String, Double> getMeanSlowdownByUser() {
+        return meanSlowdownByUser;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tasks={%d} makespan={%.1fs} meanWait={%.1fs} meanJobTurnaround={%.1fs} "
+                + "utilization={%.3f} fairness={%.3f}", tasks, makespanMillis / 1000.0,
+            meanWaitMillis / 1000.0, meanJobTurnaroundMillis / 1000.0, utilization, fairness);
+    }
+}
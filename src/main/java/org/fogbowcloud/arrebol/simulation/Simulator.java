@@ -0,0 +1,313 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.io.FileReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.PriorityTaskQueue;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.fogbowcloud.arrebol.resource.StaticPool;
+import org.fogbowcloud.arrebol.resource.WorkerPool;
+import org.fogbowcloud.arrebol.scheduler.AllocationPlan;
+import org.fogbowcloud.arrebol.scheduler.ExpectedRuntimeSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.ExpectedRuntimeSchedulerPolicy.Order;
+import org.fogbowcloud.arrebol.scheduler.FifoSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.PrioritySchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.RuntimeHistory;
+import org.fogbowcloud.arrebol.scheduler.SchedulerPolicy;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A discrete-event simulator of a {@link SchedulerPolicy}. It replays a trace of jobs against
+ * synthetic workers, using the real {@link TaskQueue}s and {@link WorkerPool}: each user gets a
+ * queue, and all queues share the workers. Time is virtual, so simulating days of load takes as
+ * long as the scheduling rounds themselves.
+ *
+ * <p>A scheduling round runs after the events of each instant (submissions and completions) are
+ * applied, offering the idle workers to the queues in turns, starting from a different queue each
+ * round. Completed tasks feed the given {@link RuntimeHistory}, if any.
+ */
+public class Simulator {
+
+    private static final int POOL_ID = 1;
+
+    private final VirtualClock clock;
+    private final SchedulerPolicy policy;
+    private final Function<String, TaskQueue> queueFactory;
+    private final RuntimeHistory history;
+    private final WorkerPool pool;
+    private final int workers;
+
+    private final Map<String, TaskQueue> queues;
+    private final Map<String, TaskRecord> records;
+    private final PriorityQueue<Completion> completions;
+    private int idleWorkers;
+    private int pendingTasks;
+    private int firstQueue;
+    private long completionSequence;
+
+    /**
+     * @param queueFactory It creates the queue of a user, given its name.
+     * @param history It may be null, if the policy does not use runtime history.
+     */
+    public Simulator(VirtualClock clock, SchedulerPolicy policy,
+        Function<String, TaskQueue> queueFactory, RuntimeHistory history, int workers) {
+        this.clock = clock;
+        this.policy = policy;
+        this.queueFactory = queueFactory;
+        this.history = history;
+        this.workers = workers;
+        Collection<Worker> simulatedWorkers = new LinkedList<>();
+        for (int i = 0; i < workers; i++) {
+            simulatedWorkers.add(new SimulatedWorker("simulated-worker-" + i, POOL_ID));
+        }
+        this.pool = new StaticPool(POOL_ID, simulatedWorkers);
+        this.queues = new LinkedHashMap<>();
+        this.records = new HashMap<>();
+        this.completions = new PriorityQueue<>(Comparator.comparingLong((Completion c) -> c.time)
+            .thenComparingLong(c -> c.sequence));
+    }
+
+    public SimulationReport run(List<TraceJob> trace) {
+        List<TraceJob> arrivals = new ArrayList<>(trace);
+        arrivals.sort(Comparator.comparingLong(TraceJob::getSubmitMillis));
+        this.idleWorkers = this.workers;
+        int next = 0;
+
+        while (next < arrivals.size() || !this.completions.isEmpty()) {
+            long now = Long.MAX_VALUE;
+            if (next < arrivals.size()) {
+                now = arrivals.get(next).getSubmitMillis();
+            }
+            if (!this.completions.isEmpty()) {
+                now = Math.min(now, this.completions.peek().time);
+            }
+            this.clock.advanceTo(Math.max(now, this.clock.millis()));
+
+            while (!this.completions.isEmpty() && this.completions.peek().time <= this.clock.millis()) {
+                complete(this.completions.poll());
+            }
+            while (next < arrivals.size() && arrivals.get(next).getSubmitMillis() <= this.clock.millis()) {
+                submit(arrivals.get(next), next);
+                next++;
+            }
+            scheduleRound();
+        }
+        return report(arrivals);
+    }
+
+    private void submit(TraceJob job, int jobIndex) {
+        TaskQueue queue = this.queues.computeIfAbsent(job.getUser(), this.queueFactory);
+        List<Long> runtimes = job.getTaskRuntimesMillis();
+        for (int i = 0; i < runtimes.size(); i++) {
+            List<Command> commands = new LinkedList<>();
+            commands.add(new Command("run " + job.getLabel()));
+            Task task = new Task("job-" + jobIndex + "-task-" + i,
+                new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()), job.getPriority(),
+                job.getLabel());
+            this.records.put(task.getId(), new TaskRecord(task, job.getUser(), jobIndex,
+                job.getSubmitMillis(), runtimes.get(i)));
+            queue.addTask(task);
+            this.pendingTasks++;
+        }
+    }
+
+    private void scheduleRound() {
+        List<TaskQueue> turns = new ArrayList<>(this.queues.values());
+        boolean again = true;
+        while (again && this.idleWorkers > 0 && this.pendingTasks > 0) {
+            again = false;
+            for (int i = 0; i < turns.size() && this.idleWorkers > 0; i++) {
+                TaskQueue queue = turns.get((this.firstQueue + i) % turns.size());
+                if (queue.size() > 0) {
+                    for (AllocationPlan plan : this.policy.schedule(queue, this.pool.getWorkers())) {
+                        start(queue, plan);
+                    }
+                    again |= this.policy.isBudgetExhausted(queue);
+                }
+            }
+        }
+        this.firstQueue++;
+    }
+
+    private void start(TaskQueue queue, AllocationPlan plan) {
+        Task task = plan.getTask();
+        Worker worker = plan.getWorker();
+        task.setState(TaskState.RUNNING);
+        queue.removeTask(task);
+        worker.setState(ResourceState.ALLOCATED);
+        this.idleWorkers--;
+        this.pendingTasks--;
+
+        TaskRecord record = this.records.get(task.getId());
+        record.startMillis = this.clock.millis();
+        this.completions.add(new Completion(this.clock.millis() + record.runtimeMillis,
+            this.completionSequence++, record, worker));
+    }
+
+    private void complete(Completion completion) {
+        TaskRecord record = completion.record;
+        record.task.setState(TaskState.FINISHED);
+        record.finishMillis = completion.time;
+        completion.worker.setState(ResourceState.IDLE);
+        this.idleWorkers++;
+        if (this.history != null) {
+            Command command = record.task.getTaskSpec().getCommands().get(0);
+            this.history.record(record.task.getJobLabel(), command.getFingerprint(), record.runtimeMillis);
+        }
+    }
+
+    private SimulationReport report(List<TraceJob> trace) {
+        if (this.records.isEmpty()) {
+            return new SimulationReport(0, 0, 0, 0, 0, 1, new HashMap<>());
+        }
+        long firstSubmit = trace.get(0).getSubmitMillis();
+        long lastFinish = firstSubmit;
+        double totalWait = 0;
+        double busy = 0;
+        Map<Integer, Long> jobFinish = new HashMap<>();
+        Map<String, double[]> slowdownByUser = new LinkedHashMap<>();
+        for (TaskRecord record : this.records.values()) {
+            lastFinish = Math.max(lastFinish, record.finishMillis);
+            totalWait += record.startMillis - record.submitMillis;
+            busy += record.runtimeMillis;
+            jobFinish.merge(record.jobIndex, record.finishMillis, Math::max);
+            double slowdown = (double) (record.finishMillis - record.submitMillis)
+                / Math.max(1, record.runtimeMillis);
+            double[] sum = slowdownByUser.computeIfAbsent(record.user, u -> new double[2]);
+            sum[0] += slowdown;
+            sum[1]++;
+        }
+        double totalTurnaround = 0;
+        for (Map.Entry<Integer, Long> finish : jobFinish.entrySet()) {
+            totalTurnaround += finish.getValue() - trace.get(finish.getKey()).getSubmitMillis();
+        }
+        Map<String, Double> meanSlowdownByUser = new LinkedHashMap<>();
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Map.Entry<String, double[]> user : slowdownByUser.entrySet()) {
+            double mean = user.getValue()[0] / user.getValue()[1];
+            meanSlowdownByUser.put(user.getKey(), mean);
+            sum += mean;
+            sumOfSquares += mean * mean;
+        }
+        long makespan = lastFinish - firstSubmit;
+        double utilization = makespan == 0 ? 0 : busy / ((double) this.workers * makespan);
+        double fairness = sum * sum / (meanSlowdownByUser.size() * sumOfSquares);
+        return new SimulationReport(this.records.size(), makespan, totalWait / this.records.size(),
+            totalTurnaround / jobFinish.size(), utilization, fairness, meanSlowdownByUser);
+    }
+
+    /**
+     * Usage: Simulator --policy fifo|priority|sjf|ljf --workers N (--trace FILE | --jobs N
+     * [--users N] [--interarrival SECONDS] [--max-tasks N] [--runtime SECONDS] [--sigma S]
+     * [--seed N])
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        //the policies log every allocation; log4j is bridged to logback, where levels are set
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        List<TraceJob> trace;
+        if (options.containsKey("trace")) {
+            try (Reader reader = new FileReader(options.get("trace"))) {
+                trace = TraceReader.read(reader);
+            }
+        } else {
+            TraceGenerator generator = new TraceGenerator(
+                Long.parseLong(options.getOrDefault("seed", "1")),
+                Integer.parseInt(options.getOrDefault("users", "4")),
+                Double.parseDouble(options.getOrDefault("interarrival", "60")),
+                Integer.parseInt(options.getOrDefault("max-tasks", "20")),
+                Double.parseDouble(options.getOrDefault("runtime", "120")),
+                Double.parseDouble(options.getOrDefault("sigma", "1")));
+            trace = generator.generate(Integer.parseInt(options.getOrDefault("jobs", "10000")));
+        }
+
+        VirtualClock clock = new VirtualClock();
+        RuntimeHistory history = new RuntimeHistory();
+        String policyName = options.getOrDefault("policy", "fifo");
+        SchedulerPolicy policy;
+        Function<String, TaskQueue> queueFactory = user -> new TaskQueue(user, user);
+        switch (policyName) {
+            case "fifo":
+                policy = new FifoSchedulerPolicy();
+                break;
+            case "priority":
+                policy = new PrioritySchedulerPolicy();
+                double aging = Double.parseDouble(options.getOrDefault("aging", "1"));
+                queueFactory = user -> new PriorityTaskQueue(user, user, aging, clock);
+                break;
+            case "sjf":
+                policy = new ExpectedRuntimeSchedulerPolicy(Order.SHORTEST_FIRST, history,
+                    ExpectedRuntimeSchedulerPolicy.DEFAULT_MAX_TASKS_PER_ROUND);
+                break;
+            case "ljf":
+                policy = new ExpectedRuntimeSchedulerPolicy(Order.LONGEST_FIRST, history,
+                    ExpectedRuntimeSchedulerPolicy.DEFAULT_MAX_TASKS_PER_ROUND);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + policyName);
+        }
+        int workers = Integer.parseInt(options.getOrDefault("workers", "10"));
+
+        long started = System.currentTimeMillis();
+        SimulationReport report = new Simulator(clock, policy, queueFactory, history, workers).run(trace);
+        System.out.println("policy={" + policyName + "} workers={" + workers + "} " + report);
+        System.out.println("meanSlowdownByUser=" + report.getMeanSlowdownByUser());
+        System.out.println("simulated in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private static class TaskRecord {
+
+        private final Task task;
+        private final String user;
+        private final int jobIndex;
+        private final long submitMillis;
+        private final long runtimeMillis;
+        private long startMillis;
+        private long finishMillis;
+
+        private TaskRecord(Task task, String user, int jobIndex, long submitMillis, long runtimeMillis) {
+            this.task = task;
+            this.user = user;
+            this.jobIndex = jobIndex;
+            this.submitMillis = submitMillis;
+            this.runtimeMillis = runtimeMillis;
+        }
+    }
+
+    private static class Completion {
+
+        private final long time;
+        private final long sequence;
+        private final TaskRecord record;
+        private final Worker worker;
+
+        private Completion(long time, long sequence, TaskRecord record, Worker worker) {
+            this.time = time;
+            this.sequence = sequence;
+            this.record = record;
+            this.worker = worker;
+        }
+    }
+}
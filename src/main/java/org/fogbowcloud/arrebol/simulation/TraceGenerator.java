@@ -0,0 +1,65 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * It generates a synthetic trace: jobs arrive as a Poisson process, each from a user picked at
+ * random, with a uniform number of tasks whose runtimes follow a log-normal distribution. Each
+ * user submits a few kinds of jobs, each kind with its own label and typical runtime, so the
+ * runtimes can be learned; priorities are uniform. The same seed always generates the same trace.
+ */
+public class TraceGenerator {
+
+    private static final int KINDS_PER_USER = 3;
+    private static final int PRIORITIES = 3;
+
+    private final Random random;
+    private final int users;
+    private final double meanInterarrivalSeconds;
+    private final int maxTasksPerJob;
+    private final double medianRuntimeSeconds;
+    private final double runtimeSigma;
+
+    /**
+     * @param runtimeSigma The standard deviation of the logarithm of the runtimes; 0 makes all
+     * runtimes equal to the median.
+     */
+    public TraceGenerator(long seed, int users, double meanInterarrivalSeconds, int maxTasksPerJob,
+        double medianRuntimeSeconds, double runtimeSigma) {
+        this.random = new Random(seed);
+        this.users = users;
+        this.meanInterarrivalSeconds = meanInterarrivalSeconds;
+        this.maxTasksPerJob = maxTasksPerJob;
+        this.medianRuntimeSeconds = medianRuntimeSeconds;
+        this.runtimeSigma = runtimeSigma;
+    }
+
+    public List<TraceJob> generate(int jobs) {
+        List<TraceJob> trace = new ArrayList<>(jobs);
+        //each kind of job has its own typical runtime, around the overall median
+        double[][] kindMedians = new double[this.users][KINDS_PER_USER];
+        for (int u = 0; u < this.users; u++) {
+            for (int k = 0; k < KINDS_PER_USER; k++) {
+                kindMedians[u][k] = this.medianRuntimeSeconds
+                    * Math.exp(this.runtimeSigma * this.random.nextGaussian());
+            }
+        }
+        double submitSeconds = 0;
+        for (int j = 0; j < jobs; j++) {
+            submitSeconds += -this.meanInterarrivalSeconds * Math.log(1 - this.random.nextDouble());
+            int user = this.random.nextInt(this.users);
+            int kind = this.random.nextInt(KINDS_PER_USER);
+            int tasks = 1 + this.random.nextInt(this.maxTasksPerJob);
+            List<Long> runtimes = new ArrayList<>(tasks);
+            for (int t = 0; t < tasks; t++) {
+                double runtime = kindMedians[user][kind] * Math.exp(this.runtimeSigma / 2 * this.random.nextGaussian());
+                runtimes.add(Math.max(1, Math.round(runtime * 1000)));
+            }
+            trace.add(new TraceJob(Math.round(submitSeconds * 1000), "user-" + user,
+                "label-" + user + "-" + kind, this.random.nextInt(PRIORITIES), runtimes));
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,44 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.util.List;
+
+/**
+ * A job of a trace: who submitted it, when, and how long each of its tasks runs.
+ */
+public class TraceJob {
+
+    private final long submitMillis;
+    private final String user;
+    private final String label;
+    private final int priority;
+    private final List<Long> taskRuntimesMillis;
+
+    public TraceJob(long submitMillis, String user, String label, int priority,
+        List<Long> taskRuntimesMillis) {
+        this.submitMillis = submitMillis;
+        this.user = user;
+        this.label = label;
+        this.priority = priority;
+        this.taskRuntimesMillis = taskRuntimesMillis;
+    }
+
+    public long getSubmitMillis() {
+        return submitMillis;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public List<Long> getTaskRuntimesMillis() {
+        return taskRuntimesMillis;
+    }
+}
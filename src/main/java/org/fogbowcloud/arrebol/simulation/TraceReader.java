@@ -0,0 +1,56 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It reads a recorded trace, one job per line:
+ *
+ * <pre>
+ * # submit_seconds,user,label,priority,task_runtimes_seconds
+ * 0,alice,sweep,0,30 30 45.5
+ * </pre>
+ *
+ * Blank lines and lines starting with '#' are ignored. Jobs may come in any order.
+ */
+public class TraceReader {
+
+    private static final int FIELDS = 5;
+
+    public static List<TraceJob> read(Reader reader) throws IOException {
+        List<TraceJob> jobs = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != FIELDS) {
+                throw new IllegalArgumentException("Line " + lineNumber + " has " + fields.length
+                    + " fields instead of " + FIELDS + ": " + line);
+            }
+            try {
+                List<Long> runtimes = new ArrayList<>();
+                for (String runtime : fields[4].trim().split("\\s+")) {
+                    runtimes.add(toMillis(runtime));
+                }
+                jobs.add(new TraceJob(toMillis(fields[0]), fields[1].trim(), fields[2].trim(),
+                    Integer.parseInt(fields[3].trim()), runtimes));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is malformed: " + line, e);
+            }
+        }
+        return jobs;
+    }
+
+    private static long toMillis(String seconds) {
+        return Math.round(Double.parseDouble(seconds.trim()) * 1000);
+    }
+}
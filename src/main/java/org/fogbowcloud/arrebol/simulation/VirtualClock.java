@@ -0,0 +1,42 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * The simulated time. It only moves when the {@link Simulator} moves it, to the time of the next
+ * event.
+ */
+public class VirtualClock extends Clock {
+
+    private long millis;
+
+    public void advanceTo(long millis) {
+        if (millis < this.millis) {
+            throw new IllegalArgumentException("Time cannot go back from " + this.millis + " to " + millis);
+        }
+        this.millis = millis;
+    }
+
+    @Override
+    public long millis() {
+        return this.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(this.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+}
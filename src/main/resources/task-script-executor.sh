@@ -4,6 +4,9 @@
 # Each command executed is written to the .cmds file.
 # Use -tsf= or --task_filepath= to input the task file path (Required).
 # Use the flag -d or --debug to store .out and .err from execution (Optional).
+# Use -cb= or --callback_url= to post the exit code and the times of each command, as soon as it
+# ends, to the given URL plus "/<command index>" (Optional). Posts which fail are not retried.
+# Use -tk= or --token= to give the token the posts must carry (Required with the callback URL).
 
 # This flag does the execution not stop on non-zero exit code commands
 set +e
@@ -15,6 +18,14 @@ do
 	    __TASK_SCRIPT_FILEPATH="${i#*=}"
 	    shift
 	    ;;
+	    -cb=*|--callback_url=*)
+	    __CALLBACK_URL="${i#*=}"
+	    shift
+	    ;;
+	    -tk=*|--token=*)
+	    __CALLBACK_TOKEN="${i#*=}"
+	    shift
+	    ;;
 	    -d|--debug)
 	    DEBUG=YES
 	    shift
@@ -49,9 +60,41 @@ then
 	exec 2> /tmp/$TS_FILENAME.err
 fi
 
+# The epoch milliseconds; date without %N support is taken at the second.
+__now_millis() {
+	local __now=$(date +%s%3N)
+	case $__now in
+		*[!0-9]*) echo "$(date +%s)000" ;;
+		*) echo "$__now" ;;
+	esac
+}
+
+if [ -n "$__CALLBACK_URL" ] && ! command -v curl > /dev/null 2>&1;
+then
+	# Arrebol still finds the exit codes in the .ts.ec file
+	__CALLBACK_URL=
+fi
+
+__index=0
 while IFS= read -r __line || [ -n "$__line" ]; do
 	echo $__line >> $__COMMANDS
+	__started_at=$(__now_millis)
 	set +e
     eval $__line
-    echo "$?" >> $__EXIT_CODES
-done < $__TASK_SCRIPT_FILEPATH
\ No newline at end of file
+    __exit_code=$?
+    echo "$__exit_code" >> $__EXIT_CODES
+    if [ -n "$__CALLBACK_URL" ];
+    then
+	    curl -s -m 10 -o /dev/null -X POST -H "Content-Type: application/json" \
+		    -H "Task-Token: $__CALLBACK_TOKEN" \
+		    -d "{\"exitcode\": $__exit_code, \"started_at\": $__started_at, \"finished_at\": $(__now_millis)}" \
+		    "$__CALLBACK_URL/$__index" < /dev/null > /dev/null 2>&1 &
+	    __callback_pids="$__callback_pids $!"
+    fi
+    __index=$((__index + 1))
+done < $__TASK_SCRIPT_FILEPATH
+
+if [ -n "$__callback_pids" ];
+then
+	wait $__callback_pids
+fi
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.fogbowcloud.arrebol;
 
 import org.apache.log4j.Logger;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
 import org.fogbowcloud.arrebol.execution.raw.RawTaskExecutor;
 import org.fogbowcloud.arrebol.execution.TaskExecutor;
 import org.fogbowcloud.arrebol.execution.Worker;
@@ -16,6 +17,7 @@ import org.fogbowcloud.arrebol.resource.StaticPool;
 import org.fogbowcloud.arrebol.resource.WorkerPool;
 import org.fogbowcloud.arrebol.scheduler.DefaultScheduler;
 import org.fogbowcloud.arrebol.scheduler.FifoSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.SchedulerConfiguration;
 import org.fogbowcloud.arrebol.utils.AppUtil;
 import org.junit.Assert;
 import org.junit.Test;
@@ -45,7 +47,9 @@ public class RawWorkerIntegrationTest {
         //create the scheduler
         //bind the pieces together
         FifoSchedulerPolicy policy = new FifoSchedulerPolicy();
-        DefaultScheduler scheduler = new DefaultScheduler(queue, pool, policy);
+        DefaultScheduler scheduler = new DefaultScheduler(queue, pool, policy,
+            SchedulerConfiguration.DEFAULT_SWEEP_PERIOD_MILLIS,
+            new ExecutionThreadPool("test-execution", 5, 0));
 
         //submit job1 (one task, /usr/bin/true), job2 (two tasks /usr/bin/true), job3 (three tasks /usr/bin/true)
         //job1
@@ -0,0 +1,100 @@
+package org.fogbowcloud.arrebol.benchmark;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.fogbowcloud.arrebol.execution.ExecutionBroker;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
+import org.fogbowcloud.arrebol.resource.StaticPool;
+import org.fogbowcloud.arrebol.scheduler.DefaultScheduler;
+import org.fogbowcloud.arrebol.scheduler.FifoSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.SchedulerConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * It measures the time between submitting a task to a {@link TaskQueue} and the
+ * {@link DefaultScheduler} handing it to an idle worker. The workers finish instantly, so the
+ * measured time is the scheduling latency only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+public class SchedulerLatencyBenchmark {
+
+    private static final int POOL_ID = 1;
+    private static final int POOL_SIZE = 4;
+
+    private TaskQueue queue;
+
+    @Setup
+    public void setup() {
+        this.queue = new TaskQueue("benchmark-queue", "benchmark");
+        Collection<Worker> workers = new LinkedList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            workers.add(new MatchAnyWorker(UUID.randomUUID().toString(), null, POOL_ID,
+                new NoOpTaskExecutor()));
+        }
+        StaticPool pool = new StaticPool(POOL_ID, workers);
+        DefaultScheduler scheduler = new DefaultScheduler(this.queue, pool,
+            new FifoSchedulerPolicy(), SchedulerConfiguration.DEFAULT_SWEEP_PERIOD_MILLIS,
+            new ExecutionThreadPool("benchmark-execution",
+            ExecutionBroker.DEFAULT_THREADS, ExecutionBroker.DEFAULT_QUEUE_CAPACITY));
+        Thread schedulerThread = new Thread(scheduler, "benchmark-scheduler-thread");
+        schedulerThread.setDaemon(true);
+        schedulerThread.start();
+    }
+
+    @Benchmark
+    public Task submitToStart() {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        TaskSpec taskSpec = new TaskSpec(null, new HashMap<>(), commands, new HashMap<>());
+        Task task = new Task(UUID.randomUUID().toString(), taskSpec);
+
+        this.queue.addTask(task);
+        while (TaskState.PENDING.equals(task.getState())) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+        return task;
+    }
+
+    private static class NoOpTaskExecutor implements TaskExecutor {
+
+        @Override
+        public TaskExecutionResult execute(Task task) {
+            return new TaskExecutionResult(TaskExecutionResult.RESULT.SUCCESS, new int[]{0});
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.fogbowcloud.arrebol.benchmark;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * It measures the {@link TaskQueue} operations done by the scheduler when the queue holds a large
+ * number of pending tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskQueueBenchmark {
+
+    private static final int COMMANDS_PER_TASK = 10;
+
+    @Param({"100000"})
+    private int pendingTasks;
+
+    private TaskQueue queue;
+    private Task[] tasks;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        this.queue = new TaskQueue("benchmark-queue", "benchmark");
+        this.tasks = new Task[this.pendingTasks];
+        this.random = new Random(42);
+        for (int i = 0; i < this.pendingTasks; i++) {
+            this.tasks[i] = createTask();
+            this.queue.addTask(this.tasks[i]);
+        }
+    }
+
+    /**
+     * A task leaves the queue (as in DefaultScheduler#executePlan) and another one is submitted.
+     */
+    @Benchmark
+    public boolean removeAndEnqueue() {
+        Task task = this.tasks[this.random.nextInt(this.tasks.length)];
+        boolean removed = this.queue.removeTask(task);
+        this.queue.addTask(task);
+        return removed;
+    }
+
+    /**
+     * A scheduling round looking at every pending task.
+     */
+    @Benchmark
+    public int scanPendingTasks() {
+        int pending = 0;
+        for (Task task : this.queue.queue()) {
+            if (TaskState.PENDING.equals(task.getState())) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    private Task createTask() {
+        List<Command> commands = new LinkedList<>();
+        for (int i = 0; i < COMMANDS_PER_TASK; i++) {
+            commands.add(new Command("echo " + i));
+        }
+        TaskSpec taskSpec = new TaskSpec(null, new HashMap<>(), commands, new HashMap<>());
+        return new Task(UUID.randomUUID().toString(), taskSpec);
+    }
+}
@@ -0,0 +1,181 @@
+package org.fogbowcloud.arrebol.datastore.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StateJournalTest {
+
+    private static final int SNAPSHOT_RECORDS = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        this.directory = this.folder.getRoot().toPath();
+    }
+
+    @Test
+    public void testStateIsRecoveredAfterReopen() throws Exception {
+        StateJournal journal = new StateJournal();
+        journal.open(this.directory, SNAPSHOT_RECORDS);
+        Task task = newTask("task-1", 2);
+        task.setState(TaskState.RUNNING);
+        journal.record(task);
+        Command first = task.getTaskSpec().getCommands().get(0);
+        first.setState(CommandState.FINISHED);
+        first.setExitcode(0);
+        journal.record(task, first);
+        journal.close();
+
+        StateJournal reopened = new StateJournal();
+        reopened.open(this.directory, SNAPSHOT_RECORDS);
+        Task restored = newTask("task-1", 2);
+
+        assertTrue(reopened.restore(restored));
+        assertEquals(TaskState.RUNNING, restored.getState());
+        assertEquals(task.getStartedAt(), restored.getStartedAt());
+        Command restoredFirst = restored.getTaskSpec().getCommands().get(0);
+        assertEquals(CommandState.FINISHED, restoredFirst.getState());
+        assertEquals(Integer.valueOf(0), restoredFirst.getExitcode());
+        assertEquals(first.getFinishedAt(), restoredFirst.getFinishedAt());
+        assertEquals(CommandState.UNSTARTED, restored.getTaskSpec().getCommands().get(1).getState());
+        assertFalse(reopened.restore(newTask("task-2", 1)));
+        reopened.close();
+    }
+
+    @Test
+    public void testSyncWaitsUntilTheRecordsAreOnDisk() throws Exception {
+        StateJournal journal = new StateJournal();
+        journal.open(this.directory, SNAPSHOT_RECORDS);
+        Task task = newTask("task-1", 2);
+        task.setState(TaskState.RUNNING);
+        journal.record(task);
+        task.setState(TaskState.FINISHED);
+        journal.record(task);
+
+        journal.sync();
+
+        Path journalFile = this.directory.resolve(StateJournal.JOURNAL_FILE);
+        assertEquals(4, Files.readAllLines(journalFile).size());
+        journal.close();
+        journal.sync();
+    }
+
+    @Test
+    public void testSnapshotCompactsTheJournal() throws Exception {
+        StateJournal journal = new StateJournal();
+        journal.open(this.directory, 10);
+        Task task = newTask("task-1", 1);
+        for (int i = 0; i < 50; i++) {
+            task.setState(i % 2 == 0 ? TaskState.RUNNING : TaskState.PENDING);
+            journal.record(task);
+        }
+        task.setState(TaskState.RUNNING);
+        journal.record(task);
+        journal.close();
+
+        assertTrue(Files.exists(this.directory.resolve(StateJournal.SNAPSHOT_FILE)));
+        assertTrue(Files.readAllLines(this.directory.resolve(StateJournal.JOURNAL_FILE)).size() < 10);
+
+        StateJournal reopened = new StateJournal();
+        reopened.open(this.directory, 10);
+        Task restored = newTask("task-1", 1);
+        assertTrue(reopened.restore(restored));
+        assertEquals(TaskState.RUNNING, restored.getState());
+        reopened.close();
+    }
+
+    @Test
+    public void testSavedFinishedTasksAreForgotten() throws Exception {
+        StateJournal journal = new StateJournal();
+        journal.open(this.directory, SNAPSHOT_RECORDS);
+        Task running = newTask("task-1", 1);
+        running.setState(TaskState.RUNNING);
+        journal.record(running);
+        Task finished = newTask("task-2", 1);
+        finished.setState(TaskState.FINISHED);
+        journal.record(finished);
+        List<Task> saved = new ArrayList<>();
+        saved.add(running);
+        saved.add(finished);
+        journal.forget(saved);
+        journal.close();
+
+        StateJournal reopened = new StateJournal();
+        reopened.open(this.directory, SNAPSHOT_RECORDS);
+        assertEquals(1, reopened.countTasks());
+        assertTrue(reopened.restore(newTask("task-1", 1)));
+        reopened.close();
+    }
+
+    @Test
+    public void testTornRecordIsCutOff() throws Exception {
+        StateJournal journal = new StateJournal();
+        journal.open(this.directory, SNAPSHOT_RECORDS);
+        Task task = newTask("task-1", 1);
+        task.setState(TaskState.RUNNING);
+        journal.record(task);
+        journal.close();
+        Path journalFile = this.directory.resolve(StateJournal.JOURNAL_FILE);
+        Files.write(journalFile, "T\ttask-1\tFINI".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        StateJournal reopened = new StateJournal();
+        reopened.open(this.directory, SNAPSHOT_RECORDS);
+        Task restored = newTask("task-1", 1);
+        assertTrue(reopened.restore(restored));
+        assertEquals(TaskState.RUNNING, restored.getState());
+        task.setState(TaskState.FAILED);
+        reopened.record(task);
+        reopened.close();
+
+        assertEquals(3, Files.readAllLines(journalFile).size());
+        StateJournal again = new StateJournal();
+        again.open(this.directory, SNAPSHOT_RECORDS);
+        restored = newTask("task-1", 1);
+        assertTrue(again.restore(restored));
+        assertEquals(TaskState.FAILED, restored.getState());
+        again.close();
+    }
+
+    private Task newTask(String id, int commands) throws Exception {
+        List<Command> commandList = new ArrayList<>();
+        for (int i = 0; i < commands; i++) {
+            Command command = new Command("echo " + i);
+            setId(command, i + 1);
+            commandList.add(command);
+        }
+        TaskSpec taskSpec = new TaskSpec(null, Collections.emptyMap(), commandList,
+            Collections.emptyMap());
+        return new Task(id, taskSpec);
+    }
+
+    //the database generates the command ids, which the journal records refer to
+    private static void setId(Command command, long id) throws Exception {
+        Field field = Command.class.getDeclaredField("id");
+        field.setAccessible(true);
+        field.setLong(command, id);
+    }
+}
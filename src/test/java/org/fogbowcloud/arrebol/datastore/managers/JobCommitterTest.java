@@ -0,0 +1,104 @@
+package org.fogbowcloud.arrebol.datastore.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobCommitterTest {
+
+    private static final long MAX_WAIT_MILLIS = 5000;
+
+    private ExecutorService submitters;
+
+    @Before
+    public void setUp() {
+        this.submitters = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        this.submitters.shutdownNow();
+    }
+
+    @Test
+    public void testSubmissionsWaitingAreCommittedTogether() throws Exception {
+        CountDownLatch firstInsertStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstInsert = new CountDownLatch(1);
+        List<List<Job>> inserts = new CopyOnWriteArrayList<>();
+        JobCommitter committer = new JobCommitter(new JobCommitter.Writer() {
+            @Override
+            public void insert(List<Job> jobs) {
+                inserts.add(new ArrayList<>(jobs));
+                if (inserts.size() == 1) {
+                    firstInsertStarted.countDown();
+                    await(releaseFirstInsert);
+                }
+            }
+        });
+
+        Future<?> first = submit(committer, newJob());
+        assertTrue(firstInsertStarted.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        List<Future<?>> others = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            others.add(submit(committer, newJob()));
+        }
+        Thread.sleep(100);
+        assertEquals(1, inserts.size());
+
+        releaseFirstInsert.countDown();
+        first.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        for (Future<?> other : others) {
+            other.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        assertEquals(2, inserts.size());
+        assertEquals(1, inserts.get(0).size());
+        assertEquals(10, inserts.get(1).size());
+    }
+
+    @Test
+    public void testSubmitterIsToldTheCommitFailed() {
+        JobCommitter committer = new JobCommitter(new JobCommitter.Writer() {
+            @Override
+            public void insert(List<Job> jobs) {
+                throw new RuntimeException("Database unavailable");
+            }
+        });
+
+        try {
+            committer.commit(newJob());
+            fail("The job should not be taken as saved");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("Database unavailable"));
+        }
+    }
+
+    private Future<?> submit(JobCommitter committer, Job job) {
+        return this.submitters.submit(() -> committer.commit(job));
+    }
+
+    private Job newJob() {
+        return new Job("label", new ArrayList<>());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
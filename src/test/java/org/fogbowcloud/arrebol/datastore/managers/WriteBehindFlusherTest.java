@@ -0,0 +1,201 @@
+package org.fogbowcloud.arrebol.datastore.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.job.JobState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WriteBehindFlusherTest {
+
+    private FakeWriter writer;
+    private WriteBehindFlusher flusher;
+
+    @Before
+    public void setUp() {
+        this.writer = new FakeWriter();
+        this.flusher = new WriteBehindFlusher(this.writer);
+    }
+
+    @After
+    public void tearDown() {
+        this.flusher.stop();
+    }
+
+    @Test
+    public void testNothingIsKeptBeforeStart() {
+        this.flusher.markDirty(newTask("task-1"));
+        this.flusher.flush();
+
+        assertEquals(0, this.flusher.countDirty());
+        assertTrue(this.writer.savedTasks.isEmpty());
+    }
+
+    @Test
+    public void testEachTaskIsSavedOncePerFlush() {
+        this.flusher.start();
+        Task task = newTask("task-1");
+        this.flusher.markDirty(task);
+        this.flusher.markDirty(task);
+        this.flusher.markDirty(newTask("task-2"));
+        this.flusher.flush();
+
+        assertEquals(1, this.writer.savedTasks.size());
+        assertEquals(2, this.writer.savedTasks.get(0).size());
+        assertEquals(0, this.flusher.countDirty());
+
+        this.flusher.flush();
+        assertEquals(1, this.writer.savedTasks.size());
+    }
+
+    @Test
+    public void testTasksAreSavedInBatches() {
+        this.flusher.start();
+        for (int i = 0; i < 450; i++) {
+            this.flusher.markDirty(newTask("task-" + i));
+        }
+        this.flusher.flush();
+
+        assertEquals(3, this.writer.savedTasks.size());
+        assertEquals(200, this.writer.savedTasks.get(0).size());
+        assertEquals(200, this.writer.savedTasks.get(1).size());
+        assertEquals(50, this.writer.savedTasks.get(2).size());
+    }
+
+    @Test
+    public void testJobsInTheSameStateAreUpdatedTogether() {
+        this.flusher.start();
+        Job first = newJob(JobState.FINISHED);
+        Job second = newJob(JobState.FINISHED);
+        Job third = newJob(JobState.FAILED);
+        this.flusher.markDirty(first);
+        this.flusher.markDirty(second);
+        this.flusher.markDirty(third);
+        this.flusher.flush();
+
+        assertEquals(2, this.writer.updatedJobs.size());
+        assertEquals(new HashSet<>(Arrays.asList(first.getId(), second.getId())),
+            new HashSet<>(this.writer.updatedJobs.get(JobState.FINISHED)));
+        assertEquals(Arrays.asList(third.getId()), this.writer.updatedJobs.get(JobState.FAILED));
+    }
+
+    @Test
+    public void testWhatFailsToBeSavedIsKeptForTheNextFlush() {
+        this.flusher.start();
+        this.flusher.markDirty(newTask("task-1"));
+        this.writer.failing = true;
+        this.flusher.flush();
+
+        assertEquals(1, this.flusher.countDirty());
+
+        this.writer.failing = false;
+        this.flusher.flush();
+
+        assertEquals(0, this.flusher.countDirty());
+        assertEquals(1, this.writer.savedTasks.size());
+    }
+
+    @Test
+    public void testWhatIsLeftIsSavedOnStop() {
+        this.flusher.start();
+        this.flusher.markDirty(newTask("task-1"));
+        this.flusher.stop();
+
+        assertEquals(1, this.writer.savedTasks.size());
+
+        this.flusher.markDirty(newTask("task-2"));
+        assertEquals(0, this.flusher.countDirty());
+    }
+
+    @Test
+    public void testTaskFinishedWhileBeingSavedIsNotForgotten() {
+        this.flusher.start();
+        Task task = newTask("task-1");
+        task.setState(TaskState.RUNNING);
+        this.flusher.markDirty(task);
+        this.writer.onSave = () -> {
+            task.setState(TaskState.FINISHED);
+            this.flusher.markDirty(task);
+        };
+        this.flusher.flush();
+
+        assertTrue(this.writer.forgotten.isEmpty());
+        assertEquals(1, this.flusher.countDirty());
+
+        this.writer.onSave = null;
+        this.flusher.flush();
+
+        assertEquals(Arrays.asList(task), this.writer.forgotten);
+    }
+
+    @Test
+    public void testFinishedTaskMarkedAgainWhileBeingSavedIsNotForgotten() {
+        this.flusher.start();
+        Task task = newTask("task-1");
+        task.setState(TaskState.FINISHED);
+        this.flusher.markDirty(task);
+        this.writer.onSave = () -> this.flusher.markDirty(task);
+        this.flusher.flush();
+
+        assertTrue(this.writer.forgotten.isEmpty());
+
+        this.writer.onSave = null;
+        this.flusher.flush();
+
+        assertEquals(Arrays.asList(task), this.writer.forgotten);
+    }
+
+    private Task newTask(String id) {
+        return new Task(id, new TaskSpec());
+    }
+
+    private Job newJob(JobState jobState) {
+        Job job = new Job("label", new ArrayList<>());
+        job.setJobState(jobState);
+        return job;
+    }
+
+    private static class FakeWriter implements WriteBehindFlusher.Writer {
+
+        private final List<List<Task>> savedTasks = new ArrayList<>();
+        private final Map<JobState, List<String>> updatedJobs = new HashMap<>();
+        private final List<Task> forgotten = new ArrayList<>();
+        private volatile boolean failing;
+        //it runs while the tasks are being saved
+        private volatile Runnable onSave;
+
+        @Override
+        public synchronized void saveTasks(Collection<Task> tasks) {
+            if (this.failing) {
+                throw new RuntimeException("Database unavailable");
+            }
+            if (this.onSave != null) {
+                this.onSave.run();
+            }
+            this.savedTasks.add(new ArrayList<>(tasks));
+        }
+
+        @Override
+        public synchronized void forget(Collection<Task> saved) {
+            this.forgotten.addAll(saved);
+        }
+
+        @Override
+        public synchronized void updateJobState(JobState jobState, Collection<String> jobIds) {
+            this.updatedJobs.put(jobState, new ArrayList<>(jobIds));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.fogbowcloud.arrebol.execution;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.fogbowcloud.arrebol.scheduler.AllocationPlan;
+import org.fogbowcloud.arrebol.scheduler.AllocationPlanExecutor;
+import org.fogbowcloud.arrebol.scheduler.SchedulingListener;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ExecutionBrokerTest {
+
+    private static final int POOL_ID = 1;
+    private static final long MAX_WAIT_MILLIS = 2000;
+
+    @Test
+    public void testInFlightExecutionsAreTracked() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch notified = new CountDownLatch(1);
+        SchedulingListener listener = Mockito.mock(SchedulingListener.class);
+        Mockito.doAnswer(invocation -> {
+            notified.countDown();
+            return null;
+        }).when(listener).notifyAvailableWorker();
+        ExecutionThreadPool threadPool = new ExecutionThreadPool("test-execution", 1, 0);
+        ExecutionBroker broker = new ExecutionBroker(listener, threadPool);
+        Worker worker = createWorker("workerId", started, release);
+        Task task = createTask("taskId");
+
+        Assert.assertTrue(broker.tryReserve());
+        broker.execute(task, worker);
+        Assert.assertTrue(started.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        Assert.assertEquals(1, threadPool.getInFlightExecutions().size());
+        InFlightExecution execution = threadPool.getInFlightExecutions().iterator().next();
+        Assert.assertSame(task, execution.getTask());
+        Assert.assertTrue(execution.isStarted());
+        Assert.assertFalse(broker.tryReserve());
+        Assert.assertEquals(1, threadPool.getRejectedCount());
+
+        release.countDown();
+        Assert.assertTrue(notified.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(threadPool.getInFlightExecutions().isEmpty());
+        Assert.assertEquals(TaskState.FINISHED, task.getState());
+        Assert.assertEquals(ResourceState.IDLE, worker.getState());
+        Assert.assertEquals(0, threadPool.getReservedCount());
+    }
+
+    @Test
+    public void testExecutionWithoutResultFailsTheTaskAndReleasesTheWorker()
+        throws InterruptedException {
+        CountDownLatch notified = new CountDownLatch(1);
+        SchedulingListener listener = Mockito.mock(SchedulingListener.class);
+        Mockito.doAnswer(invocation -> {
+            notified.countDown();
+            return null;
+        }).when(listener).notifyAvailableWorker();
+        ExecutionThreadPool threadPool = new ExecutionThreadPool("test-execution", 1, 0);
+        ExecutionBroker broker = new ExecutionBroker(listener, threadPool);
+        TaskExecutor executor = Mockito.mock(TaskExecutor.class);
+        Mockito.when(executor.execute(Mockito.any(Task.class)))
+            .thenThrow(new IllegalStateException("worker is gone"));
+        Worker worker = new MatchAnyWorker("workerId", null, POOL_ID, executor);
+        worker.setState(ResourceState.BUSY);
+        Task task = createTask("taskId");
+        task.setState(TaskState.RUNNING);
+
+        Assert.assertTrue(broker.tryReserve());
+        broker.execute(task, worker);
+
+        Assert.assertTrue(notified.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(TaskState.FAILED, task.getState());
+        Command command = task.getTaskSpec().getCommands().get(0);
+        Assert.assertEquals(CommandState.FAILED, command.getState());
+        Assert.assertEquals(Integer.valueOf(TaskExecutionResult.UNDETERMINED_RESULT),
+            command.getExitcode());
+        Assert.assertEquals(ResourceState.IDLE, worker.getState());
+        Assert.assertTrue(threadPool.getInFlightExecutions().isEmpty());
+        Assert.assertEquals(0, threadPool.getReservedCount());
+    }
+
+    @Test
+    public void testPlansBeyondThePoolCapacityLeaveTheTaskPending() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutionBroker broker = new ExecutionBroker(Mockito.mock(SchedulingListener.class),
+            new ExecutionThreadPool("test-execution", 1, 0));
+        AllocationPlanExecutor planExecutor = new AllocationPlanExecutor(broker);
+        TaskQueue queue = new TaskQueue("queueId", "queueName");
+        Task first = createTask("firstTaskId");
+        Task second = createTask("secondTaskId");
+        queue.addTask(first);
+        queue.addTask(second);
+        Worker firstWorker = createWorker("firstWorkerId", started, release);
+        Worker secondWorker = createWorker("secondWorkerId", started, release);
+
+        List<AllocationPlan> plans = new LinkedList<>();
+        plans.add(new AllocationPlan(first, firstWorker, AllocationPlan.Type.RUN));
+        plans.add(new AllocationPlan(second, secondWorker, AllocationPlan.Type.RUN));
+        planExecutor.execute(queue, plans);
+
+        Assert.assertTrue(started.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(TaskState.RUNNING, first.getState());
+        Assert.assertEquals(TaskState.PENDING, second.getState());
+        Assert.assertEquals(Collections.singletonList(second), new LinkedList<>(queue.queue()));
+        Assert.assertEquals(ResourceState.IDLE, secondWorker.getState());
+        release.countDown();
+    }
+
+    private Worker createWorker(String id, CountDownLatch started, CountDownLatch release) {
+        TaskExecutor executor = Mockito.mock(TaskExecutor.class);
+        Mockito.when(executor.execute(Mockito.any(Task.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            return new TaskExecutionResult(TaskExecutionResult.RESULT.SUCCESS, new int[]{0});
+        });
+        return new MatchAnyWorker(id, null, POOL_ID, executor);
+    }
+
+    private Task createTask(String taskId) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        return new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()));
+    }
+}
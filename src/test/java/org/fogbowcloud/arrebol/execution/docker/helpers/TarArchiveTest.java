@@ -0,0 +1,50 @@
+package org.fogbowcloud.arrebol.execution.docker.helpers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.http.HttpEntity;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TarArchiveTest {
+
+    private static final String SCRIPT = "echo 'it'\"'\"'s quoted'\nls -la /tmp\n";
+
+    @Test
+    public void testArchiveIsReadBack() throws Exception {
+        HttpEntity entity = TarArchive.entityOf("task-1.ts", SCRIPT.getBytes(StandardCharsets.UTF_8), 0644);
+        byte[] archive = write(entity);
+
+        Assert.assertEquals(entity.getContentLength(), archive.length);
+        Assert.assertEquals(0, archive.length % 512);
+        Assert.assertEquals(TarArchive.CONTENT_TYPE, entity.getContentType().getValue());
+        byte[] content = TarArchive.readFirstFile(new ByteArrayInputStream(archive));
+        Assert.assertEquals(SCRIPT, new String(content, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testHeaderChecksum() {
+        byte[] header = TarArchive.header("task-script-executor.sh", 1234, 0755);
+
+        long sum = 0;
+        for (int i = 0; i < header.length; i++) {
+            sum += (i >= 148 && i < 156) ? ' ' : header[i] & 0xff;
+        }
+        String checksum = new String(header, 148, 6, StandardCharsets.US_ASCII);
+        Assert.assertEquals(sum, Long.parseLong(checksum, 8));
+        Assert.assertEquals("ustar", new String(header, 257, 5, StandardCharsets.US_ASCII));
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmptyArchiveHasNoFile() throws Exception {
+        TarArchive.readFirstFile(new ByteArrayInputStream(new byte[1024]));
+    }
+
+    private byte[] write(HttpEntity entity) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,156 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newsclub.net.unix.AFUNIXServerSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+public class DockerApiClientsTest {
+
+    private HttpServer server;
+    private String address;
+    private Set<Integer> clientPorts;
+
+    @Before
+    public void setUp() throws Exception {
+        this.clientPorts = ConcurrentHashMap.newKeySet();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", exchange -> {
+            this.clientPorts.add(exchange.getRemoteAddress().getPort());
+            if (exchange.getRequestURI().getPath().startsWith("/slow")) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        this.server.start();
+        this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testConnectionIsKeptAliveAndLatencyIsRecorded() throws Exception {
+        DockerApiClients clients = new DockerApiClients();
+
+        for (int i = 0; i < 5; i++) {
+            String response = clients.forEndpoint(this.address).doRequest(HttpWrapper.HTTP_METHOD_GET,
+                this.address + "/exec/exec-" + i + "/json", new ArrayList<>(), null);
+            Assert.assertEquals("{}", response);
+        }
+
+        Assert.assertEquals(1, this.clientPorts.size());
+        EndpointLatency latency = clients.getLatencies().get("GET /exec/{id}/json");
+        Assert.assertEquals(5, latency.getRequests());
+        Assert.assertEquals(0, latency.getErrors());
+        Assert.assertEquals(1, clients.logLatencies());
+        Assert.assertEquals(0, clients.logLatencies());
+    }
+
+    @Test
+    public void testRequestIsAbortedAfterTheOverallTimeout() {
+        DockerApiClients clients = new DockerApiClients();
+        clients.configure(1000, 10000, 200, 4, 2);
+
+        long start = System.currentTimeMillis();
+        try {
+            clients.forEndpoint(this.address).doRequest(HttpWrapper.HTTP_METHOD_GET,
+                this.address + "/slow", new ArrayList<>(), null);
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(System.currentTimeMillis() - start < 1500);
+        }
+        Assert.assertEquals(1, clients.getLatencies().get("GET /slow").getErrors());
+    }
+
+    @Test
+    public void testIdsAreRemovedFromEndpoints() {
+        Assert.assertEquals("POST /containers/{id}/exec",
+            DockerApiClients.toTemplate("post", "/containers/arrebol-123/exec"));
+        Assert.assertEquals("GET /images/{id}/json",
+            DockerApiClients.toTemplate("GET", "/images/fogbow/worker:1.0/json"));
+        Assert.assertEquals("POST /images/create",
+            DockerApiClients.toTemplate("POST", "/images/create"));
+        Assert.assertEquals("GET /containers/json",
+            DockerApiClients.toTemplate("GET", "/containers/json"));
+    }
+
+    @Test
+    public void testRequestsGoOverAUnixSocket() throws Exception {
+        File socket = File.createTempFile("docker", ".sock");
+        socket.delete();
+        AFUNIXServerSocket server = AFUNIXServerSocket.newInstance();
+        server.bind(AFUNIXSocketAddress.of(socket));
+        AtomicInteger connections = new AtomicInteger();
+        Thread daemon = new Thread(() -> serveJson(server, connections));
+        daemon.setDaemon(true);
+        daemon.start();
+        try {
+            DockerApiClients clients = new DockerApiClients();
+            String address = "unix://" + socket;
+
+            for (int i = 0; i < 3; i++) {
+                String response = clients.forEndpoint(address + "/containers/json").doRequest(
+                    HttpWrapper.HTTP_METHOD_GET, address + "/containers/json", new ArrayList<>(), null);
+                Assert.assertEquals("{}", response);
+            }
+
+            Assert.assertEquals(1, connections.get());
+            Assert.assertEquals(3, clients.getLatencies().get("GET /containers/json").getRequests());
+        } finally {
+            server.close();
+            socket.delete();
+        }
+    }
+
+    /**
+     * It answers {} to every request, keeping the connections alive.
+     */
+    private void serveJson(ServerSocket server, AtomicInteger connections) {
+        byte[] response = ("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n"
+            + "Content-Length: 2\r\n\r\n{}").getBytes(StandardCharsets.US_ASCII);
+        try {
+            while (true) {
+                Socket client = server.accept();
+                connections.incrementAndGet();
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream os = client.getOutputStream();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        os.write(response);
+                        os.flush();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            //the server was closed
+        }
+    }
+}
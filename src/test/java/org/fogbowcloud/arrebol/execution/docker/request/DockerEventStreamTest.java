@@ -0,0 +1,109 @@
+package org.fogbowcloud.arrebol.execution.docker.request;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.execution.docker.request.DockerEventStream.ExecOutcome;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DockerEventStreamTest {
+
+    private static final long MAX_WAIT_MILLIS = 3000;
+    private static final String END_OF_STREAM = "";
+
+    private HttpServer server;
+    private String address;
+    private BlockingQueue<String> events;
+    private DockerEventStream stream;
+
+    @Before
+    public void setUp() throws Exception {
+        this.events = new LinkedBlockingQueue<>();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/events", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.flush();
+                String event;
+                while (!(event = this.events.take()).equals(END_OF_STREAM)) {
+                    os.write((event + "\n").getBytes(StandardCharsets.UTF_8));
+                    os.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.server.start();
+        this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+        this.stream = new DockerApiClients().eventsFor(this.address);
+        awaitConnected();
+    }
+
+    @After
+    public void tearDown() {
+        this.stream.close();
+        this.events.add(END_OF_STREAM);
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testExecDieIsDeliveredToItsWatcher() throws Exception {
+        CompletableFuture<ExecOutcome> watched = this.stream.watchExec("arrebol-1", "exec-1");
+        CompletableFuture<ExecOutcome> other = this.stream.watchExec("arrebol-1", "exec-2");
+
+        this.events.add(execDie("exec-1"));
+
+        Assert.assertEquals(ExecOutcome.EXITED, watched.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(other.isDone());
+    }
+
+    @Test
+    public void testContainerDeathIsDeliveredToTheWatchersOfItsExecs() throws Exception {
+        CompletableFuture<ExecOutcome> watched = this.stream.watchExec("arrebol-1", "exec-1");
+
+        this.events.add("{\"Type\":\"container\",\"Action\":\"oom\",\"Actor\":{\"ID\":\"4f2a\","
+            + "\"Attributes\":{\"name\":\"arrebol-1\"}},\"time\":1}");
+
+        Assert.assertEquals(ExecOutcome.CONTAINER_OOM, watched.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testWatchersFailWhenTheStreamDrops() throws Exception {
+        CompletableFuture<ExecOutcome> watched = this.stream.watchExec("arrebol-1", "exec-1");
+
+        this.events.add(END_OF_STREAM);
+
+        try {
+            watched.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertNull(this.stream.watchExec("arrebol-1", "exec-2"));
+        //it subscribes again
+        awaitConnected();
+    }
+
+    private String execDie(String execId) {
+        return "{\"Type\":\"container\",\"Action\":\"exec_die\",\"Actor\":{\"ID\":\"4f2a\","
+            + "\"Attributes\":{\"name\":\"arrebol-1\",\"execID\":\"" + execId + "\",\"exitCode\":\"0\"}},"
+            + "\"time\":1}";
+    }
+
+    private void awaitConnected() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        while (!this.stream.isConnected() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(this.stream.isConnected());
+    }
+}
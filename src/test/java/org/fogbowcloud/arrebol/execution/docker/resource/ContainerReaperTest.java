@@ -0,0 +1,139 @@
+package org.fogbowcloud.arrebol.execution.docker.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.junit.Test;
+
+public class ContainerReaperTest {
+
+    private static final long MAX_WAIT_MILLIS = 5000;
+    private static final String HOST_A = "http://host-a:5555";
+    private static final String HOST_B = "http://host-b:5555";
+    private static final String INSTANCE_ID = "arrebol-1";
+    private static final ContainerReaper.Lister NO_LEFTOVERS =
+        (address, instanceId, runId) -> Collections.emptyList();
+
+    @Test
+    public void testRemovalsPerHostAreLimited() throws Exception {
+        Map<String, CompletableFuture<Void>> removals = new ConcurrentHashMap<>();
+        ContainerReaper reaper = new ContainerReaper(2, (address, containerName) -> {
+            CompletableFuture<Void> removal = new CompletableFuture<>();
+            removals.put(containerName, removal);
+            return removal;
+        }, NO_LEFTOVERS);
+
+        reaper.reap(HOST_A, "a-1");
+        reaper.reap(HOST_A, "a-2");
+        reaper.reap(HOST_A, "a-3");
+        reaper.reap(HOST_B, "b-1");
+        waitUntil(() -> removals.size() == 3);
+
+        assertTrue(removals.containsKey("a-1") && removals.containsKey("a-2") && removals.containsKey("b-1"));
+        assertEquals(4, reaper.countPending());
+
+        removals.get("a-1").complete(null);
+        assertTrue(removals.containsKey("a-3"));
+        removals.get("a-2").complete(null);
+        removals.get("a-3").complete(null);
+        removals.get("b-1").complete(null);
+        assertEquals(0, reaper.countPending());
+    }
+
+    @Test
+    public void testFailedRemovalIsTriedAgain() throws Exception {
+        List<String> attempts = new CopyOnWriteArrayList<>();
+        ContainerReaper reaper = new ContainerReaper(1, (address, containerName) -> {
+            attempts.add(containerName);
+            CompletableFuture<Void> removal = new CompletableFuture<>();
+            if (attempts.size() == 1) {
+                removal.completeExceptionally(new Exception("Request error - Status: 500"));
+            } else {
+                removal.complete(null);
+            }
+            return removal;
+        }, NO_LEFTOVERS);
+
+        reaper.reap(HOST_A, "a-1");
+        waitUntil(() -> attempts.size() == 1);
+        assertEquals("Request error - Status: 500", reaper.getFailedRemovals().get(HOST_A + "/a-1"));
+        assertEquals(1, reaper.countPending());
+
+        waitUntil(() -> attempts.size() == 2);
+        assertTrue(reaper.getFailedRemovals().isEmpty());
+        assertEquals(0, reaper.countPending());
+    }
+
+    @Test
+    public void testContainerAlreadyGoneIsRemoved() throws Exception {
+        List<String> attempts = new CopyOnWriteArrayList<>();
+        ContainerReaper reaper = new ContainerReaper(1, (address, containerName) -> {
+            attempts.add(containerName);
+            CompletableFuture<Void> removal = new CompletableFuture<>();
+            removal.completeExceptionally(new Exception("Request error - Status: 404 -  No such container"));
+            return removal;
+        }, NO_LEFTOVERS);
+
+        reaper.reap(HOST_A, "a-1");
+        waitUntil(() -> attempts.size() == 1);
+
+        assertTrue(reaper.getFailedRemovals().isEmpty());
+        assertEquals(0, reaper.countPending());
+    }
+
+    @Test
+    public void testContainersLeftByEarlierRunsAreReaped() throws Exception {
+        List<String> removed = new CopyOnWriteArrayList<>();
+        List<String> listedRuns = new CopyOnWriteArrayList<>();
+        ContainerReaper reaper = new ContainerReaper(2, (address, containerName) -> {
+            removed.add(address + "/" + containerName);
+            return CompletableFuture.completedFuture(null);
+        }, (address, instanceId, runId) -> {
+            listedRuns.add(instanceId + "/" + runId);
+            return HOST_A.equals(address) ? Arrays.asList("old-1", "old-1-3")
+                : Collections.emptyList();
+        });
+        reaper.configure(2, INSTANCE_ID);
+
+        reaper.reapLeftovers(HOST_A);
+        reaper.reapLeftovers(HOST_B);
+        waitUntil(() -> removed.size() == 2);
+
+        assertTrue(removed.contains(HOST_A + "/old-1") && removed.contains(HOST_A + "/old-1-3"));
+        String listedRun = INSTANCE_ID + "/" + reaper.getRunId();
+        assertEquals(Arrays.asList(listedRun, listedRun), listedRuns);
+        assertEquals(0, reaper.countPending());
+    }
+
+    @Test
+    public void testNothingIsReapedWithoutAnInstanceId() {
+        List<String> listed = new CopyOnWriteArrayList<>();
+        ContainerReaper reaper = new ContainerReaper(2,
+            (address, containerName) -> CompletableFuture.completedFuture(null),
+            (address, instanceId, runId) -> {
+                listed.add(address);
+                return Collections.singletonList("other-instance-1");
+            });
+
+        reaper.reapLeftovers(HOST_A);
+
+        assertTrue(listed.isEmpty());
+        assertEquals(0, reaper.countPending());
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -1,5 +1,6 @@
 package org.fogbowcloud.arrebol.execution.docker.resource;
 
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_ADDRESS;
 import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_CONTAINER_NAME;
 import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_IMAGE_ID;
 import static org.mockito.Matchers.eq;
@@ -13,6 +14,7 @@ import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerRemoveContainer
 import org.fogbowcloud.arrebol.execution.docker.exceptions.DockerStartException;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
 import org.fogbowcloud.arrebol.execution.docker.helpers.DockerImageRequestHelper;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -112,4 +114,24 @@ public class DefaultDockerContainerResourceTest {
             .when(containerRequestHelper).removeContainer();
         testSuccessStop();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReleaseHandsTheContainerOverToTheReaper() throws Exception {
+        ContainerReaper reaper = Mockito.mock(ContainerReaper.class);
+        Mockito.when(containerRequestHelper.getAddress()).thenReturn(MOCK_ADDRESS);
+        defaultDockerContainerResource =
+            new DefaultDockerContainerResource(
+                MOCK_CONTAINER_NAME, containerRequestHelper, imageRequestHelper);
+        defaultDockerContainerResource.setReaper(reaper);
+
+        testSuccessStart();
+        defaultDockerContainerResource.release(false);
+
+        Mockito.verify(reaper).reap(MOCK_ADDRESS, MOCK_CONTAINER_NAME);
+        Mockito.verify(containerRequestHelper, Mockito.never()).removeContainer();
+        Mockito.verify(containerRequestHelper).setContainerName(MOCK_CONTAINER_NAME + "-1");
+        Assert.assertEquals(MOCK_CONTAINER_NAME + "-1", defaultDockerContainerResource.getContainerName());
+        Assert.assertEquals(MOCK_CONTAINER_NAME, defaultDockerContainerResource.getId());
+        Assert.assertFalse(defaultDockerContainerResource.isStarted());
+    }
+}
@@ -0,0 +1,138 @@
+package org.fogbowcloud.arrebol.execution.docker.resource;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerImageRequestHelper;
+import org.fogbowcloud.arrebol.execution.docker.resource.ImagePullCache.Revalidation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ImagePullCacheTest {
+
+    private static final String HOST = "http://10.0.0.1:5555";
+    private static final String IMAGE = "ubuntu";
+    private static final String DIGEST = "sha256:abc";
+    private static final long MAX_WAIT_MILLIS = 2000;
+
+    private DockerImageRequestHelper helper;
+
+    @Before
+    public void setUp() {
+        this.helper = Mockito.mock(DockerImageRequestHelper.class);
+    }
+
+    @Test
+    public void testPullIsSkippedWithinTheTtl() throws Exception {
+        ImagePullCache cache = new ImagePullCache(60000, Revalidation.TTL);
+
+        cache.ensurePresent(HOST, IMAGE, this.helper);
+        cache.ensurePresent(HOST, IMAGE + ":latest", this.helper);
+        cache.ensurePresent("http://10.0.0.2:5555", IMAGE, this.helper);
+
+        Mockito.verify(this.helper, Mockito.times(2)).pullImage(Mockito.anyString());
+        Assert.assertEquals(1, cache.getHits());
+
+        cache.retain(HOST, Collections.emptyList());
+        cache.ensurePresent(HOST, IMAGE, this.helper);
+        Mockito.verify(this.helper, Mockito.times(3)).pullImage(Mockito.anyString());
+    }
+
+    @Test
+    public void testDigestRevalidation() throws Exception {
+        ImagePullCache cache = new ImagePullCache(0, Revalidation.DIGEST);
+        Mockito.when(this.helper.getRegistryDigest(IMAGE)).thenReturn(DIGEST);
+        Mockito.when(this.helper.getLocalDigests(IMAGE))
+            .thenReturn(Collections.singletonList(IMAGE + "@" + DIGEST));
+
+        cache.ensurePresent(HOST, IMAGE, this.helper);
+        cache.ensurePresent(HOST, IMAGE, this.helper);
+        Mockito.verify(this.helper, Mockito.times(1)).pullImage(IMAGE);
+        Assert.assertEquals(1, cache.getRevalidations());
+
+        Mockito.when(this.helper.getRegistryDigest(IMAGE)).thenReturn("sha256:def");
+        cache.ensurePresent(HOST, IMAGE, this.helper);
+        Mockito.verify(this.helper, Mockito.times(2)).pullImage(IMAGE);
+    }
+
+    @Test
+    public void testConcurrentPullsAreMerged() throws Exception {
+        ImagePullCache cache = new ImagePullCache(60000, Revalidation.TTL);
+        CountDownLatch pulling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            pulling.countDown();
+            release.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(this.helper).pullImage(IMAGE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> {
+                cache.ensurePresent(HOST, IMAGE, this.helper);
+                return null;
+            });
+            Assert.assertTrue(pulling.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+            Future<?> second = executor.submit(() -> {
+                cache.ensurePresent(HOST, IMAGE, this.helper);
+                return null;
+            });
+            release.countDown();
+            first.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            second.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Mockito.verify(this.helper, Mockito.times(1)).pullImage(IMAGE);
+    }
+
+    @Test
+    public void testWaitersSeeTheErrorOfTheMergedPull() throws Exception {
+        ImagePullCache cache = new ImagePullCache(60000, Revalidation.TTL);
+        CountDownLatch pulling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            pulling.countDown();
+            release.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            throw new OutOfMemoryError("pull");
+        }).when(this.helper).pullImage(IMAGE);
+
+        Thread first = new Thread(() -> {
+            try {
+                cache.ensurePresent(HOST, IMAGE, this.helper);
+            } catch (Throwable t) {
+                //the puller sees the error as is
+            }
+        });
+        first.start();
+        Assert.assertTrue(pulling.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        AtomicReference<Throwable> seen = new AtomicReference<>();
+        Thread second = new Thread(() -> {
+            try {
+                cache.ensurePresent(HOST, IMAGE, this.helper);
+            } catch (Throwable t) {
+                seen.set(t);
+            }
+        });
+        second.start();
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        while (second.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        first.join(MAX_WAIT_MILLIS);
+        second.join(MAX_WAIT_MILLIS);
+
+        Assert.assertTrue(seen.get() instanceof ExecutionException);
+        Assert.assertEquals("pull", seen.get().getCause().getMessage());
+        Mockito.verify(this.helper, Mockito.times(1)).pullImage(IMAGE);
+    }
+}
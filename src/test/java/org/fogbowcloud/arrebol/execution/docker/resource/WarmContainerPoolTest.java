@@ -0,0 +1,102 @@
+package org.fogbowcloud.arrebol.execution.docker.resource;
+
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_CONTAINER_NAME;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_IMAGE_ID;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.fogbowcloud.arrebol.execution.docker.DockerCommandExecutor;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerImageRequestHelper;
+import org.fogbowcloud.arrebol.execution.docker.request.ExecInstanceResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class WarmContainerPoolTest {
+
+    private static final long IDLE_TTL_MILLIS = 60000;
+    private static final int MAX_REUSE = 3;
+
+    private DockerContainerRequestHelper containerRequestHelper;
+    private DockerCommandExecutor commandExecutor;
+    private WarmContainerPool pool;
+    private DefaultDockerContainerResource container;
+
+    @Before
+    public void setUp() throws Exception {
+        this.containerRequestHelper = Mockito.mock(DockerContainerRequestHelper.class);
+        Mockito.when(this.containerRequestHelper.countProcesses()).thenReturn(1);
+        Mockito.when(this.containerRequestHelper.listChanges())
+            .thenReturn(Collections.singletonList("/tmp"));
+        this.commandExecutor = Mockito.mock(DockerCommandExecutor.class);
+        Mockito.when(this.commandExecutor.executeCommand(Mockito.anyString(), Mockito.anyString(),
+            Mockito.eq(WarmContainerPool.CLEAN_WORKSPACE_COMMAND)))
+            .thenReturn(new ExecInstanceResult("execId", 0, false));
+
+        this.pool = new WarmContainerPool(1, IDLE_TTL_MILLIS, MAX_REUSE, this.commandExecutor);
+        this.container = new DefaultDockerContainerResource(MOCK_CONTAINER_NAME,
+            this.containerRequestHelper, Mockito.mock(DockerImageRequestHelper.class));
+        this.container.setWarmPool(this.pool);
+    }
+
+    @Test
+    public void testContainerIsReusedUpToTheLimit() throws Exception {
+        for (int i = 0; i < MAX_REUSE; i++) {
+            this.container.start(specification(MOCK_IMAGE_ID));
+            this.container.release(true);
+        }
+
+        Mockito.verify(this.containerRequestHelper, Mockito.times(1))
+            .createContainer(Mockito.eq(MOCK_IMAGE_ID), Mockito.any(Map.class));
+        Mockito.verify(this.containerRequestHelper, Mockito.times(1)).removeContainer();
+        Assert.assertFalse(this.container.isParked());
+    }
+
+    @Test
+    public void testFailedOrDirtyContainerIsRemoved() throws Exception {
+        this.container.start(specification(MOCK_IMAGE_ID));
+        this.container.release(false);
+        Mockito.verify(this.containerRequestHelper, Mockito.times(1)).removeContainer();
+
+        Mockito.when(this.containerRequestHelper.countProcesses()).thenReturn(1, 2);
+        this.container.start(specification(MOCK_IMAGE_ID));
+        this.container.release(true);
+
+        Mockito.verify(this.containerRequestHelper, Mockito.times(2)).removeContainer();
+        Assert.assertEquals(0, this.pool.countParked(null, MOCK_IMAGE_ID));
+    }
+
+    @Test
+    public void testAnotherImageReplacesTheWarmContainer() throws Exception {
+        this.container.start(specification(MOCK_IMAGE_ID));
+        this.container.release(true);
+        Assert.assertEquals(1, this.pool.countParked(null, MOCK_IMAGE_ID));
+
+        this.container.start(specification("another-image"));
+
+        Mockito.verify(this.containerRequestHelper, Mockito.times(1)).removeContainer();
+        Mockito.verify(this.containerRequestHelper, Mockito.times(1))
+            .createContainer(Mockito.eq("another-image"), Mockito.any(Map.class));
+        Assert.assertEquals(0, this.pool.countParked(null, MOCK_IMAGE_ID));
+    }
+
+    @Test
+    public void testIdleContainerIsEvicted() throws Exception {
+        this.container.start(specification(MOCK_IMAGE_ID));
+        this.container.release(true);
+
+        this.pool.evictExpired(System.currentTimeMillis());
+        Assert.assertTrue(this.container.isParked());
+
+        this.pool.evictExpired(System.currentTimeMillis() + IDLE_TTL_MILLIS);
+        Assert.assertFalse(this.container.isParked());
+        Mockito.verify(this.containerRequestHelper, Mockito.times(1)).removeContainer();
+    }
+
+    private ContainerSpecification specification(String image) {
+        return new ContainerSpecification(image, new HashMap<>());
+    }
+}
@@ -5,18 +5,29 @@ import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.loadTa
 import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_ADDRESS;
 import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_CONTAINER_NAME;
 import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_EC_ARRAY;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_TASK_ID;
 import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.mockTask;
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
 import org.fogbowcloud.arrebol.execution.TaskExecutionResult.RESULT;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
+import org.fogbowcloud.arrebol.models.command.Command;
 import org.fogbowcloud.arrebol.models.command.CommandState;
 import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class DefaultTaskletTest {
+    private static final long MAX_WAIT_MILLIS = 5000;
     private Task task;
 
     @Before
@@ -38,6 +49,107 @@ public class DefaultTaskletTest {
         assertEquals(RESULT.SUCCESS, taskExecutionResult.getResult());
     }
 
+    @Test
+    public void testSuccessfulAsyncExecution() throws Exception {
+        TaskletHelper taskletHelper = Mockito.mock(TaskletHelper.class);
+        Mockito.when(taskletHelper.sendTaskScriptExecutorAsync(Mockito.anyString()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(taskletHelper.sendTaskScriptAsync(Mockito.anyString(), Mockito.anyList()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(taskletHelper.runTaskScriptExecutorAsync(Mockito.anyString()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(taskletHelper.getExitCodesAsync(task.getId(), task.getTaskSpec().getCommands().size()))
+            .thenReturn(CompletableFuture.completedFuture(MOCK_EC_ARRAY));
+        List<Command> reported = new LinkedList<>();
+        TaskProgressListener listener = new TaskProgressListener() {
+            @Override
+            public void onCommandStateChanged(Task task, Command command) {
+                if (command.getState().equals(CommandState.FINISHED)) {
+                    reported.add(command);
+                }
+            }
+        };
+
+        DefaultTasklet tasklet = new DefaultTasklet(loadTaskScriptExecutor(), taskletHelper);
+
+        TaskExecutionResult taskExecutionResult = tasklet.executeAsync(task, listener, Runnable::run)
+            .get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertTrue(isAll(task.getTaskSpec().getCommands(), CommandState.FINISHED));
+        assertEquals(task.getTaskSpec().getCommands(), reported);
+        assertEquals(RESULT.SUCCESS, taskExecutionResult.getResult());
+    }
+
+    @Test
+    public void testReportedAsyncExecution() throws Exception {
+        List<Command> commands = new LinkedList<>();
+        for (int i = 0; i < 5; i++) {
+            commands.add(new Command("echo " + i));
+        }
+        TaskSpec taskSpec = Mockito.mock(TaskSpec.class);
+        Mockito.when(taskSpec.getCommands()).thenReturn(commands);
+        Task task = new Task(MOCK_TASK_ID, taskSpec);
+        int[] undetermined = new int[commands.size()];
+        Arrays.fill(undetermined, TaskExecutionResult.UNDETERMINED_RESULT);
+
+        TaskletHelper taskletHelper = Mockito.mock(TaskletHelper.class);
+        Mockito.when(taskletHelper.sendTaskScriptExecutorAsync(Mockito.anyString()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(taskletHelper.sendTaskScriptAsync(Mockito.anyString(), Mockito.anyList()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(taskletHelper.runTaskScriptExecutorAsync(Mockito.anyString(), Mockito.anyString(),
+            Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        //the first read is before any command ends, the second one reconciles the lost report
+        Mockito.when(taskletHelper.getExitCodesAsync(MOCK_TASK_ID, commands.size()))
+            .thenReturn(CompletableFuture.completedFuture(undetermined),
+                CompletableFuture.completedFuture(new int[]{0, 3, 0, 0, 1}));
+
+        TaskCallbacks callbacks = TaskCallbacks.getInstance();
+        callbacks.configure("http://arrebol:8080/");
+        try {
+            DefaultTasklet tasklet = new DefaultTasklet(loadTaskScriptExecutor(), taskletHelper);
+            CompletableFuture<TaskExecutionResult> result = tasklet.executeAsync(task,
+                TaskProgressListener.NONE, Runnable::run);
+
+            ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+            Mockito.verify(taskletHelper).runTaskScriptExecutorAsync(Mockito.eq(MOCK_TASK_ID),
+                Mockito.eq("http://arrebol:8080/tasks/" + MOCK_TASK_ID + "/commands"), token.capture());
+            assertFalse(callbacks.report(MOCK_TASK_ID, "wrongToken", 0, 0, 10L, 20L));
+            assertTrue(callbacks.report(MOCK_TASK_ID, token.getValue(), 0, 0, 10L, 20L));
+            assertEquals(CommandState.FINISHED, commands.get(0).getState());
+            assertEquals(Long.valueOf(10), commands.get(0).getStartedAt());
+            assertEquals(Long.valueOf(20), commands.get(0).getFinishedAt());
+            assertEquals(CommandState.RUNNING, commands.get(1).getState());
+            callbacks.report(MOCK_TASK_ID, token.getValue(), 2, 0, 30L, 40L);
+            callbacks.report(MOCK_TASK_ID, token.getValue(), 3, 0, 40L, 50L);
+            assertFalse(result.isDone());
+            callbacks.report(MOCK_TASK_ID, token.getValue(), 4, 1, 50L, 60L);
+
+            TaskExecutionResult taskExecutionResult = result.get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            assertTrue(isAll(commands, CommandState.FINISHED));
+            assertArrayEquals(new int[]{0, 3, 0, 0, 1}, taskExecutionResult.getExitcodes());
+            assertFalse(callbacks.report(MOCK_TASK_ID, token.getValue(), 4, 1, 50L, 60L));
+        } finally {
+            callbacks.configure(null);
+        }
+    }
+
+    @Test
+    public void testFailedAsyncExecution() throws Exception {
+        TaskletHelper taskletHelper = Mockito.mock(TaskletHelper.class);
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new RuntimeException("Cannot send task script executor to worker=" + MOCK_CONTAINER_NAME));
+        Mockito.when(taskletHelper.sendTaskScriptExecutorAsync(Mockito.anyString())).thenReturn(failure);
+
+        DefaultTasklet tasklet = new DefaultTasklet(loadTaskScriptExecutor(), taskletHelper);
+
+        TaskExecutionResult taskExecutionResult = tasklet.executeAsync(task, TaskProgressListener.NONE,
+            Runnable::run).get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertTrue(isAll(task.getTaskSpec().getCommands(), CommandState.FAILED));
+        assertEquals(RESULT.FAILURE, taskExecutionResult.getResult());
+    }
+
     @Test
     public void testExceptionWhileSendTaskScriptExecutor() throws Exception {
         TaskletHelper taskletHelper = Mockito.mock(TaskletHelper.class);
@@ -0,0 +1,105 @@
+package org.fogbowcloud.arrebol.execution.docker.tasklet;
+
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_CONTAINER_NAME;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_EC_ARRAY;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.MOCK_IMAGE_ID;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.isAll;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.loadTaskScriptExecutor;
+import static org.fogbowcloud.arrebol.execution.docker.DockerUnitTestUtil.mockTask;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult.RESULT;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
+import org.fogbowcloud.arrebol.execution.docker.helpers.DockerContainerRequestHelper;
+import org.fogbowcloud.arrebol.execution.docker.resource.ContainerSpecification;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class SingleShotTaskletTest {
+
+    private static final long MAX_WAIT_MILLIS = 5000;
+    //nothing listens there, so the events stream stays down and the container is polled
+    private static final String ADDRESS = "http://127.0.0.1:1";
+
+    private TaskletHelper taskletHelper;
+    private DockerContainerRequestHelper containerRequestHelper;
+
+    @Before
+    public void setUp() {
+        this.taskletHelper = Mockito.mock(TaskletHelper.class);
+        this.containerRequestHelper = Mockito.mock(DockerContainerRequestHelper.class);
+        Mockito.when(this.containerRequestHelper.getAddress()).thenReturn(ADDRESS);
+        Mockito.when(this.containerRequestHelper.getContainerName()).thenReturn(MOCK_CONTAINER_NAME);
+    }
+
+    @Test
+    public void testSpecificationRunsTheTaskScript() throws Exception {
+        Task task = mockTask();
+        Map<String, String> files = new HashMap<>();
+        Mockito.when(this.taskletHelper.getRunCommand(task.getId())).thenReturn("run");
+        Mockito.when(this.taskletHelper.getTaskFiles(Mockito.anyString(), Mockito.eq(task.getId()),
+            Mockito.anyList())).thenReturn(files);
+        SingleShotTasklet tasklet = new SingleShotTasklet(loadTaskScriptExecutor(), this.taskletHelper,
+            this.containerRequestHelper);
+
+        ContainerSpecification specification = tasklet.specify(task,
+            new ContainerSpecification(MOCK_IMAGE_ID, Collections.emptyMap()));
+
+        assertEquals(MOCK_IMAGE_ID, specification.getImageId());
+        assertEquals(Collections.singletonList("run"), specification.getCommand());
+        assertEquals(files, specification.getFiles());
+    }
+
+    @Test
+    public void testExitCodesAreReadOnceTheContainerExits() throws Exception {
+        Task task = mockTask();
+        Mockito.when(this.containerRequestHelper.isRunningAsync())
+            .thenReturn(CompletableFuture.completedFuture(true), CompletableFuture.completedFuture(false));
+        Mockito.when(this.taskletHelper.getExitCodesAsync(task.getId(), task.getTaskSpec().getCommands().size()))
+            .thenReturn(CompletableFuture.completedFuture(MOCK_EC_ARRAY));
+        SingleShotTasklet tasklet = new SingleShotTasklet(loadTaskScriptExecutor(), this.taskletHelper,
+            this.containerRequestHelper);
+
+        TaskExecutionResult result = tasklet.executeAsync(task, TaskProgressListener.NONE, Runnable::run)
+            .get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertTrue(isAll(task.getTaskSpec().getCommands(), CommandState.FINISHED));
+        assertEquals(RESULT.SUCCESS, result.getResult());
+        Mockito.verify(this.taskletHelper, Mockito.times(1)).getExitCodesAsync(Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @Test
+    public void testCommandsWithoutExitCodeFail() throws Exception {
+        TaskSpec taskSpec = Mockito.mock(TaskSpec.class);
+        Mockito.when(taskSpec.getCommands()).thenReturn(Arrays.asList(new Command("true"), new Command("false"),
+            new Command("sleep 1000")));
+        Task task = new Task("killedTaskId", taskSpec);
+        Mockito.when(this.containerRequestHelper.isRunningAsync())
+            .thenReturn(CompletableFuture.completedFuture(false));
+        Mockito.when(this.taskletHelper.getExitCodesAsync(task.getId(), 3)).thenReturn(
+            CompletableFuture.completedFuture(new int[]{0, 1, TaskExecutionResult.UNDETERMINED_RESULT}));
+        SingleShotTasklet tasklet = new SingleShotTasklet(loadTaskScriptExecutor(), this.taskletHelper,
+            this.containerRequestHelper);
+
+        TaskExecutionResult result = tasklet.execute(task);
+
+        assertEquals(RESULT.FAILURE, result.getResult());
+        assertArrayEquals(new int[]{0, 1, TaskExecutionResult.UNDETERMINED_RESULT}, result.getExitcodes());
+        assertEquals(CommandState.FINISHED, taskSpec.getCommands().get(1).getState());
+        assertEquals(CommandState.FAILED, taskSpec.getCommands().get(2).getState());
+    }
+}
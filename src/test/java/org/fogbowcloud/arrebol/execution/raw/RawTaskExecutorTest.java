@@ -0,0 +1,51 @@
+package org.fogbowcloud.arrebol.execution.raw;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult.RESULT;
+import org.fogbowcloud.arrebol.execution.TaskProgressListener;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RawTaskExecutorTest {
+
+    private static final long MAX_WAIT_MILLIS = 5000;
+
+    @Test
+    public void testExecuteAsyncReportsEachCommand() throws Exception {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        commands.add(new Command("exit 3"));
+        Task task = new Task("taskId", new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()));
+        List<String> progress = new CopyOnWriteArrayList<>();
+        TaskProgressListener listener = new TaskProgressListener() {
+
+            @Override
+            public void onStarted(Task task) {
+                progress.add("started");
+            }
+
+            @Override
+            public void onCommandStateChanged(Task task, Command command) {
+                progress.add(command.getCommand() + " " + command.getState());
+            }
+        };
+
+        TaskExecutionResult result = new RawTaskExecutor()
+            .executeAsync(task, listener, Runnable::run)
+            .get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(RESULT.SUCCESS, result.getResult());
+        Assert.assertArrayEquals(new int[]{0, 3}, result.getExitcodes());
+        Assert.assertEquals(Arrays.asList("started", "true RUNNING", "true FINISHED",
+            "exit 3 RUNNING", "exit 3 FINISHED"), progress);
+    }
+}
@@ -0,0 +1,111 @@
+package org.fogbowcloud.arrebol.processor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PriorityTaskQueueTest {
+
+    private static final double AGING_PER_MINUTE = 1;
+    private static final long MINUTE_MILLIS = 60000;
+
+    private MutableClock clock;
+    private PriorityTaskQueue queue;
+
+    @Before
+    public void setUp() {
+        this.clock = new MutableClock();
+        this.queue = new PriorityTaskQueue("queueId", "queueName", AGING_PER_MINUTE, this.clock);
+    }
+
+    @Test
+    public void testPollsHighestPriorityFirstAndTiesInArrivalOrder() {
+        Task low = addTask("low", 0);
+        Task firstHigh = addTask("firstHigh", 5);
+        Task secondHigh = addTask("secondHigh", 5);
+
+        Assert.assertEquals(firstHigh, this.queue.pollHighest());
+        Assert.assertEquals(secondHigh, this.queue.pollHighest());
+        Assert.assertEquals(low, this.queue.pollHighest());
+        Assert.assertNull(this.queue.pollHighest());
+        //polling does not remove the tasks from the queue
+        Assert.assertEquals(3, this.queue.size());
+    }
+
+    @Test
+    public void testOldTasksOvertakeNewerHigherPriorityTasks() {
+        Task old = addTask("old", 0);
+        this.clock.advance(3 * MINUTE_MILLIS);
+        Task urgent = addTask("urgent", 2);
+
+        Assert.assertEquals(3, this.queue.getEffectivePriority(old), 1e-6);
+        Assert.assertEquals(old, this.queue.pollHighest());
+        Assert.assertEquals(urgent, this.queue.pollHighest());
+    }
+
+    @Test
+    public void testSkipsRemovedTasksAndRestoresPolledOnes() {
+        Task removed = addTask("removed", 9);
+        Task kept = addTask("kept", 1);
+        Task other = addTask("other", 0);
+        this.queue.removeTask(removed);
+
+        List<Task> polled = new ArrayList<>();
+        polled.add(this.queue.pollHighest());
+        Assert.assertEquals(kept, polled.get(0));
+        this.queue.restore(polled);
+
+        Assert.assertEquals(kept, this.queue.pollHighest());
+        Assert.assertEquals(other, this.queue.pollHighest());
+        Assert.assertNull(this.queue.pollHighest());
+    }
+
+    private Task addTask(String taskId, int priority) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        Task task = new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()),
+            priority);
+        this.queue.addTask(task);
+        return task;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private long millis;
+
+        private void advance(long delta) {
+            this.millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return this.millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(this.millis);
+        }
+    }
+}
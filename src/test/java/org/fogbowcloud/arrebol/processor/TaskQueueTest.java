@@ -0,0 +1,111 @@
+package org.fogbowcloud.arrebol.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskQueueTest {
+
+    //more than one segment of the queue
+    private static final int QUEUE_SIZE = 1000;
+
+    private TaskQueue queue;
+    private List<Task> tasks;
+
+    @Before
+    public void setUp() {
+        this.queue = new TaskQueue("queueId", "queueName");
+        this.tasks = new ArrayList<>();
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            Task task = createTask("taskId-" + i);
+            this.tasks.add(task);
+            this.queue.addTask(task);
+        }
+    }
+
+    @Test
+    public void testKeepsArrivalOrder() {
+        Assert.assertEquals(this.tasks, new ArrayList<>(this.queue.queue()));
+        Assert.assertEquals(QUEUE_SIZE, this.queue.size());
+    }
+
+    @Test
+    public void testRejectsDuplicatedTask() {
+        Assert.assertFalse(this.queue.addTask(createTask("taskId-0")));
+        Assert.assertEquals(QUEUE_SIZE, this.queue.size());
+    }
+
+    @Test
+    public void testRemoveByTaskIdentity() {
+        Task sameIdOtherState = createTask("taskId-10");
+        sameIdOtherState.setState(TaskState.RUNNING);
+
+        Assert.assertTrue(this.queue.removeTask(sameIdOtherState));
+        Assert.assertFalse(this.queue.containsTask("taskId-10"));
+        Assert.assertFalse(this.queue.removeTask("taskId-10"));
+        Assert.assertEquals(QUEUE_SIZE - 1, this.queue.queue().size());
+    }
+
+    @Test
+    public void testRemoveAllAndReuse() {
+        for (Task task : this.tasks) {
+            Assert.assertTrue(this.queue.removeTask(task));
+        }
+        Assert.assertTrue(this.queue.queue().isEmpty());
+        Assert.assertFalse(this.queue.queue().iterator().hasNext());
+
+        this.queue.addTask(this.tasks.get(0));
+        Assert.assertEquals(this.tasks.subList(0, 1), new ArrayList<>(this.queue.queue()));
+    }
+
+    @Test
+    public void testIterationSkipsTasksRemovedAhead() {
+        Iterator<Task> cursor = this.queue.queue().iterator();
+        Assert.assertEquals(this.tasks.get(0), cursor.next());
+
+        List<Task> expected = new LinkedList<>();
+        for (int i = 1; i < QUEUE_SIZE; i++) {
+            if (i % 2 == 0) {
+                this.queue.removeTask(this.tasks.get(i));
+            } else {
+                expected.add(this.tasks.get(i));
+            }
+        }
+
+        List<Task> visited = new LinkedList<>();
+        while (cursor.hasNext()) {
+            visited.add(cursor.next());
+        }
+        Assert.assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testIterationReachesTasksAddedAfterEmptySegmentsWereUnlinked() {
+        Iterator<Task> cursor = this.queue.queue().iterator();
+        Assert.assertEquals(this.tasks.get(0), cursor.next());
+        for (Task task : this.tasks) {
+            this.queue.removeTask(task);
+        }
+        Task last = createTask("lastTaskId");
+        this.queue.addTask(last);
+
+        Assert.assertTrue(cursor.hasNext());
+        Assert.assertEquals(last, cursor.next());
+        Assert.assertFalse(cursor.hasNext());
+    }
+
+    private Task createTask(String taskId) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        return new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()));
+    }
+}
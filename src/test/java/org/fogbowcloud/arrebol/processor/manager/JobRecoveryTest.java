@@ -0,0 +1,220 @@
+package org.fogbowcloud.arrebol.processor.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.fogbowcloud.arrebol.datastore.journal.StateJournal;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.command.CommandState;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.job.JobState;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JobRecoveryTest {
+
+    private static final String QUEUE_ID = "default";
+    private static final String ADDRESS = "http://host-a:5555";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeStore store;
+    private FakeInspector inspector;
+    private TaskQueue taskQueue;
+
+    @Before
+    public void setUp() {
+        this.store = new FakeStore();
+        this.inspector = new FakeInspector();
+        this.taskQueue = new TaskQueue(QUEUE_ID, "Default Queue");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        StateJournal.getInstance().close();
+    }
+
+    @Test
+    public void testOnlyUnfinishedTasksAreQueuedAgain() throws Exception {
+        Task finished = newTask("finished", 2);
+        finished.setState(TaskState.FINISHED);
+        Task pending = newTask("pending", 2);
+        Task running = newTask("running", 2);
+        running.setState(TaskState.RUNNING);
+        running.getTaskSpec().getCommands().get(0).setState(CommandState.FINISHED);
+        Job job = newJob(JobState.RUNNING, finished, pending, running);
+        Task done = newTask("done", 1);
+        done.setState(TaskState.FINISHED);
+        Job doneJob = newJob(JobState.FINISHED, done);
+        this.store.jobs.add(job);
+        this.store.jobs.add(doneJob);
+
+        Map<String, Job> recovered = new JobRecovery(this.store, this.inspector).recover(QUEUE_ID,
+            this.taskQueue);
+
+        assertEquals(Collections.singleton(job.getId()), recovered.keySet());
+        assertEquals(2, this.taskQueue.size());
+        assertTrue(this.taskQueue.containsTask("pending"));
+        assertTrue(this.taskQueue.containsTask("running"));
+        assertFalse(this.taskQueue.containsTask("finished"));
+        assertEquals(TaskState.FINISHED, finished.getState());
+        assertEquals(TaskState.PENDING, running.getState());
+        assertEquals(CommandState.UNSTARTED, running.getTaskSpec().getCommands().get(0).getState());
+        assertEquals(JobState.QUEUED, job.getJobState());
+        assertEquals(Collections.singletonList(running), this.store.savedTasks);
+        assertEquals(Collections.singletonList(job.getId()), this.store.queuedJobs);
+    }
+
+    @Test
+    public void testRunningTaskWithAllCommandsFinishedIsNotRunAgain() throws Exception {
+        Task running = newTask("running", 2);
+        running.setState(TaskState.RUNNING);
+        running.getTaskSpec().getCommands().forEach(c -> c.setState(CommandState.FINISHED));
+        this.store.jobs.add(newJob(JobState.RUNNING, running));
+
+        new JobRecovery(this.store, this.inspector).recover(QUEUE_ID, this.taskQueue);
+
+        assertEquals(0, this.taskQueue.size());
+        assertEquals(TaskState.FINISHED, running.getState());
+        assertTrue(this.store.queuedJobs.isEmpty());
+    }
+
+    @Test
+    public void testRunningTaskWithAFailedCommandEndsFailed() throws Exception {
+        Task running = newTask("running", 2);
+        running.setState(TaskState.RUNNING);
+        List<Command> commands = running.getTaskSpec().getCommands();
+        commands.get(0).setState(CommandState.FINISHED);
+        commands.get(1).setState(CommandState.FAILED);
+        commands.get(1).setExitcode(TaskExecutionResult.UNDETERMINED_RESULT);
+        this.store.jobs.add(newJob(JobState.RUNNING, running));
+
+        new JobRecovery(this.store, this.inspector).recover(QUEUE_ID, this.taskQueue);
+
+        assertEquals(0, this.taskQueue.size());
+        assertEquals(TaskState.FAILED, running.getState());
+        assertEquals(CommandState.FAILED, commands.get(1).getState());
+        assertEquals(Integer.valueOf(TaskExecutionResult.UNDETERMINED_RESULT),
+            commands.get(1).getExitcode());
+    }
+
+    @Test
+    public void testRunningTaskIsReconciledWithItsContainer() throws Exception {
+        StateJournal.getInstance().open(this.folder.getRoot().toPath(), 1000);
+        Task finishedInContainer = newTask("finished-in-container", 2);
+        finishedInContainer.setState(TaskState.RUNNING);
+        StateJournal.getInstance().record(finishedInContainer);
+        StateJournal.getInstance().recordContainer(finishedInContainer, ADDRESS, "worker-1");
+        Task runningInContainer = newTask("running-in-container", 2);
+        runningInContainer.setState(TaskState.RUNNING);
+        StateJournal.getInstance().record(runningInContainer);
+        StateJournal.getInstance().recordContainer(runningInContainer, ADDRESS, "worker-2");
+        waitUntilRecorded("running-in-container");
+        this.inspector.exitcodes.put("worker-1", new int[]{0, 1});
+        this.inspector.exitcodes.put("worker-2", new int[]{0, TaskExecutionResult.UNDETERMINED_RESULT});
+        this.store.jobs.add(newJob(JobState.RUNNING, finishedInContainer, runningInContainer));
+
+        new JobRecovery(this.store, this.inspector).recover(QUEUE_ID, this.taskQueue);
+
+        assertEquals(TaskState.FINISHED, finishedInContainer.getState());
+        assertEquals(Integer.valueOf(1), finishedInContainer.getTaskSpec().getCommands().get(1).getExitcode());
+        assertEquals(TaskState.PENDING, runningInContainer.getState());
+        assertEquals(1, this.taskQueue.size());
+        assertTrue(this.taskQueue.containsTask("running-in-container"));
+        assertEquals(2, this.inspector.discarded.size());
+        assertTrue(this.inspector.discarded.contains("worker-1") && this.inspector.discarded.contains("worker-2"));
+    }
+
+    private void waitUntilRecorded(String taskId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (StateJournal.getInstance().findContainer(taskId) == null
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Job newJob(JobState jobState, Task... tasks) {
+        List<Task> taskList = new ArrayList<>();
+        Collections.addAll(taskList, tasks);
+        Job job = new Job("label", taskList);
+        job.setJobState(jobState);
+        return job;
+    }
+
+    private Task newTask(String id, int commands) throws Exception {
+        List<Command> commandList = new ArrayList<>();
+        for (int i = 0; i < commands; i++) {
+            Command command = new Command("echo " + i);
+            setId(command, i + 1);
+            commandList.add(command);
+        }
+        TaskSpec taskSpec = new TaskSpec(null, Collections.emptyMap(), commandList,
+            Collections.emptyMap());
+        return new Task(id, taskSpec);
+    }
+
+    //the database generates the command ids, which the journal records refer to
+    private static void setId(Command command, long id) throws Exception {
+        Field field = Command.class.getDeclaredField("id");
+        field.setAccessible(true);
+        field.setLong(command, id);
+    }
+
+    private static class FakeStore implements JobRecovery.Store {
+
+        private final List<Job> jobs = new ArrayList<>();
+        private final List<Task> savedTasks = new ArrayList<>();
+        private final List<String> queuedJobs = new ArrayList<>();
+
+        @Override
+        public List<Job> findJobs(String queueId, int page, int pageSize) {
+            int from = Math.min(this.jobs.size(), page * pageSize);
+            return new ArrayList<>(this.jobs.subList(from, Math.min(this.jobs.size(), from + pageSize)));
+        }
+
+        @Override
+        public void saveTasks(Collection<Task> tasks) {
+            this.savedTasks.addAll(tasks);
+        }
+
+        @Override
+        public void updateJobState(JobState jobState, Collection<String> jobIds) {
+            if (JobState.QUEUED.equals(jobState)) {
+                this.queuedJobs.addAll(jobIds);
+            }
+        }
+    }
+
+    private static class FakeInspector implements JobRecovery.ContainerInspector {
+
+        private final Map<String, int[]> exitcodes = new HashMap<>();
+        private final List<String> discarded = new ArrayList<>();
+
+        @Override
+        public int[] getExitCodes(String address, String containerName, Task task) {
+            return this.exitcodes.get(containerName);
+        }
+
+        @Override
+        public void discard(String address, String containerName) {
+            this.discarded.add(containerName);
+        }
+    }
+}
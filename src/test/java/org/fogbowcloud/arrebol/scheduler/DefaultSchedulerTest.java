@@ -0,0 +1,93 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
+import org.fogbowcloud.arrebol.resource.StaticPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class DefaultSchedulerTest {
+
+    private static final int POOL_ID = 1;
+    private static final long MAX_WAIT_MILLIS = 2000;
+
+    @Test
+    public void testAddedTaskStartsWithoutWaitingForTheSweep() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        TaskQueue queue = new TaskQueue("queueId", "queueName");
+        StaticPool pool = new StaticPool(POOL_ID, createWorkers(1, started));
+        startScheduler(queue, pool);
+
+        queue.addTask(createTask("taskId"));
+
+        Assert.assertTrue(started.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testAddedWorkerIsUsedWithoutWaitingForTheSweep() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        TaskQueue queue = new TaskQueue("queueId", "queueName");
+        StaticPool pool = new StaticPool(POOL_ID, new LinkedList<>());
+        startScheduler(queue, pool);
+        queue.addTask(createTask("taskId"));
+
+        pool.addWorkers(createWorkers(1, started));
+
+        Assert.assertTrue(started.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testReleasedWorkerIsReusedWithoutWaitingForTheSweep() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        TaskQueue queue = new TaskQueue("queueId", "queueName");
+        StaticPool pool = new StaticPool(POOL_ID, createWorkers(1, started));
+        startScheduler(queue, pool);
+
+        queue.addTask(createTask("firstTaskId"));
+        queue.addTask(createTask("secondTaskId"));
+
+        Assert.assertTrue(started.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    private void startScheduler(TaskQueue queue, StaticPool pool) {
+        DefaultScheduler scheduler = new DefaultScheduler(queue, pool, new FifoSchedulerPolicy(),
+            SchedulerConfiguration.DEFAULT_SWEEP_PERIOD_MILLIS,
+            new ExecutionThreadPool("test-execution", 4, 0));
+        Thread schedulerThread = new Thread(scheduler, "test-scheduler-thread");
+        schedulerThread.setDaemon(true);
+        schedulerThread.start();
+    }
+
+    private Collection<Worker> createWorkers(int size, CountDownLatch started) {
+        Collection<Worker> workers = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            TaskExecutor executor = Mockito.mock(TaskExecutor.class);
+            Mockito.when(executor.execute(Mockito.any(Task.class))).thenAnswer(invocation -> {
+                started.countDown();
+                return new TaskExecutionResult(TaskExecutionResult.RESULT.SUCCESS, new int[]{0});
+            });
+            workers.add(new MatchAnyWorker("workerId-" + i, null, POOL_ID, executor));
+        }
+        return workers;
+    }
+
+    private Task createTask(String taskId) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        return new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()));
+    }
+}
@@ -0,0 +1,152 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.job.Job;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.processor.dto.JobCompletionEstimateDTO;
+import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ExpectedRuntimeSchedulerPolicyTest {
+
+    private static final int POOL_ID = 1;
+    private static final String LABEL = "sweep";
+
+    private RuntimeHistory history;
+    private TaskQueue queue;
+
+    @Before
+    public void setUp() {
+        this.history = new RuntimeHistory();
+        this.history.record(LABEL, new Command("./long --seed 1").getFingerprint(), 10000);
+        this.history.record(LABEL, new Command("./short --seed 1").getFingerprint(), 100);
+        this.queue = new TaskQueue("queueId", "queueName");
+    }
+
+    @Test
+    public void testShortestFirstAndLongestFirst() {
+        Task longTask = addTask("long", "./long --seed 2");
+        Task shortTask = addTask("short", "./short --seed 2");
+
+        Assert.assertEquals(shortTask, scheduleOne(ExpectedRuntimeSchedulerPolicy.Order.SHORTEST_FIRST));
+        Assert.assertEquals(longTask, scheduleOne(ExpectedRuntimeSchedulerPolicy.Order.LONGEST_FIRST));
+    }
+
+    @Test
+    public void testUnknownCommandsFallBackToTheLabelAverage() {
+        Task known = addTask("known", "./short --seed 3");
+        Task unknown = addTask("unknown", "./other");
+
+        Assert.assertEquals(100, this.history.expectedMillis(known), 1e-6);
+        Assert.assertEquals(0.3 * 100 + 0.7 * 10000, this.history.expectedMillis(unknown), 1e-6);
+    }
+
+    @Test
+    public void testEstimatesCompletionBehindTheQueuedWork() {
+        addTask("ahead", "./long --seed 4");
+        Task own = addTask("own", "./short --seed 4");
+        Collection<Task> ownTasks = new LinkedList<>();
+        ownTasks.add(own);
+        Job job = new Job(LABEL, ownTasks);
+        Collection<Job> jobs = new LinkedList<>();
+        jobs.add(job);
+
+        JobCompletionEstimateDTO estimate = new JobCompletionEstimator(this.history)
+            .estimate(job, this.queue, jobs, 2, 0);
+
+        Assert.assertEquals(1, estimate.getPendingTasks());
+        Assert.assertEquals(100, estimate.getRemainingWorkMillis());
+        Assert.assertEquals((10000 + 100) / 2, estimate.getEstimatedCompletion());
+    }
+
+    @Test
+    public void testEqualEstimatesKeepTheArrivalOrder() {
+        this.history = new RuntimeHistory();
+        Task first = addTask("first", "./one");
+        Task second = addTask("second", "./other");
+        Task third = addTask("third", "./one");
+
+        List<AllocationPlan> plans = new ArrayList<>(new ExpectedRuntimeSchedulerPolicy(
+            ExpectedRuntimeSchedulerPolicy.Order.SHORTEST_FIRST, this.history, Integer.MAX_VALUE)
+            .schedule(this.queue, createWorkers(3)));
+
+        Assert.assertEquals(3, plans.size());
+        Assert.assertEquals(first, plans.get(0).getTask());
+        Assert.assertEquals(second, plans.get(1).getTask());
+        Assert.assertEquals(third, plans.get(2).getTask());
+    }
+
+    @Test
+    public void testFollowsTheQueueBetweenRounds() {
+        ExpectedRuntimeSchedulerPolicy policy = new ExpectedRuntimeSchedulerPolicy(
+            ExpectedRuntimeSchedulerPolicy.Order.SHORTEST_FIRST, this.history, Integer.MAX_VALUE);
+        addTask("long", "./long --seed 5");
+        Task removed = addTask("removed", "./short --seed 5");
+        Assert.assertEquals(removed, policy.schedule(this.queue, createWorkers(1)).iterator().next()
+            .getTask());
+
+        this.queue.removeTask(removed);
+        Task added = addTask("added", "./short --seed 6");
+
+        Assert.assertEquals(added, policy.schedule(this.queue, createWorkers(1)).iterator().next()
+            .getTask());
+    }
+
+    @Test
+    public void testReusesTheWorkOfAJobWithinTheMaxAge() {
+        Task own = addTask("own", "./short --seed 7");
+        Collection<Task> ownTasks = new LinkedList<>();
+        ownTasks.add(own);
+        Job job = new Job(LABEL, ownTasks);
+        Collection<Job> jobs = new LinkedList<>();
+        jobs.add(job);
+        JobCompletionEstimator estimator = new JobCompletionEstimator(this.history, 1000);
+
+        Assert.assertEquals(1, estimator.estimate(job, this.queue, jobs, 1, 0).getPendingTasks());
+        this.queue.removeTask(own);
+        own.setState(TaskState.RUNNING);
+
+        Assert.assertEquals(1, estimator.estimate(job, this.queue, jobs, 1, 500).getPendingTasks());
+        JobCompletionEstimateDTO estimate = estimator.estimate(job, this.queue, jobs, 1, 2000);
+        Assert.assertEquals(0, estimate.getPendingTasks());
+        Assert.assertEquals(1, estimate.getRunningTasks());
+    }
+
+    private Task scheduleOne(ExpectedRuntimeSchedulerPolicy.Order order) {
+        List<AllocationPlan> plans = new ArrayList<>(new ExpectedRuntimeSchedulerPolicy(order,
+            this.history, Integer.MAX_VALUE).schedule(this.queue, createWorkers(1)));
+        Assert.assertEquals(1, plans.size());
+        return plans.get(0).getTask();
+    }
+
+    private Collection<Worker> createWorkers(int size) {
+        Collection<Worker> workers = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            workers.add(new MatchAnyWorker("workerId-" + i, null, POOL_ID,
+                Mockito.mock(TaskExecutor.class)));
+        }
+        return workers;
+    }
+
+    private Task addTask(String taskId, String command) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command(command));
+        Task task = new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()),
+            Task.DEFAULT_PRIORITY, LABEL);
+        this.queue.addTask(task);
+        return task;
+    }
+}
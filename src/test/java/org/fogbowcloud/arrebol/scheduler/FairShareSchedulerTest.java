@@ -0,0 +1,217 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.fogbowcloud.arrebol.execution.ExecutionThreadPool;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.models.task.TaskState;
+import org.fogbowcloud.arrebol.processor.DefaultJobProcessor;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.fogbowcloud.arrebol.resource.StaticPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class FairShareSchedulerTest {
+
+    private static final int POOL_ID = 1;
+    private static final long WINDOW_MILLIS = 60000;
+    private static final long MAX_WAIT_MILLIS = 2000;
+
+    private CountDownLatch release;
+    private FairShareScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        this.release = new CountDownLatch(1);
+        this.scheduler = createScheduler(new FifoSchedulerPolicy());
+    }
+
+    @After
+    public void tearDown() {
+        this.release.countDown();
+    }
+
+    @Test
+    public void testIdleWorkersOfOneQueueServeAnotherQueue() {
+        TaskQueue idleQueue = new TaskQueue("idleQueueId", "idleQueueName");
+        TaskQueue busyQueue = new TaskQueue("busyQueueId", "busyQueueName");
+        this.scheduler.addQueue(idleQueue, new StaticPool(POOL_ID, createWorkers(2)), 1);
+        this.scheduler.addQueue(busyQueue, new StaticPool(POOL_ID, new LinkedList<>()), 1);
+        Task first = addTask(busyQueue, "first");
+        Task second = addTask(busyQueue, "second");
+
+        this.scheduler.scheduleRound(System.currentTimeMillis());
+
+        Assert.assertEquals(TaskState.RUNNING, first.getState());
+        Assert.assertEquals(TaskState.RUNNING, second.getState());
+        Assert.assertEquals(0, busyQueue.size());
+    }
+
+    @Test
+    public void testSplitsWorkersByWeight() {
+        StaticPool pool = new StaticPool(POOL_ID, createWorkers(6));
+        TaskQueue heavyQueue = new TaskQueue("heavyQueueId", "heavyQueueName");
+        TaskQueue lightQueue = new TaskQueue("lightQueueId", "lightQueueName");
+        this.scheduler.addQueue(heavyQueue, pool, 2);
+        this.scheduler.addQueue(lightQueue, pool, 1);
+        for (int i = 0; i < 10; i++) {
+            addTask(heavyQueue, "heavy-" + i);
+            addTask(lightQueue, "light-" + i);
+        }
+
+        this.scheduler.scheduleRound(System.currentTimeMillis());
+
+        Assert.assertEquals(6, heavyQueue.size());
+        Assert.assertEquals(8, lightQueue.size());
+    }
+
+    @Test
+    public void testRecentUsageLowersTheShare() throws InterruptedException {
+        Collection<Worker> workers = createWorkers(1);
+        StaticPool pool = new StaticPool(POOL_ID, workers);
+        TaskQueue pastQueue = new TaskQueue("pastQueueId", "pastQueueName");
+        TaskQueue newQueue = new TaskQueue("newQueueId", "newQueueName");
+        this.scheduler.addQueue(pastQueue, pool, 1);
+        this.scheduler.addQueue(newQueue, pool, 1);
+        long start = System.currentTimeMillis();
+
+        Task past = addTask(pastQueue, "past");
+        this.scheduler.scheduleRound(start);
+        Assert.assertEquals(TaskState.RUNNING, past.getState());
+        this.release.countDown();
+        awaitIdle(workers);
+
+        Task pending = addTask(pastQueue, "pending");
+        Task fresh = addTask(newQueue, "fresh");
+        this.scheduler.scheduleRound(start + WINDOW_MILLIS);
+
+        Assert.assertEquals(TaskState.RUNNING, fresh.getState());
+        Assert.assertEquals(TaskState.PENDING, pending.getState());
+        Assert.assertTrue(this.scheduler.getLoad("pastQueueId") < this.scheduler.getLoad("newQueueId"));
+    }
+
+    @Test
+    public void testOffersThePolicyOnlyTheQuantumOfWorkers() {
+        List<Integer> offers = new LinkedList<>();
+        FifoSchedulerPolicy fifo = new FifoSchedulerPolicy();
+        this.scheduler = createScheduler((queue, workers) -> {
+            offers.add(workers.size());
+            return fifo.schedule(queue, workers);
+        });
+        StaticPool pool = new StaticPool(POOL_ID, createWorkers(4));
+        TaskQueue firstQueue = new TaskQueue("firstQueueId", "firstQueueName");
+        TaskQueue secondQueue = new TaskQueue("secondQueueId", "secondQueueName");
+        this.scheduler.addQueue(firstQueue, pool, 1);
+        this.scheduler.addQueue(secondQueue, pool, 1);
+        for (int i = 0; i < 4; i++) {
+            addTask(firstQueue, "first-" + i);
+            addTask(secondQueue, "second-" + i);
+        }
+
+        this.scheduler.scheduleRound(System.currentTimeMillis());
+
+        Assert.assertEquals(2, firstQueue.size());
+        Assert.assertEquals(2, secondQueue.size());
+        //equal loads take turns, one worker at a time
+        Assert.assertEquals(4, offers.size());
+        for (int offer : offers) {
+            Assert.assertEquals(1, offer);
+        }
+    }
+
+    @Test
+    public void testOnlyTheStartedPlansCountWhenTheBrokerIsFull() {
+        List<Integer> offers = new LinkedList<>();
+        FifoSchedulerPolicy fifo = new FifoSchedulerPolicy();
+        //a single place to run tasks
+        this.scheduler = new FairShareScheduler((queue, workers) -> {
+            offers.add(workers.size());
+            return fifo.schedule(queue, workers);
+        }, WINDOW_MILLIS, SchedulerConfiguration.DEFAULT_SWEEP_PERIOD_MILLIS,
+            new ExecutionThreadPool("test-execution", 1, 0));
+        Collection<Worker> workers = createWorkers(3);
+        TaskQueue queue = new TaskQueue("queueId", "queueName");
+        this.scheduler.addQueue(queue, new StaticPool(POOL_ID, workers), 1);
+        for (int i = 0; i < 3; i++) {
+            addTask(queue, "task-" + i);
+        }
+
+        this.scheduler.scheduleRound(System.currentTimeMillis());
+
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(1, this.scheduler.getLoad("queueId"), 0);
+        Assert.assertEquals(1, offers.size());
+        long idle = workers.stream().filter(w -> ResourceState.IDLE.equals(w.getState())).count();
+        Assert.assertEquals(2, idle);
+    }
+
+    @Test
+    public void testRecoveredQueueRunsOnTheWorkersOfThisRun() {
+        //as read from the database: the workers have neither state nor executor
+        Collection<Worker> storedWorkers = new LinkedList<>();
+        storedWorkers.add(new MatchAnyWorker());
+        DefaultJobProcessor recovered = new DefaultJobProcessor("recoveredQueueId",
+            "recoveredQueueName", null, null, new StaticPool(POOL_ID, storedWorkers));
+        TaskQueue queue = new TaskQueue("recoveredQueueId", "recoveredQueueName");
+        recovered.setTaskQueue(queue);
+        recovered.setPool(new StaticPool(POOL_ID, createWorkers(1)));
+        this.scheduler.addQueue(recovered.getTaskQueue(), recovered.getPool(),
+            recovered.getWeight());
+        Task task = addTask(queue, "task");
+
+        this.scheduler.scheduleRound(System.currentTimeMillis());
+
+        Assert.assertEquals(TaskState.RUNNING, task.getState());
+    }
+
+    private void awaitIdle(Collection<Worker> workers) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        for (Worker worker : workers) {
+            while (!ResourceState.IDLE.equals(worker.getState())) {
+                Assert.assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private FairShareScheduler createScheduler(SchedulerPolicy policy) {
+        return new FairShareScheduler(policy, WINDOW_MILLIS,
+            SchedulerConfiguration.DEFAULT_SWEEP_PERIOD_MILLIS,
+            new ExecutionThreadPool("test-execution", 16, 0));
+    }
+
+    private Collection<Worker> createWorkers(int size) {
+        Collection<Worker> workers = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            TaskExecutor executor = Mockito.mock(TaskExecutor.class);
+            Mockito.when(executor.execute(Mockito.any(Task.class))).thenAnswer(invocation -> {
+                this.release.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                return new TaskExecutionResult(TaskExecutionResult.RESULT.SUCCESS, new int[]{0});
+            });
+            workers.add(new MatchAnyWorker("workerId-" + i, null, POOL_ID, executor));
+        }
+        return workers;
+    }
+
+    private Task addTask(TaskQueue queue, String taskId) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        Task task = new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()));
+        queue.addTask(task);
+        return task;
+    }
+}
@@ -0,0 +1,159 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.specification.Specification;
+import org.fogbowcloud.arrebol.models.task.RequirementsContants;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FifoSchedulerPolicyTest {
+
+    private static final int POOL_ID = 1;
+    private static final String IMAGE_A = "imageA";
+    private static final String IMAGE_B = "imageB";
+
+    private TaskQueue queue;
+    private int matchCalls;
+
+    @Before
+    public void setUp() {
+        this.queue = new TaskQueue("queueId", "queueName");
+        this.matchCalls = 0;
+    }
+
+    @Test
+    public void testAllocatesInArrivalOrderToMatchingWorkers() {
+        Task first = addTask("first", IMAGE_B);
+        Task second = addTask("second", IMAGE_A);
+        addTask("third", IMAGE_B);
+        Collection<Worker> workers = new LinkedList<>();
+        workers.add(new ImageWorker("workerA", IMAGE_A));
+        workers.add(new ImageWorker("workerB", IMAGE_B));
+
+        List<AllocationPlan> plans = new ArrayList<>(
+            new FifoSchedulerPolicy().schedule(this.queue, workers));
+
+        Assert.assertEquals(2, plans.size());
+        Assert.assertEquals(first, plans.get(0).getTask());
+        Assert.assertEquals("workerB", plans.get(0).getWorker().getId());
+        Assert.assertEquals(second, plans.get(1).getTask());
+        Assert.assertEquals("workerA", plans.get(1).getWorker().getId());
+    }
+
+    @Test
+    public void testMatchesOncePerRequirementsAndSpecification() {
+        for (int i = 0; i < 100; i++) {
+            addTask("taskA-" + i, IMAGE_A);
+            addTask("taskB-" + i, IMAGE_B);
+        }
+        Collection<Worker> workers = new LinkedList<>();
+        for (int i = 0; i < 10; i++) {
+            workers.add(new ImageWorker("workerA-" + i, IMAGE_A));
+        }
+
+        Collection<AllocationPlan> plans =
+            new FifoSchedulerPolicy().schedule(this.queue, workers);
+
+        Assert.assertEquals(10, plans.size());
+        //one bucket (imageA workers) against two requirements signatures
+        Assert.assertEquals(2, this.matchCalls);
+    }
+
+    @Test
+    public void testResumesFromWhereTheBudgetWasExhausted() {
+        for (int i = 0; i < 10; i++) {
+            addTask("unmatched-" + i, IMAGE_B);
+        }
+        Task matched = addTask("matched", IMAGE_A);
+        Collection<Worker> workers = new LinkedList<>();
+        workers.add(new ImageWorker("workerA", IMAGE_A));
+        FifoSchedulerPolicy policy = new FifoSchedulerPolicy(6, Long.MAX_VALUE);
+
+        Assert.assertTrue(policy.schedule(this.queue, workers).isEmpty());
+        Assert.assertTrue(policy.isBudgetExhausted(this.queue));
+
+        Collection<AllocationPlan> plans = policy.schedule(this.queue, workers);
+        Assert.assertEquals(1, plans.size());
+        Assert.assertEquals(matched, plans.iterator().next().getTask());
+        Assert.assertFalse(policy.isBudgetExhausted(this.queue));
+    }
+
+    private Task addTask(String taskId, String image) {
+        Map<String, String> requirements = new HashMap<>();
+        requirements.put(RequirementsContants.IMAGE_KEY, image);
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        Task task = new Task(taskId, new TaskSpec(null, requirements, commands, new HashMap<>()));
+        this.queue.addTask(task);
+        return task;
+    }
+
+    private class ImageWorker implements Worker {
+
+        private final String id;
+        private final Specification specification;
+        private ResourceState state;
+
+        private ImageWorker(String id, String image) {
+            this.id = id;
+            this.specification = new Specification(image, new HashMap<>());
+            this.state = ResourceState.IDLE;
+        }
+
+        @Override
+        public boolean match(Map<String, String> requirements) {
+            matchCalls++;
+            return Objects.equals(this.specification.getImage(),
+                requirements.get(RequirementsContants.IMAGE_KEY));
+        }
+
+        @Override
+        public ResourceState getState() {
+            return this.state;
+        }
+
+        @Override
+        public void setState(ResourceState state) {
+            this.state = state;
+        }
+
+        @Override
+        public Specification getSpecification() {
+            return this.specification;
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public int getPoolId() {
+            return POOL_ID;
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return new HashMap<>();
+        }
+
+        @Override
+        public TaskExecutionResult execute(Task task) {
+            return null;
+        }
+    }
+}
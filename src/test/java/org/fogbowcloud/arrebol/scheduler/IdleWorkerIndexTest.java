@@ -0,0 +1,131 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.fogbowcloud.arrebol.execution.TaskExecutionResult;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.specification.Specification;
+import org.fogbowcloud.arrebol.models.task.RequirementsContants;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.resource.ImageInventory;
+import org.fogbowcloud.arrebol.resource.ResourceState;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdleWorkerIndexTest {
+
+    private static final String HOST_A = "http://hostA:5555";
+    private static final String HOST_B = "http://hostB:5555";
+    private static final String IMAGE = "ubuntu";
+
+    private ImageInventory inventory;
+    private Collection<Worker> workers;
+
+    @Before
+    public void setUp() {
+        this.inventory = new ImageInventory();
+        this.workers = new LinkedList<>();
+        this.workers.add(new HostWorker("workerA", HOST_A));
+        this.workers.add(new HostWorker("workerB", HOST_B));
+    }
+
+    @Test
+    public void testPrefersHostsWithTheImage() {
+        this.inventory.replace(HOST_B, Collections.singletonList(IMAGE + ":latest"));
+        IdleWorkerIndex index = new IdleWorkerIndex(this.workers, this.inventory);
+
+        Assert.assertEquals("workerB", index.take(createTask(IMAGE)).getId());
+        //no idle worker left on hostB, so it falls back to hostA
+        Assert.assertEquals("workerA", index.take(createTask(IMAGE)).getId());
+        Assert.assertNull(index.take(createTask(IMAGE)));
+    }
+
+    @Test
+    public void testPulledImagesAreKnownByTheirTags() {
+        this.inventory.add(HOST_B, "registry:5000/team/app");
+
+        Assert.assertTrue(this.inventory.hasImage(HOST_B, "registry:5000/team/app:latest"));
+        Assert.assertFalse(this.inventory.hasImage(HOST_B, "registry:5000/team/app:1.0"));
+        Assert.assertFalse(this.inventory.hasImage(HOST_A, "registry:5000/team/app"));
+    }
+
+    @Test
+    public void testTasksWithoutImageUseTheDefaultImage() {
+        this.inventory.replace(HOST_B, Collections.singletonList(IMAGE));
+        this.inventory.setDefaultImage(IMAGE);
+        IdleWorkerIndex index = new IdleWorkerIndex(this.workers, this.inventory);
+
+        Assert.assertEquals("workerB", index.take(createTask(null)).getId());
+    }
+
+    private Task createTask(String image) {
+        Map<String, String> requirements = new HashMap<>();
+        if (image != null) {
+            requirements.put(RequirementsContants.IMAGE_KEY, image);
+        }
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        return new Task("taskId", new TaskSpec(null, requirements, commands, new HashMap<>()));
+    }
+
+    private static class HostWorker implements Worker {
+
+        private final String id;
+        private final Map<String, String> metadata;
+        private ResourceState state;
+
+        private HostWorker(String id, String host) {
+            this.id = id;
+            this.metadata = new HashMap<>();
+            this.metadata.put(Worker.ADDRESS_METADATA_KEY, host);
+            this.state = ResourceState.IDLE;
+        }
+
+        @Override
+        public boolean match(Map<String, String> requirements) {
+            return true;
+        }
+
+        @Override
+        public ResourceState getState() {
+            return this.state;
+        }
+
+        @Override
+        public void setState(ResourceState state) {
+            this.state = state;
+        }
+
+        @Override
+        public Specification getSpecification() {
+            return null;
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public int getPoolId() {
+            return 1;
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return this.metadata;
+        }
+
+        @Override
+        public TaskExecutionResult execute(Task task) {
+            return null;
+        }
+    }
+}
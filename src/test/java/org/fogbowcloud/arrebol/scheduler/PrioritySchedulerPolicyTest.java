@@ -0,0 +1,87 @@
+package org.fogbowcloud.arrebol.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import org.fogbowcloud.arrebol.execution.TaskExecutor;
+import org.fogbowcloud.arrebol.execution.Worker;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.models.task.Task;
+import org.fogbowcloud.arrebol.models.task.TaskSpec;
+import org.fogbowcloud.arrebol.processor.PriorityTaskQueue;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.resource.MatchAnyWorker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class PrioritySchedulerPolicyTest {
+
+    private static final int POOL_ID = 1;
+
+    private PriorityTaskQueue queue;
+
+    @Before
+    public void setUp() {
+        this.queue = new PriorityTaskQueue("queueId", "queueName", 0);
+    }
+
+    @Test
+    public void testServesHighestPriorityFirst() {
+        for (int i = 0; i < 100; i++) {
+            addTask("sweep-" + i, 0);
+        }
+        Task urgent = addTask("urgent", 10);
+
+        List<AllocationPlan> plans = new ArrayList<>(
+            new PrioritySchedulerPolicy().schedule(this.queue, createWorkers(2)));
+
+        Assert.assertEquals(2, plans.size());
+        Assert.assertEquals(urgent, plans.get(0).getTask());
+        Assert.assertEquals("sweep-0", plans.get(1).getTask().getId());
+    }
+
+    @Test
+    public void testUnallocatedTasksStayAvailable() {
+        Task first = addTask("first", 1);
+        Task second = addTask("second", 0);
+        PrioritySchedulerPolicy policy = new PrioritySchedulerPolicy();
+        Collection<Worker> workers = createWorkers(1);
+
+        Collection<AllocationPlan> plans = policy.schedule(this.queue, workers);
+        Assert.assertEquals(first, plans.iterator().next().getTask());
+        //the plan is not carried out, so the next round allocates the same task again
+        plans = policy.schedule(this.queue, workers);
+        Assert.assertEquals(first, plans.iterator().next().getTask());
+
+        this.queue.removeTask(first);
+        plans = policy.schedule(this.queue, workers);
+        Assert.assertEquals(second, plans.iterator().next().getTask());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsPlainQueues() {
+        new PrioritySchedulerPolicy().schedule(new TaskQueue("queueId", "queueName"), createWorkers(1));
+    }
+
+    private Collection<Worker> createWorkers(int size) {
+        Collection<Worker> workers = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            workers.add(new MatchAnyWorker("workerId-" + i, null, POOL_ID,
+                Mockito.mock(TaskExecutor.class)));
+        }
+        return workers;
+    }
+
+    private Task addTask(String taskId, int priority) {
+        List<Command> commands = new LinkedList<>();
+        commands.add(new Command("true"));
+        Task task = new Task(taskId, new TaskSpec(null, new HashMap<>(), commands, new HashMap<>()),
+            priority);
+        this.queue.addTask(task);
+        return task;
+    }
+}
@@ -0,0 +1,70 @@
+package org.fogbowcloud.arrebol.simulation;
+
+import java.io.StringReader;
+import java.util.List;
+import org.fogbowcloud.arrebol.models.command.Command;
+import org.fogbowcloud.arrebol.processor.TaskQueue;
+import org.fogbowcloud.arrebol.scheduler.ExpectedRuntimeSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.ExpectedRuntimeSchedulerPolicy.Order;
+import org.fogbowcloud.arrebol.scheduler.FifoSchedulerPolicy;
+import org.fogbowcloud.arrebol.scheduler.RuntimeHistory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimulatorTest {
+
+    private static final String TRACE = "# submit_seconds,user,label,priority,task_runtimes_seconds\n"
+        + "0,alice,long,0,100\n"
+        + "0,alice,short,0,1\n"
+        + "\n"
+        + "0,alice,short,0,1 1\n";
+
+    @Test
+    public void testFifo() throws Exception {
+        List<TraceJob> trace = TraceReader.read(new StringReader(TRACE));
+
+        SimulationReport report = new Simulator(new VirtualClock(), new FifoSchedulerPolicy(),
+            user -> new TaskQueue(user, user), null, 1).run(trace);
+
+        Assert.assertEquals(4, report.getTasks());
+        Assert.assertEquals(103000, report.getMakespanMillis());
+        //waits of 0, 100, 101 and 102 seconds
+        Assert.assertEquals(75750, report.getMeanWaitMillis(), 0.001);
+        Assert.assertEquals(1.0, report.getUtilization(), 0.001);
+        Assert.assertEquals(1.0, report.getFairness(), 0.001);
+    }
+
+    @Test
+    public void testShortestFirstWaitsLessThanFifo() throws Exception {
+        List<TraceJob> trace = TraceReader.read(new StringReader(TRACE));
+        RuntimeHistory history = new RuntimeHistory();
+        String fingerprint = new Command("run long").getFingerprint();
+        history.record("long", fingerprint, 100000);
+        history.record("short", new Command("run short").getFingerprint(), 1000);
+
+        SimulationReport report = new Simulator(new VirtualClock(),
+            new ExpectedRuntimeSchedulerPolicy(Order.SHORTEST_FIRST, history, Integer.MAX_VALUE),
+            user -> new TaskQueue(user, user), history, 1).run(trace);
+
+        Assert.assertEquals(103000, report.getMakespanMillis());
+        //waits of 0, 1, 2 and 3 seconds
+        Assert.assertEquals(1500, report.getMeanWaitMillis(), 0.001);
+    }
+
+    @Test
+    public void testGeneratedTrace() {
+        List<TraceJob> trace = new TraceGenerator(7, 3, 30, 10, 60, 1).generate(2000);
+        int tasks = 0;
+        for (TraceJob job : trace) {
+            tasks += job.getTaskRuntimesMillis().size();
+        }
+
+        SimulationReport report = new Simulator(new VirtualClock(), new FifoSchedulerPolicy(),
+            user -> new TaskQueue(user, user), null, 8).run(trace);
+
+        Assert.assertEquals(tasks, report.getTasks());
+        Assert.assertEquals(3, report.getMeanSlowdownByUser().size());
+        Assert.assertTrue(report.getUtilization() > 0 && report.getUtilization() <= 1);
+        Assert.assertTrue(report.getFairness() > 1.0 / 3 && report.getFairness() <= 1.0 + 1e-9);
+    }
+}